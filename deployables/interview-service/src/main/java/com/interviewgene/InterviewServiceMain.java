@@ -5,11 +5,15 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableCaching
 @EnableDiscoveryClient
 @EnableFeignClients
+@EnableScheduling
+@EnableAsync
 public class InterviewServiceMain {
     public static void main(String[] args) {
         SpringApplication.run(InterviewServiceMain.class, args);
@@ -0,0 +1,278 @@
+package com.interviewgene.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateTimeDeserializer;
+import com.interviewgene.service.SessionBroadcastRelay;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Negotiates CBOR payloads for STOMP connections that ask for them, keeping JSON as the default.
+ * <p>
+ * A client on {@code /ws-native} opts in by sending {@code payload-format:cbor} on its CONNECT
+ * frame. Frames to that connection are then re-encoded from the broker's JSON to CBOR and sent as
+ * binary WebSocket frames with {@code content-type:application/octet-stream} and the same
+ * {@code payload-format} header. SockJS only carries text, so {@code /ws} always stays on JSON.
+ * <p>
+ * Frames are decoded from JSON into the payload class named by the
+ * {@link SessionBroadcastRelay#PAYLOAD_TYPE_HEADER} header, which the relays set on frames sent on
+ * this node and on frames relayed from another, and re-encoded with the typed CBOR mapper. A CBOR
+ * client therefore sees UUIDs as 16-byte binary and timestamps as epoch milliseconds whichever node
+ * sent the frame. Frames without a known payload class are transcoded from the JSON tree. Each
+ * broadcast is re-encoded once however many CBOR subscribers it has: results are cached against the
+ * shared JSON byte array, which the broker hands to every subscriber. Clients may send CBOR too,
+ * with {@code content-type:application/cbor}.
+ */
+@Component
+@Slf4j
+public class BinaryPayloadCodec implements ChannelInterceptor, HandshakeInterceptor {
+
+    public static final String FORMAT_HEADER = "payload-format";
+    public static final String CBOR_FORMAT = "cbor";
+    public static final MimeType APPLICATION_CBOR = new MimeType("application", "cbor");
+
+    private static final String BINARY_TRANSPORT_ATTRIBUTE = BinaryPayloadCodec.class.getName() + ".binaryTransport";
+    private static final String PAYLOAD_PACKAGE = "com.interviewgene.dto.";
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private final ObjectMapper objectMapper;
+    private final CBORMapper cborMapper = createCborMapper();
+    private final boolean enabled;
+    private final Set<String> cborConnections = ConcurrentHashMap.newKeySet();
+    private final Map<byte[], byte[]> encodedByJson = Collections.synchronizedMap(new WeakHashMap<>());
+    private final Map<String, Optional<Class<?>>> payloadTypes = new ConcurrentHashMap<>();
+
+    private final Counter jsonBytes;
+    private final Counter cborBytes;
+
+    public BinaryPayloadCodec(ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry,
+                              @Value("${interview.realtime.binary-payloads.enabled:true}") boolean enabled) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+
+        this.jsonBytes = Counter.builder("interview.realtime.payload.bytes").tag("format", "json")
+                .description("JSON bytes of frames re-encoded for binary connections")
+                .register(meterRegistry);
+        this.cborBytes = Counter.builder("interview.realtime.payload.bytes").tag("format", "cbor")
+                .description("CBOR bytes actually sent for those frames")
+                .register(meterRegistry);
+    }
+
+    /**
+     * CBOR mapper used for interaction and session event payloads in both directions. UUIDs are
+     * written as 16-byte binary and dates as epoch milliseconds in the server's zone; strings are
+     * accepted for both on the way in.
+     */
+    public static CBORMapper createCborMapper() {
+        SimpleModule epochDates = new SimpleModule("EpochDates")
+                .addSerializer(LocalDateTime.class, new EpochMillisSerializer())
+                .addDeserializer(LocalDateTime.class, new EpochMillisDeserializer());
+        return CBORMapper.builder()
+                .findAndAddModules()
+                .addModule(epochDates)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .build();
+    }
+
+    /**
+     * Converter for inbound {@code application/cbor} frames
+     */
+    public MessageConverter inboundConverter() {
+        MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter(APPLICATION_CBOR);
+        converter.setObjectMapper(cborMapper);
+        return converter;
+    }
+
+    /**
+     * Interceptor for {@code clientInboundChannel} that records which connections asked for CBOR on CONNECT
+     */
+    public ChannelInterceptor negotiationInterceptor() {
+        return new ChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                if (enabled && SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) == SimpMessageType.CONNECT) {
+                    negotiate(message);
+                }
+                return message;
+            }
+        };
+    }
+
+    /**
+     * Marks connections made over a raw WebSocket, the only transport that can carry binary frames
+     */
+    @Override
+    public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                   WebSocketHandler wsHandler, Map<String, Object> attributes) {
+        attributes.put(BINARY_TRANSPORT_ATTRIBUTE, Boolean.TRUE);
+        return true;
+    }
+
+    @Override
+    public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                               WebSocketHandler wsHandler, Exception exception) {
+    }
+
+    /**
+     * Re-encodes outbound frames for connections that negotiated CBOR
+     */
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        if (!enabled || cborConnections.isEmpty()
+                || SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE
+                || !(message.getPayload() instanceof byte[] json)) {
+            return message;
+        }
+
+        String connectionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        if (connectionId == null || !cborConnections.contains(connectionId) || !isJson(message.getHeaders())) {
+            return message;
+        }
+
+        // Concurrent subscribers may both encode a frame the first time; that is cheaper than holding the lock
+        byte[] cbor = encodedByJson.get(json);
+        if (cbor == null) {
+            cbor = transcode(json, message.getHeaders().get(SessionBroadcastRelay.PAYLOAD_TYPE_HEADER));
+            encodedByJson.put(json, cbor);
+        }
+
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_OCTET_STREAM);
+        accessor.setNativeHeader(FORMAT_HEADER, CBOR_FORMAT);
+        return MessageBuilder.createMessage(cbor, accessor.getMessageHeaders());
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        cborConnections.remove(event.getSessionId());
+    }
+
+    private void negotiate(Message<?> message) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() != StompCommand.CONNECT
+                || !CBOR_FORMAT.equalsIgnoreCase(accessor.getFirstNativeHeader(FORMAT_HEADER))) {
+            return;
+        }
+
+        Map<String, Object> attributes = accessor.getSessionAttributes();
+        if (attributes != null && Boolean.TRUE.equals(attributes.get(BINARY_TRANSPORT_ATTRIBUTE))) {
+            cborConnections.add(accessor.getSessionId());
+            log.debug("Connection {} negotiated CBOR payloads", accessor.getSessionId());
+        } else {
+            log.debug("Connection {} asked for CBOR over a text-only transport, staying on JSON", accessor.getSessionId());
+        }
+    }
+
+    private static boolean isJson(MessageHeaders headers) {
+        Object contentType = headers.get(MessageHeaders.CONTENT_TYPE);
+        MimeType mimeType = contentType instanceof MimeType type ? type
+                : contentType instanceof String value ? MimeTypeUtils.parseMimeType(value) : null;
+        return mimeType != null && MimeTypeUtils.APPLICATION_JSON.isCompatibleWith(mimeType);
+    }
+
+    private byte[] transcode(byte[] json, Object payloadType) {
+        try {
+            Class<?> type = payloadType instanceof String name ? resolve(name) : null;
+            byte[] cbor = type != null
+                    ? cborMapper.writeValueAsBytes(objectMapper.readValue(json, type))
+                    : cborMapper.writeValueAsBytes(objectMapper.readTree(json));
+            jsonBytes.increment(json.length);
+            cborBytes.increment(cbor.length);
+            return cbor;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode frame as CBOR", e);
+        }
+    }
+
+    /**
+     * Payload class for a type header; only DTOs are instantiated, since relayed headers come from the network
+     */
+    private Class<?> resolve(String name) {
+        return payloadTypes.computeIfAbsent(name, key -> {
+            if (!key.startsWith(PAYLOAD_PACKAGE)) {
+                return Optional.empty();
+            }
+            try {
+                return Optional.of(ClassUtils.forName(key, BinaryPayloadCodec.class.getClassLoader()));
+            } catch (ClassNotFoundException | LinkageError e) {
+                log.warn("Unknown payload type {}, transcoding its frames from the JSON tree", key);
+                return Optional.empty();
+            }
+        }).orElse(null);
+    }
+
+    private static final class EpochMillisSerializer extends StdSerializer<LocalDateTime> {
+
+        EpochMillisSerializer() {
+            super(LocalDateTime.class);
+        }
+
+        @Override
+        public void serialize(LocalDateTime value, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            generator.writeNumber(value.atZone(ZONE).toInstant().toEpochMilli());
+        }
+    }
+
+    private static final class EpochMillisDeserializer extends StdDeserializer<LocalDateTime> {
+
+        EpochMillisDeserializer() {
+            super(LocalDateTime.class);
+        }
+
+        @Override
+        public LocalDateTime deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            if (parser.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+                return LocalDateTime.ofInstant(Instant.ofEpochMilli(parser.getLongValue()), ZONE);
+            }
+            return LocalDateTimeDeserializer.INSTANCE.deserialize(parser, context);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.interviewgene.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * Infrastructure for fanning session messages out across interview-service nodes.
+ * Select the relay with {@code interview.realtime.relay=local|redis} (default: local).
+ */
+@Configuration
+public class BroadcastRelayConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "interview.realtime.relay", havingValue = "redis")
+    public RedisMessageListenerContainer sessionRelayListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
+}
@@ -0,0 +1,131 @@
+package com.interviewgene.config;
+
+import com.interviewgene.common.exception.ServiceUnavailableException;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps how many threads can be inside a transactional service call at once, sized from the
+ * HikariCP pool.
+ * <p>
+ * On virtual threads nothing bounds request concurrency any more, so thousands of callers would
+ * otherwise queue inside Hikari, hold carrier threads while the JDBC driver blocks, and fail only
+ * after the full connection timeout. Here callers wait briefly for a permit before the transaction
+ * opens and are rejected with a {@link ServiceUnavailableException} when the pool stays saturated.
+ * Nested transactional calls on the same thread reuse the outer permit.
+ * <p>
+ * Enabled by default when {@code spring.threads.virtual.enabled} is set, and runs outside the
+ * transaction interceptor.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Slf4j
+public class ConnectionPoolConcurrencyLimiter {
+
+    private static final ThreadLocal<int[]> DEPTH = ThreadLocal.withInitial(() -> new int[1]);
+
+    private final boolean enabled;
+    private final Duration acquireTimeout;
+    private final Semaphore permits;
+    private final int limit;
+
+    private final Counter rejected;
+    private final Timer waitTime;
+
+    public ConnectionPoolConcurrencyLimiter(DataSource dataSource,
+                                            MeterRegistry meterRegistry,
+                                            @Value("${interview.datasource.limiter.enabled:${spring.threads.virtual.enabled:false}}") boolean enabled,
+                                            @Value("${interview.datasource.limiter.acquire-timeout:2s}") Duration acquireTimeout,
+                                            @Value("${interview.datasource.limiter.reserved-connections:1}") int reservedConnections,
+                                            @Value("${interview.datasource.limiter.default-limit:10}") int defaultLimit) {
+        this.enabled = enabled;
+        this.acquireTimeout = acquireTimeout;
+        this.limit = Math.max(1, poolSize(dataSource, defaultLimit) - reservedConnections);
+        this.permits = new Semaphore(limit, true);
+
+        Gauge.builder("interview.datasource.limiter.available", permits, Semaphore::availablePermits)
+                .description("Transactional calls that can start without waiting")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("interview.datasource.limiter.rejected")
+                .description("Calls rejected because the connection pool stayed saturated")
+                .register(meterRegistry);
+        this.waitTime = Timer.builder("interview.datasource.limiter.wait")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+
+        if (enabled) {
+            log.info("Limiting concurrent transactional calls to {} (acquire timeout: {})", limit, acquireTimeout);
+        }
+    }
+
+    @Around("within(com.interviewgene..*) && (@within(org.springframework.transaction.annotation.Transactional) "
+            + "|| @annotation(org.springframework.transaction.annotation.Transactional))")
+    public Object limit(ProceedingJoinPoint joinPoint) throws Throwable {
+        int[] depth = DEPTH.get();
+        if (!enabled || depth[0] > 0) {
+            depth[0]++;
+            try {
+                return joinPoint.proceed();
+            } finally {
+                depth[0]--;
+            }
+        }
+
+        acquire(joinPoint);
+        depth[0]++;
+        try {
+            return joinPoint.proceed();
+        } finally {
+            depth[0]--;
+            permits.release();
+        }
+    }
+
+    private void acquire(ProceedingJoinPoint joinPoint) {
+        long started = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        waitTime.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+
+        if (!acquired) {
+            rejected.increment();
+            log.warn("Rejected {}: all {} database permits busy for {}",
+                    joinPoint.getSignature().toShortString(), limit, acquireTimeout);
+            throw new ServiceUnavailableException("Database is busy, please retry");
+        }
+    }
+
+    private static int poolSize(DataSource dataSource, int defaultLimit) {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+            }
+        } catch (SQLException e) {
+            log.warn("Could not read the connection pool size, using {}: {}", defaultLimit, e.getMessage());
+        }
+        return defaultLimit;
+    }
+}
@@ -0,0 +1,28 @@
+package com.interviewgene.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * JDBC batching for Hibernate writes. Inserts are ordered by entity, so saving many sessions sends
+ * one batched statement for {@code interview_sessions} and one for {@code session_metadata}
+ * instead of alternating between them. MySQL only collapses a batch into a multi-row insert with
+ * {@code rewriteBatchedStatements=true} on the JDBC URL.
+ */
+@Configuration
+public class JpaBatchingConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer jdbcBatchingCustomizer(
+            @Value("${interview.jpa.batch-size:50}") int batchSize) {
+        return properties -> {
+            properties.putIfAbsent(AvailableSettings.STATEMENT_BATCH_SIZE, batchSize);
+            properties.putIfAbsent(AvailableSettings.ORDER_INSERTS, true);
+            properties.putIfAbsent(AvailableSettings.ORDER_UPDATES, true);
+            properties.putIfAbsent(AvailableSettings.BATCH_VERSIONED_DATA, true);
+        };
+    }
+}
@@ -0,0 +1,74 @@
+package com.interviewgene.config;
+
+import com.interviewgene.service.PresenceRegistry;
+import com.interviewgene.service.SessionOwnershipRing;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Rejects WebSocket handshakes for sessions owned by another instance with a redirect hint.
+ * <p>
+ * Clients pass the interview session as the {@code sessionId} query parameter on {@code /ws} or
+ * {@code /ws-native}. When another node owns it the handshake fails with 307 and the owner's
+ * URL in {@code Location} and {@value #OWNER_HEADER}, so both participants end up on the same node.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SessionAffinityHandshakeInterceptor implements HandshakeInterceptor {
+
+    public static final String OWNER_HEADER = "X-Session-Owner";
+
+    private final SessionOwnershipRing ownershipRing;
+
+    @Override
+    public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                   WebSocketHandler wsHandler, Map<String, Object> attributes) {
+        String sessionParam = UriComponentsBuilder.fromUri(request.getURI()).build()
+                .getQueryParams().getFirst("sessionId");
+        if (sessionParam == null) {
+            return true;
+        }
+
+        UUID sessionId;
+        try {
+            sessionId = UUID.fromString(sessionParam);
+        } catch (IllegalArgumentException e) {
+            return true;
+        }
+        // Lets presence tracking place the connection in its session as soon as it connects
+        attributes.put(PresenceRegistry.SESSION_ID_ATTRIBUTE, sessionId);
+
+        Optional<ServiceInstance> owner = ownershipRing.remoteOwner(sessionId);
+        if (owner.isEmpty()) {
+            return true;
+        }
+
+        URI target = SessionOwnershipRing.redirectUri(owner.get(), request.getURI());
+        log.debug("Redirecting handshake for session {} to owner {}", sessionId, owner.get().getInstanceId());
+
+        response.setStatusCode(HttpStatus.TEMPORARY_REDIRECT);
+        response.getHeaders().set(HttpHeaders.LOCATION, target.toString());
+        response.getHeaders().set(OWNER_HEADER, owner.get().getInstanceId());
+        return false;
+    }
+
+    @Override
+    public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                               WebSocketHandler wsHandler, Exception exception) {
+    }
+}
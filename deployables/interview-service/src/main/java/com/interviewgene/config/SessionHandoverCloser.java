@@ -0,0 +1,103 @@
+package com.interviewgene.config;
+
+import com.interviewgene.service.PresenceRegistry;
+import com.interviewgene.service.SessionOwnershipChangedEvent;
+import com.interviewgene.service.SessionOwnershipRing;
+import com.interviewgene.service.SessionSubscriptionRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Moves connected clients to the new owner when a rebalance takes their session away from this node.
+ * <p>
+ * Every WebSocket connection is tracked while it is open. When ownership changes, connections
+ * subscribed to a session this node no longer owns, or opened for it with the {@code sessionId}
+ * handshake parameter, are closed with {@link CloseStatus#SERVICE_RESTARTED}. The client
+ * reconnects, {@link SessionAffinityHandshakeInterceptor} redirects it to the owner, and it resyncs
+ * from its last sequence number there. Runs before the listeners that hand over per-session
+ * state, so no new writes for a moved session start while they drain.
+ */
+@Component
+@Slf4j
+public class SessionHandoverCloser implements WebSocketHandlerDecoratorFactory {
+
+    private final SessionSubscriptionRegistry subscriptionRegistry;
+    private final ConcurrentMap<String, WebSocketSession> connections = new ConcurrentHashMap<>();
+
+    private final Counter closed;
+
+    public SessionHandoverCloser(SessionSubscriptionRegistry subscriptionRegistry, MeterRegistry meterRegistry) {
+        this.subscriptionRegistry = subscriptionRegistry;
+        this.closed = Counter.builder("interview.realtime.affinity.handover.closed")
+                .description("Connections closed because their session moved to another node")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                connections.put(session.getId(), session);
+                super.afterConnectionEstablished(session);
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                connections.remove(session.getId());
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onOwnershipChanged(SessionOwnershipChangedEvent event) {
+        SessionOwnershipRing ring = event.getRing();
+        Set<String> moved = new HashSet<>();
+        for (UUID sessionId : subscriptionRegistry.hostedSessions()) {
+            if (!ring.isLocal(sessionId)) {
+                moved.addAll(subscriptionRegistry.connectionsOf(sessionId));
+            }
+        }
+        connections.forEach((connectionId, session) -> {
+            if (session.getAttributes().get(PresenceRegistry.SESSION_ID_ATTRIBUTE) instanceof UUID sessionId
+                    && !ring.isLocal(sessionId)) {
+                moved.add(connectionId);
+            }
+        });
+
+        for (String connectionId : moved) {
+            WebSocketSession session = connections.get(connectionId);
+            if (session == null || !session.isOpen()) {
+                continue;
+            }
+            try {
+                session.close(CloseStatus.SERVICE_RESTARTED);
+                closed.increment();
+            } catch (IOException e) {
+                log.warn("Failed to close connection {} after its session moved: {}", connectionId, e.getMessage());
+            }
+        }
+        if (!moved.isEmpty()) {
+            log.info("Closed {} connections for sessions that moved to another node", moved.size());
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.interviewgene.config;
+
+import com.interviewgene.service.SessionBroadcastRelay;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Watches the outbound backlog of every WebSocket connection and sheds low-priority frames for
+ * clients that cannot keep up.
+ * <p>
+ * Frames accepted on {@code clientOutboundChannel} are counted per connection, and frames actually
+ * written to the socket are counted by a session decorator. The difference is what Spring is
+ * holding in that connection's send buffer. Once it passes the soft limit the connection is
+ * treated as a slow consumer and frames marked {@link SessionBroadcastRelay.Priority#LOW}, such as
+ * typing and presence, are dropped before they are buffered. Interactions are never dropped here;
+ * if the backlog keeps growing, the send buffer and send time limits in {@link WebSocketConfig}
+ * close the connection and the client resyncs from its last sequence number.
+ */
+@Component
+@Slf4j
+public class SlowConsumerGuard implements ChannelInterceptor, WebSocketHandlerDecoratorFactory {
+
+    private final int softBacklogLimit;
+    private final ConcurrentMap<String, ConnectionBacklog> connections = new ConcurrentHashMap<>();
+    private final AtomicInteger slowConnections = new AtomicInteger();
+
+    private final Counter slowConsumerEvents;
+    private final Counter droppedFrames;
+    private final Timer writeTime;
+
+    public SlowConsumerGuard(MeterRegistry meterRegistry,
+                             @Value("${interview.realtime.outbound.soft-backlog:32}") int softBacklogLimit) {
+        this.softBacklogLimit = softBacklogLimit;
+
+        Gauge.builder("interview.realtime.outbound.slow_connections", slowConnections, AtomicInteger::get)
+                .description("Connections currently above the soft outbound backlog limit")
+                .register(meterRegistry);
+        this.slowConsumerEvents = Counter.builder("interview.realtime.outbound.slow_consumers")
+                .description("Times a connection crossed the soft outbound backlog limit")
+                .register(meterRegistry);
+        this.droppedFrames = Counter.builder("interview.realtime.outbound.dropped")
+                .description("Low-priority frames dropped for slow consumers")
+                .register(meterRegistry);
+        this.writeTime = Timer.builder("interview.realtime.outbound.write")
+                .description("Time to write one frame to a client socket")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        String connectionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        ConnectionBacklog backlog = connectionId != null ? connections.get(connectionId) : null;
+        if (backlog == null) {
+            return message;
+        }
+
+        int pending = backlog.accepted.get() - backlog.written.get();
+        if (pending >= softBacklogLimit) {
+            if (backlog.slow.compareAndSet(false, true)) {
+                slowConnections.incrementAndGet();
+                slowConsumerEvents.increment();
+                log.warn("Connection {} is a slow consumer with {} frames buffered", connectionId, pending);
+            }
+            if (message.getHeaders().get(SessionBroadcastRelay.PRIORITY_HEADER) == SessionBroadcastRelay.Priority.LOW) {
+                droppedFrames.increment();
+                return null;
+            }
+        } else if (backlog.slow.compareAndSet(true, false)) {
+            slowConnections.decrementAndGet();
+            log.info("Connection {} caught up", connectionId);
+        }
+
+        backlog.accepted.incrementAndGet();
+        return message;
+    }
+
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                ConnectionBacklog backlog = new ConnectionBacklog();
+                connections.put(session.getId(), backlog);
+                super.afterConnectionEstablished(new CountingSession(session, backlog));
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                ConnectionBacklog backlog = connections.remove(session.getId());
+                if (backlog != null && backlog.slow.get()) {
+                    slowConnections.decrementAndGet();
+                }
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    private final class CountingSession extends WebSocketSessionDecorator {
+        private final ConnectionBacklog backlog;
+
+        private CountingSession(WebSocketSession session, ConnectionBacklog backlog) {
+            super(session);
+            this.backlog = backlog;
+        }
+
+        @Override
+        public void sendMessage(WebSocketMessage<?> message) throws IOException {
+            long started = System.nanoTime();
+            try {
+                super.sendMessage(message);
+            } finally {
+                backlog.written.incrementAndGet();
+                writeTime.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private static final class ConnectionBacklog {
+        private final AtomicInteger accepted = new AtomicInteger();
+        private final AtomicInteger written = new AtomicInteger();
+        private final AtomicBoolean slow = new AtomicBoolean();
+    }
+}
@@ -1,23 +1,76 @@
 package com.interviewgene.config;
 
+import com.interviewgene.service.PresenceRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+
+import java.time.Duration;
+import java.util.List;
 
 /**
  * WebSocket configuration for real-time interview interactions
  */
 @Configuration
 @EnableWebSocketMessageBroker
+@RequiredArgsConstructor
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final SessionAffinityHandshakeInterceptor sessionAffinityHandshakeInterceptor;
+    private final SlowConsumerGuard slowConsumerGuard;
+    private final SessionHandoverCloser sessionHandoverCloser;
+    private final BinaryPayloadCodec binaryPayloadCodec;
+    private final PresenceRegistry presenceRegistry;
+
+    @Autowired
+    @Lazy
+    private TaskScheduler messageBrokerTaskScheduler;
+
+    @Value("${interview.realtime.heartbeat.server:10s}")
+    private Duration serverHeartbeat;
+
+    @Value("${interview.realtime.heartbeat.client:10s}")
+    private Duration clientHeartbeat;
+
+    @Value("${interview.realtime.outbound.send-time-limit:5s}")
+    private Duration sendTimeLimit;
+
+    @Value("${interview.realtime.outbound.send-buffer-size-limit:256KB}")
+    private DataSize sendBufferSizeLimit;
+
+    @Value("${interview.realtime.outbound.message-size-limit:128KB}")
+    private DataSize messageSizeLimit;
+
+    @Value("${interview.realtime.outbound.threads:0}")
+    private int outboundThreads;
+
+    @Value("${interview.realtime.virtual-threads.max-concurrency:10000}")
+    private int virtualThreadConcurrency;
+
+    private final Environment environment;
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
         // Enable a simple memory-based message broker to carry messages back to the client
         // on destinations prefixed with "/topic" and "/queue"
-        config.enableSimpleBroker("/topic", "/queue");
+        config.enableSimpleBroker("/topic", "/queue")
+                // Heartbeats keep presence fresh and let the broker close sockets that went silent
+                .setHeartbeatValue(new long[]{serverHeartbeat.toMillis(), clientHeartbeat.toMillis()})
+                .setTaskScheduler(messageBrokerTaskScheduler);
         
         // Designate the "/app" prefix for messages that are bound for methods
         // annotated with @MessageMapping
@@ -32,10 +85,61 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         // Register the "/ws" endpoint for WebSocket connections
         registry.addEndpoint("/ws")
                 .setAllowedOriginPatterns("*") // Configure based on your security requirements
+                .addInterceptors(sessionAffinityHandshakeInterceptor)
                 .withSockJS(); // Enable SockJS fallback options
         
-        // Register endpoint without SockJS for native WebSocket clients
+        // Register endpoint without SockJS for native WebSocket clients, which may negotiate CBOR payloads
         registry.addEndpoint("/ws-native")
-                .setAllowedOriginPatterns("*");
+                .setAllowedOriginPatterns("*")
+                .addInterceptors(sessionAffinityHandshakeInterceptor, binaryPayloadCodec);
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        // Bound what a single slow connection can hold: a connection whose send buffer or blocked
+        // send exceeds these limits is closed instead of tying up outbound threads for everyone
+        registration.setSendTimeLimit(Math.toIntExact(sendTimeLimit.toMillis()))
+                .setSendBufferSizeLimit(Math.toIntExact(sendBufferSizeLimit.toBytes()))
+                .setMessageSizeLimit(Math.toIntExact(messageSizeLimit.toBytes()))
+                .addDecoratorFactory(slowConsumerGuard)
+                .addDecoratorFactory(sessionHandoverCloser);
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(binaryPayloadCodec.negotiationInterceptor(), presenceRegistry);
+        if (Threading.VIRTUAL.isActive(environment)) {
+            registration.executor(virtualThreadChannelExecutor("stomp-inbound-"));
+        }
+    }
+
+    @Override
+    public boolean configureMessageConverters(List<MessageConverter> messageConverters) {
+        // Accept CBOR from binary clients alongside the default JSON converters
+        messageConverters.add(binaryPayloadCodec.inboundConverter());
+        return true;
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        // Shed typing and presence frames for connections that are falling behind, then re-encode
+        // what is left for connections that negotiated a binary payload format
+        registration.interceptors(slowConsumerGuard, binaryPayloadCodec);
+        if (Threading.VIRTUAL.isActive(environment)) {
+            registration.executor(virtualThreadChannelExecutor("stomp-outbound-"));
+        } else if (outboundThreads > 0) {
+            registration.taskExecutor().corePoolSize(outboundThreads).maxPoolSize(outboundThreads);
+        }
+    }
+
+    /**
+     * Channel executor that runs each message on its own virtual thread, with at most
+     * {@code virtual-threads.max-concurrency} messages in flight; further messages wait for a slot
+     */
+    private SimpleAsyncTaskExecutor virtualThreadChannelExecutor(String threadNamePrefix) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(virtualThreadConcurrency);
+        return executor;
     }
 }
\ No newline at end of file
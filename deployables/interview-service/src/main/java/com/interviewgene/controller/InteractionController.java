@@ -1,16 +1,31 @@
 package com.interviewgene.controller;
 
+import com.interviewgene.dto.CursorPage;
+import com.interviewgene.config.SessionAffinityHandshakeInterceptor;
+import com.interviewgene.dto.InteractionBatchResponse;
 import com.interviewgene.dto.InteractionMessage;
+import com.interviewgene.service.InteractionBatchIngestService;
+import com.interviewgene.service.InteractionExportService;
 import com.interviewgene.service.RealTimeHandler;
+import com.interviewgene.service.SessionMailboxExecutor;
+import com.interviewgene.service.SessionOwnershipRing;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.ServiceInstance;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.net.URI;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletionException;
 
 /**
  * REST controller for managing session interactions
@@ -22,33 +37,93 @@ import java.util.UUID;
 public class InteractionController {
 
     private final RealTimeHandler realTimeHandler;
+    private final InteractionExportService exportService;
+    private final InteractionBatchIngestService batchIngestService;
+    private final SessionMailboxExecutor mailboxExecutor;
+    private final SessionOwnershipRing ownershipRing;
 
     /**
-     * Get all interactions for a session
+     * Get a page of interactions for a session, starting after {@code cursor} or, for the first page,
+     * after {@code lastSequenceNumber}
      */
     @GetMapping
-    public ResponseEntity<List<InteractionMessage>> getSessionInteractions(@PathVariable UUID sessionId) {
-        log.debug("Getting interactions for session: {}", sessionId);
-        
-        List<InteractionMessage> interactions = realTimeHandler.getSessionInteractions(sessionId);
+    public ResponseEntity<CursorPage<InteractionMessage>> getSessionInteractions(
+            @PathVariable UUID sessionId,
+            @RequestParam(required = false) Integer lastSequenceNumber,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        log.debug("Getting interactions for session: {} after sequence: {}", sessionId, lastSequenceNumber);
+
+        CursorPage<InteractionMessage> interactions =
+                realTimeHandler.getSessionInteractionsPage(sessionId, lastSequenceNumber, cursor, limit);
         return ResponseEntity.ok(interactions);
     }
 
     /**
-     * Get interactions within a time range
+     * Get a page of interactions within a time range
      */
     @GetMapping("/range")
-    public ResponseEntity<List<InteractionMessage>> getSessionInteractionsInRange(
+    public ResponseEntity<CursorPage<InteractionMessage>> getSessionInteractionsInRange(
             @PathVariable UUID sessionId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime) {
-        
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+
         log.debug("Getting interactions for session: {} between {} and {}", sessionId, startTime, endTime);
-        
-        List<InteractionMessage> interactions = realTimeHandler.getSessionInteractions(sessionId, startTime, endTime);
+
+        CursorPage<InteractionMessage> interactions =
+                realTimeHandler.getSessionInteractionsPage(sessionId, startTime, endTime, cursor, limit);
         return ResponseEntity.ok(interactions);
     }
 
+    /**
+     * Stream all interactions for a session, or only those after {@code lastSequenceNumber}, as NDJSON
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportSessionInteractions(
+            @PathVariable UUID sessionId,
+            @RequestParam(required = false) Integer lastSequenceNumber) {
+        log.debug("Exporting interactions for session: {} after sequence: {}", sessionId, lastSequenceNumber);
+
+        exportService.checkExportable(sessionId);
+        StreamingResponseBody body = out -> exportService.exportNdjson(sessionId, lastSequenceNumber, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    /**
+     * Store an ordered batch of interactions, e.g. replayed after a client was offline. Requests
+     * reaching a node that does not own the session are redirected to the owner.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<InteractionBatchResponse> ingestInteractions(
+            @PathVariable UUID sessionId,
+            @RequestBody List<InteractionMessage> interactions,
+            @RequestHeader(value = "X-User-ID", required = false) UUID userId) {
+        Optional<ServiceInstance> owner = ownershipRing.remoteOwner(sessionId);
+        if (owner.isPresent()) {
+            URI target = SessionOwnershipRing.redirectUri(owner.get(),
+                    ServletUriComponentsBuilder.fromCurrentRequest().build(true).toUri());
+            log.debug("Redirecting batch for session {} to owner {}", sessionId, target);
+            return ResponseEntity.status(HttpStatus.TEMPORARY_REDIRECT)
+                    .location(target)
+                    .header(SessionAffinityHandshakeInterceptor.OWNER_HEADER, owner.get().getInstanceId())
+                    .build();
+        }
+        log.info("Ingesting {} interactions for session: {}", interactions.size(), sessionId);
+
+        InteractionBatchResponse response;
+        try {
+            response = mailboxExecutor.call(sessionId,
+                    () -> batchIngestService.ingest(sessionId, userId, interactions)).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
     /**
      * Delete an interaction
      */
@@ -3,11 +3,14 @@ package com.interviewgene.controller;
 import com.interviewgene.dto.InteractionMessage;
 import com.interviewgene.model.SessionInteraction;
 import com.interviewgene.service.RealTimeHandler;
+import com.interviewgene.service.SessionMailboxExecutor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.messaging.simp.annotation.SubscribeMapping;
 import org.springframework.stereotype.Controller;
 
@@ -25,6 +28,7 @@ import java.util.UUID;
 public class RealTimeController {
 
     private final RealTimeHandler realTimeHandler;
+    private final SessionMailboxExecutor mailboxExecutor;
 
     /**
      * Handle new interaction messages
@@ -39,10 +43,11 @@ public class RealTimeController {
         message.setSessionId(sessionId);
         message.setTimestamp(LocalDateTime.now());
         
-        // Process the interaction
-        SessionInteraction savedInteraction = realTimeHandler.processInteraction(message);
-        
-        log.debug("Processed interaction: {}", savedInteraction.getInteractionId());
+        // Process the interaction in order with everything else for this session
+        mailboxExecutor.submit(sessionId, () -> {
+            SessionInteraction savedInteraction = realTimeHandler.processInteraction(message);
+            log.debug("Processed interaction: {}", savedInteraction.getInteractionId());
+        });
     }
 
     /**
@@ -55,39 +60,75 @@ public class RealTimeController {
         log.debug("Received typing indicator for session: {} from user: {}", sessionId, principal.getName());
 
         UUID participantId = UUID.fromString(principal.getName());
-        realTimeHandler.handleTypingIndicator(sessionId, participantId, typingIndicator.isTyping());
+        mailboxExecutor.submit(sessionId,
+                () -> realTimeHandler.handleTypingIndicator(sessionId, participantId, typingIndicator.isTyping()));
     }
 
     /**
      * Handle participant joining session
      */
     @MessageMapping("/session/{sessionId}/join")
-    public void handleJoinSession(@DestinationVariable UUID sessionId, Principal principal) {
+    public void handleJoinSession(@DestinationVariable UUID sessionId,
+                                  @Header(SimpMessageHeaderAccessor.SESSION_ID_HEADER) String connectionId,
+                                  Principal principal) {
         log.info("User {} joining session: {}", principal.getName(), sessionId);
 
         UUID participantId = UUID.fromString(principal.getName());
-        realTimeHandler.handleParticipantJoined(sessionId, participantId);
+        mailboxExecutor.submit(sessionId,
+                () -> realTimeHandler.handleParticipantJoined(sessionId, participantId, connectionId));
     }
 
     /**
      * Handle participant leaving session
      */
     @MessageMapping("/session/{sessionId}/leave")
-    public void handleLeaveSession(@DestinationVariable UUID sessionId, Principal principal) {
+    public void handleLeaveSession(@DestinationVariable UUID sessionId,
+                                   @Header(SimpMessageHeaderAccessor.SESSION_ID_HEADER) String connectionId,
+                                   Principal principal) {
         log.info("User {} leaving session: {}", principal.getName(), sessionId);
 
         UUID participantId = UUID.fromString(principal.getName());
-        realTimeHandler.handleParticipantLeft(sessionId, participantId);
+        mailboxExecutor.submit(sessionId,
+                () -> realTimeHandler.handleParticipantLeft(sessionId, participantId, connectionId));
+    }
+
+    /**
+     * Handle an observer or spectator starting to watch a session
+     */
+    @MessageMapping("/session/{sessionId}/observe")
+    public void handleObserveSession(@DestinationVariable UUID sessionId,
+                                     @Header(SimpMessageHeaderAccessor.SESSION_ID_HEADER) String connectionId,
+                                     Principal principal) {
+        log.info("User {} observing session: {}", principal.getName(), sessionId);
+
+        UUID observerId = UUID.fromString(principal.getName());
+        mailboxExecutor.submit(sessionId, () -> realTimeHandler.handleObserverJoined(sessionId, observerId, connectionId));
+    }
+
+    /**
+     * Handle an observer or spectator no longer watching a session
+     */
+    @MessageMapping("/session/{sessionId}/unobserve")
+    public void handleUnobserveSession(@DestinationVariable UUID sessionId,
+                                       @Header(SimpMessageHeaderAccessor.SESSION_ID_HEADER) String connectionId,
+                                       Principal principal) {
+        log.info("User {} no longer observing session: {}", principal.getName(), sessionId);
+
+        UUID observerId = UUID.fromString(principal.getName());
+        mailboxExecutor.submit(sessionId, () -> realTimeHandler.handleObserverLeft(sessionId, observerId, connectionId));
     }
 
     /**
-     * Subscribe to session interactions - returns existing interactions
+     * Subscribe to session interactions - returns existing interactions, or only those after the
+     * {@code lastSequenceNumber} SUBSCRIBE header when a reconnecting client sends one
      */
     @SubscribeMapping("/topic/session/{sessionId}/interactions")
-    public List<InteractionMessage> subscribeToSessionInteractions(@DestinationVariable UUID sessionId) {
-        log.info("Client subscribing to interactions for session: {}", sessionId);
+    public List<InteractionMessage> subscribeToSessionInteractions(
+            @DestinationVariable UUID sessionId,
+            @Header(name = "lastSequenceNumber", required = false) Integer lastSequenceNumber) {
+        log.info("Client subscribing to interactions for session: {} after sequence: {}", sessionId, lastSequenceNumber);
         
-        return realTimeHandler.getSessionInteractions(sessionId);
+        return realTimeHandler.getSessionInteractionsAfter(sessionId, lastSequenceNumber);
     }
 
     /**
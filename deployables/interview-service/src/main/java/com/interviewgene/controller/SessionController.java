@@ -1,17 +1,28 @@
 package com.interviewgene.controller;
 
+import com.interviewgene.dto.BulkSessionCreateRequest;
+import com.interviewgene.dto.BulkSessionCreateResponse;
+import com.interviewgene.dto.CursorPage;
 import com.interviewgene.dto.SessionCreateRequest;
+import com.interviewgene.dto.SessionOwnerResponse;
+import com.interviewgene.dto.SessionPresenceResponse;
 import com.interviewgene.dto.SessionResponse;
 import com.interviewgene.dto.SessionUpdateRequest;
+import com.interviewgene.dto.TimeSlot;
 import com.interviewgene.model.SessionStatus;
+import com.interviewgene.service.SchedulingIntervalIndex;
+import com.interviewgene.service.SessionOwnershipRing;
 import com.interviewgene.service.SessionService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -25,6 +36,8 @@ import java.util.UUID;
 public class SessionController {
 
     private final SessionService sessionService;
+    private final SessionOwnershipRing sessionOwnershipRing;
+    private final SchedulingIntervalIndex schedulingIndex;
 
     /**
      * Create a new interview session
@@ -38,6 +51,18 @@ public class SessionController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    /**
+     * Schedule many sessions at once, with a result per item
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkSessionCreateResponse> createSessions(@Valid @RequestBody BulkSessionCreateRequest request) {
+        log.info("Bulk creating {} sessions", request.getSessions().size());
+
+        BulkSessionCreateResponse response = sessionService.createSessions(request.getSessions());
+        HttpStatus status = response.getFailed() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+        return ResponseEntity.status(status).body(response);
+    }
+
     /**
      * Get session by ID
      */
@@ -74,46 +99,74 @@ public class SessionController {
     }
 
     /**
-     * Get sessions by interviewer
+     * Get a page of sessions by interviewer; pass the returned {@code nextCursor} to get the next one
      */
     @GetMapping("/interviewer/{interviewerId}")
-    public ResponseEntity<List<SessionResponse>> getSessionsByInterviewer(@PathVariable UUID interviewerId) {
+    public ResponseEntity<CursorPage<SessionResponse>> getSessionsByInterviewer(
+            @PathVariable UUID interviewerId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
         log.debug("Getting sessions for interviewer: {}", interviewerId);
-        
-        List<SessionResponse> sessions = sessionService.getSessionsByInterviewer(interviewerId);
+
+        CursorPage<SessionResponse> sessions = sessionService.getSessionsByInterviewer(interviewerId, cursor, limit);
         return ResponseEntity.ok(sessions);
     }
 
     /**
-     * Get sessions by candidate
+     * Get a page of sessions by candidate; pass the returned {@code nextCursor} to get the next one
      */
     @GetMapping("/candidate/{candidateId}")
-    public ResponseEntity<List<SessionResponse>> getSessionsByCandidate(@PathVariable UUID candidateId) {
+    public ResponseEntity<CursorPage<SessionResponse>> getSessionsByCandidate(
+            @PathVariable UUID candidateId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
         log.debug("Getting sessions for candidate: {}", candidateId);
-        
-        List<SessionResponse> sessions = sessionService.getSessionsByCandidate(candidateId);
+
+        CursorPage<SessionResponse> sessions = sessionService.getSessionsByCandidate(candidateId, cursor, limit);
         return ResponseEntity.ok(sessions);
     }
 
     /**
-     * Get sessions by status
+     * Get a page of sessions by status; pass the returned {@code nextCursor} to get the next one
      */
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<SessionResponse>> getSessionsByStatus(@PathVariable SessionStatus status) {
+    public ResponseEntity<CursorPage<SessionResponse>> getSessionsByStatus(
+            @PathVariable SessionStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
         log.debug("Getting sessions with status: {}", status);
-        
-        List<SessionResponse> sessions = sessionService.getSessionsByStatus(status);
+
+        CursorPage<SessionResponse> sessions = sessionService.getSessionsByStatus(status, cursor, limit);
         return ResponseEntity.ok(sessions);
     }
 
+    /**
+     * Earliest common free slots of the given users within {@code [from, until)}
+     */
+    @GetMapping("/slots")
+    public ResponseEntity<List<TimeSlot>> findFreeSlots(
+            @RequestParam List<UUID> userIds,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime until,
+            @RequestParam(defaultValue = "60") int durationMinutes,
+            @RequestParam(defaultValue = "5") int count) {
+        log.debug("Finding {} free slots for users: {}", count, userIds);
+
+        List<TimeSlot> slots = schedulingIndex.findCommonFreeSlots(
+                userIds, from, until, Duration.ofMinutes(durationMinutes), count);
+        return ResponseEntity.ok(slots);
+    }
+
     /**
      * Start session
      */
     @PostMapping("/{sessionId}/start")
-    public ResponseEntity<SessionResponse> startSession(@PathVariable UUID sessionId) {
+    public ResponseEntity<SessionResponse> startSession(
+            @PathVariable UUID sessionId,
+            @RequestParam(required = false) Long version) {
         log.info("Starting session: {}", sessionId);
         
-        SessionResponse response = sessionService.startSession(sessionId);
+        SessionResponse response = sessionService.startSession(sessionId, version);
         return ResponseEntity.ok(response);
     }
 
@@ -121,10 +174,12 @@ public class SessionController {
      * End session
      */
     @PostMapping("/{sessionId}/end")
-    public ResponseEntity<SessionResponse> endSession(@PathVariable UUID sessionId) {
+    public ResponseEntity<SessionResponse> endSession(
+            @PathVariable UUID sessionId,
+            @RequestParam(required = false) Long version) {
         log.info("Ending session: {}", sessionId);
         
-        SessionResponse response = sessionService.endSession(sessionId);
+        SessionResponse response = sessionService.endSession(sessionId, version);
         return ResponseEntity.ok(response);
     }
 
@@ -132,10 +187,12 @@ public class SessionController {
      * Pause session
      */
     @PostMapping("/{sessionId}/pause")
-    public ResponseEntity<SessionResponse> pauseSession(@PathVariable UUID sessionId) {
+    public ResponseEntity<SessionResponse> pauseSession(
+            @PathVariable UUID sessionId,
+            @RequestParam(required = false) Long version) {
         log.info("Pausing session: {}", sessionId);
         
-        SessionResponse response = sessionService.pauseSession(sessionId);
+        SessionResponse response = sessionService.pauseSession(sessionId, version);
         return ResponseEntity.ok(response);
     }
 
@@ -143,13 +200,47 @@ public class SessionController {
      * Cancel session
      */
     @PostMapping("/{sessionId}/cancel")
-    public ResponseEntity<SessionResponse> cancelSession(@PathVariable UUID sessionId) {
+    public ResponseEntity<SessionResponse> cancelSession(
+            @PathVariable UUID sessionId,
+            @RequestParam(required = false) Long version) {
         log.info("Cancelling session: {}", sessionId);
         
-        SessionResponse response = sessionService.cancelSession(sessionId);
+        SessionResponse response = sessionService.cancelSession(sessionId, version);
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Get the interview-service instance that hosts a session, so clients can connect to it directly
+     */
+    @GetMapping("/{sessionId}/owner")
+    public ResponseEntity<SessionOwnerResponse> getSessionOwner(@PathVariable UUID sessionId) {
+        log.debug("Getting owner for session: {}", sessionId);
+
+        SessionOwnerResponse response = sessionOwnershipRing.owner(sessionId)
+                .map(instance -> SessionOwnerResponse.builder()
+                        .sessionId(sessionId)
+                        .instanceId(instance.getInstanceId())
+                        .uri(instance.getUri().toString())
+                        .local(sessionOwnershipRing.isLocal(sessionId))
+                        .build())
+                .orElseGet(() -> SessionOwnerResponse.builder()
+                        .sessionId(sessionId)
+                        .local(true)
+                        .build());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Get who is currently connected to a session, instead of polling participant endpoints
+     */
+    @GetMapping("/{sessionId}/presence")
+    public ResponseEntity<SessionPresenceResponse> getSessionPresence(@PathVariable UUID sessionId) {
+        log.debug("Getting presence for session: {}", sessionId);
+
+        SessionPresenceResponse presence = sessionService.getSessionPresence(sessionId);
+        return ResponseEntity.ok(presence);
+    }
+
     /**
      * Get active sessions for user
      */
@@ -0,0 +1,23 @@
+package com.interviewgene.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for scheduling many interview sessions in one request. Items are validated individually,
+ * so one invalid pair does not reject the rest of the batch.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkSessionCreateRequest {
+
+    @NotEmpty(message = "At least one session is required")
+    private List<SessionCreateRequest> sessions;
+}
@@ -0,0 +1,27 @@
+package com.interviewgene.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for the per-item results of a bulk scheduling request
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkSessionCreateResponse {
+
+    private int requested;
+    private int created;
+    private int failed;
+
+    /**
+     * One result per requested session, in request order
+     */
+    private List<BulkSessionResult> results;
+}
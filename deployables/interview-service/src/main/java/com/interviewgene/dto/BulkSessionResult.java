@@ -0,0 +1,24 @@
+package com.interviewgene.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one item of a bulk scheduling request
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkSessionResult {
+
+    /**
+     * Position of the item in the request
+     */
+    private int index;
+    private boolean created;
+    private SessionResponse session;
+    private String error;
+}
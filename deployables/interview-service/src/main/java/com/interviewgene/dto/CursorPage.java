@@ -0,0 +1,27 @@
+package com.interviewgene.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    private List<T> items;
+    private int limit;
+    private boolean hasMore;
+
+    /**
+     * Opaque token for the next page, or {@code null} on the last page
+     */
+    private String nextCursor;
+}
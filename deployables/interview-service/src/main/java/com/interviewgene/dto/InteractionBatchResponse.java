@@ -0,0 +1,36 @@
+package com.interviewgene.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Result of ingesting a batch of interactions; also the payload of the consolidated
+ * INTERACTION_ADDED event
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InteractionBatchResponse {
+
+    private UUID sessionId;
+    private int count;
+
+    /**
+     * Messages skipped because their {@code messageId} was already delivered
+     */
+    private int duplicates;
+
+    private Integer firstSequenceNumber;
+    private Integer lastSequenceNumber;
+
+    /**
+     * Interaction IDs in request order
+     */
+    private List<String> messageIds;
+}
@@ -0,0 +1,24 @@
+package com.interviewgene.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * DTO describing one connected participant, observer or spectator of a session
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ParticipantPresence {
+
+    private UUID participantId;
+    private boolean online;
+    private int connections;
+    private LocalDateTime connectedSince;
+}
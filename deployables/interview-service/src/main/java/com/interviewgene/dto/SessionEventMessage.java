@@ -35,6 +35,7 @@ public class SessionEventMessage {
         PARTICIPANT_JOINED,
         PARTICIPANT_LEFT,
         INTERACTION_ADDED,
+        INTERACTIONS_DROPPED,
         STATUS_CHANGED
     }
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.interviewgene.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * DTO describing which interview-service instance hosts a session
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessionOwnerResponse {
+
+    private UUID sessionId;
+    private String instanceId;
+    private String uri;
+    private boolean local;
+}
@@ -0,0 +1,24 @@
+package com.interviewgene.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO for a point-in-time snapshot of who is connected to a session
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessionPresenceResponse {
+
+    private UUID sessionId;
+    private List<ParticipantPresence> participants;
+    private LocalDateTime timestamp;
+}
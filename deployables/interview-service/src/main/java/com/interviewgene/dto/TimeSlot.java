@@ -0,0 +1,21 @@
+package com.interviewgene.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for a free slot, from {@code start} (inclusive) to {@code end} (exclusive)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimeSlot {
+
+    private LocalDateTime start;
+    private LocalDateTime end;
+}
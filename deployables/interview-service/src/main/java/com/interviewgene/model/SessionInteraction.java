@@ -5,13 +5,20 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "session_interactions")
+@Table(
+    name = "session_interactions",
+    uniqueConstraints = @UniqueConstraint(
+        name = "uk_session_interactions_sequence",
+        columnNames = {"session_id", "sequence_number"}
+    )
+)
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -48,6 +55,7 @@ public class SessionInteraction {
     private Integer durationSeconds;
 
     @ElementCollection
+    @BatchSize(size = 100)
     @CollectionTable(
         name = "interaction_metadata",
         joinColumns = @JoinColumn(name = "interaction_id")
@@ -0,0 +1,66 @@
+package com.interviewgene.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Session lifecycle event waiting to be published, written in the same transaction as the
+ * status change it describes
+ */
+@Entity
+@Table(name = "session_outbox")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class SessionOutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "event_id")
+    private UUID eventId;
+
+    @Column(name = "session_id", nullable = false)
+    private UUID sessionId;
+
+    @Column(name = "event_type", nullable = false)
+    private String eventType;
+
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+
+    @Column(name = "attempts", nullable = false)
+    @Builder.Default
+    private int attempts = 0;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    // Helper methods
+    public boolean isPublished() {
+        return publishedAt != null;
+    }
+
+    public void markPublished(LocalDateTime now) {
+        this.publishedAt = now;
+        this.attempts++;
+        this.lastError = null;
+    }
+
+    public void recordFailure(String error) {
+        this.attempts++;
+        this.lastError = error != null && error.length() > 500 ? error.substring(0, 500) : error;
+    }
+}
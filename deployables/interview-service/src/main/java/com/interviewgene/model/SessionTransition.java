@@ -0,0 +1,62 @@
+package com.interviewgene.model;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Lifecycle transitions of an interview session: the statuses each one may start from, the status
+ * it moves to, and which timestamps it stamps. The same table drives the guarded UPDATE and the
+ * error reported when the guard rejects it.
+ */
+public enum SessionTransition {
+    START(EnumSet.of(SessionStatus.SCHEDULED, SessionStatus.ACTIVE), SessionStatus.ACTIVE, true, false,
+            "Session cannot be started in current state: "),
+    END(EnumSet.of(SessionStatus.ACTIVE), SessionStatus.COMPLETED, false, true,
+            "Only active sessions can be ended, current state: "),
+    PAUSE(EnumSet.of(SessionStatus.ACTIVE), SessionStatus.PAUSED, false, false,
+            "Only active sessions can be paused, current state: "),
+    CANCEL(EnumSet.of(SessionStatus.SCHEDULED, SessionStatus.ACTIVE, SessionStatus.PAUSED), SessionStatus.CANCELLED,
+            false, true, "Cannot cancel completed session, current state: ");
+
+    private final Set<SessionStatus> from;
+    private final SessionStatus target;
+    private final boolean stampsStart;
+    private final boolean stampsEnd;
+    private final String rejection;
+
+    SessionTransition(Set<SessionStatus> from, SessionStatus target, boolean stampsStart, boolean stampsEnd,
+                      String rejection) {
+        this.from = from;
+        this.target = target;
+        this.stampsStart = stampsStart;
+        this.stampsEnd = stampsEnd;
+        this.rejection = rejection;
+    }
+
+    public Set<SessionStatus> getFrom() {
+        return from;
+    }
+
+    public SessionStatus getTarget() {
+        return target;
+    }
+
+    public boolean stampsStart() {
+        return stampsStart;
+    }
+
+    public boolean stampsEnd() {
+        return stampsEnd;
+    }
+
+    public boolean allows(SessionStatus status) {
+        return from.contains(status);
+    }
+
+    /**
+     * Why this transition cannot be applied to a session in the given status
+     */
+    public String rejection(SessionStatus status) {
+        return rejection + status;
+    }
+}
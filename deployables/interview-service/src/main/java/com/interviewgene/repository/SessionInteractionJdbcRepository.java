@@ -0,0 +1,179 @@
+package com.interviewgene.repository;
+
+import com.interviewgene.dto.InteractionMessage;
+import com.interviewgene.model.InteractionType;
+import com.interviewgene.model.SessionInteraction;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Plain JDBC access to session interactions for write paths that bypass the persistence context.
+ * Batches are only rewritten into multi-row inserts when the MySQL driver runs with
+ * {@code rewriteBatchedStatements=true}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SessionInteractionJdbcRepository {
+
+    private static final String INSERT_INTERACTION = "INSERT INTO session_interactions " +
+            "(interaction_id, session_id, type, content, timestamp, participant_id, sequence_number, " +
+            "duration_seconds, created_by, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_METADATA = "INSERT INTO interaction_metadata " +
+            "(interaction_id, metadata_key, metadata_value) VALUES (?, ?, ?)";
+
+    private static final String SELECT_INTERACTION_PAGE = "SELECT i.interaction_id, i.type, i.content, " +
+            "i.timestamp, i.participant_id, i.sequence_number, i.duration_seconds, m.metadata_key, m.metadata_value " +
+            "FROM (SELECT interaction_id, type, content, timestamp, participant_id, sequence_number, duration_seconds " +
+            "FROM session_interactions WHERE session_id = ? AND sequence_number > ? " +
+            "ORDER BY sequence_number LIMIT ?) i " +
+            "LEFT JOIN interaction_metadata m ON m.interaction_id = i.interaction_id " +
+            "ORDER BY i.sequence_number, i.interaction_id";
+
+    private static final int ID_LOOKUP_CHUNK = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Insert interactions and their metadata as two JDBC batches.
+     * Interaction IDs, timestamps and sequence numbers must already be assigned.
+     */
+    public void batchInsert(List<SessionInteraction> interactions) {
+        if (interactions.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_INTERACTION, interactions, interactions.size(), (ps, interaction) -> {
+            ps.setString(1, interaction.getInteractionId().toString());
+            ps.setString(2, interaction.getSession().getSessionId().toString());
+            ps.setString(3, interaction.getType().name());
+            ps.setString(4, interaction.getContent());
+            ps.setTimestamp(5, Timestamp.valueOf(interaction.getTimestamp()));
+            ps.setString(6, interaction.getParticipantId().toString());
+            ps.setObject(7, interaction.getSequenceNumber(), Types.INTEGER);
+            ps.setObject(8, interaction.getDurationSeconds(), Types.INTEGER);
+            ps.setString(9, interaction.getCreatedBy() != null ? interaction.getCreatedBy().toString() : null);
+            ps.setLong(10, interaction.getVersion() != null ? interaction.getVersion() : 0L);
+        });
+
+        List<Object[]> metadataRows = new ArrayList<>();
+        for (SessionInteraction interaction : interactions) {
+            if (interaction.getMetadata() == null) {
+                continue;
+            }
+            String interactionId = interaction.getInteractionId().toString();
+            for (Map.Entry<String, String> entry : interaction.getMetadata().entrySet()) {
+                metadataRows.add(new Object[]{interactionId, entry.getKey(), entry.getValue()});
+            }
+        }
+        if (!metadataRows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_METADATA, metadataRows);
+        }
+    }
+
+    /**
+     * Insert only the interactions whose IDs are not already present, for replaying writes
+     * that may or may not have been committed before a crash
+     *
+     * @return the number of interactions inserted
+     */
+    public int insertMissing(List<SessionInteraction> interactions) {
+        Set<String> existing = new HashSet<>();
+        for (int from = 0; from < interactions.size(); from += ID_LOOKUP_CHUNK) {
+            List<SessionInteraction> chunk = interactions.subList(from, Math.min(from + ID_LOOKUP_CHUNK, interactions.size()));
+            String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+            Object[] ids = chunk.stream().map(i -> i.getInteractionId().toString()).toArray();
+            existing.addAll(jdbcTemplate.queryForList(
+                    "SELECT interaction_id FROM session_interactions WHERE interaction_id IN (" + placeholders + ")",
+                    String.class, ids));
+        }
+
+        List<SessionInteraction> missing = new ArrayList<>();
+        for (SessionInteraction interaction : interactions) {
+            if (!existing.contains(interaction.getInteractionId().toString())) {
+                missing.add(interaction);
+            }
+        }
+        batchInsert(missing);
+        return missing.size();
+    }
+
+    /**
+     * Up to {@code limit} of a session's interactions after a sequence number, in sequence order,
+     * with their metadata joined in the same query. The page is a range scan on
+     * {@code uk_session_interactions_sequence}, and its read-only transaction ends when the
+     * page has been read, so callers can page through long sessions without holding a connection.
+     */
+    @Transactional(readOnly = true)
+    public List<InteractionMessage> findPageAfter(UUID sessionId, int afterSequenceNumber, int limit) {
+        List<InteractionMessage> page = new ArrayList<>(limit);
+        InteractionRowAssembler assembler = new InteractionRowAssembler(sessionId, page::add);
+        jdbcTemplate.query(SELECT_INTERACTION_PAGE, assembler, sessionId.toString(), afterSequenceNumber, limit);
+        assembler.finish();
+        return page;
+    }
+
+    /**
+     * Folds the metadata rows of each interaction into one message, emitting it when the next
+     * interaction starts
+     */
+    private static final class InteractionRowAssembler implements RowCallbackHandler {
+        private final UUID sessionId;
+        private final Consumer<InteractionMessage> consumer;
+        private InteractionMessage current;
+
+        private InteractionRowAssembler(UUID sessionId, Consumer<InteractionMessage> consumer) {
+            this.sessionId = sessionId;
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            String interactionId = rs.getString("interaction_id");
+            if (current == null || !current.getMessageId().equals(interactionId)) {
+                finish();
+                Timestamp timestamp = rs.getTimestamp("timestamp");
+                current = InteractionMessage.builder()
+                        .sessionId(sessionId)
+                        .type(InteractionType.valueOf(rs.getString("type")))
+                        .content(rs.getString("content"))
+                        .participantId(UUID.fromString(rs.getString("participant_id")))
+                        .timestamp(timestamp != null ? timestamp.toLocalDateTime() : null)
+                        .sequenceNumber(rs.getObject("sequence_number", Integer.class))
+                        .durationSeconds(rs.getObject("duration_seconds", Integer.class))
+                        .metadata(new HashMap<>())
+                        .messageId(interactionId)
+                        .action(InteractionMessage.MessageAction.CREATE)
+                        .build();
+            }
+            String key = rs.getString("metadata_key");
+            if (key != null) {
+                current.getMetadata().put(key, rs.getString("metadata_value"));
+            }
+        }
+
+        private void finish() {
+            if (current != null) {
+                consumer.accept(current);
+                current = null;
+            }
+        }
+    }
+}
@@ -2,6 +2,8 @@ package com.interviewgene.repository;
 
 import com.interviewgene.model.InteractionType;
 import com.interviewgene.model.SessionInteraction;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -66,8 +68,9 @@ public interface SessionInteractionRepository extends JpaRepository<SessionInter
     SessionInteraction findLatestBySessionId(@Param("sessionId") UUID sessionId);
 
     /**
-     * Find interactions by sequence number range
+     * Find interactions by sequence number range, with their metadata
      */
+    @EntityGraph(attributePaths = "metadata")
     @Query("SELECT i FROM SessionInteraction i WHERE i.session.sessionId = :sessionId " +
            "AND i.sequenceNumber BETWEEN :startSeq AND :endSeq ORDER BY i.sequenceNumber ASC")
     List<SessionInteraction> findBySessionAndSequenceRange(
@@ -75,6 +78,30 @@ public interface SessionInteractionRepository extends JpaRepository<SessionInter
             @Param("startSeq") Integer startSeq,
             @Param("endSeq") Integer endSeq);
 
+    /**
+     * Page of a session's interactions after a sequence number, served by
+     * {@code uk_session_interactions_sequence}
+     */
+    @Query("SELECT i FROM SessionInteraction i WHERE i.session.sessionId = :sessionId " +
+           "AND i.sequenceNumber > :afterSeq ORDER BY i.sequenceNumber ASC")
+    List<SessionInteraction> findPageBySession(
+            @Param("sessionId") UUID sessionId,
+            @Param("afterSeq") Integer afterSeq,
+            Pageable pageable);
+
+    /**
+     * Page of a session's interactions within a time range after a sequence number
+     */
+    @Query("SELECT i FROM SessionInteraction i WHERE i.session.sessionId = :sessionId " +
+           "AND i.sequenceNumber > :afterSeq AND i.timestamp BETWEEN :startTime AND :endTime " +
+           "ORDER BY i.sequenceNumber ASC")
+    List<SessionInteraction> findPageBySessionAndTimeRange(
+            @Param("sessionId") UUID sessionId,
+            @Param("afterSeq") Integer afterSeq,
+            @Param("startTime") LocalDateTime startTime,
+            @Param("endTime") LocalDateTime endTime,
+            Pageable pageable);
+
     /**
      * Get next sequence number for session
      */
@@ -0,0 +1,41 @@
+package com.interviewgene.repository;
+
+import com.interviewgene.model.SessionOutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository interface for the session event outbox
+ */
+@Repository
+public interface SessionOutboxRepository extends JpaRepository<SessionOutboxEvent, UUID> {
+
+    /**
+     * Lock the oldest unpublished events. Rows locked by another relay are skipped, so several
+     * nodes can drain the outbox concurrently without publishing an event twice.
+     */
+    @Query(value = "SELECT * FROM session_outbox WHERE published_at IS NULL "
+            + "ORDER BY created_at, event_id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<SessionOutboxEvent> lockUnpublished(@Param("limit") int limit);
+
+    long countByPublishedAtIsNull();
+
+    /**
+     * Creation time of the oldest unpublished event, or {@code null} when the outbox is drained
+     */
+    @Query("SELECT MIN(e.createdAt) FROM SessionOutboxEvent e WHERE e.publishedAt IS NULL")
+    LocalDateTime findOldestUnpublishedCreatedAt();
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM SessionOutboxEvent e WHERE e.publishedAt < :before")
+    int deletePublishedBefore(@Param("before") LocalDateTime before);
+}
@@ -2,12 +2,17 @@ package com.interviewgene.repository;
 
 import com.interviewgene.model.InterviewSession;
 import com.interviewgene.model.SessionStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -43,6 +48,48 @@ public interface SessionRepository extends JpaRepository<InterviewSession, UUID>
      */
     List<InterviewSession> findByCandidateIdAndStatus(UUID candidateId, SessionStatus status);
 
+    /**
+     * Page of an interviewer's sessions after a {@code (createdAt, sessionId)} position,
+     * served by {@code idx_interview_sessions_interviewer_created}
+     */
+    @Query("SELECT s FROM InterviewSession s WHERE s.interviewerId = :interviewerId AND " +
+           "(s.createdAt > :createdAt OR (s.createdAt = :createdAt AND s.sessionId > :sessionId)) " +
+           "ORDER BY s.createdAt ASC, s.sessionId ASC")
+    List<InterviewSession> findPageByInterviewerId(
+            @Param("interviewerId") UUID interviewerId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("sessionId") UUID sessionId,
+            Pageable pageable
+    );
+
+    /**
+     * Page of a candidate's sessions after a {@code (createdAt, sessionId)} position,
+     * served by {@code idx_interview_sessions_candidate_created}
+     */
+    @Query("SELECT s FROM InterviewSession s WHERE s.candidateId = :candidateId AND " +
+           "(s.createdAt > :createdAt OR (s.createdAt = :createdAt AND s.sessionId > :sessionId)) " +
+           "ORDER BY s.createdAt ASC, s.sessionId ASC")
+    List<InterviewSession> findPageByCandidateId(
+            @Param("candidateId") UUID candidateId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("sessionId") UUID sessionId,
+            Pageable pageable
+    );
+
+    /**
+     * Page of sessions in a status after a {@code (createdAt, sessionId)} position,
+     * served by {@code idx_interview_sessions_status_created}
+     */
+    @Query("SELECT s FROM InterviewSession s WHERE s.status = :status AND " +
+           "(s.createdAt > :createdAt OR (s.createdAt = :createdAt AND s.sessionId > :sessionId)) " +
+           "ORDER BY s.createdAt ASC, s.sessionId ASC")
+    List<InterviewSession> findPageByStatus(
+            @Param("status") SessionStatus status,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("sessionId") UUID sessionId,
+            Pageable pageable
+    );
+
     /**
      * Find sessions scheduled between dates
      */
@@ -52,6 +99,28 @@ public interface SessionRepository extends JpaRepository<InterviewSession, UUID>
             @Param("endTime") LocalDateTime endTime
     );
 
+    /**
+     * Find sessions in a status scheduled between dates, with their metadata, so they can be used
+     * outside a transaction
+     */
+    @EntityGraph(attributePaths = "metadata")
+    @Query("SELECT s FROM InterviewSession s WHERE s.status = :status AND s.scheduledTime BETWEEN :startTime AND :endTime")
+    List<InterviewSession> findWithMetadataScheduledBetween(
+            @Param("status") SessionStatus status,
+            @Param("startTime") LocalDateTime startTime,
+            @Param("endTime") LocalDateTime endTime
+    );
+
+    /**
+     * Find sessions in the given statuses scheduled at or after a time, with their metadata
+     */
+    @EntityGraph(attributePaths = "metadata")
+    @Query("SELECT s FROM InterviewSession s WHERE s.scheduledTime >= :from AND s.status IN :statuses")
+    List<InterviewSession> findBookedFrom(
+            @Param("from") LocalDateTime from,
+            @Param("statuses") Collection<SessionStatus> statuses
+    );
+
     /**
      * Find active sessions for a user (either as interviewer or candidate)
      */
@@ -76,4 +145,64 @@ public interface SessionRepository extends JpaRepository<InterviewSession, UUID>
      */
     @Query("SELECT s FROM InterviewSession s WHERE s.status IN ('SCHEDULED', 'ACTIVE')")
     List<InterviewSession> findJoinableSessions();
-}
\ No newline at end of file
+
+    /**
+     * Expire the given sessions that are still past their deadline: SCHEDULED sessions never
+     * started and PAUSED sessions never resumed. Each status is checked against its own cutoff, so a
+     * deadline that went stale on another node expires nothing. ACTIVE sessions are never expired.
+     * The version is bumped so concurrent optimistic updates of an expired session fail.
+     */
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE InterviewSession s SET s.status = com.interviewgene.model.SessionStatus.EXPIRED, "
+            + "s.endTime = :now, s.updatedAt = :now, s.version = COALESCE(s.version, 0) + 1 "
+            + "WHERE s.sessionId IN :sessionIds AND ("
+            + "(s.status = com.interviewgene.model.SessionStatus.SCHEDULED AND s.scheduledTime <= :scheduledBefore) "
+            + "OR (s.status = com.interviewgene.model.SessionStatus.PAUSED AND s.updatedAt <= :pausedBefore))")
+    int expireSessions(
+            @Param("sessionIds") Collection<UUID> sessionIds,
+            @Param("now") LocalDateTime now,
+            @Param("scheduledBefore") LocalDateTime scheduledBefore,
+            @Param("pausedBefore") LocalDateTime pausedBefore
+    );
+
+    /**
+     * Status and version of a session, for explaining a rejected transition
+     */
+    interface LifecycleState {
+        SessionStatus getStatus();
+
+        Long getVersion();
+    }
+
+    Optional<LifecycleState> findLifecycleStateBySessionId(UUID sessionId);
+
+    /**
+     * Load a session together with its metadata in one query
+     */
+    @EntityGraph(attributePaths = "metadata")
+    Optional<InterviewSession> findWithMetadataBySessionId(UUID sessionId);
+
+    /**
+     * Move a session to {@code target} if it is in one of the {@code from} statuses and, when
+     * {@code expectedVersion} is given, still at that version. A {@code null} start or end time
+     * keeps the stored one.
+     *
+     * @return 1 if the transition was applied, 0 if the guard rejected it
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE InterviewSession s SET s.status = :target, "
+            + "s.startTime = COALESCE(:startTime, s.startTime), s.endTime = COALESCE(:endTime, s.endTime), "
+            + "s.updatedAt = :now, s.version = COALESCE(s.version, 0) + 1 "
+            + "WHERE s.sessionId = :sessionId AND s.status IN :from "
+            + "AND (:expectedVersion IS NULL OR s.version = :expectedVersion)")
+    int transition(
+            @Param("sessionId") UUID sessionId,
+            @Param("from") Collection<SessionStatus> from,
+            @Param("target") SessionStatus target,
+            @Param("startTime") LocalDateTime startTime,
+            @Param("endTime") LocalDateTime endTime,
+            @Param("now") LocalDateTime now,
+            @Param("expectedVersion") Long expectedVersion
+    );
+}
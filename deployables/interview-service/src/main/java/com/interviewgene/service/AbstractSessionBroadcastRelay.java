@@ -0,0 +1,58 @@
+package com.interviewgene.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
+
+/**
+ * Base class for relays that hand pre-encoded JSON payloads to the local broker.
+ * Sending bytes with an explicit content type skips per-send message conversion.
+ */
+@RequiredArgsConstructor
+public abstract class AbstractSessionBroadcastRelay implements SessionBroadcastRelay {
+
+    protected static final String USER_DESTINATION_PREFIX = "/user/";
+
+    protected final SimpMessagingTemplate messagingTemplate;
+    protected final ObjectMapper objectMapper;
+
+    protected byte[] encode(Object payload) {
+        try {
+            return objectMapper.writeValueAsBytes(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to encode session payload", e);
+        }
+    }
+
+    protected void deliverLocally(String destination, byte[] payload, String payloadType) {
+        deliverLocally(destination, payload, Priority.NORMAL, payloadType);
+    }
+
+    protected void deliverLocally(String destination, byte[] payload, Priority priority, String payloadType) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        if (priority != Priority.NORMAL) {
+            accessor.setHeader(PRIORITY_HEADER, priority);
+        }
+        if (payloadType != null) {
+            accessor.setHeader(PAYLOAD_TYPE_HEADER, payloadType);
+        }
+        accessor.setLeaveMutable(true);
+        Message<byte[]> message = MessageBuilder.createMessage(payload, accessor.getMessageHeaders());
+        messagingTemplate.send(destination, message);
+    }
+
+    protected static String typeOf(Object payload) {
+        return payload.getClass().getName();
+    }
+
+    protected static String userDestination(String user, String destination) {
+        return USER_DESTINATION_PREFIX + user + destination;
+    }
+}
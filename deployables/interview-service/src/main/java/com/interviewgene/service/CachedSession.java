@@ -0,0 +1,78 @@
+package com.interviewgene.service;
+
+import com.interviewgene.model.InterviewSession;
+import com.interviewgene.model.SessionStatus;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Immutable snapshot of the session state needed on the real-time path
+ */
+@Value
+@Builder(toBuilder = true)
+public class CachedSession {
+
+    UUID sessionId;
+    UUID interviewerId;
+    UUID candidateId;
+    SessionStatus status;
+    LocalDateTime scheduledTime;
+    LocalDateTime startTime;
+    LocalDateTime endTime;
+    String sessionType;
+    Map<String, String> metadata;
+    LocalDateTime createdAt;
+    LocalDateTime updatedAt;
+    Long version;
+    long loadedAt;
+
+    public static CachedSession from(InterviewSession session, long loadedAt) {
+        return CachedSession.builder()
+                .sessionId(session.getSessionId())
+                .interviewerId(session.getInterviewerId())
+                .candidateId(session.getCandidateId())
+                .status(session.getStatus())
+                .scheduledTime(session.getScheduledTime())
+                .startTime(session.getStartTime())
+                .endTime(session.getEndTime())
+                .sessionType(session.getSessionType())
+                .metadata(copyOf(session.getMetadata()))
+                .createdAt(session.getCreatedAt())
+                .updatedAt(session.getUpdatedAt())
+                .version(session.getVersion())
+                .loadedAt(loadedAt)
+                .build();
+    }
+
+    /**
+     * Metadata rows may hold null values, which {@link Map#copyOf} rejects
+     */
+    private static Map<String, String> copyOf(Map<String, String> metadata) {
+        return metadata != null ? Collections.unmodifiableMap(new HashMap<>(metadata)) : Map.of();
+    }
+
+    public boolean isParticipant(UUID userId) {
+        return interviewerId.equals(userId) || candidateId.equals(userId);
+    }
+
+    public boolean isActive() {
+        return SessionStatus.ACTIVE.equals(status);
+    }
+
+    public boolean isCompleted() {
+        return SessionStatus.COMPLETED.equals(status) ||
+               SessionStatus.CANCELLED.equals(status) ||
+               SessionStatus.EXPIRED.equals(status);
+    }
+
+    public boolean canJoin() {
+        return SessionStatus.SCHEDULED.equals(status) ||
+               SessionStatus.ACTIVE.equals(status);
+    }
+}
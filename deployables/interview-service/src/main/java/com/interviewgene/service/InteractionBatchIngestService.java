@@ -0,0 +1,246 @@
+package com.interviewgene.service;
+
+import com.interviewgene.common.exception.ResourceNotFoundException;
+import com.interviewgene.common.exception.ValidationException;
+import com.interviewgene.dto.InteractionBatchResponse;
+import com.interviewgene.dto.InteractionMessage;
+import com.interviewgene.dto.SessionEventMessage;
+import com.interviewgene.model.InterviewSession;
+import com.interviewgene.model.SessionInteraction;
+import com.interviewgene.repository.SessionInteractionJdbcRepository;
+import com.interviewgene.repository.SessionRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Ingests an ordered batch of interactions for one session, for clients replaying what they
+ * recorded offline and for import tooling.
+ * <p>
+ * The session is validated once, the batch gets a contiguous sequence range in request order and
+ * all rows are written in one JDBC batch. Instead of a frame per interaction, participants get a
+ * single INTERACTION_ADDED event with the range once the batch commits, and fetch the interactions
+ * through the paginated listing, served from the recent-interaction buffer. Each {@code messageId}
+ * is claimed in the dedup window, so messages already delivered or being delivered elsewhere are
+ * skipped; the claims are released if the batch is not committed.
+ * <p>
+ * Callers run the ingest in the session's mailbox on its owning node, like live interactions.
+ */
+@Service
+@Slf4j
+public class InteractionBatchIngestService {
+
+    private final SessionRepository sessionRepository;
+    private final SessionInteractionJdbcRepository jdbcRepository;
+    private final SessionSequenceAllocator sequenceAllocator;
+    private final SessionStateCache sessionCache;
+    private final RecentInteractionBuffer recentInteractions;
+    private final RealTimeHandler realTimeHandler;
+    private final InteractionDedupWindow dedupWindow;
+    private final int maxBatchSize;
+    private final DistributionSummary batchSizes;
+
+    public InteractionBatchIngestService(SessionRepository sessionRepository,
+                                         SessionInteractionJdbcRepository jdbcRepository,
+                                         SessionSequenceAllocator sequenceAllocator,
+                                         SessionStateCache sessionCache,
+                                         RecentInteractionBuffer recentInteractions,
+                                         RealTimeHandler realTimeHandler,
+                                         InteractionDedupWindow dedupWindow,
+                                         MeterRegistry meterRegistry,
+                                         @Value("${interview.interactions.batch.max-size:1000}") int maxBatchSize) {
+        this.sessionRepository = sessionRepository;
+        this.jdbcRepository = jdbcRepository;
+        this.sequenceAllocator = sequenceAllocator;
+        this.sessionCache = sessionCache;
+        this.recentInteractions = recentInteractions;
+        this.realTimeHandler = realTimeHandler;
+        this.dedupWindow = dedupWindow;
+        this.maxBatchSize = maxBatchSize;
+        this.batchSizes = DistributionSummary.builder("interview.interactions.batch.size")
+                .description("Interactions per ingested batch")
+                .register(meterRegistry);
+    }
+
+    @Transactional
+    public InteractionBatchResponse ingest(UUID sessionId, UUID requestedBy, List<InteractionMessage> batch) {
+        validate(sessionId, batch);
+        List<InteractionMessage> messages = claimFresh(sessionId, batch);
+        int duplicates = batch.size() - messages.size();
+        log.info("Ingesting {} interactions for session: {} ({} already delivered)",
+                messages.size(), sessionId, duplicates);
+        if (messages.isEmpty()) {
+            return InteractionBatchResponse.builder()
+                    .sessionId(sessionId)
+                    .duplicates(duplicates)
+                    .messageIds(List.of())
+                    .build();
+        }
+
+        List<SessionInteraction> interactions = new ArrayList<>(messages.size());
+        List<InteractionMessage> stored = new ArrayList<>(messages.size());
+        int first;
+        try {
+            // Only the foreign key is written, so a reference is enough
+            InterviewSession session = sessionRepository.getReferenceById(sessionId);
+            first = sequenceAllocator.nextRange(sessionId, messages.size());
+            LocalDateTime now = LocalDateTime.now();
+
+            for (int i = 0; i < messages.size(); i++) {
+                InteractionMessage message = messages.get(i);
+                SessionInteraction interaction = SessionInteraction.builder()
+                        .interactionId(UUID.randomUUID())
+                        .session(session)
+                        .type(message.getType())
+                        .content(message.getContent())
+                        .timestamp(message.getTimestamp() != null ? message.getTimestamp() : now)
+                        .participantId(message.getParticipantId())
+                        .sequenceNumber(first + i)
+                        .durationSeconds(message.getDurationSeconds())
+                        .metadata(message.getMetadata() != null ? message.getMetadata() : new HashMap<>())
+                        .createdBy(requestedBy != null ? requestedBy : message.getParticipantId())
+                        .version(0L)
+                        .build();
+                interactions.add(interaction);
+                stored.add(toMessage(sessionId, interaction, message.getMessageId()));
+            }
+
+            try {
+                jdbcRepository.batchInsert(interactions);
+            } catch (RuntimeException e) {
+                sequenceAllocator.failed(sessionId, first, messages.size());
+                throw e;
+            }
+        } catch (RuntimeException e) {
+            abandon(sessionId, messages, e);
+            throw e;
+        }
+        sequenceAllocator.settleOnCompletion(sessionId, first, messages.size());
+        batchSizes.record(messages.size());
+
+        InteractionBatchResponse response = InteractionBatchResponse.builder()
+                .sessionId(sessionId)
+                .count(stored.size())
+                .duplicates(duplicates)
+                .firstSequenceNumber(first)
+                .lastSequenceNumber(first + stored.size() - 1)
+                .messageIds(stored.stream().map(InteractionMessage::getMessageId).toList())
+                .build();
+        afterCompletion(committed -> {
+            if (!committed) {
+                abandon(sessionId, messages, new IllegalStateException("Batch for session " + sessionId
+                        + " was rolled back"));
+                return;
+            }
+            for (int i = 0; i < messages.size(); i++) {
+                String messageId = messages.get(i).getMessageId();
+                if (messageId != null) {
+                    dedupWindow.complete(sessionId, messageId, interactions.get(i));
+                }
+            }
+            publish(sessionId, requestedBy, stored, response);
+        });
+        return response;
+    }
+
+    private void validate(UUID sessionId, List<InteractionMessage> messages) {
+        if (messages == null || messages.isEmpty()) {
+            throw new ValidationException("Batch must contain at least one interaction");
+        }
+        if (messages.size() > maxBatchSize) {
+            throw new ValidationException("Batch exceeds the maximum of " + maxBatchSize + " interactions");
+        }
+
+        CachedSession session = sessionCache.getOrLoad(sessionId)
+                .orElseThrow(() -> new ResourceNotFoundException("Session not found: " + sessionId));
+        if (!session.canJoin()) {
+            throw new ValidationException("Session is not available for interactions: " + session.getStatus());
+        }
+
+        for (int i = 0; i < messages.size(); i++) {
+            InteractionMessage message = messages.get(i);
+            if (message == null || message.getType() == null || message.getParticipantId() == null) {
+                throw new ValidationException("Interaction " + i + " needs a type and a participantId");
+            }
+            if (message.getSessionId() != null && !message.getSessionId().equals(sessionId)) {
+                throw new ValidationException("Interaction " + i + " belongs to another session");
+            }
+        }
+    }
+
+    /**
+     * Claim the message IDs of the batch, dropping messages already delivered or being delivered,
+     * over STOMP or in another batch, and repeats within this batch
+     */
+    private List<InteractionMessage> claimFresh(UUID sessionId, List<InteractionMessage> batch) {
+        List<InteractionMessage> fresh = new ArrayList<>(batch.size());
+        for (InteractionMessage message : batch) {
+            if (dedupWindow.claim(sessionId, message) == null) {
+                fresh.add(message);
+            }
+        }
+        return fresh;
+    }
+
+    private void abandon(UUID sessionId, List<InteractionMessage> claimed, Throwable cause) {
+        for (InteractionMessage message : claimed) {
+            if (message.getMessageId() != null) {
+                dedupWindow.abandon(sessionId, message.getMessageId(), cause);
+            }
+        }
+    }
+
+    private void publish(UUID sessionId, UUID requestedBy, List<InteractionMessage> stored,
+                         InteractionBatchResponse response) {
+        stored.forEach(recentInteractions::append);
+        realTimeHandler.broadcastSessionEvent(sessionId, SessionEventMessage.builder()
+                .sessionId(sessionId)
+                .eventType(SessionEventMessage.SessionEventType.INTERACTION_ADDED)
+                .triggeredBy(requestedBy)
+                .message(response.getCount() + " interactions added")
+                .timestamp(LocalDateTime.now())
+                .eventData(response)
+                .build());
+    }
+
+    private static InteractionMessage toMessage(UUID sessionId, SessionInteraction interaction, String correlationId) {
+        return InteractionMessage.builder()
+                .sessionId(sessionId)
+                .type(interaction.getType())
+                .content(interaction.getContent())
+                .participantId(interaction.getParticipantId())
+                .timestamp(interaction.getTimestamp())
+                .sequenceNumber(interaction.getSequenceNumber())
+                .durationSeconds(interaction.getDurationSeconds())
+                .metadata(interaction.getMetadata())
+                .messageId(interaction.getInteractionId().toString())
+                .correlationId(correlationId)
+                .action(InteractionMessage.MessageAction.CREATE)
+                .build();
+    }
+
+    private static void afterCompletion(Consumer<Boolean> action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.accept(true);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                action.accept(status == STATUS_COMMITTED);
+            }
+        });
+    }
+}
@@ -0,0 +1,263 @@
+package com.interviewgene.service;
+
+import com.interviewgene.dto.InteractionMessage;
+import com.interviewgene.model.SessionInteraction;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Remembers the client message IDs recently delivered to each session, so a retried frame returns
+ * the interaction stored the first time instead of writing and broadcasting it again.
+ * <p>
+ * Each session keeps an LRU of at most {@code window-size} IDs, and entries older than the TTL are
+ * ignored. A delivery claims its ID before a sequence number is allocated; a retry that arrives
+ * while the first attempt is still running waits for its result, and a failed attempt releases
+ * the ID so the next retry is processed normally. Messages without a {@code messageId} are never
+ * deduplicated.
+ * <p>
+ * With {@code interview.interactions.dedup.store=redis}, completed deliveries are also recorded in
+ * Redis for the TTL, which catches retries that reach another node after the session moved.
+ */
+@Component
+@Slf4j
+public class InteractionDedupWindow {
+
+    private static final String KEY_PREFIX = "interview:dedup:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final int windowSize;
+    private final Duration ttl;
+    private final ConcurrentMap<UUID, Window> windows = new ConcurrentHashMap<>();
+
+    private final Counter duplicates;
+
+    public InteractionDedupWindow(ObjectProvider<StringRedisTemplate> redisTemplate,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${interview.interactions.dedup.store:local}") String store,
+                                  @Value("${interview.interactions.dedup.window-size:256}") int windowSize,
+                                  @Value("${interview.interactions.dedup.ttl:10m}") Duration ttl) {
+        this.redisTemplate = "redis".equalsIgnoreCase(store) ? redisTemplate.getIfAvailable() : null;
+        this.windowSize = windowSize;
+        this.ttl = ttl;
+        this.duplicates = Counter.builder("interview.interactions.duplicates")
+                .description("Retried interactions answered from the dedup window")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Claim a message ID for delivery
+     *
+     * @return {@code null} when the caller now owns the delivery and must call {@link #complete} or
+     * {@link #abandon}; otherwise the result of the earlier delivery of the same message
+     */
+    public CompletableFuture<SessionInteraction> claim(UUID sessionId, InteractionMessage message) {
+        String messageId = message.getMessageId();
+        if (messageId == null || messageId.isBlank()) {
+            return null;
+        }
+
+        CompletableFuture<SessionInteraction> earlier = windows
+                .computeIfAbsent(sessionId, id -> new Window(windowSize))
+                .claim(messageId, System.nanoTime(), ttl.toNanos());
+        if (earlier == null) {
+            SessionInteraction recorded = findRecorded(sessionId, message);
+            if (recorded == null) {
+                return null;
+            }
+            complete(sessionId, messageId, recorded, false);
+            earlier = CompletableFuture.completedFuture(recorded);
+        }
+        duplicates.increment();
+        log.debug("Duplicate interaction {} for session: {}", messageId, sessionId);
+        return earlier;
+    }
+
+    /**
+     * Whether a message ID was delivered or is being delivered, without claiming it
+     */
+    public boolean isKnown(UUID sessionId, String messageId) {
+        Window window = windows.get(sessionId);
+        return messageId != null && window != null && window.contains(messageId, System.nanoTime(), ttl.toNanos());
+    }
+
+    /**
+     * Record the stored interaction for a claimed message ID
+     */
+    public void complete(UUID sessionId, String messageId, SessionInteraction interaction) {
+        complete(sessionId, messageId, interaction, true);
+    }
+
+    /**
+     * Release a claimed message ID after the delivery failed
+     */
+    public void abandon(UUID sessionId, String messageId, Throwable cause) {
+        Window window = windows.get(sessionId);
+        if (messageId != null && window != null) {
+            window.abandon(messageId, cause);
+        }
+    }
+
+    /**
+     * Forget the message that produced a stored interaction which was later lost, so a retry is
+     * processed again instead of being answered with the lost interaction
+     */
+    public void forget(UUID sessionId, UUID interactionId) {
+        Window window = windows.get(sessionId);
+        String messageId = window != null ? window.forget(interactionId) : null;
+        if (messageId != null && redisTemplate != null) {
+            try {
+                redisTemplate.delete(KEY_PREFIX + sessionId + ":" + messageId);
+            } catch (RuntimeException e) {
+                log.warn("Failed to forget interaction {} in Redis: {}", messageId, e.getMessage());
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${interview.interactions.dedup.purge-interval:1m}")
+    public void purgeIdleSessions() {
+        long now = System.nanoTime();
+        windows.entrySet().removeIf(entry -> entry.getValue().isIdle(now, ttl.toNanos()));
+    }
+
+    @EventListener
+    public void onOwnershipChanged(SessionOwnershipChangedEvent event) {
+        windows.keySet().removeIf(sessionId -> !event.getRing().isLocal(sessionId));
+    }
+
+    private void complete(UUID sessionId, String messageId, SessionInteraction interaction, boolean share) {
+        if (messageId == null) {
+            return;
+        }
+        windows.computeIfAbsent(sessionId, id -> new Window(windowSize))
+                .complete(messageId, interaction, System.nanoTime());
+        if (share && redisTemplate != null) {
+            try {
+                redisTemplate.opsForValue().set(KEY_PREFIX + sessionId + ":" + messageId,
+                        interaction.getInteractionId() + "|" + interaction.getSequenceNumber() + "|" + interaction.getTimestamp(),
+                        ttl);
+            } catch (RuntimeException e) {
+                log.warn("Failed to record interaction {} in Redis: {}", messageId, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * The interaction another node stored for this message, rebuilt from its Redis record
+     */
+    private SessionInteraction findRecorded(UUID sessionId, InteractionMessage message) {
+        if (redisTemplate == null) {
+            return null;
+        }
+        String recorded;
+        try {
+            recorded = redisTemplate.opsForValue().get(KEY_PREFIX + sessionId + ":" + message.getMessageId());
+        } catch (RuntimeException e) {
+            log.warn("Failed to look up interaction {} in Redis: {}", message.getMessageId(), e.getMessage());
+            return null;
+        }
+        if (recorded == null) {
+            return null;
+        }
+        String[] parts = recorded.split("\\|", 3);
+        return SessionInteraction.builder()
+                .interactionId(UUID.fromString(parts[0]))
+                .sequenceNumber("null".equals(parts[1]) ? null : Integer.valueOf(parts[1]))
+                .timestamp("null".equals(parts[2]) ? null : LocalDateTime.parse(parts[2]))
+                .type(message.getType())
+                .content(message.getContent())
+                .participantId(message.getParticipantId())
+                .durationSeconds(message.getDurationSeconds())
+                .metadata(message.getMetadata())
+                .createdBy(message.getParticipantId())
+                .build();
+    }
+
+    /**
+     * Access-ordered LRU of one session's message IDs
+     */
+    private static final class Window {
+        private final Map<String, Delivery> deliveries;
+        private long lastUsed = System.nanoTime();
+
+        private Window(int capacity) {
+            this.deliveries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Delivery> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+
+        private synchronized CompletableFuture<SessionInteraction> claim(String messageId, long now, long ttlNanos) {
+            lastUsed = now;
+            Delivery delivery = deliveries.get(messageId);
+            if (delivery != null && now - delivery.recordedAt < ttlNanos) {
+                return delivery.result;
+            }
+            deliveries.put(messageId, new Delivery(new CompletableFuture<>(), now));
+            return null;
+        }
+
+        private synchronized boolean contains(String messageId, long now, long ttlNanos) {
+            Delivery delivery = deliveries.get(messageId);
+            return delivery != null && now - delivery.recordedAt < ttlNanos;
+        }
+
+        private synchronized void complete(String messageId, SessionInteraction interaction, long now) {
+            lastUsed = now;
+            Delivery delivery = deliveries.get(messageId);
+            if (delivery == null || delivery.result.isDone()) {
+                deliveries.put(messageId, new Delivery(CompletableFuture.completedFuture(interaction), now));
+            } else {
+                delivery.result.complete(interaction);
+            }
+        }
+
+        private void abandon(String messageId, Throwable cause) {
+            Delivery delivery;
+            synchronized (this) {
+                delivery = deliveries.remove(messageId);
+            }
+            if (delivery != null) {
+                delivery.result.completeExceptionally(cause);
+            }
+        }
+
+        private synchronized String forget(UUID interactionId) {
+            for (Iterator<Map.Entry<String, Delivery>> it = deliveries.entrySet().iterator(); it.hasNext(); ) {
+                Map.Entry<String, Delivery> entry = it.next();
+                CompletableFuture<SessionInteraction> result = entry.getValue().result;
+                if (result.isDone() && !result.isCompletedExceptionally()
+                        && interactionId.equals(result.join().getInteractionId())) {
+                    it.remove();
+                    return entry.getKey();
+                }
+            }
+            return null;
+        }
+
+        private synchronized boolean isIdle(long now, long ttlNanos) {
+            return now - lastUsed >= ttlNanos;
+        }
+    }
+
+    private record Delivery(CompletableFuture<SessionInteraction> result, long recordedAt) {
+    }
+}
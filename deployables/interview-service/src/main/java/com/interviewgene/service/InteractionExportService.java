@@ -0,0 +1,107 @@
+package com.interviewgene.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.interviewgene.common.exception.ResourceNotFoundException;
+import com.interviewgene.dto.InteractionMessage;
+import com.interviewgene.repository.SessionInteractionJdbcRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Writes a session's interaction history as newline-delimited JSON while it is read.
+ * <p>
+ * Interactions are read in keyset pages of {@code page-size} by sequence number, each in its own
+ * short read-only transaction, and every page is written and flushed before the next one is read.
+ * Memory use does not grow with the length of the session, and no connection, transaction or
+ * database permit is held while waiting on the client. An export that runs past {@code timeout},
+ * for example because the client reads too slowly, is aborted between pages.
+ */
+@Service
+@Slf4j
+public class InteractionExportService {
+
+    private final SessionInteractionJdbcRepository jdbcRepository;
+    private final SessionStateCache sessionCache;
+    private final ObjectMapper objectMapper;
+    private final int pageSize;
+    private final Duration timeout;
+    private final Counter exported;
+    private final Counter timedOut;
+
+    public InteractionExportService(SessionInteractionJdbcRepository jdbcRepository,
+                                    SessionStateCache sessionCache,
+                                    ObjectMapper objectMapper,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${interview.interactions.export.page-size:500}") int pageSize,
+                                    @Value("${interview.interactions.export.timeout:10m}") Duration timeout) {
+        this.jdbcRepository = jdbcRepository;
+        this.sessionCache = sessionCache;
+        this.objectMapper = objectMapper;
+        this.pageSize = pageSize;
+        this.timeout = timeout;
+        this.exported = Counter.builder("interview.interactions.exported")
+                .description("Interactions written by NDJSON exports")
+                .register(meterRegistry);
+        this.timedOut = Counter.builder("interview.interactions.export.timeouts")
+                .description("Exports aborted because they ran past the timeout")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Fail before the response is committed when the session does not exist
+     */
+    public void checkExportable(UUID sessionId) {
+        if (sessionCache.getOrLoad(sessionId).isEmpty()) {
+            throw new ResourceNotFoundException("Session not found: " + sessionId);
+        }
+    }
+
+    /**
+     * Write one JSON object per line for each interaction, in sequence order
+     *
+     * @return the number of interactions written
+     */
+    public int exportNdjson(UUID sessionId, Integer lastSequenceNumber, OutputStream out) throws IOException {
+        long started = System.nanoTime();
+        long deadline = started + timeout.toNanos();
+        int count = 0;
+        int after = lastSequenceNumber != null ? lastSequenceNumber : 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            // The servlet container owns the response stream
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            while (true) {
+                List<InteractionMessage> page = jdbcRepository.findPageAfter(sessionId, after, pageSize);
+                for (InteractionMessage message : page) {
+                    generator.writeObject(message);
+                    generator.writeRaw('\n');
+                }
+                generator.flush();
+                count += page.size();
+                if (page.size() < pageSize) {
+                    break;
+                }
+                after = page.get(page.size() - 1).getSequenceNumber();
+                if (System.nanoTime() - deadline > 0) {
+                    timedOut.increment();
+                    log.warn("Aborted export of session {} after {} interactions: ran past {}", sessionId, count, timeout);
+                    throw new IOException("Export of session " + sessionId + " ran past " + timeout);
+                }
+            }
+        } finally {
+            exported.increment(count);
+        }
+        log.info("Exported {} interactions of session {} in {} ms",
+                count, sessionId, (System.nanoTime() - started) / 1_000_000);
+        return count;
+    }
+}
@@ -0,0 +1,422 @@
+package com.interviewgene.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.interviewgene.common.exception.ServiceUnavailableException;
+import com.interviewgene.dto.InteractionMessage;
+import com.interviewgene.model.InterviewSession;
+import com.interviewgene.model.SessionInteraction;
+import com.interviewgene.repository.SessionInteractionJdbcRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only, memory-mapped log of interactions that have been acknowledged but not yet committed.
+ * <p>
+ * The write-behind buffer appends every interaction here before it is broadcast, and confirms it
+ * once the batch containing it has been committed. Segments whose records are all confirmed are
+ * deleted. On startup any remaining segments are replayed into {@code session_interactions},
+ * skipping rows that already made it to the database, so a node crash does not lose messages.
+ * <p>
+ * Each record is laid out as {@code [length:int][crc32:int][lsn:long][payload]} where the payload
+ * is the JSON form of the interaction. Replay stops at the first zero length or checksum mismatch,
+ * which is where a torn write would leave the segment.
+ * <p>
+ * Records the database rejects, during replay or after the write-behind buffer gave up on them,
+ * are moved to {@code quarantine/} under the log directory instead of blocking startup or pinning
+ * old segments. With fsync on, concurrent appends share one force of the mapped pages.
+ */
+@Component
+@Slf4j
+public class InteractionWriteAheadLog {
+
+    private static final int HEADER_BYTES = Integer.BYTES + Integer.BYTES + Long.BYTES;
+    private static final int REPLAY_CHUNK = 500;
+    private static final String SEGMENT_PREFIX = "interactions-";
+    private static final String SEGMENT_SUFFIX = ".wal";
+    private static final String QUARANTINE_DIRECTORY = "quarantine";
+    private static final String QUARANTINE_FILE = "quarantined.jsonl";
+
+    private final SessionInteractionJdbcRepository jdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Path directory;
+    private final int segmentSize;
+    private final boolean fsync;
+
+    private final Deque<Segment> segments = new ArrayDeque<>();
+    private final ConcurrentSkipListSet<Long> outstanding = new ConcurrentSkipListSet<>();
+    private final Object forceLock = new Object();
+    private final Object quarantineLock = new Object();
+    private final Counter appendedBytes;
+    private final Counter forces;
+    private final Counter quarantined;
+    private long nextLsn = 1;
+    private long durableLsn;
+
+    public InteractionWriteAheadLog(SessionInteractionJdbcRepository jdbcRepository,
+                                    PlatformTransactionManager transactionManager,
+                                    ObjectMapper objectMapper,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${interview.realtime.wal.enabled:${interview.realtime.write-behind.enabled:false}}") boolean enabled,
+                                    @Value("${interview.realtime.wal.directory:./data/interaction-wal}") String directory,
+                                    @Value("${interview.realtime.wal.segment-size:64MB}") DataSize segmentSize,
+                                    @Value("${interview.realtime.wal.fsync:true}") boolean fsync) {
+        this.jdbcRepository = jdbcRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.directory = Paths.get(directory);
+        this.segmentSize = Math.toIntExact(segmentSize.toBytes());
+        this.fsync = fsync;
+
+        Gauge.builder("interview.interactions.wal.outstanding", outstanding, Collection::size)
+                .description("Logged interactions not yet confirmed by the database")
+                .register(meterRegistry);
+        Gauge.builder("interview.interactions.wal.segments", segments, Collection::size)
+                .register(meterRegistry);
+        this.appendedBytes = Counter.builder("interview.interactions.wal.appended.bytes")
+                .register(meterRegistry);
+        this.forces = Counter.builder("interview.interactions.wal.forces")
+                .description("Forces of mapped pages to disk, each covering one or more appends")
+                .register(meterRegistry);
+        this.quarantined = Counter.builder("interview.interactions.wal.quarantined")
+                .description("Logged interactions the database rejected, kept aside for inspection")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Replay segments left behind by a previous run, then open a fresh segment for appends
+     */
+    @PostConstruct
+    public synchronized void recover() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Files.createDirectories(directory);
+
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(directory)) {
+            files = stream.filter(this::isSegmentFile).sorted().collect(Collectors.toList());
+        }
+
+        List<LoggedRecord> recovered = new ArrayList<>();
+        long lastLsn = 0;
+        for (Path file : files) {
+            lastLsn = Math.max(lastLsn, readSegment(file, recovered));
+        }
+
+        if (!recovered.isEmpty()) {
+            int inserted = 0;
+            for (int from = 0; from < recovered.size(); from += REPLAY_CHUNK) {
+                inserted += replay(recovered.subList(from, Math.min(recovered.size(), from + REPLAY_CHUNK)));
+            }
+            log.info("Replayed {} logged interactions, {} were missing from the database",
+                    recovered.size(), inserted);
+        }
+        for (Path file : files) {
+            Files.delete(file);
+        }
+
+        nextLsn = lastLsn + 1;
+        durableLsn = lastLsn;
+        segments.addLast(openSegment(nextLsn));
+        log.info("Interaction write-ahead log ready in {} (segment size: {} bytes, fsync: {})",
+                directory.toAbsolutePath(), segmentSize, fsync);
+    }
+
+    /**
+     * Durably append an interaction and return its log sequence number
+     */
+    public long append(SessionInteraction interaction) {
+        byte[] payload = serialize(interaction);
+        int recordSize = HEADER_BYTES + payload.length;
+        if (recordSize > segmentSize) {
+            throw new ServiceUnavailableException("Interaction exceeds write-ahead log segment size");
+        }
+
+        long lsn;
+        synchronized (this) {
+            Segment active = segments.getLast();
+            if (active.remaining() < recordSize) {
+                active = openSegment(nextLsn);
+                segments.addLast(active);
+            }
+
+            lsn = nextLsn++;
+            active.write(lsn, payload);
+            outstanding.add(lsn);
+        }
+        appendedBytes.increment(recordSize);
+
+        if (fsync) {
+            awaitDurable(lsn);
+        }
+        return lsn;
+    }
+
+    /**
+     * Mark records as committed to the database and delete segments that no longer hold unconfirmed records
+     */
+    public void confirm(Collection<Long> lsns) {
+        outstanding.removeAll(lsns);
+        truncate();
+    }
+
+    /**
+     * Move a record the database will not accept out of the log so it no longer holds back truncation
+     */
+    public void quarantine(long lsn, SessionInteraction interaction, String reason) {
+        try {
+            writeQuarantined(lsn, serialize(interaction), reason);
+        } catch (IOException | UncheckedIOException e) {
+            log.error("Failed to quarantine interaction {} (lsn {}), keeping it in the log: {}",
+                    interaction.getInteractionId(), lsn, e.getMessage());
+            return;
+        }
+        outstanding.remove(lsn);
+        truncate();
+    }
+
+    /**
+     * Force everything appended so far, unless a concurrent append already forced past {@code lsn}.
+     * Appends that queue up while a force is running are covered by the next one together.
+     */
+    private void awaitDurable(long lsn) {
+        synchronized (forceLock) {
+            if (durableLsn >= lsn) {
+                return;
+            }
+
+            long target;
+            List<Segment> dirty = new ArrayList<>();
+            List<Integer> ends = new ArrayList<>();
+            synchronized (this) {
+                target = nextLsn - 1;
+                for (Segment segment : segments) {
+                    int end = segment.position();
+                    if (end > segment.forced) {
+                        dirty.add(segment);
+                        ends.add(end);
+                    }
+                }
+            }
+
+            for (int i = 0; i < dirty.size(); i++) {
+                Segment segment = dirty.get(i);
+                segment.buffer.force(segment.forced, ends.get(i) - segment.forced);
+                segment.forced = ends.get(i);
+            }
+            forces.increment();
+            durableLsn = target;
+        }
+    }
+
+    private synchronized void truncate() {
+        Long oldestOutstanding = outstanding.ceiling(0L);
+        long lowWatermark = oldestOutstanding != null ? oldestOutstanding : nextLsn;
+
+        while (segments.size() > 1 && segments.getFirst().lastLsn < lowWatermark) {
+            Segment segment = segments.removeFirst();
+            try {
+                Files.deleteIfExists(segment.path);
+            } catch (IOException e) {
+                log.warn("Failed to delete write-ahead log segment {}: {}", segment.path, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Insert the missing rows of a chunk, splitting it on integrity violations until the records
+     * the database rejects are isolated and quarantined. Other failures abort startup and keep the log.
+     */
+    private int replay(List<LoggedRecord> records) throws IOException {
+        List<SessionInteraction> interactions = records.stream().map(LoggedRecord::interaction).toList();
+        try {
+            Integer inserted = transactionTemplate.execute(status -> jdbcRepository.insertMissing(interactions));
+            return inserted != null ? inserted : 0;
+        } catch (DataIntegrityViolationException e) {
+            if (records.size() == 1) {
+                LoggedRecord record = records.get(0);
+                log.error("Quarantining logged interaction {} (lsn {}) rejected on replay: {}",
+                        record.interaction().getInteractionId(), record.lsn(), e.getMessage());
+                writeQuarantined(record.lsn(), record.payload(), e.getMessage());
+                return 0;
+            }
+            int half = records.size() / 2;
+            return replay(records.subList(0, half)) + replay(records.subList(half, records.size()));
+        }
+    }
+
+    private long readSegment(Path file, List<LoggedRecord> recovered) throws IOException {
+        long lastLsn = 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            while (buffer.remaining() >= HEADER_BYTES) {
+                int length = buffer.getInt();
+                int checksum = buffer.getInt();
+                long lsn = buffer.getLong();
+                if (length <= 0 || length > buffer.remaining() || lsn <= lastLsn) {
+                    break;
+                }
+
+                byte[] payload = new byte[length];
+                buffer.get(payload);
+                if (checksum(payload) != checksum) {
+                    log.warn("Stopping replay of {} at torn record {}", file.getFileName(), lsn);
+                    break;
+                }
+
+                lastLsn = lsn;
+                try {
+                    recovered.add(new LoggedRecord(lsn, payload, deserialize(payload)));
+                } catch (IOException | RuntimeException e) {
+                    log.error("Quarantining unreadable logged record {} in {}: {}", lsn, file.getFileName(), e.getMessage());
+                    writeQuarantined(lsn, payload, e.getMessage());
+                }
+            }
+        }
+        return lastLsn;
+    }
+
+    private void writeQuarantined(long lsn, byte[] payload, String reason) throws IOException {
+        ObjectNode entry = objectMapper.createObjectNode()
+                .put("lsn", lsn)
+                .put("quarantinedAt", Instant.now().toString())
+                .put("reason", reason)
+                .put("record", new String(payload, StandardCharsets.UTF_8));
+        Path quarantineDirectory = directory.resolve(QUARANTINE_DIRECTORY);
+        Files.createDirectories(quarantineDirectory);
+        synchronized (quarantineLock) {
+            Files.write(quarantineDirectory.resolve(QUARANTINE_FILE),
+                    (objectMapper.writeValueAsString(entry) + "\n").getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.WRITE);
+        }
+        quarantined.increment();
+    }
+
+    private Segment openSegment(long firstLsn) {
+        Path path = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstLsn, SEGMENT_SUFFIX));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            return new Segment(path, buffer, firstLsn - 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open write-ahead log segment " + path, e);
+        }
+    }
+
+    private boolean isSegmentFile(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+    }
+
+    private byte[] serialize(SessionInteraction interaction) {
+        InteractionMessage record = InteractionMessage.builder()
+                .messageId(interaction.getInteractionId().toString())
+                .sessionId(interaction.getSession().getSessionId())
+                .type(interaction.getType())
+                .content(interaction.getContent())
+                .participantId(interaction.getParticipantId())
+                .timestamp(interaction.getTimestamp())
+                .sequenceNumber(interaction.getSequenceNumber())
+                .durationSeconds(interaction.getDurationSeconds())
+                .metadata(interaction.getMetadata())
+                .build();
+        try {
+            return objectMapper.writeValueAsBytes(record);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to serialize interaction for write-ahead log", e);
+        }
+    }
+
+    private SessionInteraction deserialize(byte[] payload) throws IOException {
+        InteractionMessage record = objectMapper.readValue(payload, InteractionMessage.class);
+        return SessionInteraction.builder()
+                .interactionId(UUID.fromString(record.getMessageId()))
+                .session(InterviewSession.builder().sessionId(record.getSessionId()).build())
+                .type(record.getType())
+                .content(record.getContent())
+                .participantId(record.getParticipantId())
+                .timestamp(record.getTimestamp())
+                .sequenceNumber(record.getSequenceNumber())
+                .durationSeconds(record.getDurationSeconds())
+                .metadata(record.getMetadata())
+                .createdBy(record.getParticipantId())
+                .version(0L)
+                .build();
+    }
+
+    private static int checksum(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private record LoggedRecord(long lsn, byte[] payload, SessionInteraction interaction) {
+    }
+
+    private static final class Segment {
+        private final Path path;
+        private final MappedByteBuffer buffer;
+        private long lastLsn;
+        private int forced;
+
+        private Segment(Path path, MappedByteBuffer buffer, long lastLsn) {
+            this.path = path;
+            this.buffer = buffer;
+            this.lastLsn = lastLsn;
+        }
+
+        private int remaining() {
+            return buffer.remaining();
+        }
+
+        private int position() {
+            return buffer.position();
+        }
+
+        private void write(long lsn, byte[] payload) {
+            buffer.putInt(payload.length)
+                    .putInt(checksum(payload))
+                    .putLong(lsn)
+                    .put(payload);
+            lastLsn = lsn;
+        }
+    }
+}
@@ -0,0 +1,367 @@
+package com.interviewgene.service;
+
+import com.interviewgene.common.exception.ServiceUnavailableException;
+import com.interviewgene.model.SessionInteraction;
+import com.interviewgene.repository.SessionInteractionJdbcRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.NonTransientDataAccessException;
+import org.springframework.dao.NonTransientDataAccessResourceException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded per-node buffer that persists live interactions behind the broadcast.
+ * <p>
+ * Interactions are queued by {@link RealTimeHandler} and a single flusher thread writes them to
+ * {@code session_interactions}/{@code interaction_metadata} as JDBC batches, committing a group
+ * when it reaches the batch size or the maximum delay, whichever comes first. When the buffer is
+ * full, callers are rejected with a {@link ServiceUnavailableException} instead of piling more
+ * load onto the database.
+ * <p>
+ * When the {@link InteractionWriteAheadLog} is enabled, each interaction is appended to it after a
+ * buffer slot has been reserved and confirmed once its batch commits, so a crash between broadcast
+ * and commit does not lose acknowledged messages.
+ * <p>
+ * Every interaction is reported to the {@link SessionSequenceAllocator} once its batch commits or
+ * is dropped, so sequence counters are never re-seeded past numbers still waiting in the queue.
+ * <p>
+ * A batch the database rejects is split and retried in halves, so a single bad row (a duplicate
+ * sequence number, a session deleted meanwhile) only drops itself. Dropped interactions are
+ * published per session as an {@link InteractionsDroppedEvent}. Any other failure, such as a lost
+ * connection or a pool timeout, is treated as an outage: the batch is kept whole and retried with
+ * backoff capped at {@code max-retry-backoff}, while its slots stay taken so callers are pushed
+ * back once the buffer fills up.
+ */
+@Component
+@Slf4j
+public class InteractionWriteBehindBuffer {
+
+    private static final Duration INITIAL_RETRY_BACKOFF = Duration.ofMillis(100);
+    private static final Duration SHUTDOWN_GRACE = Duration.ofSeconds(30);
+
+    private final SessionInteractionJdbcRepository jdbcRepository;
+    private final InteractionWriteAheadLog writeAheadLog;
+    private final SessionSequenceAllocator sequenceAllocator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final Duration maxBatchDelay;
+    private final Duration enqueueTimeout;
+    private final Duration maxRetryBackoff;
+    private final BlockingQueue<PendingWrite> queue;
+    private final Semaphore slots;
+
+    private final Timer flushLag;
+    private final Timer flushDuration;
+    private final DistributionSummary batchSizes;
+    private final Counter rejected;
+    private final Counter dropped;
+
+    private volatile boolean running;
+    private volatile long stopDeadline;
+    private Thread flusher;
+
+    public InteractionWriteBehindBuffer(SessionInteractionJdbcRepository jdbcRepository,
+                                        InteractionWriteAheadLog writeAheadLog,
+                                        SessionSequenceAllocator sequenceAllocator,
+                                        ApplicationEventPublisher eventPublisher,
+                                        PlatformTransactionManager transactionManager,
+                                        MeterRegistry meterRegistry,
+                                        @Value("${interview.realtime.write-behind.enabled:false}") boolean enabled,
+                                        @Value("${interview.realtime.write-behind.capacity:10000}") int capacity,
+                                        @Value("${interview.realtime.write-behind.batch-size:200}") int maxBatchSize,
+                                        @Value("${interview.realtime.write-behind.max-delay:50ms}") Duration maxBatchDelay,
+                                        @Value("${interview.realtime.write-behind.enqueue-timeout:100ms}") Duration enqueueTimeout,
+                                        @Value("${interview.realtime.write-behind.max-retry-backoff:5s}") Duration maxRetryBackoff) {
+        this.jdbcRepository = jdbcRepository;
+        this.writeAheadLog = writeAheadLog;
+        this.sequenceAllocator = sequenceAllocator;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.maxBatchSize = maxBatchSize;
+        this.maxBatchDelay = maxBatchDelay;
+        this.enqueueTimeout = enqueueTimeout;
+        this.maxRetryBackoff = maxRetryBackoff;
+        this.queue = new LinkedBlockingQueue<>();
+        this.slots = new Semaphore(capacity);
+
+        Gauge.builder("interview.interactions.write_behind.pending", queue, BlockingQueue::size)
+                .description("Interactions accepted but not yet committed")
+                .register(meterRegistry);
+        Gauge.builder("interview.interactions.write_behind.available", slots, Semaphore::availablePermits)
+                .description("Free buffer slots before callers are rejected")
+                .register(meterRegistry);
+        this.flushLag = Timer.builder("interview.interactions.write_behind.flush.lag")
+                .description("Time from enqueue to database commit")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.flushDuration = Timer.builder("interview.interactions.write_behind.flush.duration")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("interview.interactions.write_behind.batch.size")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("interview.interactions.write_behind.rejected")
+                .description("Interactions rejected because the buffer was full")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("interview.interactions.write_behind.dropped")
+                .description("Interactions the database rejected, isolated from the rest of their batch")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        flusher = new Thread(this::runFlusher, "interaction-write-behind");
+        flusher.setDaemon(true);
+        flusher.start();
+        log.info("Write-behind interaction persistence enabled (batch size: {}, max delay: {})",
+                maxBatchSize, maxBatchDelay);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (flusher == null) {
+            return;
+        }
+        stopDeadline = System.nanoTime() + SHUTDOWN_GRACE.toNanos();
+        running = false;
+        flusher.join(SHUTDOWN_GRACE.toMillis());
+        if (!queue.isEmpty()) {
+            log.error("Write-behind buffer stopped with {} unflushed interactions", queue.size());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int pending() {
+        return queue.size();
+    }
+
+    /**
+     * Queue an interaction for batched persistence, waiting briefly for space when the buffer is full.
+     * The slot is reserved before the write-ahead log append so a rejected interaction is never logged.
+     */
+    public void enqueue(SessionInteraction interaction) {
+        boolean reserved;
+        try {
+            reserved = slots.tryAcquire(enqueueTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            reserved = false;
+        }
+
+        if (!reserved) {
+            rejected.increment();
+            throw new ServiceUnavailableException("Interaction write buffer is full, please retry");
+        }
+
+        long lsn;
+        try {
+            lsn = writeAheadLog.isEnabled() ? writeAheadLog.append(interaction) : PendingWrite.NOT_LOGGED;
+        } catch (RuntimeException e) {
+            slots.release();
+            throw e;
+        }
+        queue.add(new PendingWrite(interaction, lsn, System.nanoTime()));
+    }
+
+    private void runFlusher() {
+        List<PendingWrite> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                collectBatch(batch);
+                if (!batch.isEmpty()) {
+                    flush(batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Unexpected error in write-behind flusher", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void collectBatch(List<PendingWrite> batch) throws InterruptedException {
+        PendingWrite first = queue.poll(maxBatchDelay.toNanos(), TimeUnit.NANOSECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+
+        long deadline = System.nanoTime() + maxBatchDelay.toNanos();
+        while (batch.size() < maxBatchSize) {
+            queue.drainTo(batch, maxBatchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= maxBatchSize || remaining <= 0) {
+                return;
+            }
+            PendingWrite next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<PendingWrite> batch) throws InterruptedException {
+        Map<UUID, List<SessionInteraction>> drops = new LinkedHashMap<>();
+        write(batch, drops);
+        drops.forEach(this::reportDrops);
+    }
+
+    /**
+     * Commit the writes in one transaction. When the database rejects a row, each half is written
+     * on its own, down to single rows, so only the rows it keeps rejecting are dropped. Other
+     * failures retry the same writes until they commit or shutdown gives up on them.
+     */
+    private void write(List<PendingWrite> writes, Map<UUID, List<SessionInteraction>> drops)
+            throws InterruptedException {
+        Duration backoff = shorter(INITIAL_RETRY_BACKOFF, maxRetryBackoff);
+        for (int attempt = 1; ; attempt++) {
+            long started = System.nanoTime();
+            try {
+                insert(writes);
+            } catch (RuntimeException e) {
+                if (isRejected(e)) {
+                    // Retrying fails the same way, so isolate the rows the database rejects
+                    if (writes.size() == 1) {
+                        drop(writes.get(0), e, drops);
+                        return;
+                    }
+                    int half = writes.size() / 2;
+                    write(writes.subList(0, half), drops);
+                    write(writes.subList(half, writes.size()), drops);
+                    return;
+                }
+                if (!running && System.nanoTime() - stopDeadline >= 0) {
+                    abandon(writes, e);
+                    return;
+                }
+                log.warn("Write-behind flush of {} interactions failed (attempt {}), retrying in {}: {}",
+                        writes.size(), attempt, backoff, e.getMessage());
+                Thread.sleep(backoff.toMillis());
+                backoff = shorter(backoff.multipliedBy(2), maxRetryBackoff);
+                continue;
+            }
+            committed(writes, started);
+            return;
+        }
+    }
+
+    /**
+     * Whether the database refused the rows themselves, rather than being unreachable or overloaded
+     */
+    private static boolean isRejected(RuntimeException e) {
+        return e instanceof NonTransientDataAccessException && !(e instanceof NonTransientDataAccessResourceException);
+    }
+
+    private static Duration shorter(Duration a, Duration b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+
+    private void insert(List<PendingWrite> writes) {
+        List<SessionInteraction> interactions = new ArrayList<>(writes.size());
+        for (PendingWrite write : writes) {
+            interactions.add(write.interaction);
+        }
+        transactionTemplate.executeWithoutResult(status -> jdbcRepository.batchInsert(interactions));
+    }
+
+    private void committed(List<PendingWrite> writes, long started) {
+        slots.release(writes.size());
+        long committed = System.nanoTime();
+        flushDuration.record(committed - started, TimeUnit.NANOSECONDS);
+        batchSizes.record(writes.size());
+        List<Long> lsns = new ArrayList<>(writes.size());
+        for (PendingWrite write : writes) {
+            flushLag.record(committed - write.enqueuedAt, TimeUnit.NANOSECONDS);
+            sequenceAllocator.written(write.sessionId());
+            if (write.lsn != PendingWrite.NOT_LOGGED) {
+                lsns.add(write.lsn);
+            }
+        }
+        if (!lsns.isEmpty()) {
+            writeAheadLog.confirm(lsns);
+        }
+    }
+
+    private void drop(PendingWrite write, RuntimeException cause, Map<UUID, List<SessionInteraction>> drops) {
+        slots.release();
+        dropped.increment();
+        // Logged interactions move to the quarantine so they stop holding back log truncation
+        if (write.lsn != PendingWrite.NOT_LOGGED) {
+            writeAheadLog.quarantine(write.lsn, write.interaction, cause.getMessage());
+        }
+        sequenceAllocator.failed(write.sessionId(), write.interaction.getSequenceNumber(), 1);
+        drops.computeIfAbsent(write.sessionId(), id -> new ArrayList<>()).add(write.interaction);
+    }
+
+    /**
+     * Stop retrying writes at shutdown; logged interactions stay in the write-ahead log and are
+     * replayed on the next start
+     */
+    private void abandon(List<PendingWrite> writes, RuntimeException cause) {
+        slots.release(writes.size());
+        long logged = writes.stream().filter(write -> write.lsn != PendingWrite.NOT_LOGGED).count();
+        log.error("Write-behind buffer stopped before {} interactions could be written ({} kept in the write-ahead log): {}",
+                writes.size(), logged, cause.getMessage());
+    }
+
+    private void reportDrops(UUID sessionId, List<SessionInteraction> interactions) {
+        log.error("Dropped {} interactions of session: {} (sequence numbers: {})", interactions.size(), sessionId,
+                interactions.stream().map(SessionInteraction::getSequenceNumber).toList());
+        try {
+            eventPublisher.publishEvent(new InteractionsDroppedEvent(this, sessionId, interactions));
+        } catch (RuntimeException e) {
+            log.warn("Failed to report dropped interactions of session: {}: {}", sessionId, e.getMessage());
+        }
+    }
+
+    private static final class PendingWrite {
+        private static final long NOT_LOGGED = -1L;
+
+        private final SessionInteraction interaction;
+        private final long lsn;
+        private final long enqueuedAt;
+
+        private PendingWrite(SessionInteraction interaction, long lsn, long enqueuedAt) {
+            this.interaction = interaction;
+            this.lsn = lsn;
+            this.enqueuedAt = enqueuedAt;
+        }
+
+        private UUID sessionId() {
+            return interaction.getSession().getSessionId();
+        }
+    }
+}
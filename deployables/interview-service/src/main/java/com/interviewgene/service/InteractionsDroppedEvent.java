@@ -0,0 +1,25 @@
+package com.interviewgene.service;
+
+import com.interviewgene.model.SessionInteraction;
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Published when the write-behind buffer gives up on interactions of a session that were already broadcast
+ */
+@Getter
+public class InteractionsDroppedEvent extends ApplicationEvent {
+
+    private final UUID sessionId;
+    private final List<SessionInteraction> interactions;
+
+    public InteractionsDroppedEvent(InteractionWriteBehindBuffer source, UUID sessionId,
+                                    List<SessionInteraction> interactions) {
+        super(source);
+        this.sessionId = sessionId;
+        this.interactions = List.copyOf(interactions);
+    }
+}
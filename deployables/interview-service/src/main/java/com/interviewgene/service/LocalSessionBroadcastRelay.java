@@ -0,0 +1,43 @@
+package com.interviewgene.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * In-process relay for single-node deployments and tests: messages only reach this node's broker
+ */
+@Component
+@ConditionalOnProperty(name = "interview.realtime.relay", havingValue = "local", matchIfMissing = true)
+public class LocalSessionBroadcastRelay extends AbstractSessionBroadcastRelay {
+
+    public LocalSessionBroadcastRelay(SimpMessagingTemplate messagingTemplate, ObjectMapper objectMapper) {
+        super(messagingTemplate, objectMapper);
+    }
+
+    @Override
+    public void broadcast(UUID sessionId, String destination, Object payload, Priority priority) {
+        deliverLocally(destination, encode(payload), priority, typeOf(payload));
+    }
+
+    @Override
+    public void sendToUser(UUID sessionId, UUID userId, String destination, Object payload) {
+        deliverLocally(userDestination(userId.toString(), destination), encode(payload), Priority.NORMAL,
+                typeOf(payload));
+    }
+
+    @Override
+    public void fanOut(UUID sessionId, String topicDestination, Collection<UUID> userIds, String userDestination,
+                       Object payload, Priority priority) {
+        byte[] encoded = encode(payload);
+        String payloadType = typeOf(payload);
+        deliverLocally(topicDestination, encoded, priority, payloadType);
+        for (UUID userId : userIds) {
+            deliverLocally(userDestination(userId.toString(), userDestination), encoded, priority, payloadType);
+        }
+    }
+}
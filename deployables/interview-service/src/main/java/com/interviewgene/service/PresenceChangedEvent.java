@@ -0,0 +1,23 @@
+package com.interviewgene.service;
+
+import com.interviewgene.dto.ParticipantPresence;
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.util.UUID;
+
+/**
+ * Published when a participant's first connection to a session opens or their last one closes
+ */
+@Getter
+public class PresenceChangedEvent extends ApplicationEvent {
+
+    private final UUID sessionId;
+    private final ParticipantPresence presence;
+
+    public PresenceChangedEvent(PresenceRegistry source, UUID sessionId, ParticipantPresence presence) {
+        super(source);
+        this.sessionId = sessionId;
+        this.presence = presence;
+    }
+}
@@ -0,0 +1,260 @@
+package com.interviewgene.service;
+
+import com.interviewgene.dto.ParticipantPresence;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionConnectEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+import java.security.Principal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Who is connected to each interview session on this node.
+ * <p>
+ * A STOMP connection joins a session when it connects with a {@code sessionId} handshake
+ * parameter, subscribes to one of the session's topics, or sends an explicit join; it leaves on
+ * an explicit leave or DISCONNECT. Every inbound frame, heartbeats included, refreshes the
+ * connection's last-seen time, and connections silent for longer than the stale threshold are
+ * reaped as if they had disconnected.
+ * <p>
+ * A {@link PresenceChangedEvent} is published only when a participant's first connection to a
+ * session opens or their last one closes, so extra tabs and reconnects do not produce events.
+ */
+@Component
+@Slf4j
+public class PresenceRegistry implements ChannelInterceptor {
+
+    /**
+     * Handshake attribute holding the session named in the {@code sessionId} query parameter
+     */
+    public static final String SESSION_ID_ATTRIBUTE = "interviewSessionId";
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final long staleAfterNanos;
+    private final ConcurrentMap<String, Connection> connections = new ConcurrentHashMap<>();
+    private final Map<UUID, Map<UUID, Presence>> sessions = new HashMap<>();
+
+    private final Counter reaped;
+
+    public PresenceRegistry(ApplicationEventPublisher eventPublisher,
+                            MeterRegistry meterRegistry,
+                            @Value("${interview.realtime.presence.stale-after:45s}") Duration staleAfter) {
+        this.eventPublisher = eventPublisher;
+        this.staleAfterNanos = staleAfter.toNanos();
+
+        Gauge.builder("interview.realtime.presence.connections", connections, Map::size)
+                .description("STOMP connections tracked for presence")
+                .register(meterRegistry);
+        this.reaped = Counter.builder("interview.realtime.presence.reaped")
+                .description("Connections removed after missing heartbeats")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Refresh the last-seen time of the connection that sent a frame
+     */
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        String connectionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        Connection connection = connectionId != null ? connections.get(connectionId) : null;
+        if (connection != null) {
+            connection.lastSeen = System.nanoTime();
+        }
+        return message;
+    }
+
+    /**
+     * Record a connection as present in a session
+     */
+    public void join(UUID sessionId, UUID participantId, String connectionId) {
+        ParticipantPresence joined = null;
+        synchronized (this) {
+            Connection connection = connections.computeIfAbsent(connectionId, id -> new Connection(participantId));
+            if (!connection.participantId.equals(participantId) || !connection.sessions.add(sessionId)) {
+                return;
+            }
+            Presence presence = sessions.computeIfAbsent(sessionId, id -> new HashMap<>())
+                    .computeIfAbsent(participantId, id -> new Presence(LocalDateTime.now()));
+            presence.connections.add(connectionId);
+            if (presence.connections.size() == 1) {
+                joined = presence.toDto(participantId, true);
+            }
+        }
+        publish(sessionId, joined);
+    }
+
+    /**
+     * Remove a connection from a session
+     */
+    public void leave(UUID sessionId, String connectionId) {
+        ParticipantPresence left;
+        synchronized (this) {
+            Connection connection = connections.get(connectionId);
+            if (connection == null || !connection.sessions.remove(sessionId)) {
+                return;
+            }
+            left = removeFromSession(sessionId, connection.participantId, connectionId);
+        }
+        publish(sessionId, left);
+    }
+
+    public synchronized List<ParticipantPresence> snapshot(UUID sessionId) {
+        Map<UUID, Presence> participants = sessions.get(sessionId);
+        if (participants == null) {
+            return List.of();
+        }
+        List<ParticipantPresence> snapshot = new ArrayList<>(participants.size());
+        participants.forEach((participantId, presence) -> snapshot.add(presence.toDto(participantId, true)));
+        return snapshot;
+    }
+
+    public synchronized boolean isPresent(UUID sessionId, UUID participantId) {
+        Map<UUID, Presence> participants = sessions.get(sessionId);
+        return participants != null && participants.containsKey(participantId);
+    }
+
+    @EventListener
+    public void onConnect(SessionConnectEvent event) {
+        UUID participantId = participantId(event.getUser());
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        if (participantId == null || accessor.getSessionId() == null) {
+            return;
+        }
+        connections.putIfAbsent(accessor.getSessionId(), new Connection(participantId));
+
+        Map<String, Object> attributes = accessor.getSessionAttributes();
+        Object sessionId = attributes != null ? attributes.get(SESSION_ID_ATTRIBUTE) : null;
+        if (sessionId instanceof UUID id) {
+            join(id, participantId, accessor.getSessionId());
+        }
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        UUID participantId = participantId(event.getUser());
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        UUID sessionId = SessionSubscriptionRegistry.parseSessionId(accessor.getDestination());
+        if (participantId != null && sessionId != null && accessor.getSessionId() != null) {
+            join(sessionId, participantId, accessor.getSessionId());
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        disconnect(event.getSessionId());
+    }
+
+    /**
+     * Drop connections that have not sent a frame or heartbeat within the stale threshold
+     */
+    @Scheduled(fixedDelayString = "${interview.realtime.presence.reap-interval:15s}")
+    public void reapStaleConnections() {
+        long now = System.nanoTime();
+        connections.forEach((connectionId, connection) -> {
+            if (now - connection.lastSeen >= staleAfterNanos) {
+                log.info("Reaping stale connection {} of participant {}", connectionId, connection.participantId);
+                reaped.increment();
+                disconnect(connectionId);
+            }
+        });
+    }
+
+    private void disconnect(String connectionId) {
+        Map<UUID, ParticipantPresence> left = new HashMap<>();
+        synchronized (this) {
+            Connection connection = connections.remove(connectionId);
+            if (connection == null) {
+                return;
+            }
+            for (UUID sessionId : connection.sessions) {
+                ParticipantPresence presence = removeFromSession(sessionId, connection.participantId, connectionId);
+                if (presence != null) {
+                    left.put(sessionId, presence);
+                }
+            }
+        }
+        left.forEach(this::publish);
+    }
+
+    private ParticipantPresence removeFromSession(UUID sessionId, UUID participantId, String connectionId) {
+        Map<UUID, Presence> participants = sessions.get(sessionId);
+        Presence presence = participants != null ? participants.get(participantId) : null;
+        if (presence == null || !presence.connections.remove(connectionId) || !presence.connections.isEmpty()) {
+            return null;
+        }
+        participants.remove(participantId);
+        if (participants.isEmpty()) {
+            sessions.remove(sessionId);
+        }
+        return presence.toDto(participantId, false);
+    }
+
+    private void publish(UUID sessionId, ParticipantPresence presence) {
+        if (presence != null) {
+            eventPublisher.publishEvent(new PresenceChangedEvent(this, sessionId, presence));
+        }
+    }
+
+    private static UUID participantId(Principal user) {
+        if (user == null) {
+            return null;
+        }
+        try {
+            return UUID.fromString(user.getName());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static final class Connection {
+        private final UUID participantId;
+        private final Set<UUID> sessions = new HashSet<>();
+        private volatile long lastSeen = System.nanoTime();
+
+        private Connection(UUID participantId) {
+            this.participantId = participantId;
+        }
+    }
+
+    private static final class Presence {
+        private final Set<String> connections = new HashSet<>();
+        private final LocalDateTime connectedSince;
+
+        private Presence(LocalDateTime connectedSince) {
+            this.connectedSince = connectedSince;
+        }
+
+        private ParticipantPresence toDto(UUID participantId, boolean online) {
+            return ParticipantPresence.builder()
+                    .participantId(participantId)
+                    .online(online)
+                    .connections(connections.size())
+                    .connectedSince(connectedSince)
+                    .build();
+        }
+    }
+}
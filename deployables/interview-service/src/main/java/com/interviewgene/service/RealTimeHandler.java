@@ -1,23 +1,39 @@
 package com.interviewgene.service;
 
 import com.interviewgene.common.exception.ResourceNotFoundException;
+import com.interviewgene.common.exception.ServiceUnavailableException;
 import com.interviewgene.common.exception.ValidationException;
+import com.interviewgene.dto.CursorPage;
 import com.interviewgene.dto.InteractionMessage;
+import com.interviewgene.dto.ParticipantPresence;
 import com.interviewgene.dto.SessionEventMessage;
 import com.interviewgene.model.InterviewSession;
 import com.interviewgene.model.SessionInteraction;
 import com.interviewgene.repository.SessionInteractionRepository;
 import com.interviewgene.repository.SessionRepository;
+import com.interviewgene.util.KeysetCursor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
@@ -29,26 +45,58 @@ import java.util.stream.Collectors;
 @Transactional
 public class RealTimeHandler {
 
+    /** How long a resync that falls back to the database waits for the session's queued writes */
+    private static final Duration RESYNC_DRAIN_TIMEOUT = Duration.ofSeconds(2);
+
     private final SessionRepository sessionRepository;
     private final SessionInteractionRepository interactionRepository;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final SessionBroadcastRelay broadcastRelay;
+    private final SessionSequenceAllocator sequenceAllocator;
+    private final InteractionWriteBehindBuffer writeBehindBuffer;
+    private final SessionStateCache sessionCache;
+    private final RecentInteractionBuffer recentInteractions;
+    private final TypingIndicatorCoalescer typingCoalescer;
+    private final SessionObserverRegistry observerRegistry;
+    private final PresenceRegistry presenceRegistry;
+    private final MeterRegistry meterRegistry;
+    private final InteractionDedupWindow dedupWindow;
 
     /**
-     * Process and store a new interaction, then broadcast to session participants
+     * Process and store a new interaction, then broadcast to session participants. A retry of a
+     * message that was already delivered returns the interaction stored the first time.
      */
     public SessionInteraction processInteraction(InteractionMessage message) {
         log.info("Processing interaction for session: {} from participant: {}", 
                 message.getSessionId(), message.getParticipantId());
 
-        // Validate session exists and is active
-        InterviewSession session = validateSessionForInteraction(message.getSessionId());
-        
-        // Create and save interaction
-        SessionInteraction interaction = createInteraction(session, message);
-        SessionInteraction savedInteraction = interactionRepository.save(interaction);
+        CompletableFuture<SessionInteraction> earlier = dedupWindow.claim(message.getSessionId(), message);
+        if (earlier != null) {
+            log.info("Ignoring retried interaction {} for session: {}", message.getMessageId(), message.getSessionId());
+            return awaitEarlierDelivery(earlier);
+        }
+
+        SessionInteraction savedInteraction;
+        try {
+            // Validate session exists and is active
+            InterviewSession session = validateSessionForInteraction(message.getSessionId());
+
+            // Create and persist interaction, either inline or behind the broadcast
+            SessionInteraction interaction = createInteraction(session, message);
+            savedInteraction = writeBehindBuffer.isEnabled()
+                    ? enqueueInteraction(interaction)
+                    : saveInteraction(interaction);
+        } catch (RuntimeException e) {
+            dedupWindow.abandon(message.getSessionId(), message.getMessageId(), e);
+            throw e;
+        }
+        dedupWindow.complete(message.getSessionId(), message.getMessageId(), savedInteraction);
 
-        // Broadcast to session participants
-        broadcastInteractionToSession(message.getSessionId(), mapToMessage(savedInteraction));
+        // Broadcast to session participants and keep it for reconnecting clients; the sender
+        // matches the stored interaction to its frame by the correlation ID
+        InteractionMessage broadcast = mapToMessage(savedInteraction);
+        broadcast.setCorrelationId(message.getMessageId());
+        broadcastInteractionToSession(message.getSessionId(), broadcast);
+        recentInteractions.append(broadcast);
 
         log.info("Processed interaction: {} for session: {}", 
                 savedInteraction.getInteractionId(), message.getSessionId());
@@ -74,76 +122,241 @@ public class RealTimeHandler {
     }
 
     /**
-     * Get interactions within a time range
+     * Get interactions newer than the given sequence number, or all interactions when no cursor is given
      */
     @Transactional(readOnly = true)
-    public List<InteractionMessage> getSessionInteractions(UUID sessionId, 
-                                                          LocalDateTime startTime, 
-                                                          LocalDateTime endTime) {
-        log.debug("Retrieving interactions for session: {} between {} and {}", 
-                sessionId, startTime, endTime);
+    public List<InteractionMessage> getSessionInteractionsAfter(UUID sessionId, Integer lastSequenceNumber) {
+        if (lastSequenceNumber == null) {
+            return getSessionInteractions(sessionId);
+        }
+        log.debug("Retrieving interactions for session: {} after sequence {}", sessionId, lastSequenceNumber);
+
+        Optional<List<InteractionMessage>> tail = recentInteractions.tailAfter(sessionId, lastSequenceNumber);
+        if (tail.isPresent()) {
+            return tail.get();
+        }
+
+        if (sessionCache.getOrLoad(sessionId).isEmpty()) {
+            throw new ResourceNotFoundException("Session not found: " + sessionId);
+        }
+        awaitPendingWrites(sessionId);
 
-        return interactionRepository.findBySessionAndTimeRange(sessionId, startTime, endTime)
+        return interactionRepository.findBySessionAndSequenceRange(sessionId, lastSequenceNumber + 1, Integer.MAX_VALUE)
                 .stream()
                 .map(this::mapToMessage)
                 .collect(Collectors.toList());
     }
 
     /**
-     * Broadcast session event to all participants
+     * Get a page of interactions in sequence order, starting after the cursor, or after
+     * {@code lastSequenceNumber} when no cursor is given. Recent pages are served from memory.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<InteractionMessage> getSessionInteractionsPage(UUID sessionId, Integer lastSequenceNumber,
+                                                                     String cursor, int limit) {
+        Integer cursorSequence = KeysetCursor.decodeSequence(cursor);
+        int after = cursorSequence != null ? cursorSequence : lastSequenceNumber != null ? lastSequenceNumber : 0;
+        int pageSize = KeysetCursor.pageSize(limit);
+        log.debug("Retrieving {} interactions for session: {} after sequence {}", pageSize, sessionId, after);
+
+        Optional<List<InteractionMessage>> tail = recentInteractions.tailAfter(sessionId, after);
+        if (tail.isPresent()) {
+            List<InteractionMessage> messages = tail.get();
+            return toPage(messages.subList(0, Math.min(messages.size(), pageSize + 1)), pageSize);
+        }
+
+        if (sessionCache.getOrLoad(sessionId).isEmpty()) {
+            throw new ResourceNotFoundException("Session not found: " + sessionId);
+        }
+        awaitPendingWrites(sessionId);
+
+        return toPage(interactionRepository.findPageBySession(sessionId, after, PageRequest.of(0, pageSize + 1))
+                .stream()
+                .map(this::mapToMessage)
+                .collect(Collectors.toList()), pageSize);
+    }
+
+    /**
+     * Get a page of interactions within a time range in sequence order
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<InteractionMessage> getSessionInteractionsPage(UUID sessionId,
+                                                                     LocalDateTime startTime,
+                                                                     LocalDateTime endTime,
+                                                                     String cursor, int limit) {
+        Integer cursorSequence = KeysetCursor.decodeSequence(cursor);
+        int pageSize = KeysetCursor.pageSize(limit);
+        log.debug("Retrieving {} interactions for session: {} between {} and {}",
+                pageSize, sessionId, startTime, endTime);
+
+        return toPage(interactionRepository.findPageBySessionAndTimeRange(sessionId,
+                        cursorSequence != null ? cursorSequence : 0, startTime, endTime,
+                        PageRequest.of(0, pageSize + 1))
+                .stream()
+                .map(this::mapToMessage)
+                .collect(Collectors.toList()), pageSize);
+    }
+
+    /**
+     * Wait until interactions of the session still queued for write-behind are stored, so a resync
+     * read from the database does not skip sequence numbers that were already broadcast
+     */
+    private void awaitPendingWrites(UUID sessionId) {
+        if (writeBehindBuffer.isEnabled() && !sequenceAllocator.awaitDrained(sessionId, RESYNC_DRAIN_TIMEOUT)) {
+            throw new ServiceUnavailableException("Interactions for session " + sessionId
+                    + " are still being stored, please retry");
+        }
+    }
+
+    /**
+     * Broadcast session event to all participants and observers
      */
     public void broadcastSessionEvent(UUID sessionId, SessionEventMessage eventMessage) {
+        broadcastSessionEvent(sessionId, eventMessage, SessionBroadcastRelay.Priority.NORMAL);
+    }
+
+    /**
+     * Broadcast session event to all participants and observers, marked with a priority so that
+     * ephemeral events can be shed for slow consumers
+     */
+    public void broadcastSessionEvent(UUID sessionId, SessionEventMessage eventMessage,
+                                      SessionBroadcastRelay.Priority priority) {
         log.info("Broadcasting session event: {} for session: {}", 
                 eventMessage.getEventType(), sessionId);
 
-        // Send to session topic
-        messagingTemplate.convertAndSend("/topic/session/" + sessionId + "/events", eventMessage);
+        // Participants and observers get their own copy on the user queue
+        Set<UUID> recipients = new LinkedHashSet<>();
+        sessionCache.getOrLoad(sessionId).ifPresent(session -> {
+            recipients.add(session.getInterviewerId());
+            recipients.add(session.getCandidateId());
+        });
+        recipients.addAll(observerRegistry.observers(sessionId));
+
+        // Encode once and send the same bytes to the session topic and every recipient
+        broadcastRelay.fanOut(sessionId, "/topic/session/" + sessionId + "/events",
+                recipients, "/queue/session-events", eventMessage, priority);
+    }
 
-        // Send to individual participants if needed
-        InterviewSession session = sessionRepository.findById(sessionId).orElse(null);
-        if (session != null) {
-            messagingTemplate.convertAndSendToUser(
-                    session.getInterviewerId().toString(),
-                    "/queue/session-events",
-                    eventMessage
-            );
-            messagingTemplate.convertAndSendToUser(
-                    session.getCandidateId().toString(),
-                    "/queue/session-events",
-                    eventMessage
-            );
+    /**
+     * Register an observer or spectator for a session's events
+     */
+    public void handleObserverJoined(UUID sessionId, UUID observerId, String connectionId) {
+        log.info("Observer {} watching session: {}", observerId, sessionId);
+
+        CachedSession session = sessionCache.getOrLoad(sessionId)
+                .orElseThrow(() -> new ResourceNotFoundException("Session not found: " + sessionId));
+        if (session.isCompleted()) {
+            throw new ValidationException("Session is not available for observers: " + session.getStatus());
         }
+        observerRegistry.observe(sessionId, observerId, connectionId);
+    }
+
+    /**
+     * Stop sending a session's events to an observer connection
+     */
+    public void handleObserverLeft(UUID sessionId, UUID observerId, String connectionId) {
+        log.info("Observer {} stopped watching session: {}", observerId, sessionId);
+
+        observerRegistry.stopObserving(sessionId, connectionId);
     }
 
     /**
      * Handle participant joining session
      */
-    public void handleParticipantJoined(UUID sessionId, UUID participantId) {
-        log.info("Participant {} joined session: {}", participantId, sessionId);
+    public void handleParticipantJoined(UUID sessionId, UUID participantId, String connectionId) {
+        long started = System.nanoTime();
+        boolean warm = sessionCache.isWarm(sessionId);
+
+        // Warm the session state so the interactions that follow need no session reads
+        sessionCache.getOrLoad(sessionId);
+
+        // The joined event goes out from onPresenceChanged if this is the participant's first connection
+        presenceRegistry.join(sessionId, participantId, connectionId);
+
+        long elapsed = System.nanoTime() - started;
+        Timer.builder("interview.sessions.join.latency")
+                .description("Time to handle a participant joining a session")
+                .tag("warm", String.valueOf(warm))
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry)
+                .record(elapsed, TimeUnit.NANOSECONDS);
+        log.info("Participant {} joined session: {} in {} ms (warm: {})",
+                participantId, sessionId, TimeUnit.NANOSECONDS.toMillis(elapsed), warm);
+    }
+
+    /**
+     * Load a session's existing interactions into the recent-interaction buffer before anyone joins
+     */
+    @Transactional(readOnly = true)
+    public void primeRecentInteractions(UUID sessionId) {
+        if (recentInteractions.isBuffered(sessionId)) {
+            return;
+        }
+        List<InteractionMessage> history = interactionRepository
+                .findBySessionAndSequenceRange(sessionId, 1, Integer.MAX_VALUE)
+                .stream()
+                .map(this::mapToMessage)
+                .collect(Collectors.toList());
+        recentInteractions.prime(sessionId, history);
+    }
+
+    /**
+     * Handle participant leaving session
+     */
+    public void handleParticipantLeft(UUID sessionId, UUID participantId, String connectionId) {
+        log.info("Participant {} left session: {}", participantId, sessionId);
+
+        presenceRegistry.leave(sessionId, connectionId);
+    }
+
+    /**
+     * Broadcast a presence delta when a participant comes online or goes offline in a session
+     */
+    @EventListener
+    public void onPresenceChanged(PresenceChangedEvent event) {
+        UUID sessionId = event.getSessionId();
+        ParticipantPresence presence = event.getPresence();
+        if (!presence.isOnline()) {
+            typingCoalescer.participantLeft(sessionId, presence.getParticipantId());
+        }
 
         SessionEventMessage eventMessage = SessionEventMessage.builder()
                 .sessionId(sessionId)
-                .eventType(SessionEventMessage.SessionEventType.PARTICIPANT_JOINED)
-                .triggeredBy(participantId)
-                .message("Participant joined the session")
+                .eventType(presence.isOnline()
+                        ? SessionEventMessage.SessionEventType.PARTICIPANT_JOINED
+                        : SessionEventMessage.SessionEventType.PARTICIPANT_LEFT)
+                .triggeredBy(presence.getParticipantId())
+                .message(presence.isOnline() ? "Participant joined the session" : "Participant left the session")
                 .timestamp(LocalDateTime.now())
+                .eventData(presence)
                 .build();
 
-        broadcastSessionEvent(sessionId, eventMessage);
+        // Presence is ephemeral and clients can re-read it from the presence endpoint, so slow consumers may skip it
+        broadcastSessionEvent(sessionId, eventMessage, SessionBroadcastRelay.Priority.LOW);
     }
 
     /**
-     * Handle participant leaving session
+     * Tell a session's participants which broadcast interactions were never stored, and forget
+     * them so reconnecting clients are not served them and retries are accepted again
      */
-    public void handleParticipantLeft(UUID sessionId, UUID participantId) {
-        log.info("Participant {} left session: {}", participantId, sessionId);
+    @EventListener
+    public void onInteractionsDropped(InteractionsDroppedEvent event) {
+        UUID sessionId = event.getSessionId();
+        List<UUID> interactionIds = new ArrayList<>();
+        List<Integer> sequenceNumbers = new ArrayList<>();
+        for (SessionInteraction interaction : event.getInteractions()) {
+            recentInteractions.remove(sessionId, interaction.getSequenceNumber());
+            dedupWindow.forget(sessionId, interaction.getInteractionId());
+            interactionIds.add(interaction.getInteractionId());
+            sequenceNumbers.add(interaction.getSequenceNumber());
+        }
 
         SessionEventMessage eventMessage = SessionEventMessage.builder()
                 .sessionId(sessionId)
-                .eventType(SessionEventMessage.SessionEventType.PARTICIPANT_LEFT)
-                .triggeredBy(participantId)
-                .message("Participant left the session")
+                .eventType(SessionEventMessage.SessionEventType.INTERACTIONS_DROPPED)
+                .message("Interactions could not be saved, please resend them")
                 .timestamp(LocalDateTime.now())
+                .eventData(Map.of("interactionIds", interactionIds, "sequenceNumbers", sequenceNumbers))
                 .build();
 
         broadcastSessionEvent(sessionId, eventMessage);
@@ -156,17 +369,8 @@ public class RealTimeHandler {
         log.debug("Typing indicator for session: {}, participant: {}, typing: {}", 
                 sessionId, participantId, isTyping);
 
-        InteractionMessage typingMessage = InteractionMessage.builder()
-                .sessionId(sessionId)
-                .participantId(participantId)
-                .action(isTyping ? InteractionMessage.MessageAction.TYPING_START : 
-                                 InteractionMessage.MessageAction.TYPING_STOP)
-                .timestamp(LocalDateTime.now())
-                .messageId(UUID.randomUUID().toString())
-                .build();
-
-        // Broadcast typing indicator (don't store in database)
-        broadcastInteractionToSession(sessionId, typingMessage);
+        // Coalesce keystroke frames into state changes before broadcasting (don't store in database)
+        typingCoalescer.onTyping(sessionId, participantId, isTyping);
     }
 
     /**
@@ -185,6 +389,7 @@ public class RealTimeHandler {
 
         UUID sessionId = interaction.getSession().getSessionId();
         interactionRepository.delete(interaction);
+        recentInteractions.remove(sessionId, interaction.getSequenceNumber());
 
         // Broadcast deletion
         InteractionMessage deleteMessage = InteractionMessage.builder()
@@ -198,19 +403,29 @@ public class RealTimeHandler {
         broadcastInteractionToSession(sessionId, deleteMessage);
     }
 
+    private static SessionInteraction awaitEarlierDelivery(CompletableFuture<SessionInteraction> earlier) {
+        try {
+            return earlier.join();
+        } catch (CompletionException e) {
+            // The first attempt failed and released the ID, so the client's next retry is processed
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
     private InterviewSession validateSessionForInteraction(UUID sessionId) {
-        InterviewSession session = sessionRepository.findById(sessionId)
+        CachedSession session = sessionCache.getOrLoad(sessionId)
                 .orElseThrow(() -> new ResourceNotFoundException("Session not found: " + sessionId));
 
         if (!session.canJoin()) {
             throw new ValidationException("Session is not available for interactions: " + session.getStatus());
         }
 
-        return session;
+        // The interaction only needs the foreign key, so use a reference instead of loading the row
+        return sessionRepository.getReferenceById(sessionId);
     }
 
     private SessionInteraction createInteraction(InterviewSession session, InteractionMessage message) {
-        Integer nextSequenceNumber = interactionRepository.getNextSequenceNumber(session.getSessionId());
+        int nextSequenceNumber = sequenceAllocator.next(session.getSessionId());
 
         return SessionInteraction.builder()
                 .session(session)
@@ -224,9 +439,53 @@ public class RealTimeHandler {
                 .build();
     }
 
+    private SessionInteraction saveInteraction(SessionInteraction interaction) {
+        // Flush so a failed insert returns its sequence number here rather than at commit
+        UUID sessionId = interaction.getSession().getSessionId();
+        SessionInteraction saved;
+        try {
+            saved = interactionRepository.saveAndFlush(interaction);
+        } catch (RuntimeException e) {
+            sequenceAllocator.failed(sessionId, interaction.getSequenceNumber(), 1);
+            throw e;
+        }
+        sequenceAllocator.settleOnCompletion(sessionId, interaction.getSequenceNumber(), 1);
+        return saved;
+    }
+
+    private SessionInteraction enqueueInteraction(SessionInteraction interaction) {
+        // Assign what the database would have generated so the broadcast can go out before the insert
+        interaction.setInteractionId(UUID.randomUUID());
+        interaction.setTimestamp(LocalDateTime.now());
+        interaction.setVersion(0L);
+        // The buffer reports the write to the allocator once the batch commits or is dropped
+        try {
+            writeBehindBuffer.enqueue(interaction);
+        } catch (RuntimeException e) {
+            sequenceAllocator.failed(interaction.getSession().getSessionId(), interaction.getSequenceNumber(), 1);
+            throw e;
+        }
+        return interaction;
+    }
+
     private void broadcastInteractionToSession(UUID sessionId, InteractionMessage message) {
         // Send to session topic for all participants
-        messagingTemplate.convertAndSend("/topic/session/" + sessionId + "/interactions", message);
+        broadcastRelay.broadcast(sessionId, "/topic/session/" + sessionId + "/interactions", message);
+    }
+
+    /**
+     * Trim a list fetched with one extra element to detect further pages
+     */
+    private CursorPage<InteractionMessage> toPage(List<InteractionMessage> messages, int pageSize) {
+        boolean hasMore = messages.size() > pageSize;
+        List<InteractionMessage> page = hasMore ? messages.subList(0, pageSize) : messages;
+
+        return CursorPage.<InteractionMessage>builder()
+                .items(new ArrayList<>(page))
+                .limit(pageSize)
+                .hasMore(hasMore)
+                .nextCursor(hasMore ? KeysetCursor.encodeSequence(page.get(page.size() - 1).getSequenceNumber()) : null)
+                .build();
     }
 
     private InteractionMessage mapToMessage(SessionInteraction interaction) {
@@ -238,7 +497,8 @@ public class RealTimeHandler {
                 .timestamp(interaction.getTimestamp())
                 .sequenceNumber(interaction.getSequenceNumber())
                 .durationSeconds(interaction.getDurationSeconds())
-                .metadata(interaction.getMetadata())
+                // Copied so the message never holds a lazy collection once the transaction ends
+                .metadata(interaction.getMetadata() != null ? new HashMap<>(interaction.getMetadata()) : null)
                 .messageId(interaction.getInteractionId().toString())
                 .action(InteractionMessage.MessageAction.CREATE)
                 .build();
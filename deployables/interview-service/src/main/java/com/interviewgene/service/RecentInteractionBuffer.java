@@ -0,0 +1,139 @@
+package com.interviewgene.service;
+
+import com.interviewgene.dto.InteractionMessage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Per-session ring buffer of the most recent interactions, indexed by sequence number.
+ * <p>
+ * Reconnecting clients pass the last sequence number they saw and get only the newer messages.
+ * The tail is served from memory when every sequence number after the cursor is still buffered;
+ * otherwise the caller falls back to a sequence-range query.
+ */
+@Component
+public class RecentInteractionBuffer {
+
+    private final int capacity;
+    private final ConcurrentMap<UUID, Ring> rings = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+
+    public RecentInteractionBuffer(MeterRegistry meterRegistry,
+                                   @Value("${interview.realtime.recent-interactions.capacity:512}") int capacity) {
+        this.capacity = capacity;
+        this.hits = Counter.builder("interview.realtime.resync.requests").tag("source", "memory")
+                .register(meterRegistry);
+        this.misses = Counter.builder("interview.realtime.resync.requests").tag("source", "database")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Remember a broadcast interaction; messages without a sequence number are ignored
+     */
+    public void append(InteractionMessage message) {
+        if (message.getSequenceNumber() == null) {
+            return;
+        }
+        rings.computeIfAbsent(message.getSessionId(), id -> new Ring(capacity)).put(message);
+    }
+
+    /**
+     * Start buffering a session ahead of its first reconnect with the history it already has
+     */
+    public void prime(UUID sessionId, List<InteractionMessage> history) {
+        Ring ring = rings.computeIfAbsent(sessionId, id -> new Ring(capacity));
+        int from = Math.max(0, history.size() - capacity);
+        for (InteractionMessage message : history.subList(from, history.size())) {
+            if (message.getSequenceNumber() != null) {
+                ring.put(message);
+            }
+        }
+    }
+
+    public boolean isBuffered(UUID sessionId) {
+        return rings.containsKey(sessionId);
+    }
+
+    /**
+     * Forget an interaction that was deleted, so it is not replayed from memory
+     */
+    public void remove(UUID sessionId, Integer sequenceNumber) {
+        Ring ring = rings.get(sessionId);
+        if (ring != null && sequenceNumber != null) {
+            ring.remove(sequenceNumber);
+        }
+    }
+
+    /**
+     * Interactions after the cursor in sequence order, or empty when the buffer cannot serve all of them
+     */
+    public Optional<List<InteractionMessage>> tailAfter(UUID sessionId, int lastSequenceNumber) {
+        Ring ring = rings.get(sessionId);
+        Optional<List<InteractionMessage>> tail = ring != null ? ring.after(lastSequenceNumber) : Optional.empty();
+        (tail.isPresent() ? hits : misses).increment();
+        return tail;
+    }
+
+    public void release(UUID sessionId) {
+        rings.remove(sessionId);
+    }
+
+    @EventListener
+    public void onOwnershipChanged(SessionOwnershipChangedEvent event) {
+        rings.keySet().removeIf(sessionId -> !event.getRing().isLocal(sessionId));
+    }
+
+    private static final class Ring {
+        private final InteractionMessage[] slots;
+        private int highest;
+
+        private Ring(int capacity) {
+            this.slots = new InteractionMessage[capacity];
+        }
+
+        private synchronized void put(InteractionMessage message) {
+            int sequence = message.getSequenceNumber();
+            slots[Math.floorMod(sequence, slots.length)] = message;
+            highest = Math.max(highest, sequence);
+        }
+
+        private synchronized void remove(int sequence) {
+            int slot = Math.floorMod(sequence, slots.length);
+            InteractionMessage current = slots[slot];
+            if (current != null && current.getSequenceNumber() == sequence) {
+                slots[slot] = null;
+            }
+        }
+
+        private synchronized Optional<List<InteractionMessage>> after(int lastSequenceNumber) {
+            if (lastSequenceNumber >= highest) {
+                return Optional.of(Collections.emptyList());
+            }
+            if (highest - lastSequenceNumber > slots.length) {
+                return Optional.empty();
+            }
+
+            List<InteractionMessage> tail = new ArrayList<>(highest - lastSequenceNumber);
+            for (int sequence = lastSequenceNumber + 1; sequence <= highest; sequence++) {
+                InteractionMessage message = slots[Math.floorMod(sequence, slots.length)];
+                if (message == null || message.getSequenceNumber() != sequence) {
+                    return Optional.empty();
+                }
+                tail.add(message);
+            }
+            return Optional.of(tail);
+        }
+    }
+}
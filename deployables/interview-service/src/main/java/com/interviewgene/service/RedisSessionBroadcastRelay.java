@@ -0,0 +1,155 @@
+package com.interviewgene.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.StringJoiner;
+import java.util.UUID;
+
+/**
+ * Relay that delivers locally and publishes to a Redis pub/sub channel per session so that
+ * participants connected to other interview-service nodes receive the same messages.
+ * <p>
+ * Each node only subscribes to the channels of sessions it hosts, as reported by
+ * {@link SessionSubscriptionRegistry}. Envelopes are newline-separated text:
+ * origin node, destination, comma-separated target users (empty for broadcasts), priority, payload
+ * class and the JSON payload, so the payload is never decoded on the way through and a fan-out to
+ * several users costs one publish. Envelopes from nodes that do not send the payload class yet are
+ * still accepted.
+ */
+@Component
+@ConditionalOnProperty(name = "interview.realtime.relay", havingValue = "redis")
+@Slf4j
+public class RedisSessionBroadcastRelay extends AbstractSessionBroadcastRelay
+        implements MessageListener, SessionSubscriptionRegistry.HostingListener {
+
+    private static final String CHANNEL_PREFIX = "interview:session:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final SessionSubscriptionRegistry subscriptionRegistry;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public RedisSessionBroadcastRelay(SimpMessagingTemplate messagingTemplate,
+                                      ObjectMapper objectMapper,
+                                      StringRedisTemplate redisTemplate,
+                                      RedisMessageListenerContainer sessionRelayListenerContainer,
+                                      SessionSubscriptionRegistry subscriptionRegistry) {
+        super(messagingTemplate, objectMapper);
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = sessionRelayListenerContainer;
+        this.subscriptionRegistry = subscriptionRegistry;
+    }
+
+    @PostConstruct
+    void registerHostingListener() {
+        subscriptionRegistry.addListener(this);
+        log.info("Redis session relay started for node: {}", nodeId);
+    }
+
+    @Override
+    public void broadcast(UUID sessionId, String destination, Object payload, Priority priority) {
+        byte[] encoded = encode(payload);
+        String payloadType = typeOf(payload);
+        deliverLocally(destination, encoded, priority, payloadType);
+        publish(sessionId, destination, "", priority, payloadType, encoded);
+    }
+
+    @Override
+    public void sendToUser(UUID sessionId, UUID userId, String destination, Object payload) {
+        byte[] encoded = encode(payload);
+        String payloadType = typeOf(payload);
+        String user = userId.toString();
+        deliverLocally(userDestination(user, destination), encoded, Priority.NORMAL, payloadType);
+        publish(sessionId, destination, user, Priority.NORMAL, payloadType, encoded);
+    }
+
+    @Override
+    public void fanOut(UUID sessionId, String topicDestination, Collection<UUID> userIds, String userDestination,
+                       Object payload, Priority priority) {
+        byte[] encoded = encode(payload);
+        String payloadType = typeOf(payload);
+        deliverLocally(topicDestination, encoded, priority, payloadType);
+        publish(sessionId, topicDestination, "", priority, payloadType, encoded);
+        if (userIds.isEmpty()) {
+            return;
+        }
+
+        StringJoiner users = new StringJoiner(",");
+        for (UUID userId : userIds) {
+            String user = userId.toString();
+            deliverLocally(userDestination(user, userDestination), encoded, priority, payloadType);
+            users.add(user);
+        }
+        publish(sessionId, userDestination, users.toString(), priority, payloadType, encoded);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String envelope = new String(message.getBody(), StandardCharsets.UTF_8);
+        int originEnd = envelope.indexOf('\n');
+        int destinationEnd = envelope.indexOf('\n', originEnd + 1);
+        int userEnd = envelope.indexOf('\n', destinationEnd + 1);
+        int priorityEnd = envelope.indexOf('\n', userEnd + 1);
+        if (originEnd < 0 || destinationEnd < 0 || userEnd < 0 || priorityEnd < 0) {
+            log.warn("Ignoring malformed relay envelope on channel: {}", new String(message.getChannel(), StandardCharsets.UTF_8));
+            return;
+        }
+        if (envelope.regionMatches(0, nodeId, 0, originEnd)) {
+            return;
+        }
+
+        String destination = envelope.substring(originEnd + 1, destinationEnd);
+        String users = envelope.substring(destinationEnd + 1, userEnd);
+        Priority priority = Priority.valueOf(envelope.substring(userEnd + 1, priorityEnd));
+        // Compact JSON never contains a raw newline, so a further separator can only end the payload class
+        int typeEnd = envelope.indexOf('\n', priorityEnd + 1);
+        String payloadType = typeEnd < 0 ? null : envelope.substring(priorityEnd + 1, typeEnd);
+        byte[] payload = envelope.substring(typeEnd < 0 ? priorityEnd + 1 : typeEnd + 1).getBytes(StandardCharsets.UTF_8);
+        if (users.isEmpty()) {
+            deliverLocally(destination, payload, priority, payloadType);
+            return;
+        }
+        for (String user : users.split(",")) {
+            deliverLocally(userDestination(user, destination), payload, priority, payloadType);
+        }
+    }
+
+    @Override
+    public void sessionHosted(UUID sessionId) {
+        listenerContainer.addMessageListener(this, channel(sessionId));
+    }
+
+    @Override
+    public void sessionReleased(UUID sessionId) {
+        if (!subscriptionRegistry.isHosted(sessionId)) {
+            listenerContainer.removeMessageListener(this, channel(sessionId));
+        }
+    }
+
+    private void publish(UUID sessionId, String destination, String user, Priority priority, String payloadType,
+                         byte[] payload) {
+        String envelope = nodeId + '\n' + destination + '\n' + user + '\n' + priority + '\n' + payloadType + '\n'
+                + new String(payload, StandardCharsets.UTF_8);
+        try {
+            redisTemplate.convertAndSend(channel(sessionId).getTopic(), envelope);
+        } catch (RuntimeException e) {
+            log.error("Failed to relay message for session: {} to other nodes: {}", sessionId, e.getMessage());
+        }
+    }
+
+    private static ChannelTopic channel(UUID sessionId) {
+        return ChannelTopic.of(CHANNEL_PREFIX + sessionId);
+    }
+}
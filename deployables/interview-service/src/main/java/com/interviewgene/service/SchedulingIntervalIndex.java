@@ -0,0 +1,380 @@
+package com.interviewgene.service;
+
+import com.interviewgene.common.exception.ValidationException;
+import com.interviewgene.dto.TimeSlot;
+import com.interviewgene.model.InterviewSession;
+import com.interviewgene.model.SessionStatus;
+import com.interviewgene.repository.SessionRepository;
+import com.interviewgene.util.IntervalIndex;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Which interviewers and candidates are booked when, for rejecting double bookings and finding
+ * common free slots without loading session histories.
+ * <p>
+ * A session occupies both participants from its scheduled time for its duration, taken from the
+ * {@value #DURATION_METADATA_KEY} metadata entry or {@code default-duration}, and capped at
+ * {@code max-duration}. SCHEDULED, ACTIVE and PAUSED sessions are indexed. Reservations are made
+ * inside the creating transaction, so a conflicting concurrent request on this node is rejected,
+ * and they are undone if that transaction rolls back.
+ * <p>
+ * The index is local to each node. It is rebuilt from the database on startup and every
+ * {@code refresh-interval}, which also picks up sessions booked through other nodes. Reservations
+ * survive a rebuild until their transaction committed before its snapshot was read.
+ */
+@Component
+@Slf4j
+public class SchedulingIntervalIndex {
+
+    public static final String DURATION_METADATA_KEY = "durationMinutes";
+    public static final int MAX_SLOTS = 50;
+
+    private static final Set<SessionStatus> BOOKED = EnumSet.of(
+            SessionStatus.SCHEDULED, SessionStatus.ACTIVE, SessionStatus.PAUSED);
+
+    private final SessionRepository sessionRepository;
+    private final Duration defaultDuration;
+    private final Duration maxDuration;
+    private final Duration granularity;
+    private final Duration maxSearchRange;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private IntervalIndex<UUID> index;
+
+    /** Reservations a rebuild's snapshot may not contain yet, until their transaction committed before it */
+    private final ConcurrentMap<UUID, Reservation> reservations = new ConcurrentHashMap<>();
+
+    public SchedulingIntervalIndex(SessionRepository sessionRepository,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${interview.scheduling.default-duration:60m}") Duration defaultDuration,
+                                   @Value("${interview.scheduling.max-duration:4h}") Duration maxDuration,
+                                   @Value("${interview.scheduling.slot-granularity:15m}") Duration granularity,
+                                   @Value("${interview.scheduling.max-search-range:31d}") Duration maxSearchRange) {
+        this.sessionRepository = sessionRepository;
+        this.defaultDuration = defaultDuration;
+        this.maxDuration = maxDuration;
+        this.granularity = granularity;
+        this.maxSearchRange = maxSearchRange;
+        this.index = new IntervalIndex<>(maxDuration);
+
+        Gauge.builder("interview.scheduling.bookings", this, SchedulingIntervalIndex::size)
+                .description("Booked sessions in the scheduling index")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Reload bookings from sessions that have not finished yet
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${interview.scheduling.refresh-interval:5m}",
+            fixedDelayString = "${interview.scheduling.refresh-interval:5m}")
+    public void rebuild() {
+        long snapshotAt = System.nanoTime();
+        List<InterviewSession> sessions = sessionRepository.findBookedFrom(
+                LocalDateTime.now().minus(maxDuration), BOOKED);
+
+        IntervalIndex<UUID> rebuilt = new IntervalIndex<>(maxDuration);
+        for (InterviewSession session : sessions) {
+            LocalDateTime end;
+            try {
+                end = endOf(session);
+            } catch (ValidationException e) {
+                log.warn("Session {} has an invalid duration, booking the default: {}", session.getSessionId(),
+                        e.getMessage());
+                end = session.getScheduledTime().plus(clip(defaultDuration));
+            }
+            rebuilt.put(session.getSessionId(), participants(session), session.getScheduledTime(), end);
+        }
+
+        lock.writeLock().lock();
+        try {
+            // Uncommitted reservations, and those committed while loading, may be missing from the snapshot
+            for (Map.Entry<UUID, Reservation> reservation : reservations.entrySet()) {
+                UUID sessionId = reservation.getKey();
+                if (reservation.getValue().committedBefore(snapshotAt)) {
+                    reservations.remove(sessionId, reservation.getValue());
+                } else {
+                    index.get(sessionId).ifPresent(interval -> rebuilt.put(sessionId, index.usersOf(sessionId),
+                            interval.start(), interval.end()));
+                }
+            }
+            index = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.debug("Rebuilt scheduling index with {} bookings", sessions.size());
+    }
+
+    /**
+     * Book both participants of a saved session for its scheduled time, replacing its previous
+     * booking. Sessions that are no longer booked, or have no scheduled time, are released.
+     *
+     * @throws ValidationException when either participant is already booked for an overlapping
+     *                             session; the previous booking is kept
+     */
+    public void reserve(InterviewSession session) {
+        lock.writeLock().lock();
+        try {
+            Runnable undo = book(session);
+            Reservation reservation = reservations.get(session.getSessionId());
+            afterCompletion(committed -> {
+                if (committed) {
+                    if (reservation != null) {
+                        reservation.commit();
+                    }
+                    return;
+                }
+                lock.writeLock().lock();
+                try {
+                    undo.run();
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Book a saved session like {@link #reserve}, for callers booking several sessions that each
+     * succeed or fail on their own
+     *
+     * @return why the session could not be booked, or empty when it was
+     */
+    public Optional<String> tryReserve(InterviewSession session) {
+        try {
+            reserve(session);
+            return Optional.empty();
+        } catch (ValidationException e) {
+            return Optional.of(e.getMessage());
+        }
+    }
+
+    /**
+     * Free a session's booking once the current transaction commits
+     */
+    public void release(UUID sessionId) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                index.remove(sessionId);
+                reservations.remove(sessionId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Why a session with these participants could not be booked at that time, or empty when both
+     * are free
+     */
+    public Optional<String> findConflict(UUID interviewerId, UUID candidateId, LocalDateTime start, Duration duration) {
+        if (start == null) {
+            return Optional.empty();
+        }
+        LocalDateTime end = start.plus(clip(duration));
+        lock.readLock().lock();
+        try {
+            return conflict(interviewerId, candidateId, start, end, null);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Earliest slots of {@code length} in {@code [from, until)} when all the given users are free
+     */
+    public List<TimeSlot> findCommonFreeSlots(Collection<UUID> userIds, LocalDateTime from, LocalDateTime until,
+                                              Duration length, int count) {
+        if (userIds == null || userIds.isEmpty()) {
+            throw new ValidationException("At least one user is required");
+        }
+        if (!until.isAfter(from)) {
+            throw new ValidationException("Search range must end after it starts");
+        }
+        if (Duration.between(from, until).compareTo(maxSearchRange) > 0) {
+            throw new ValidationException("Search range cannot exceed " + maxSearchRange.toDays() + " days");
+        }
+        if (length.isNegative() || length.isZero() || length.compareTo(maxDuration) > 0) {
+            throw new ValidationException("Slot length must be between 1 minute and " + maxDuration.toMinutes() + " minutes");
+        }
+        if (count < 1 || count > MAX_SLOTS) {
+            throw new ValidationException("Slot count must be between 1 and " + MAX_SLOTS);
+        }
+
+        List<IntervalIndex.Slot> slots;
+        lock.readLock().lock();
+        try {
+            slots = index.findCommonFreeSlots(userIds, from, until, length, granularity, count);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return slots.stream()
+                .map(slot -> TimeSlot.builder().start(slot.start()).end(slot.end()).build())
+                .toList();
+    }
+
+    /**
+     * Duration a session books, from its metadata or the default
+     */
+    public Duration durationOf(Map<String, String> metadata) {
+        String minutes = metadata != null ? metadata.get(DURATION_METADATA_KEY) : null;
+        if (minutes == null) {
+            return clip(defaultDuration);
+        }
+        long parsed;
+        try {
+            parsed = Long.parseLong(minutes.trim());
+        } catch (NumberFormatException e) {
+            parsed = 0;
+        }
+        if (parsed < 1) {
+            throw new ValidationException(DURATION_METADATA_KEY + " must be a positive whole number of minutes");
+        }
+        return clip(Duration.ofMinutes(parsed));
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Book one session under the write lock
+     *
+     * @return action restoring the previous booking
+     */
+    private Runnable book(InterviewSession session) {
+        UUID sessionId = session.getSessionId();
+        Optional<IntervalIndex.Interval<UUID>> previous = index.get(sessionId);
+        List<UUID> previousUsers = index.usersOf(sessionId);
+        Reservation previousReservation = reservations.get(sessionId);
+        Runnable restore = () -> {
+            index.remove(sessionId);
+            previous.ifPresent(interval -> index.put(sessionId, previousUsers, interval.start(), interval.end()));
+            if (previousReservation != null) {
+                reservations.put(sessionId, previousReservation);
+            } else {
+                reservations.remove(sessionId);
+            }
+        };
+
+        if (!BOOKED.contains(session.getStatus()) || session.getScheduledTime() == null) {
+            index.remove(sessionId);
+            reservations.remove(sessionId);
+            return restore;
+        }
+
+        LocalDateTime start = session.getScheduledTime();
+        LocalDateTime end = endOf(session);
+        Optional<String> conflict = conflict(session.getInterviewerId(), session.getCandidateId(), start, end, sessionId);
+        if (conflict.isPresent()) {
+            throw new ValidationException(conflict.get());
+        }
+        index.put(sessionId, participants(session), start, end);
+        reservations.put(sessionId, new Reservation());
+        return restore;
+    }
+
+    private Optional<String> conflict(UUID interviewerId, UUID candidateId, LocalDateTime start, LocalDateTime end,
+                                      UUID ignore) {
+        Optional<IntervalIndex.Interval<UUID>> interviewerBusy = index.findConflict(interviewerId, start, end, ignore);
+        if (interviewerBusy.isPresent()) {
+            return Optional.of(describe("Interviewer", interviewerId, interviewerBusy.get()));
+        }
+        return index.findConflict(candidateId, start, end, ignore)
+                .map(interval -> describe("Candidate", candidateId, interval));
+    }
+
+    private static String describe(String role, UUID userId, IntervalIndex.Interval<UUID> interval) {
+        return role + " " + userId + " is already booked from " + interval.start() + " to " + interval.end()
+                + " (session " + interval.id() + ")";
+    }
+
+    private LocalDateTime endOf(InterviewSession session) {
+        return session.getScheduledTime().plus(durationOf(session.getMetadata()));
+    }
+
+    private Duration clip(Duration duration) {
+        return duration.compareTo(maxDuration) > 0 ? maxDuration : duration;
+    }
+
+    private static List<UUID> participants(InterviewSession session) {
+        return session.getInterviewerId().equals(session.getCandidateId())
+                ? List.of(session.getInterviewerId())
+                : List.of(session.getInterviewerId(), session.getCandidateId());
+    }
+
+    private static void afterCompletion(Consumer<Boolean> action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.accept(true);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                action.accept(status == STATUS_COMMITTED);
+            }
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * A booking made on this node, and when the transaction that made it committed
+     */
+    private static final class Reservation {
+
+        private volatile boolean committed;
+        private volatile long committedAt;
+
+        void commit() {
+            committedAt = System.nanoTime();
+            committed = true;
+        }
+
+        boolean committedBefore(long nanoTime) {
+            return committed && committedAt - nanoTime < 0;
+        }
+    }
+}
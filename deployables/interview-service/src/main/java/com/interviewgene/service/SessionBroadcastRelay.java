@@ -0,0 +1,68 @@
+package com.interviewgene.service;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Fans session messages out to every interview-service node hosting subscribers of that session.
+ * <p>
+ * Destinations are the same ones clients subscribe to, e.g. {@code /topic/session/{id}/interactions}
+ * for broadcasts and {@code /queue/session-events} for user destinations.
+ */
+public interface SessionBroadcastRelay {
+
+    /**
+     * Message header carrying the {@link Priority} of a frame on its way to clients
+     */
+    String PRIORITY_HEADER = "interviewPriority";
+
+    /**
+     * Message header carrying the class name of the payload a JSON frame was encoded from, so it
+     * can be re-encoded in another format without losing its types
+     */
+    String PAYLOAD_TYPE_HEADER = "interviewPayloadType";
+
+    /**
+     * How important a frame is to a client that cannot keep up with its connection
+     */
+    enum Priority {
+        /** Interactions and session events, which are never dropped */
+        NORMAL,
+        /** Ephemeral state such as typing and presence, dropped first for slow consumers */
+        LOW
+    }
+
+    /**
+     * Send a payload to a session topic on every node hosting the session
+     */
+    default void broadcast(UUID sessionId, String destination, Object payload) {
+        broadcast(sessionId, destination, payload, Priority.NORMAL);
+    }
+
+    /**
+     * Send a payload to a session topic on every node hosting the session, marked with a priority
+     */
+    void broadcast(UUID sessionId, String destination, Object payload, Priority priority);
+
+    /**
+     * Send a payload to a user destination on whichever node the user is connected to
+     */
+    void sendToUser(UUID sessionId, UUID userId, String destination, Object payload);
+
+    /**
+     * Send one payload to a session topic and to each user's destination, encoding it only once.
+     * Every recipient receives the same encoded bytes, so the cost of adding observers is a
+     * header per recipient rather than another conversion.
+     */
+    default void fanOut(UUID sessionId, String topicDestination, Collection<UUID> userIds, String userDestination,
+                        Object payload) {
+        fanOut(sessionId, topicDestination, userIds, userDestination, payload, Priority.NORMAL);
+    }
+
+    /**
+     * Send one payload to a session topic and to each user's destination, encoding it only once
+     * and marking every copy with a priority
+     */
+    void fanOut(UUID sessionId, String topicDestination, Collection<UUID> userIds, String userDestination,
+                Object payload, Priority priority);
+}
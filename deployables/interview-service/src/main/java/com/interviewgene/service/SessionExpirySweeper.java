@@ -0,0 +1,253 @@
+package com.interviewgene.service;
+
+import com.interviewgene.model.InterviewSession;
+import com.interviewgene.model.SessionStatus;
+import com.interviewgene.repository.SessionRepository;
+import com.interviewgene.util.HierarchicalTimingWheel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Moves abandoned sessions to {@link SessionStatus#EXPIRED}.
+ * <p>
+ * A session gets a deadline when it is created or paused: SCHEDULED sessions expire a grace period
+ * after their scheduled time and PAUSED sessions after the pause timeout. ACTIVE sessions never
+ * expire here, since a live interview is only ended through the session lifecycle, which records
+ * its completion event. Deadlines live in a {@link HierarchicalTimingWheel},
+ * so registering and replacing one is O(1) and each tick only touches the sessions that are due.
+ * Due sessions are expired in batched UPDATEs that re-check each deadline against the row, which
+ * keeps the sweep correct when another node changed the session in the meantime.
+ * <p>
+ * On startup the wheel is rebuilt from SCHEDULED sessions in a window around now plus all PAUSED
+ * ones; sessions scheduled further ahead are loaded as the window moves forward.
+ */
+@Component
+@Slf4j
+public class SessionExpirySweeper {
+
+    private final SessionRepository sessionRepository;
+    private final SessionStateCache sessionCache;
+    private final SessionStateReleaser stateReleaser;
+
+    private final boolean enabled;
+    private final Duration scheduledGrace;
+    private final Duration pausedTimeout;
+    private final Duration rebuildLookback;
+    private final Duration rebuildHorizon;
+    private final int batchSize;
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final HierarchicalTimingWheel<UUID> wheel;
+
+    /** End of the scheduled-time window already loaded into the wheel */
+    private LocalDateTime loadedUntil;
+
+    private final Counter expired;
+
+    public SessionExpirySweeper(SessionRepository sessionRepository,
+                                SessionStateCache sessionCache,
+                                SessionStateReleaser stateReleaser,
+                                MeterRegistry meterRegistry,
+                                @Value("${interview.sessions.expiry.enabled:true}") boolean enabled,
+                                @Value("${interview.sessions.expiry.scheduled-grace:30m}") Duration scheduledGrace,
+                                @Value("${interview.sessions.expiry.paused-timeout:2h}") Duration pausedTimeout,
+                                @Value("${interview.sessions.expiry.rebuild-lookback:30d}") Duration rebuildLookback,
+                                @Value("${interview.sessions.expiry.rebuild-horizon:2d}") Duration rebuildHorizon,
+                                @Value("${interview.sessions.expiry.tick:1s}") Duration tick,
+                                @Value("${interview.sessions.expiry.wheel-size:512}") int wheelSize,
+                                @Value("${interview.sessions.expiry.batch-size:500}") int batchSize) {
+        this.sessionRepository = sessionRepository;
+        this.sessionCache = sessionCache;
+        this.stateReleaser = stateReleaser;
+        this.enabled = enabled;
+        this.scheduledGrace = scheduledGrace;
+        this.pausedTimeout = pausedTimeout;
+        this.rebuildLookback = rebuildLookback;
+        this.rebuildHorizon = rebuildHorizon;
+        this.batchSize = batchSize;
+        this.wheel = new HierarchicalTimingWheel<>(tick.toMillis(), wheelSize, System.currentTimeMillis());
+
+        Gauge.builder("interview.sessions.expiry.pending", this, SessionExpirySweeper::pending)
+                .description("Sessions with an expiry deadline on this node")
+                .register(meterRegistry);
+        this.expired = Counter.builder("interview.sessions.expiry.expired")
+                .description("Sessions moved to EXPIRED")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Set or replace the deadline of a session from its current state once the surrounding
+     * transaction commits; sessions in a final state lose their deadline
+     */
+    public void register(InterviewSession session) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            schedule(session);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                schedule(session);
+            }
+        });
+    }
+
+    public synchronized void cancel(UUID sessionId) {
+        wheel.cancel(sessionId);
+    }
+
+    public synchronized int pending() {
+        return wheel.size();
+    }
+
+    /**
+     * Deadline a session in this state expires at, or {@code null} if it never expires. Mirrors the
+     * cutoffs checked by {@link SessionRepository#expireSessions}.
+     */
+    public LocalDateTime deadlineOf(InterviewSession session) {
+        if (session.getStatus() == null) {
+            return null;
+        }
+        return switch (session.getStatus()) {
+            case SCHEDULED -> plus(session.getScheduledTime(), scheduledGrace);
+            case PAUSED -> plus(session.getUpdatedAt(), pausedTimeout);
+            default -> null;
+        };
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        int loaded = load(now.minus(rebuildLookback), now.plus(rebuildHorizon));
+        for (InterviewSession session : sessionRepository.findByStatus(SessionStatus.PAUSED)) {
+            schedule(session);
+            loaded++;
+        }
+        log.info("Rebuilt session expiry wheel with {} sessions", loaded);
+    }
+
+    /**
+     * Load SCHEDULED sessions that have come within the horizon since the last load
+     */
+    @Scheduled(fixedDelayString = "${interview.sessions.expiry.refill-interval:1h}",
+            initialDelayString = "${interview.sessions.expiry.refill-interval:1h}")
+    public void refill() {
+        LocalDateTime from;
+        synchronized (this) {
+            from = loadedUntil;
+        }
+        if (enabled && from != null) {
+            load(from, LocalDateTime.now().plus(rebuildHorizon));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${interview.sessions.expiry.tick:1s}")
+    public void tick() {
+        tick(System.currentTimeMillis());
+    }
+
+    /**
+     * Advance the wheel to the given epoch milliseconds and expire every session that is due
+     *
+     * @return number of sessions moved to EXPIRED
+     */
+    public int tick(long nowMillis) {
+        if (!enabled) {
+            return 0;
+        }
+        List<UUID> due = new ArrayList<>();
+        synchronized (this) {
+            wheel.advance(nowMillis, due::add);
+        }
+        if (due.isEmpty()) {
+            return 0;
+        }
+
+        LocalDateTime now = LocalDateTime.ofInstant(Instant.ofEpochMilli(nowMillis), zone);
+        int total = 0;
+        for (int from = 0; from < due.size(); from += batchSize) {
+            List<UUID> batch = due.subList(from, Math.min(from + batchSize, due.size()));
+            try {
+                total += expire(batch, now);
+            } catch (RuntimeException e) {
+                // Keep the deadlines so the next tick retries the batch
+                log.error("Failed to expire {} sessions: {}", batch.size(), e.getMessage());
+                synchronized (this) {
+                    batch.forEach(sessionId -> wheel.schedule(sessionId, nowMillis));
+                }
+            }
+        }
+        return total;
+    }
+
+    private int expire(List<UUID> batch, LocalDateTime now) {
+        int updated = sessionRepository.expireSessions(batch, now,
+                now.minus(scheduledGrace), now.minus(pausedTimeout));
+        if (updated > 0) {
+            log.info("Expired {} abandoned sessions", updated);
+            expired.increment(updated);
+        }
+
+        // Sessions changed since their deadline was registered get a new one from their current row
+        for (InterviewSession session : sessionRepository.findAllById(batch)) {
+            if (session.getStatus() == SessionStatus.EXPIRED) {
+                sessionCache.put(session);
+                stateReleaser.release(session.getSessionId());
+            } else {
+                schedule(session);
+            }
+        }
+        return updated;
+    }
+
+    private int load(LocalDateTime from, LocalDateTime until) {
+        int loaded = 0;
+        for (InterviewSession session : sessionRepository.findSessionsScheduledBetween(from, until)) {
+            if (session.getStatus() == SessionStatus.SCHEDULED) {
+                schedule(session);
+                loaded++;
+            }
+        }
+        synchronized (this) {
+            loadedUntil = until;
+        }
+        return loaded;
+    }
+
+    private void schedule(InterviewSession session) {
+        LocalDateTime deadline = deadlineOf(session);
+        synchronized (this) {
+            if (deadline == null) {
+                wheel.cancel(session.getSessionId());
+            } else {
+                wheel.schedule(session.getSessionId(), deadline.atZone(zone).toInstant().toEpochMilli());
+            }
+        }
+    }
+
+    private static LocalDateTime plus(LocalDateTime time, Duration timeout) {
+        return time != null ? time.plus(timeout) : null;
+    }
+}
@@ -0,0 +1,236 @@
+package com.interviewgene.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs real-time work for each interview session through its own serial mailbox.
+ * <p>
+ * Tasks submitted for a session are executed one at a time and in submission order, so handlers
+ * never race each other on the same session and need no locking or optimistic-lock retries.
+ * Mailboxes are multiplexed over a small shared worker pool: a mailbox is scheduled on a worker
+ * only while it has work, and yields after a bounded number of tasks so busy sessions cannot
+ * starve the others. Sessions still run in parallel across cores. A mailbox is retired as soon as
+ * it drains, so sessions that go quiet or end hold no memory here.
+ * <p>
+ * When the mailbox mode is disabled tasks run inline on the calling thread. With
+ * {@code spring.threads.virtual.enabled} each scheduled mailbox runs on its own virtual thread, so
+ * a mailbox blocked on the database does not hold a worker from the others.
+ */
+@Component
+@Slf4j
+public class SessionMailboxExecutor {
+
+    private final boolean enabled;
+    private final int threads;
+    private final int throughput;
+    private final ConcurrentMap<UUID, Mailbox> mailboxes = new ConcurrentHashMap<>();
+    private final AtomicInteger queuedTasks = new AtomicInteger();
+
+    private final DistributionSummary mailboxDepth;
+    private final Timer queueWait;
+    private final Timer processingTime;
+    private final Counter failures;
+
+    private final boolean virtualThreads;
+    private Executor workers;
+
+    public SessionMailboxExecutor(MeterRegistry meterRegistry,
+                                  Environment environment,
+                                  @Value("${interview.realtime.mailbox.enabled:false}") boolean enabled,
+                                  @Value("${interview.realtime.mailbox.threads:0}") int threads,
+                                  @Value("${interview.realtime.mailbox.throughput:64}") int throughput) {
+        this.enabled = enabled;
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.throughput = throughput;
+        this.virtualThreads = Threading.VIRTUAL.isActive(environment);
+
+        Gauge.builder("interview.realtime.mailbox.queued", queuedTasks, AtomicInteger::get)
+                .description("Tasks waiting in session mailboxes")
+                .register(meterRegistry);
+        Gauge.builder("interview.realtime.mailbox.sessions", mailboxes, ConcurrentMap::size)
+                .register(meterRegistry);
+        this.mailboxDepth = DistributionSummary.builder("interview.realtime.mailbox.depth")
+                .description("Mailbox depth observed when a task is submitted")
+                .register(meterRegistry);
+        this.queueWait = Timer.builder("interview.realtime.mailbox.wait")
+                .description("Time a task spends queued in its session mailbox")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.processingTime = Timer.builder("interview.realtime.mailbox.processing")
+                .description("Time to process one task for a session")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.failures = Counter.builder("interview.realtime.mailbox.failures")
+                .description("Mailbox tasks that threw an exception")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        if (virtualThreads) {
+            workers = new VirtualThreadTaskExecutor("session-mailbox-");
+            log.info("Session mailbox execution enabled on virtual threads");
+        } else {
+            AtomicInteger threadIndex = new AtomicInteger();
+            workers = Executors.newFixedThreadPool(threads, runnable -> {
+                Thread thread = new Thread(runnable, "session-mailbox-" + threadIndex.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            log.info("Session mailbox execution enabled with {} workers", threads);
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (workers instanceof ExecutorService pool) {
+            pool.shutdown();
+            pool.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Run a task after every task previously submitted for the same session
+     */
+    public void submit(UUID sessionId, Runnable task) {
+        if (!enabled) {
+            task.run();
+            return;
+        }
+
+        Task queued = new Task(task, System.nanoTime());
+        // Enqueue inside compute so a mailbox is never retired between lookup and offer
+        Mailbox mailbox = mailboxes.compute(sessionId, (id, existing) -> {
+            Mailbox target = existing != null ? existing : new Mailbox(id);
+            target.queue.offer(queued);
+            return target;
+        });
+        mailboxDepth.record(mailbox.depth.incrementAndGet());
+        queuedTasks.incrementAndGet();
+        mailbox.schedule();
+    }
+
+    /**
+     * Run a task that produces a result after every task previously submitted for the same
+     * session. Callers must not wait on the result from inside a mailbox task.
+     *
+     * @return the task's result, or its exception when it failed
+     */
+    public <T> CompletableFuture<T> call(UUID sessionId, Supplier<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        submit(sessionId, () -> {
+            try {
+                result.complete(task.get());
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Sessions that currently have a mailbox
+     */
+    public int mailboxCount() {
+        return mailboxes.size();
+    }
+
+    private final class Mailbox implements Runnable {
+        private final UUID sessionId;
+        private final Queue<Task> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger depth = new AtomicInteger();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private Mailbox(UUID sessionId) {
+            this.sessionId = sessionId;
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                workers.execute(this);
+            }
+        }
+
+        private boolean isIdle() {
+            return !scheduled.get() && queue.isEmpty();
+        }
+
+        @Override
+        public void run() {
+            try {
+                int processed = 0;
+                Task task;
+                while (processed < throughput && (task = queue.poll()) != null) {
+                    depth.decrementAndGet();
+                    queuedTasks.decrementAndGet();
+                    execute(task);
+                    processed++;
+                }
+            } finally {
+                scheduled.set(false);
+                if (!queue.isEmpty()) {
+                    schedule();
+                } else {
+                    // Retire the drained mailbox; a concurrent submit either lands first and keeps it or creates a new one
+                    mailboxes.computeIfPresent(sessionId, (id, mailbox) -> mailbox == this && isIdle() ? null : mailbox);
+                }
+            }
+        }
+
+        private void execute(Task task) {
+            long started = System.nanoTime();
+            queueWait.record(started - task.submittedAt, TimeUnit.NANOSECONDS);
+            try {
+                task.runnable.run();
+            } catch (RuntimeException e) {
+                failures.increment();
+                log.error("Mailbox task failed for session: {}", sessionId, e);
+            } finally {
+                processingTime.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private static final class Task {
+        private final Runnable runnable;
+        private final long submittedAt;
+
+        private Task(Runnable runnable, long submittedAt) {
+            this.runnable = runnable;
+            this.submittedAt = submittedAt;
+        }
+    }
+}
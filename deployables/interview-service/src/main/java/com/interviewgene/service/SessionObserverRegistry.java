@@ -0,0 +1,106 @@
+package com.interviewgene.service;
+
+import com.interviewgene.common.exception.ValidationException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Panel observers and spectators watching interview sessions from this node.
+ * <p>
+ * Observers receive the same session events as the participants on their
+ * {@code /user/queue/session-events} destination. An observer is tracked per STOMP connection, so
+ * closing one tab does not stop events for another tab of the same user.
+ */
+@Component
+@Slf4j
+public class SessionObserverRegistry {
+
+    private final int maxObserversPerSession;
+    private final Map<UUID, Map<UUID, Set<String>>> observersBySession = new HashMap<>();
+    private final Map<String, Map<UUID, UUID>> observationsByConnection = new HashMap<>();
+
+    public SessionObserverRegistry(@Value("${interview.realtime.observers.max-per-session:50}") int maxObserversPerSession) {
+        this.maxObserversPerSession = maxObserversPerSession;
+    }
+
+    /**
+     * Start delivering session events to an observer on the given STOMP connection
+     */
+    public synchronized void observe(UUID sessionId, UUID observerId, String connectionId) {
+        Map<UUID, Set<String>> observers = observersBySession.computeIfAbsent(sessionId, id -> new HashMap<>());
+        if (!observers.containsKey(observerId) && observers.size() >= maxObserversPerSession) {
+            throw new ValidationException("Session " + sessionId + " already has the maximum of "
+                    + maxObserversPerSession + " observers");
+        }
+        observers.computeIfAbsent(observerId, id -> new HashSet<>()).add(connectionId);
+        observationsByConnection.computeIfAbsent(connectionId, id -> new HashMap<>()).put(sessionId, observerId);
+        log.debug("Observer {} is watching session: {}", observerId, sessionId);
+    }
+
+    public synchronized void stopObserving(UUID sessionId, String connectionId) {
+        Map<UUID, UUID> observations = observationsByConnection.get(connectionId);
+        UUID observerId = observations != null ? observations.remove(sessionId) : null;
+        if (observerId != null) {
+            removeConnection(sessionId, observerId, connectionId);
+        }
+        if (observations != null && observations.isEmpty()) {
+            observationsByConnection.remove(connectionId);
+        }
+    }
+
+    public synchronized Set<UUID> observers(UUID sessionId) {
+        Map<UUID, Set<String>> observers = observersBySession.get(sessionId);
+        return observers != null ? Set.copyOf(observers.keySet()) : Set.of();
+    }
+
+    public synchronized void release(UUID sessionId) {
+        Map<UUID, Set<String>> observers = observersBySession.remove(sessionId);
+        if (observers == null) {
+            return;
+        }
+        for (Set<String> connections : observers.values()) {
+            for (String connectionId : connections) {
+                Map<UUID, UUID> observations = observationsByConnection.get(connectionId);
+                if (observations != null) {
+                    observations.remove(sessionId);
+                    if (observations.isEmpty()) {
+                        observationsByConnection.remove(connectionId);
+                    }
+                }
+            }
+        }
+    }
+
+    @EventListener
+    public synchronized void onDisconnect(SessionDisconnectEvent event) {
+        Map<UUID, UUID> observations = observationsByConnection.remove(event.getSessionId());
+        if (observations != null) {
+            observations.forEach((sessionId, observerId) -> removeConnection(sessionId, observerId, event.getSessionId()));
+        }
+    }
+
+    private void removeConnection(UUID sessionId, UUID observerId, String connectionId) {
+        Map<UUID, Set<String>> observers = observersBySession.get(sessionId);
+        Set<String> connections = observers != null ? observers.get(observerId) : null;
+        if (connections == null) {
+            return;
+        }
+        connections.remove(connectionId);
+        if (connections.isEmpty()) {
+            observers.remove(observerId);
+            log.debug("Observer {} stopped watching session: {}", observerId, sessionId);
+        }
+        if (observers.isEmpty()) {
+            observersBySession.remove(sessionId);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.interviewgene.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.interviewgene.model.InterviewSession;
+import com.interviewgene.model.SessionOutboxEvent;
+import com.interviewgene.repository.SessionOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Records session lifecycle events in the outbox table. The row joins the caller's transaction,
+ * so the event exists exactly when the status change commits; {@link SessionOutboxRelay}
+ * publishes it to Kafka afterwards.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SessionOutbox {
+
+    public static final String SESSION_COMPLETED = "SESSION_COMPLETED";
+
+    private final SessionOutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public SessionOutboxEvent enqueue(InterviewSession session, String eventType) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("eventType", eventType);
+        payload.put("sessionId", session.getSessionId());
+        payload.put("interviewerId", session.getInterviewerId());
+        payload.put("candidateId", session.getCandidateId());
+        payload.put("status", session.getStatus());
+        payload.put("sessionType", session.getSessionType());
+        payload.put("startTime", session.getStartTime());
+        payload.put("endTime", session.getEndTime());
+        payload.put("occurredAt", now);
+        payload.put("metadata", session.getMetadata() != null ? new HashMap<>(session.getMetadata()) : Map.of());
+
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize " + eventType + " event", e);
+        }
+
+        SessionOutboxEvent event = outboxRepository.save(SessionOutboxEvent.builder()
+                .sessionId(session.getSessionId())
+                .eventType(eventType)
+                .payload(json)
+                .createdAt(now)
+                .build());
+        log.debug("Queued {} event for session: {}", eventType, session.getSessionId());
+        return event;
+    }
+}
@@ -0,0 +1,236 @@
+package com.interviewgene.service;
+
+import com.interviewgene.model.SessionOutboxEvent;
+import com.interviewgene.repository.SessionOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.boot.ssl.SslBundles;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the session outbox to Kafka.
+ * <p>
+ * Each run locks a batch of the oldest unpublished events, sends them all before waiting on any
+ * acknowledgement, and marks the acknowledged ones published in the same transaction. Events
+ * are keyed by session ID, so one session's events stay ordered within a partition. The producer
+ * is idempotent with {@code acks=all}, so broker-side retries never duplicate a record; an event
+ * whose acknowledgement is lost is sent again on a later run, and consumers can drop the repeat
+ * using the {@value #EVENT_ID_HEADER} header.
+ * <p>
+ * The producer is built from the {@code spring.kafka.*} settings but kept private to the relay,
+ * so it does not replace the application's auto-configured {@link KafkaTemplate}.
+ */
+@Component
+@ConditionalOnProperty(name = "interview.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class SessionOutboxRelay {
+
+    public static final String EVENT_ID_HEADER = "eventId";
+    public static final String EVENT_TYPE_HEADER = "eventType";
+
+    private final SessionOutboxRepository outboxRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final String topic;
+    private final int batchSize;
+    private final Duration sendTimeout;
+    private final Duration retention;
+
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong oldestPendingMillis = new AtomicLong();
+    private final Counter published;
+    private final Counter failures;
+    private final Timer publishLag;
+
+    @Autowired
+    public SessionOutboxRelay(SessionOutboxRepository outboxRepository,
+                              PlatformTransactionManager transactionManager,
+                              KafkaProperties kafkaProperties,
+                              ObjectProvider<SslBundles> sslBundles,
+                              MeterRegistry meterRegistry,
+                              @Value("${interview.outbox.topic:session-events}") String topic,
+                              @Value("${interview.outbox.relay.batch-size:200}") int batchSize,
+                              @Value("${interview.outbox.relay.send-timeout:10s}") Duration sendTimeout,
+                              @Value("${interview.outbox.retention:7d}") Duration retention,
+                              @Value("${interview.outbox.producer.linger:20ms}") Duration linger,
+                              @Value("${interview.outbox.producer.compression:lz4}") String compression) {
+        this(outboxRepository, transactionManager,
+                producer(kafkaProperties, sslBundles.getIfAvailable(), linger, compression),
+                meterRegistry, topic, batchSize, sendTimeout, retention);
+    }
+
+    public SessionOutboxRelay(SessionOutboxRepository outboxRepository,
+                              PlatformTransactionManager transactionManager,
+                              KafkaTemplate<String, String> kafkaTemplate,
+                              MeterRegistry meterRegistry,
+                              String topic,
+                              int batchSize,
+                              Duration sendTimeout,
+                              Duration retention) {
+        this.outboxRepository = outboxRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.kafkaTemplate = kafkaTemplate;
+        this.topic = topic;
+        this.batchSize = batchSize;
+        this.sendTimeout = sendTimeout;
+        this.retention = retention;
+
+        Gauge.builder("interview.outbox.pending", pending, AtomicLong::get)
+                .description("Session events waiting to be published")
+                .register(meterRegistry);
+        Gauge.builder("interview.outbox.oldest.age", oldestPendingMillis, value -> value.get() / 1000.0)
+                .description("Age in seconds of the oldest unpublished session event")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        this.published = Counter.builder("interview.outbox.published")
+                .description("Session events published to Kafka")
+                .register(meterRegistry);
+        this.failures = Counter.builder("interview.outbox.failures")
+                .description("Session event sends that failed and will be retried")
+                .register(meterRegistry);
+        this.publishLag = Timer.builder("interview.outbox.publish.lag")
+                .description("Time from writing a session event to its acknowledgement by Kafka")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Publish pending events, batch after batch while full batches keep succeeding
+     *
+     * @return number of events published
+     */
+    @Scheduled(fixedDelayString = "${interview.outbox.relay.interval:500ms}")
+    public int relay() {
+        int total = 0;
+        int sent;
+        do {
+            try {
+                Integer result = transactionTemplate.execute(status -> publishBatch());
+                sent = result != null ? result : 0;
+            } catch (RuntimeException e) {
+                log.warn("Outbox relay failed: {}", e.getMessage());
+                break;
+            }
+            total += sent;
+        } while (sent == batchSize);
+        return total;
+    }
+
+    @Scheduled(fixedDelayString = "${interview.outbox.lag-refresh-interval:15s}")
+    public void refreshLag() {
+        pending.set(outboxRepository.countByPublishedAtIsNull());
+        LocalDateTime oldest = outboxRepository.findOldestUnpublishedCreatedAt();
+        oldestPendingMillis.set(oldest != null ? Duration.between(oldest, LocalDateTime.now()).toMillis() : 0);
+    }
+
+    @Scheduled(fixedDelayString = "${interview.outbox.purge-interval:1h}")
+    public void purgePublished() {
+        int purged = outboxRepository.deletePublishedBefore(LocalDateTime.now().minus(retention));
+        if (purged > 0) {
+            log.info("Purged {} published session events", purged);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (kafkaTemplate.getProducerFactory() instanceof DefaultKafkaProducerFactory<String, String> factory) {
+            factory.destroy();
+        }
+    }
+
+    private int publishBatch() {
+        List<SessionOutboxEvent> batch = outboxRepository.lockUnpublished(batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        List<CompletableFuture<SendResult<String, String>>> sends = new ArrayList<>(batch.size());
+        for (SessionOutboxEvent event : batch) {
+            sends.add(send(event));
+        }
+        // Don't wait out linger.ms for the tail of the batch
+        kafkaTemplate.flush();
+
+        long deadline = System.nanoTime() + sendTimeout.toNanos();
+        LocalDateTime now = LocalDateTime.now();
+        int acknowledged = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            SessionOutboxEvent event = batch.get(i);
+            try {
+                sends.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                event.markPublished(now);
+                publishLag.record(Duration.between(event.getCreatedAt(), now));
+                acknowledged++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                event.recordFailure("Interrupted while waiting for acknowledgement");
+            } catch (ExecutionException | TimeoutException e) {
+                Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+                event.recordFailure(String.valueOf(cause));
+                log.warn("Failed to publish {} event {} for session {}: {}",
+                        event.getEventType(), event.getEventId(), event.getSessionId(), cause.toString());
+            }
+        }
+        outboxRepository.saveAll(batch);
+
+        published.increment(acknowledged);
+        failures.increment(batch.size() - acknowledged);
+        log.debug("Published {} of {} session events", acknowledged, batch.size());
+        return acknowledged;
+    }
+
+    private CompletableFuture<SendResult<String, String>> send(SessionOutboxEvent event) {
+        ProducerRecord<String, String> record = new ProducerRecord<>(topic, event.getSessionId().toString(),
+                event.getPayload());
+        record.headers().add(EVENT_ID_HEADER, event.getEventId().toString().getBytes(StandardCharsets.UTF_8));
+        record.headers().add(EVENT_TYPE_HEADER, event.getEventType().getBytes(StandardCharsets.UTF_8));
+        try {
+            return kafkaTemplate.send(record);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static KafkaTemplate<String, String> producer(KafkaProperties properties, SslBundles sslBundles,
+                                                          Duration linger, String compression) {
+        Map<String, Object> config = new HashMap<>(properties.buildProducerProperties(sslBundles));
+        config.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        config.put(ProducerConfig.ACKS_CONFIG, "all");
+        config.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
+        config.put(ProducerConfig.LINGER_MS_CONFIG, (int) linger.toMillis());
+        config.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compression);
+        config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(config));
+    }
+}
@@ -0,0 +1,23 @@
+package com.interviewgene.service;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Published when the set of interview-service instances changes and session ownership is rebalanced.
+ * Listeners should release per-session state for sessions this node no longer owns.
+ */
+@Getter
+public class SessionOwnershipChangedEvent extends ApplicationEvent {
+
+    private final int instanceCount;
+
+    public SessionOwnershipChangedEvent(SessionOwnershipRing source, int instanceCount) {
+        super(source);
+        this.instanceCount = instanceCount;
+    }
+
+    public SessionOwnershipRing getRing() {
+        return (SessionOwnershipRing) getSource();
+    }
+}
@@ -0,0 +1,194 @@
+package com.interviewgene.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.discovery.event.HeartbeatEvent;
+import org.springframework.cloud.client.serviceregistry.Registration;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Consistent-hash ring that assigns each interview session to one interview-service instance.
+ * <p>
+ * Every registered instance is placed on the ring at a number of virtual points, and a session
+ * is owned by the first point at or after the hash of its ID. Both participants of a session are
+ * steered to the owner, so per-session state on that node stays authoritative. When instances
+ * join or leave only the sessions on the affected arcs move, and a
+ * {@link SessionOwnershipChangedEvent} is published so local state can be handed over.
+ * <p>
+ * When affinity is disabled every session is local. While it is enabled but discovery does not
+ * list this node yet, no session is: the node cannot be routed to, so it must not claim any.
+ */
+@Component
+@Slf4j
+public class SessionOwnershipRing {
+
+    private final DiscoveryClient discoveryClient;
+    private final ObjectProvider<Registration> registration;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final String serviceId;
+    private final int virtualNodes;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    public SessionOwnershipRing(DiscoveryClient discoveryClient,
+                                ObjectProvider<Registration> registration,
+                                ApplicationEventPublisher eventPublisher,
+                                @Value("${interview.realtime.affinity.enabled:false}") boolean enabled,
+                                @Value("${spring.application.name:interview-service}") String serviceId,
+                                @Value("${interview.realtime.affinity.virtual-nodes:128}") int virtualNodes) {
+        this.discoveryClient = discoveryClient;
+        this.registration = registration;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.serviceId = serviceId;
+        this.virtualNodes = virtualNodes;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Instance that owns the session, or empty when ownership is not being enforced
+     */
+    public Optional<ServiceInstance> owner(UUID sessionId) {
+        NavigableMap<Long, ServiceInstance> ring = snapshot.ring;
+        if (ring.isEmpty()) {
+            return Optional.empty();
+        }
+        Map.Entry<Long, ServiceInstance> entry = ring.ceilingEntry(hash(sessionId));
+        return Optional.of(entry != null ? entry.getValue() : ring.firstEntry().getValue());
+    }
+
+    /**
+     * Whether this node should host the session
+     */
+    public boolean isLocal(UUID sessionId) {
+        if (!enabled) {
+            return true;
+        }
+        String localId = snapshot.localInstanceId;
+        return localId != null && owner(sessionId)
+                .map(instance -> localId.equals(instance.getInstanceId()))
+                .orElse(false);
+    }
+
+    /**
+     * Instance that requests for the session must be sent to instead of this node, or empty when
+     * this node may serve them
+     */
+    public Optional<ServiceInstance> remoteOwner(UUID sessionId) {
+        if (!enabled || isLocal(sessionId)) {
+            return Optional.empty();
+        }
+        return owner(sessionId);
+    }
+
+    /**
+     * The request URI pointed at another instance, keeping its path and query
+     */
+    public static URI redirectUri(ServiceInstance instance, URI requestUri) {
+        return UriComponentsBuilder.fromUri(requestUri)
+                .scheme(instance.getScheme() != null ? instance.getScheme() : requestUri.getScheme())
+                .host(instance.getHost())
+                .port(instance.getPort())
+                .build(true)
+                .toUri();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        refresh();
+    }
+
+    @EventListener(HeartbeatEvent.class)
+    public void onDiscoveryHeartbeat() {
+        refresh();
+    }
+
+    /**
+     * Rebuild the ring from the discovery registry, publishing an event when membership changed
+     */
+    public synchronized void refresh() {
+        if (!enabled) {
+            return;
+        }
+
+        List<ServiceInstance> instances = discoveryClient.getInstances(serviceId);
+        Set<String> members = instances.stream()
+                .map(ServiceInstance::getInstanceId)
+                .collect(Collectors.toUnmodifiableSet());
+        Registration local = registration.getIfAvailable();
+        String localId = local != null && members.contains(local.getInstanceId()) ? local.getInstanceId() : null;
+
+        if (members.equals(snapshot.members) && Objects.equals(localId, snapshot.localInstanceId)) {
+            return;
+        }
+
+        NavigableMap<Long, ServiceInstance> ring = new TreeMap<>();
+        for (ServiceInstance instance : instances) {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.put(hash(instance.getInstanceId() + '#' + i), instance);
+            }
+        }
+        snapshot = new Snapshot(Collections.unmodifiableNavigableMap(ring), members, localId);
+
+        log.info("Session ownership ring rebuilt with {} instances (local: {})", members.size(), localId);
+        eventPublisher.publishEvent(new SessionOwnershipChangedEvent(this, members.size()));
+    }
+
+    private static long hash(UUID sessionId) {
+        return mix(sessionId.getMostSignificantBits() ^ Long.rotateLeft(sessionId.getLeastSignificantBits(), 32));
+    }
+
+    private static long hash(String key) {
+        // FNV-1a followed by a 64-bit finalizer to spread similar instance IDs around the ring
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static final class Snapshot {
+        private static final Snapshot EMPTY = new Snapshot(Collections.emptyNavigableMap(), Set.of(), null);
+
+        private final NavigableMap<Long, ServiceInstance> ring;
+        private final Set<String> members;
+        private final String localInstanceId;
+
+        private Snapshot(NavigableMap<Long, ServiceInstance> ring, Set<String> members, String localInstanceId) {
+            this.ring = ring;
+            this.members = members;
+            this.localInstanceId = localInstanceId;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.interviewgene.service;
+
+import com.interviewgene.model.InterviewSession;
+import com.interviewgene.model.SessionStatus;
+import com.interviewgene.repository.SessionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Prepares sessions that are about to start so the first join finds everything in memory.
+ * <p>
+ * Every run loads the SCHEDULED sessions owned by this node that start within the lead time, or
+ * were due recently and still wait for a late participant, and puts them in the
+ * {@link SessionStateCache}; the run interval is shorter than the cache TTL, so the entries stay
+ * fresh until the session starts. The first time a session is seen its participants are
+ * resolved through the {@link UserExistenceCache}, its sequence counter is seeded and its
+ * existing interactions are loaded into the {@link RecentInteractionBuffer}.
+ * <p>
+ * The effect shows up in {@code interview.sessions.join.latency}, tagged by whether the join
+ * found the session warm.
+ */
+@Component
+@Slf4j
+public class SessionPreWarmer {
+
+    private final SessionRepository sessionRepository;
+    private final UserExistenceCache userExistenceCache;
+    private final SessionStateCache sessionCache;
+    private final SessionSequenceAllocator sequenceAllocator;
+    private final RealTimeHandler realTimeHandler;
+    private final SessionOwnershipRing ownershipRing;
+    private final boolean enabled;
+    private final Duration leadTime;
+    private final Duration lateWindow;
+
+    /** Sessions whose one-off preparation is done, pruned to the current window every run */
+    private final Set<UUID> prepared = ConcurrentHashMap.newKeySet();
+
+    private final Counter warmed;
+    private final Counter failed;
+
+    public SessionPreWarmer(SessionRepository sessionRepository,
+                            UserExistenceCache userExistenceCache,
+                            SessionStateCache sessionCache,
+                            SessionSequenceAllocator sequenceAllocator,
+                            RealTimeHandler realTimeHandler,
+                            SessionOwnershipRing ownershipRing,
+                            MeterRegistry meterRegistry,
+                            @Value("${interview.sessions.prewarm.enabled:true}") boolean enabled,
+                            @Value("${interview.sessions.prewarm.lead-time:10m}") Duration leadTime,
+                            @Value("${interview.sessions.prewarm.late-window:15m}") Duration lateWindow) {
+        this.sessionRepository = sessionRepository;
+        this.userExistenceCache = userExistenceCache;
+        this.sessionCache = sessionCache;
+        this.sequenceAllocator = sequenceAllocator;
+        this.realTimeHandler = realTimeHandler;
+        this.ownershipRing = ownershipRing;
+        this.enabled = enabled;
+        this.leadTime = leadTime;
+        this.lateWindow = lateWindow;
+
+        Gauge.builder("interview.sessions.prewarm.sessions", prepared, Set::size)
+                .description("Upcoming sessions kept warm on this node")
+                .register(meterRegistry);
+        this.warmed = Counter.builder("interview.sessions.prewarm.prepared")
+                .description("Sessions prepared ahead of their start")
+                .register(meterRegistry);
+        this.failed = Counter.builder("interview.sessions.prewarm.failures")
+                .description("Sessions whose preparation failed and will be retried")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${interview.sessions.prewarm.interval:20s}")
+    public void warmUpcomingSessions() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        // Metadata is fetched with the sessions, since there is no transaction to load it lazily
+        List<InterviewSession> upcoming = sessionRepository.findWithMetadataScheduledBetween(
+                SessionStatus.SCHEDULED, now.minus(lateWindow), now.plus(leadTime));
+
+        Set<UUID> window = new HashSet<>();
+        for (InterviewSession session : upcoming) {
+            if (session.getStatus() != SessionStatus.SCHEDULED || !ownershipRing.isLocal(session.getSessionId())) {
+                continue;
+            }
+            window.add(session.getSessionId());
+            try {
+                sessionCache.put(session);
+            } catch (RuntimeException e) {
+                failed.increment();
+                log.warn("Failed to cache upcoming session {}: {}", session.getSessionId(), e.getMessage());
+                continue;
+            }
+            if (!prepared.contains(session.getSessionId())) {
+                prepare(session);
+            }
+        }
+        prepared.retainAll(window);
+    }
+
+    private void prepare(InterviewSession session) {
+        UUID sessionId = session.getSessionId();
+        try {
+            userExistenceCache.existAll(List.of(session.getInterviewerId(), session.getCandidateId()));
+            sequenceAllocator.seed(sessionId);
+            realTimeHandler.primeRecentInteractions(sessionId);
+
+            prepared.add(sessionId);
+            warmed.increment();
+            log.debug("Pre-warmed session {} scheduled at {}", sessionId, session.getScheduledTime());
+        } catch (Exception e) {
+            failed.increment();
+            log.warn("Failed to pre-warm session {}: {}", sessionId, e.getMessage());
+        }
+    }
+}
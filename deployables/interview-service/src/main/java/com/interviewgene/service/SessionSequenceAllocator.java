@@ -0,0 +1,250 @@
+package com.interviewgene.service;
+
+import com.interviewgene.repository.SessionInteractionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Allocates interaction sequence numbers per session from memory.
+ * <p>
+ * The counter for a session is seeded from the database (MAX + 1) and then advanced under a
+ * per-session lock, so writing an interaction costs a single insert instead of a read followed by
+ * an insert, and concurrent senders can never be handed the same number.
+ * <p>
+ * Every allocation stays in flight until its writer reports it {@link #written} or
+ * {@link #failed}. The database only knows about numbers whose rows have landed, so a counter is
+ * never re-seeded while allocations are in flight: a failed write hands its numbers out again
+ * when nothing after them was allocated yet, and marks the counter stale so it re-seeds once the
+ * session is quiet. Releasing a session, because it ended or moved to another node, likewise
+ * keeps the counter until the pending writes have drained.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SessionSequenceAllocator {
+
+    private final SessionInteractionRepository interactionRepository;
+    private final ConcurrentMap<UUID, Counter> counters = new ConcurrentHashMap<>();
+
+    @Value("${interview.realtime.affinity.handover-timeout:5s}")
+    private Duration handoverTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Seed the counter for a session that is becoming active on this node
+     */
+    public void seed(UUID sessionId) {
+        allocate(sessionId, 0);
+    }
+
+    /**
+     * Allocate the next sequence number for a session; the caller must report the write
+     */
+    public int next(UUID sessionId) {
+        return allocate(sessionId, 1);
+    }
+
+    /**
+     * Allocate {@code count} consecutive sequence numbers for a session as one write
+     *
+     * @return the first number of the range
+     */
+    public int nextRange(UUID sessionId, int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("count must be positive");
+        }
+        return allocate(sessionId, count);
+    }
+
+    /**
+     * Report that an allocation has been committed to the database
+     */
+    public void written(UUID sessionId) {
+        settle(sessionId, true, 0, 0);
+    }
+
+    /**
+     * Report that the write of an allocation failed and its rows will never land
+     */
+    public void failed(UUID sessionId, int first, int count) {
+        settle(sessionId, false, first, count);
+    }
+
+    /**
+     * Report an allocation whose rows were written in the current transaction once it completes,
+     * or right away when there is no transaction
+     */
+    public void settleOnCompletion(UUID sessionId, int first, int count) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            written(sessionId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                settle(sessionId, status == STATUS_COMMITTED, first, count);
+            }
+        });
+    }
+
+    /**
+     * Drop the counter because the session ended or is now owned by another node. Allocations still
+     * in flight keep it until they settle, so the next seed sees their rows.
+     */
+    public void release(UUID sessionId) {
+        Counter counter = counters.get(sessionId);
+        if (counter == null) {
+            return;
+        }
+        synchronized (counter) {
+            if (counter.inFlight == 0) {
+                retire(sessionId, counter);
+                log.debug("Released sequence counter for session: {}", sessionId);
+            } else {
+                counter.released = true;
+                log.debug("Releasing sequence counter for session: {} after {} pending writes",
+                        sessionId, counter.inFlight);
+            }
+        }
+    }
+
+    /**
+     * Wait until no allocation of a session is in flight
+     *
+     * @return whether the session drained within the timeout
+     */
+    public boolean awaitDrained(UUID sessionId, Duration timeout) {
+        Counter counter = counters.get(sessionId);
+        if (counter == null) {
+            return true;
+        }
+        long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (counter) {
+            while (counter.inFlight > 0) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(counter, remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Sessions that currently hold a counter on this node
+     */
+    public Set<UUID> heldSessions() {
+        return Set.copyOf(counters.keySet());
+    }
+
+    /**
+     * Hand over counters for sessions that moved to another node after a rebalance, waiting for
+     * their pending writes so the new owner seeds from a complete table
+     */
+    @EventListener
+    public void onOwnershipChanged(SessionOwnershipChangedEvent event) {
+        long deadline = System.nanoTime() + handoverTimeout.toNanos();
+        for (UUID sessionId : counters.keySet()) {
+            if (event.getRing().isLocal(sessionId)) {
+                continue;
+            }
+            release(sessionId);
+            Duration remaining = Duration.ofNanos(Math.max(0, deadline - System.nanoTime()));
+            if (!awaitDrained(sessionId, remaining)) {
+                log.warn("Handed over session: {} with interaction writes still pending", sessionId);
+            }
+        }
+    }
+
+    private int allocate(UUID sessionId, int count) {
+        while (true) {
+            Counter counter = counters.computeIfAbsent(sessionId, id -> new Counter());
+            synchronized (counter) {
+                if (counter.retired) {
+                    // Released concurrently, the next lookup creates a fresh counter
+                    continue;
+                }
+                if (!counter.seeded || (counter.stale && counter.inFlight == 0)) {
+                    counter.last = loadLast(sessionId);
+                    counter.seeded = true;
+                    counter.stale = false;
+                }
+                counter.released = false;
+                if (count == 0) {
+                    return counter.last + 1;
+                }
+                counter.last += count;
+                counter.inFlight++;
+                return counter.last - count + 1;
+            }
+        }
+    }
+
+    private void settle(UUID sessionId, boolean persisted, int first, int count) {
+        Counter counter = counters.get(sessionId);
+        if (counter == null) {
+            log.warn("Settled a sequence allocation for session: {} that holds no counter", sessionId);
+            return;
+        }
+        synchronized (counter) {
+            counter.inFlight = Math.max(0, counter.inFlight - 1);
+            if (!persisted) {
+                if (counter.last == first + count - 1) {
+                    // Nothing after the range was handed out, so it can be reissued without a gap
+                    counter.last = first - 1;
+                } else {
+                    log.warn("Sequence numbers {}..{} of session: {} were lost after later numbers were allocated",
+                            first, first + count - 1, sessionId);
+                }
+                counter.stale = true;
+            }
+            if (counter.inFlight == 0) {
+                counter.notifyAll();
+                if (counter.released) {
+                    retire(sessionId, counter);
+                }
+            }
+        }
+    }
+
+    private void retire(UUID sessionId, Counter counter) {
+        counter.retired = true;
+        counters.remove(sessionId, counter);
+    }
+
+    private int loadLast(UUID sessionId) {
+        Integer next = interactionRepository.getNextSequenceNumber(sessionId);
+        int last = next != null ? next - 1 : 0;
+        log.debug("Seeded sequence counter for session: {} at {}", sessionId, last);
+        return last;
+    }
+
+    /**
+     * One session's counter; every field is guarded by the counter's monitor
+     */
+    private static final class Counter {
+        private int last;
+        private int inFlight;
+        private boolean seeded;
+        private boolean stale;
+        private boolean released;
+        private boolean retired;
+    }
+}
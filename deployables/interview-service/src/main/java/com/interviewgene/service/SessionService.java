@@ -1,26 +1,40 @@
 package com.interviewgene.service;
 
 import com.interviewgene.common.exception.ResourceNotFoundException;
+import com.interviewgene.common.exception.ServiceUnavailableException;
 import com.interviewgene.common.exception.ValidationException;
+import com.interviewgene.dto.BulkSessionCreateResponse;
+import com.interviewgene.dto.BulkSessionResult;
+import com.interviewgene.dto.CursorPage;
 import com.interviewgene.dto.SessionCreateRequest;
+import com.interviewgene.dto.SessionPresenceResponse;
 import com.interviewgene.dto.SessionResponse;
 import com.interviewgene.dto.SessionUpdateRequest;
 import com.interviewgene.model.InterviewSession;
 import com.interviewgene.model.SessionStatus;
+import com.interviewgene.model.SessionTransition;
 import com.interviewgene.repository.SessionRepository;
-import com.interviewgene.client.UserServiceClient;
-import com.interviewgene.event.SessionEventProducer;
+import com.interviewgene.util.IntervalIndex;
+import com.interviewgene.util.KeysetCursor;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -33,9 +47,18 @@ import java.util.stream.Collectors;
 @Transactional
 public class SessionService {
 
+    /** Upper bound on sessions per bulk scheduling request */
+    public static final int MAX_BULK_SESSIONS = 1000;
+
     private final SessionRepository sessionRepository;
-    private final UserServiceClient userServiceClient;
-    private final SessionEventProducer sessionEventProducer;
+    private final UserExistenceCache userExistenceCache;
+    private final SessionOutbox sessionOutbox;
+    private final SessionSequenceAllocator sequenceAllocator;
+    private final SessionStateCache sessionCache;
+    private final SessionStateReleaser stateReleaser;
+    private final PresenceRegistry presenceRegistry;
+    private final SessionExpirySweeper expirySweeper;
+    private final SchedulingIntervalIndex schedulingIndex;
 
     /**
      * Create a new interview session
@@ -47,30 +70,129 @@ public class SessionService {
 
         validateCreateRequest(request);
 
-        // Verify users exist
+        // Verify users exist; both are looked up concurrently and answers are cached
+        boolean usersExist;
         try {
-            userServiceClient.getUser(request.getInterviewerId().toString());
-            userServiceClient.getUser(request.getCandidateId().toString());
+            usersExist = userExistenceCache.allExist(List.of(request.getInterviewerId(), request.getCandidateId()));
         } catch (Exception e) {
             log.error("User validation failed: {}", e.getMessage());
             throw new ValidationException("Interviewer or Candidate not found");
         }
+        if (!usersExist) {
+            throw new ValidationException("Interviewer or Candidate not found");
+        }
 
-        InterviewSession session = InterviewSession.builder()
-                .interviewerId(request.getInterviewerId())
-                .candidateId(request.getCandidateId())
-                .scheduledTime(request.getScheduledTime())
-                .sessionType(request.getSessionType())
-                .status(SessionStatus.SCHEDULED)
-                .metadata(request.getMetadata() != null ? request.getMetadata() : new HashMap<>())
-                .build();
+        InterviewSession session = newSession(request);
 
         InterviewSession savedSession = sessionRepository.save(session);
+        schedulingIndex.reserve(savedSession);
+        expirySweeper.register(savedSession);
         log.info("Created session with ID: {}", savedSession.getSessionId());
 
         return mapToResponse(savedSession);
     }
 
+    /**
+     * Schedule many sessions at once. Each item is validated on its own and gets its own result;
+     * the participants of all items are looked up once, concurrently, and the valid sessions are
+     * inserted together in JDBC batches.
+     */
+    public BulkSessionCreateResponse createSessions(List<SessionCreateRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new ValidationException("At least one session is required");
+        }
+        if (requests.size() > MAX_BULK_SESSIONS) {
+            throw new ValidationException("Bulk scheduling is limited to " + MAX_BULK_SESSIONS + " sessions per request");
+        }
+        log.info("Creating {} sessions in bulk", requests.size());
+
+        BulkSessionResult[] results = new BulkSessionResult[requests.size()];
+        Set<UUID> participants = new LinkedHashSet<>();
+        for (int i = 0; i < requests.size(); i++) {
+            SessionCreateRequest request = requests.get(i);
+            String error = bulkItemError(request);
+            if (error != null) {
+                results[i] = BulkSessionResult.builder().index(i).error(error).build();
+            } else {
+                participants.add(request.getInterviewerId());
+                participants.add(request.getCandidateId());
+            }
+        }
+
+        Map<UUID, Boolean> existing;
+        try {
+            existing = participants.isEmpty() ? Map.of() : userExistenceCache.existAll(participants);
+        } catch (Exception e) {
+            log.error("User validation failed for bulk scheduling: {}", e.getMessage());
+            throw new ServiceUnavailableException("User service unavailable, no sessions were created", e);
+        }
+
+        List<InterviewSession> sessions = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        // Bookings accepted so far in this drive, so its own items cannot overlap either
+        IntervalIndex<Integer> drive = new IntervalIndex<>(Duration.ofDays(1));
+        for (int i = 0; i < requests.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            SessionCreateRequest request = requests.get(i);
+            if (!Boolean.TRUE.equals(existing.get(request.getInterviewerId()))
+                    || !Boolean.TRUE.equals(existing.get(request.getCandidateId()))) {
+                results[i] = BulkSessionResult.builder().index(i).error("Interviewer or Candidate not found").build();
+                continue;
+            }
+            String conflict = bulkConflict(request, drive, i);
+            if (conflict != null) {
+                results[i] = BulkSessionResult.builder().index(i).error(conflict).build();
+                continue;
+            }
+            sessions.add(newSession(request));
+            positions.add(i);
+        }
+
+        int created = 0;
+        if (!sessions.isEmpty()) {
+            List<InterviewSession> saved = sessionRepository.saveAll(sessions);
+            // A concurrent request may have booked the slot since the check, which only fails that item
+            List<InterviewSession> rejected = new ArrayList<>();
+            for (int k = 0; k < saved.size(); k++) {
+                Optional<String> conflict = schedulingIndex.tryReserve(saved.get(k));
+                if (conflict.isPresent()) {
+                    rejected.add(saved.get(k));
+                    results[positions.get(k)] = BulkSessionResult.builder()
+                            .index(positions.get(k))
+                            .error(conflict.get())
+                            .build();
+                }
+            }
+            if (!rejected.isEmpty()) {
+                sessionRepository.deleteAll(rejected);
+            }
+            // Write the batch now so creation timestamps are in the response
+            sessionRepository.flush();
+            for (int k = 0; k < saved.size(); k++) {
+                if (results[positions.get(k)] != null) {
+                    continue;
+                }
+                expirySweeper.register(saved.get(k));
+                results[positions.get(k)] = BulkSessionResult.builder()
+                        .index(positions.get(k))
+                        .created(true)
+                        .session(mapToResponse(saved.get(k)))
+                        .build();
+                created++;
+            }
+        }
+
+        log.info("Bulk scheduling created {} of {} sessions", created, requests.size());
+        return BulkSessionCreateResponse.builder()
+                .requested(requests.size())
+                .created(created)
+                .failed(requests.size() - created)
+                .results(Arrays.asList(results))
+                .build();
+    }
+
     /**
      * Get session by ID
      */
@@ -84,6 +206,24 @@ public class SessionService {
         return mapToResponse(session);
     }
 
+    /**
+     * Get a snapshot of who is connected to a session
+     */
+    @Transactional(readOnly = true)
+    public SessionPresenceResponse getSessionPresence(UUID sessionId) {
+        log.debug("Retrieving presence for session: {}", sessionId);
+
+        if (sessionCache.getOrLoad(sessionId).isEmpty()) {
+            throw new ResourceNotFoundException("Session not found: " + sessionId);
+        }
+
+        return SessionPresenceResponse.builder()
+                .sessionId(sessionId)
+                .participants(presenceRegistry.snapshot(sessionId))
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
     /**
      * Update session
      */
@@ -95,6 +235,9 @@ public class SessionService {
 
         updateSessionFields(session, request);
         InterviewSession updatedSession = sessionRepository.save(session);
+        schedulingIndex.reserve(updatedSession);
+        sessionCache.update(updatedSession);
+        expirySweeper.register(updatedSession);
 
         log.info("Updated session: {}", sessionId);
         return mapToResponse(updatedSession);
@@ -111,63 +254,68 @@ public class SessionService {
         }
 
         sessionRepository.deleteById(sessionId);
+        sessionCache.evict(sessionId);
+        expirySweeper.cancel(sessionId);
+        stateReleaser.release(sessionId);
         log.info("Deleted session: {}", sessionId);
     }
 
     /**
-     * Get sessions by interviewer
+     * Get a page of sessions by interviewer, oldest first
      */
     @Transactional(readOnly = true)
-    public List<SessionResponse> getSessionsByInterviewer(UUID interviewerId) {
+    public CursorPage<SessionResponse> getSessionsByInterviewer(UUID interviewerId, String cursor, int limit) {
         log.debug("Retrieving sessions for interviewer: {}", interviewerId);
-        
-        return sessionRepository.findByInterviewerId(interviewerId)
-                .stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+
+        KeysetCursor.SessionKey after = KeysetCursor.decodeSession(cursor);
+        int pageSize = KeysetCursor.pageSize(limit);
+        return toPage(sessionRepository.findPageByInterviewerId(
+                interviewerId, after.createdAt(), after.sessionId(), PageRequest.of(0, pageSize + 1)), pageSize);
     }
 
     /**
-     * Get sessions by candidate
+     * Get a page of sessions by candidate, oldest first
      */
     @Transactional(readOnly = true)
-    public List<SessionResponse> getSessionsByCandidate(UUID candidateId) {
+    public CursorPage<SessionResponse> getSessionsByCandidate(UUID candidateId, String cursor, int limit) {
         log.debug("Retrieving sessions for candidate: {}", candidateId);
-        
-        return sessionRepository.findByCandidateId(candidateId)
-                .stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+
+        KeysetCursor.SessionKey after = KeysetCursor.decodeSession(cursor);
+        int pageSize = KeysetCursor.pageSize(limit);
+        return toPage(sessionRepository.findPageByCandidateId(
+                candidateId, after.createdAt(), after.sessionId(), PageRequest.of(0, pageSize + 1)), pageSize);
     }
 
     /**
-     * Get sessions by status
+     * Get a page of sessions by status, oldest first
      */
     @Transactional(readOnly = true)
-    public List<SessionResponse> getSessionsByStatus(SessionStatus status) {
+    public CursorPage<SessionResponse> getSessionsByStatus(SessionStatus status, String cursor, int limit) {
         log.debug("Retrieving sessions with status: {}", status);
-        
-        return sessionRepository.findByStatus(status)
-                .stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+
+        KeysetCursor.SessionKey after = KeysetCursor.decodeSession(cursor);
+        int pageSize = KeysetCursor.pageSize(limit);
+        return toPage(sessionRepository.findPageByStatus(
+                status, after.createdAt(), after.sessionId(), PageRequest.of(0, pageSize + 1)), pageSize);
     }
 
     /**
      * Start session
      */
     public SessionResponse startSession(UUID sessionId) {
-        log.info("Starting session: {}", sessionId);
-
-        InterviewSession session = sessionRepository.findById(sessionId)
-                .orElseThrow(() -> new ResourceNotFoundException("Session not found: " + sessionId));
+        return startSession(sessionId, null);
+    }
 
-        if (!session.canJoin()) {
-            throw new ValidationException("Session cannot be started in current state: " + session.getStatus());
-        }
+    /**
+     * Start session, optionally only if it is still at {@code expectedVersion}
+     */
+    public SessionResponse startSession(UUID sessionId, Long expectedVersion) {
+        log.info("Starting session: {}", sessionId);
 
-        session.startSession();
-        InterviewSession updatedSession = sessionRepository.save(session);
+        InterviewSession updatedSession = applyTransition(sessionId, SessionTransition.START, expectedVersion);
+        sequenceAllocator.seed(sessionId);
+        sessionCache.update(updatedSession);
+        expirySweeper.register(updatedSession);
 
         log.info("Started session: {}", sessionId);
         return mapToResponse(updatedSession);
@@ -177,31 +325,24 @@ public class SessionService {
      * End session
      */
     public SessionResponse endSession(UUID sessionId) {
-        log.info("Ending session: {}", sessionId);
+        return endSession(sessionId, null);
+    }
 
-        InterviewSession session = sessionRepository.findById(sessionId)
-                .orElseThrow(() -> new ResourceNotFoundException("Session not found: " + sessionId));
+    /**
+     * End session, optionally only if it is still at {@code expectedVersion}
+     */
+    public SessionResponse endSession(UUID sessionId, Long expectedVersion) {
+        log.info("Ending session: {}", sessionId);
 
-        if (!session.isActive()) {
-            throw new ValidationException("Only active sessions can be ended");
-        }
+        InterviewSession updatedSession = applyTransition(sessionId, SessionTransition.END, expectedVersion);
+        sessionCache.update(updatedSession);
+        expirySweeper.register(updatedSession);
 
-        session.endSession();
-        InterviewSession updatedSession = sessionRepository.save(session);
+        // Published to analytics by the outbox relay once this transaction commits
+        sessionOutbox.enqueue(updatedSession, SessionOutbox.SESSION_COMPLETED);
+        stateReleaser.release(sessionId);
 
         log.info("Ended session: {}", sessionId);
-
-        // Emit event for analytics
-        try {
-            sessionEventProducer.sendSessionCompletedEvent(
-                    updatedSession.getSessionId(),
-                    updatedSession.getCandidateId(),
-                    new HashMap<>(updatedSession.getMetadata())
-            );
-        } catch (Exception e) {
-            log.error("Failed to send session completed event: {}", e.getMessage());
-        }
-
         return mapToResponse(updatedSession);
     }
 
@@ -209,17 +350,18 @@ public class SessionService {
      * Pause session
      */
     public SessionResponse pauseSession(UUID sessionId) {
-        log.info("Pausing session: {}", sessionId);
-
-        InterviewSession session = sessionRepository.findById(sessionId)
-                .orElseThrow(() -> new ResourceNotFoundException("Session not found: " + sessionId));
+        return pauseSession(sessionId, null);
+    }
 
-        if (!session.isActive()) {
-            throw new ValidationException("Only active sessions can be paused");
-        }
+    /**
+     * Pause session, optionally only if it is still at {@code expectedVersion}
+     */
+    public SessionResponse pauseSession(UUID sessionId, Long expectedVersion) {
+        log.info("Pausing session: {}", sessionId);
 
-        session.pauseSession();
-        InterviewSession updatedSession = sessionRepository.save(session);
+        InterviewSession updatedSession = applyTransition(sessionId, SessionTransition.PAUSE, expectedVersion);
+        sessionCache.update(updatedSession);
+        expirySweeper.register(updatedSession);
 
         log.info("Paused session: {}", sessionId);
         return mapToResponse(updatedSession);
@@ -229,17 +371,19 @@ public class SessionService {
      * Cancel session
      */
     public SessionResponse cancelSession(UUID sessionId) {
-        log.info("Cancelling session: {}", sessionId);
-
-        InterviewSession session = sessionRepository.findById(sessionId)
-                .orElseThrow(() -> new ResourceNotFoundException("Session not found: " + sessionId));
+        return cancelSession(sessionId, null);
+    }
 
-        if (session.isCompleted()) {
-            throw new ValidationException("Cannot cancel completed session");
-        }
+    /**
+     * Cancel session, optionally only if it is still at {@code expectedVersion}
+     */
+    public SessionResponse cancelSession(UUID sessionId, Long expectedVersion) {
+        log.info("Cancelling session: {}", sessionId);
 
-        session.cancelSession();
-        InterviewSession updatedSession = sessionRepository.save(session);
+        InterviewSession updatedSession = applyTransition(sessionId, SessionTransition.CANCEL, expectedVersion);
+        sessionCache.update(updatedSession);
+        expirySweeper.register(updatedSession);
+        stateReleaser.release(sessionId);
 
         log.info("Cancelled session: {}", sessionId);
         return mapToResponse(updatedSession);
@@ -258,6 +402,96 @@ public class SessionService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Apply a lifecycle transition as one guarded UPDATE and read back the updated row. When the
+     * guard rejects it, a second lookup explains why: the session is missing, in a status the
+     * transition does not start from, or no longer at the expected version.
+     */
+    private InterviewSession applyTransition(UUID sessionId, SessionTransition transition, Long expectedVersion) {
+        LocalDateTime now = LocalDateTime.now();
+        int updated = sessionRepository.transition(sessionId, transition.getFrom(), transition.getTarget(),
+                transition.stampsStart() ? now : null, transition.stampsEnd() ? now : null, now, expectedVersion);
+
+        if (updated == 0) {
+            SessionRepository.LifecycleState state = sessionRepository.findLifecycleStateBySessionId(sessionId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Session not found: " + sessionId));
+            if (!transition.allows(state.getStatus())) {
+                throw new ValidationException(transition.rejection(state.getStatus()));
+            }
+            throw new ValidationException("Session " + sessionId + " is at version " + state.getVersion()
+                    + ", expected " + expectedVersion);
+        }
+
+        return sessionRepository.findWithMetadataBySessionId(sessionId)
+                .orElseThrow(() -> new ResourceNotFoundException("Session not found: " + sessionId));
+    }
+
+    /**
+     * Why one item of a bulk request cannot be scheduled, or {@code null} when it is valid
+     */
+    private String bulkItemError(SessionCreateRequest request) {
+        if (request == null) {
+            return "Session is required";
+        }
+        if (request.getInterviewerId() == null) {
+            return "Interviewer ID is required";
+        }
+        if (request.getCandidateId() == null) {
+            return "Candidate ID is required";
+        }
+        if (request.getSessionType() == null) {
+            return "Session type is required";
+        }
+        try {
+            validateCreateRequest(request);
+            return null;
+        } catch (ValidationException e) {
+            return e.getMessage();
+        }
+    }
+
+    /**
+     * Double booking of one bulk item against existing sessions or earlier items of the drive,
+     * recording the item in {@code drive} when it is free
+     */
+    private String bulkConflict(SessionCreateRequest request, IntervalIndex<Integer> drive, int index) {
+        if (request.getScheduledTime() == null) {
+            return null;
+        }
+        Duration duration;
+        try {
+            duration = schedulingIndex.durationOf(request.getMetadata());
+        } catch (ValidationException e) {
+            return e.getMessage();
+        }
+        Optional<String> booked = schedulingIndex.findConflict(
+                request.getInterviewerId(), request.getCandidateId(), request.getScheduledTime(), duration);
+        if (booked.isPresent()) {
+            return booked.get();
+        }
+
+        LocalDateTime start = request.getScheduledTime();
+        LocalDateTime end = start.plus(duration);
+        Optional<IntervalIndex.Interval<Integer>> earlier = drive.findConflict(request.getInterviewerId(), start, end, null)
+                .or(() -> drive.findConflict(request.getCandidateId(), start, end, null));
+        if (earlier.isPresent()) {
+            return "Overlaps item " + earlier.get().id() + " of this request";
+        }
+        drive.put(index, List.of(request.getInterviewerId(), request.getCandidateId()), start, end);
+        return null;
+    }
+
+    private InterviewSession newSession(SessionCreateRequest request) {
+        return InterviewSession.builder()
+                .interviewerId(request.getInterviewerId())
+                .candidateId(request.getCandidateId())
+                .scheduledTime(request.getScheduledTime())
+                .sessionType(request.getSessionType())
+                .status(SessionStatus.SCHEDULED)
+                .metadata(request.getMetadata() != null ? request.getMetadata() : new HashMap<>())
+                .build();
+    }
+
     private void validateCreateRequest(SessionCreateRequest request) {
         if (request.getInterviewerId().equals(request.getCandidateId())) {
             throw new ValidationException("Interviewer and candidate cannot be the same person");
@@ -303,22 +537,33 @@ public class SessionService {
                 .build();
     }
 
+    /**
+     * Map up to {@code pageSize} sessions from a query that fetched one extra row to detect more pages
+     */
+    private CursorPage<SessionResponse> toPage(List<InterviewSession> sessions, int pageSize) {
+        boolean hasMore = sessions.size() > pageSize;
+        List<InterviewSession> page = hasMore ? sessions.subList(0, pageSize) : sessions;
+        InterviewSession last = hasMore ? page.get(page.size() - 1) : null;
+
+        return CursorPage.<SessionResponse>builder()
+                .items(page.stream().map(this::mapToResponse).collect(Collectors.toList()))
+                .limit(pageSize)
+                .hasMore(hasMore)
+                .nextCursor(last != null ? KeysetCursor.encodeSession(last.getCreatedAt(), last.getSessionId()) : null)
+                .build();
+    }
+
     /**
      * Fallback method for createSession when userService is unavailable
      */
     public SessionResponse fallbackCreateSession(SessionCreateRequest request, Exception e) {
         log.warn("User Service is unavailable, creating session without validation. Error: {}", e.getMessage());
         
-        InterviewSession session = InterviewSession.builder()
-                .interviewerId(request.getInterviewerId())
-                .candidateId(request.getCandidateId())
-                .scheduledTime(request.getScheduledTime())
-                .sessionType(request.getSessionType())
-                .status(SessionStatus.SCHEDULED)
-                .metadata(request.getMetadata() != null ? request.getMetadata() : new HashMap<>())
-                .build();
+        InterviewSession session = newSession(request);
 
         InterviewSession savedSession = sessionRepository.save(session);
+        schedulingIndex.reserve(savedSession);
+        expirySweeper.register(savedSession);
         return mapToResponse(savedSession);
     }
 }
\ No newline at end of file
@@ -0,0 +1,133 @@
+package com.interviewgene.service;
+
+import com.interviewgene.model.InterviewSession;
+import com.interviewgene.repository.SessionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-memory cache of live session state so the real-time path does not read the session per message.
+ * <p>
+ * Entries are loaded when a session is started or joined and are replaced by the lifecycle methods
+ * in {@link SessionService}. A replacement never goes back to an older version, and completed,
+ * cancelled and expired sessions stay as tombstones until the TTL runs out, so a load that read the
+ * session before it finished cannot bring it back to life. Entries also expire after the TTL, which
+ * bounds staleness when a lifecycle call is served by another node.
+ */
+@Component
+@Slf4j
+public class SessionStateCache {
+
+    private final SessionRepository sessionRepository;
+    private final long ttlNanos;
+    private final ConcurrentMap<UUID, CachedSession> sessions = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+
+    public SessionStateCache(SessionRepository sessionRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${interview.realtime.session-cache.ttl:30s}") Duration ttl) {
+        this.sessionRepository = sessionRepository;
+        this.ttlNanos = ttl.toNanos();
+
+        Gauge.builder("interview.realtime.session_cache.size", sessions, Map::size)
+                .register(meterRegistry);
+        this.hits = Counter.builder("interview.realtime.session_cache.requests").tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("interview.realtime.session_cache.requests").tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Cached state for a session, loading it from the database on a miss
+     */
+    public Optional<CachedSession> getOrLoad(UUID sessionId) {
+        CachedSession cached = sessions.get(sessionId);
+        if (cached != null && System.nanoTime() - cached.getLoadedAt() < ttlNanos) {
+            hits.increment();
+            return Optional.of(cached);
+        }
+
+        misses.increment();
+        return sessionRepository.findById(sessionId).map(this::put);
+    }
+
+    /**
+     * Cached state for a session without touching the database
+     */
+    public Optional<CachedSession> getIfPresent(UUID sessionId) {
+        return Optional.ofNullable(sessions.get(sessionId));
+    }
+
+    /**
+     * Whether a lookup would be served from memory right now
+     */
+    public boolean isWarm(UUID sessionId) {
+        CachedSession cached = sessions.get(sessionId);
+        return cached != null && System.nanoTime() - cached.getLoadedAt() < ttlNanos;
+    }
+
+    /**
+     * Replace the cached state with a freshly loaded or saved entity, unless the cache already
+     * holds a newer version, and return the state that was kept
+     */
+    public CachedSession put(InterviewSession session) {
+        CachedSession state = CachedSession.from(session, System.nanoTime());
+        return sessions.compute(session.getSessionId(),
+                (sessionId, cached) -> cached != null && version(cached) > version(state) ? cached : state);
+    }
+
+    /**
+     * Apply a lifecycle change once the surrounding transaction commits, so a rolled back
+     * change never becomes visible to the real-time path
+     */
+    public void update(InterviewSession session) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            put(session);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                put(session);
+            }
+        });
+    }
+
+    public void evict(UUID sessionId) {
+        sessions.remove(sessionId);
+    }
+
+    @Scheduled(fixedDelayString = "${interview.realtime.session-cache.purge-interval:1m}")
+    public void purgeExpired() {
+        long now = System.nanoTime();
+        sessions.values().removeIf(cached -> now - cached.getLoadedAt() >= ttlNanos);
+    }
+
+    /**
+     * Drop sessions that moved to another node, whose state this node no longer sees updated
+     */
+    @EventListener
+    public void onOwnershipChanged(SessionOwnershipChangedEvent event) {
+        sessions.keySet().removeIf(sessionId -> !event.getRing().isLocal(sessionId));
+    }
+
+    private static long version(CachedSession cached) {
+        return cached.getVersion() != null ? cached.getVersion() : -1L;
+    }
+}
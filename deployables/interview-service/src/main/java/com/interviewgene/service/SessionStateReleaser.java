@@ -0,0 +1,54 @@
+package com.interviewgene.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+
+/**
+ * Frees the in-memory state a session holds on this node once it has finished or been deleted:
+ * its sequence counter, recent interactions, typing state, observers and scheduling booking.
+ * <p>
+ * Everything is released after the surrounding transaction commits, so the lifecycle change and
+ * any outbox row written with it are durable first, and a rolled back change leaves the live
+ * session intact.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SessionStateReleaser {
+
+    private final SessionSequenceAllocator sequenceAllocator;
+    private final RecentInteractionBuffer recentInteractions;
+    private final TypingIndicatorCoalescer typingCoalescer;
+    private final SessionObserverRegistry observerRegistry;
+    private final SchedulingIntervalIndex schedulingIndex;
+
+    public void release(UUID sessionId) {
+        // Defers itself; a synchronization registered from within afterCommit would never run
+        schedulingIndex.release(sessionId);
+        afterCommit(() -> {
+            sequenceAllocator.release(sessionId);
+            recentInteractions.release(sessionId);
+            typingCoalescer.release(sessionId);
+            observerRegistry.release(sessionId);
+            log.debug("Released in-memory state for session: {}", sessionId);
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
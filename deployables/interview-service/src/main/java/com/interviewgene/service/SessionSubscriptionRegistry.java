@@ -0,0 +1,148 @@
+package com.interviewgene.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Tracks which interview sessions have subscribers connected to this node.
+ * <p>
+ * A session is hosted while at least one local STOMP subscription targets one of its
+ * {@code /topic/session/{id}/...} destinations. Listeners are told when a session gains its
+ * first local subscriber and when it loses its last one.
+ */
+@Component
+@Slf4j
+public class SessionSubscriptionRegistry {
+
+    private static final Pattern SESSION_DESTINATION =
+            Pattern.compile("^/topic/session/([0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12})/");
+
+    /**
+     * Callback for sessions starting or stopping being hosted on this node
+     */
+    public interface HostingListener {
+        void sessionHosted(UUID sessionId);
+
+        void sessionReleased(UUID sessionId);
+    }
+
+    private final Map<String, Map<String, UUID>> subscriptionsByConnection = new HashMap<>();
+    private final Map<UUID, Integer> subscriberCounts = new HashMap<>();
+    private final List<HostingListener> listeners = new CopyOnWriteArrayList<>();
+
+    public void addListener(HostingListener listener) {
+        listeners.add(listener);
+    }
+
+    public synchronized boolean isHosted(UUID sessionId) {
+        return subscriberCounts.containsKey(sessionId);
+    }
+
+    public synchronized Set<UUID> hostedSessions() {
+        return Set.copyOf(subscriberCounts.keySet());
+    }
+
+    /**
+     * STOMP connections on this node subscribed to one of the session's topics
+     */
+    public synchronized Set<String> connectionsOf(UUID sessionId) {
+        Set<String> connections = new HashSet<>();
+        subscriptionsByConnection.forEach((connectionId, subscriptions) -> {
+            if (subscriptions.containsValue(sessionId)) {
+                connections.add(connectionId);
+            }
+        });
+        return connections;
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        UUID sessionId = parseSessionId(accessor.getDestination());
+        if (sessionId == null || accessor.getSessionId() == null || accessor.getSubscriptionId() == null) {
+            return;
+        }
+
+        boolean hosted;
+        synchronized (this) {
+            UUID previous = subscriptionsByConnection
+                    .computeIfAbsent(accessor.getSessionId(), k -> new HashMap<>())
+                    .put(accessor.getSubscriptionId(), sessionId);
+            if (previous != null) {
+                decrement(previous);
+            }
+            hosted = subscriberCounts.merge(sessionId, 1, Integer::sum) == 1;
+        }
+        if (hosted) {
+            log.debug("Session {} is now hosted on this node", sessionId);
+            listeners.forEach(listener -> listener.sessionHosted(sessionId));
+        }
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        UUID released = null;
+        synchronized (this) {
+            Map<String, UUID> subscriptions = subscriptionsByConnection.get(accessor.getSessionId());
+            UUID sessionId = subscriptions != null ? subscriptions.remove(accessor.getSubscriptionId()) : null;
+            if (sessionId != null && decrement(sessionId)) {
+                released = sessionId;
+            }
+        }
+        notifyReleased(released);
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        List<UUID> released = new ArrayList<>();
+        synchronized (this) {
+            Map<String, UUID> subscriptions = subscriptionsByConnection.remove(event.getSessionId());
+            if (subscriptions != null) {
+                for (UUID sessionId : subscriptions.values()) {
+                    if (decrement(sessionId)) {
+                        released.add(sessionId);
+                    }
+                }
+            }
+        }
+        released.forEach(this::notifyReleased);
+    }
+
+    private boolean decrement(UUID sessionId) {
+        Integer remaining = subscriberCounts.computeIfPresent(sessionId, (id, count) -> count > 1 ? count - 1 : null);
+        return remaining == null;
+    }
+
+    private void notifyReleased(UUID sessionId) {
+        if (sessionId == null) {
+            return;
+        }
+        log.debug("Session {} is no longer hosted on this node", sessionId);
+        listeners.forEach(listener -> listener.sessionReleased(sessionId));
+    }
+
+    static UUID parseSessionId(String destination) {
+        if (destination == null) {
+            return null;
+        }
+        Matcher matcher = SESSION_DESTINATION.matcher(destination);
+        return matcher.find() ? UUID.fromString(matcher.group(1)) : null;
+    }
+}
@@ -0,0 +1,202 @@
+package com.interviewgene.service;
+
+import com.interviewgene.dto.InteractionMessage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Collapses the typing frames clients send on every keystroke into state changes.
+ * <p>
+ * Each participant has a small mutable state. A TYPING_START is broadcast only when the participant
+ * was not already shown as typing, or as a keep-alive once the refresh interval has passed. A
+ * TYPING_STOP is held back for the debounce window so a short pause does not flap the indicator,
+ * and a participant who stops sending frames is expired with a TYPING_STOP. Duplicate states are
+ * dropped without allocating a message.
+ * <p>
+ * Deferred and expired stops are emitted through the session mailbox so they stay ordered with the
+ * frames handled there.
+ */
+@Component
+public class TypingIndicatorCoalescer {
+
+    private final SessionBroadcastRelay broadcastRelay;
+    private final SessionMailboxExecutor mailboxExecutor;
+    private final boolean enabled;
+    private final long debounceNanos;
+    private final long refreshNanos;
+    private final long expiryNanos;
+    private final ConcurrentMap<UUID, ConcurrentMap<UUID, TypingState>> sessions = new ConcurrentHashMap<>();
+
+    private final Counter received;
+    private final Counter broadcast;
+
+    public TypingIndicatorCoalescer(SessionBroadcastRelay broadcastRelay,
+                                    SessionMailboxExecutor mailboxExecutor,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${interview.realtime.typing.coalesce:true}") boolean enabled,
+                                    @Value("${interview.realtime.typing.debounce:750ms}") Duration debounce,
+                                    @Value("${interview.realtime.typing.refresh:3s}") Duration refresh,
+                                    @Value("${interview.realtime.typing.expiry:5s}") Duration expiry) {
+        this.broadcastRelay = broadcastRelay;
+        this.mailboxExecutor = mailboxExecutor;
+        this.enabled = enabled;
+        this.debounceNanos = debounce.toNanos();
+        this.refreshNanos = refresh.toNanos();
+        this.expiryNanos = expiry.toNanos();
+
+        this.received = Counter.builder("interview.realtime.typing.frames").tag("stage", "received")
+                .description("Typing frames received from clients")
+                .register(meterRegistry);
+        this.broadcast = Counter.builder("interview.realtime.typing.frames").tag("stage", "broadcast")
+                .description("Typing frames broadcast after coalescing")
+                .register(meterRegistry);
+    }
+
+    public void onTyping(UUID sessionId, UUID participantId, boolean typing) {
+        onTyping(sessionId, participantId, typing, System.nanoTime());
+    }
+
+    /**
+     * Record a typing frame at the given {@link System#nanoTime()} and broadcast it if it changes what others see
+     */
+    public void onTyping(UUID sessionId, UUID participantId, boolean typing, long now) {
+        received.increment();
+        if (!enabled) {
+            emit(sessionId, participantId, typing);
+            return;
+        }
+
+        boolean emitStart = false;
+        boolean emitStop = false;
+        while (true) {
+            TypingState state = sessions.computeIfAbsent(sessionId, id -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(participantId, id -> new TypingState());
+            synchronized (state) {
+                if (state.retired) {
+                    continue;
+                }
+                if (typing) {
+                    state.lastSeenAt = now;
+                    state.stopDueAt = 0;
+                    if (!state.typing || now - state.lastBroadcastAt >= refreshNanos) {
+                        state.typing = true;
+                        state.lastBroadcastAt = now;
+                        emitStart = true;
+                    }
+                } else if (state.typing && state.stopDueAt == 0) {
+                    if (debounceNanos > 0) {
+                        state.stopDueAt = now + debounceNanos;
+                    } else {
+                        state.typing = false;
+                        state.lastBroadcastAt = now;
+                        emitStop = true;
+                    }
+                }
+            }
+            break;
+        }
+
+        if (emitStart || emitStop) {
+            emit(sessionId, participantId, emitStart);
+        }
+    }
+
+    /**
+     * Clear a participant's state when they leave, stopping their indicator if it is still shown
+     */
+    public void participantLeft(UUID sessionId, UUID participantId) {
+        ConcurrentMap<UUID, TypingState> participants = sessions.get(sessionId);
+        TypingState state = participants != null ? participants.remove(participantId) : null;
+        if (state == null) {
+            return;
+        }
+        boolean wasTyping;
+        synchronized (state) {
+            state.retired = true;
+            wasTyping = state.typing;
+        }
+        if (wasTyping) {
+            emit(sessionId, participantId, false);
+        }
+    }
+
+    public void release(UUID sessionId) {
+        sessions.remove(sessionId);
+    }
+
+    @Scheduled(fixedDelayString = "${interview.realtime.typing.sweep-interval:250ms}")
+    public void sweep() {
+        sweep(System.nanoTime());
+    }
+
+    /**
+     * Emit due stops and expire silent participants as of the given {@link System#nanoTime()}
+     */
+    public void sweep(long now) {
+        for (Map.Entry<UUID, ConcurrentMap<UUID, TypingState>> session : sessions.entrySet()) {
+            UUID sessionId = session.getKey();
+            ConcurrentMap<UUID, TypingState> participants = session.getValue();
+            for (Map.Entry<UUID, TypingState> participant : participants.entrySet()) {
+                TypingState state = participant.getValue();
+                synchronized (state) {
+                    if (state.typing && isDue(state, now)) {
+                        UUID participantId = participant.getKey();
+                        mailboxExecutor.submit(sessionId, () -> expire(sessionId, participantId, state, now));
+                    } else if (!state.typing && now - state.lastBroadcastAt >= expiryNanos) {
+                        state.retired = true;
+                        participants.remove(participant.getKey(), state);
+                    }
+                }
+            }
+        }
+    }
+
+    private void expire(UUID sessionId, UUID participantId, TypingState state, long now) {
+        synchronized (state) {
+            // A START may have arrived between the sweep and this task running
+            if (state.retired || !state.typing || !isDue(state, now)) {
+                return;
+            }
+            state.typing = false;
+            state.stopDueAt = 0;
+            state.lastBroadcastAt = now;
+        }
+        emit(sessionId, participantId, false);
+    }
+
+    private boolean isDue(TypingState state, long now) {
+        return (state.stopDueAt != 0 && now - state.stopDueAt >= 0) || now - state.lastSeenAt >= expiryNanos;
+    }
+
+    private void emit(UUID sessionId, UUID participantId, boolean typing) {
+        broadcast.increment();
+        // Typing frames are ephemeral, so they carry no message id and are never stored
+        InteractionMessage frame = InteractionMessage.builder()
+                .sessionId(sessionId)
+                .participantId(participantId)
+                .action(typing ? InteractionMessage.MessageAction.TYPING_START
+                        : InteractionMessage.MessageAction.TYPING_STOP)
+                .timestamp(LocalDateTime.now())
+                .build();
+        broadcastRelay.broadcast(sessionId, "/topic/session/" + sessionId + "/interactions", frame,
+                SessionBroadcastRelay.Priority.LOW);
+    }
+
+    private static final class TypingState {
+        private boolean typing;
+        private boolean retired;
+        private long lastBroadcastAt;
+        private long lastSeenAt;
+        private long stopDueAt;
+    }
+}
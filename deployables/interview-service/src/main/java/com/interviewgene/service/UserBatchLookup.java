@@ -0,0 +1,18 @@
+package com.interviewgene.service;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Batched existence check against user-service. Deployments whose user-service offers a bulk
+ * lookup register an implementation, and {@link UserExistenceCache} resolves all its misses with
+ * one call instead of one call per user.
+ */
+public interface UserBatchLookup {
+
+    /**
+     * The subset of {@code userIds} that exist
+     */
+    Set<UUID> findExisting(Collection<UUID> userIds);
+}
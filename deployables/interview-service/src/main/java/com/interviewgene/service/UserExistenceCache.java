@@ -0,0 +1,269 @@
+package com.interviewgene.service;
+
+import com.interviewgene.client.UserServiceClient;
+import feign.FeignException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Answers "does this user exist" for session participants without a user-service round trip per
+ * question.
+ * <p>
+ * Answers are cached for {@code ttl}, and users user-service reported as missing for the shorter
+ * {@code negative-ttl}; lookups that fail for any other reason are not cached. Concurrent
+ * requests for the same user share one lookup, and the misses of a multi-user request are looked
+ * up in parallel, or with a single call when a {@link UserBatchLookup} is registered.
+ */
+@Component
+@Slf4j
+public class UserExistenceCache {
+
+    private final UserServiceClient userServiceClient;
+    private final ObjectProvider<UserBatchLookup> batchLookup;
+    private final Duration ttl;
+    private final Duration negativeTtl;
+    private final Duration lookupTimeout;
+    private final int maxEntries;
+    private final Executor lookups;
+
+    private final ConcurrentMap<UUID, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentMap<UUID, CompletableFuture<Boolean>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter coalesced;
+    private final Counter remoteLookups;
+
+    public UserExistenceCache(UserServiceClient userServiceClient,
+                              ObjectProvider<UserBatchLookup> batchLookup,
+                              MeterRegistry meterRegistry,
+                              Environment environment,
+                              @Value("${interview.users.cache.ttl:10m}") Duration ttl,
+                              @Value("${interview.users.cache.negative-ttl:30s}") Duration negativeTtl,
+                              @Value("${interview.users.cache.max-entries:50000}") int maxEntries,
+                              @Value("${interview.users.lookup.timeout:5s}") Duration lookupTimeout,
+                              @Value("${interview.users.lookup.threads:8}") int threads) {
+        this.userServiceClient = userServiceClient;
+        this.batchLookup = batchLookup;
+        this.ttl = ttl;
+        this.negativeTtl = negativeTtl;
+        this.maxEntries = maxEntries;
+        this.lookupTimeout = lookupTimeout;
+        if (Threading.VIRTUAL.isActive(environment)) {
+            this.lookups = new VirtualThreadTaskExecutor("user-lookup-");
+        } else {
+            AtomicInteger threadIndex = new AtomicInteger();
+            this.lookups = Executors.newFixedThreadPool(threads, runnable -> {
+                Thread thread = new Thread(runnable, "user-lookup-" + threadIndex.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        Gauge.builder("interview.users.cache.size", entries, Map::size)
+                .description("Cached user existence answers")
+                .register(meterRegistry);
+        this.hits = Counter.builder("interview.users.cache.hits")
+                .description("User existence checks answered from the cache")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("interview.users.cache.coalesced")
+                .description("User existence checks that joined a lookup already in flight")
+                .register(meterRegistry);
+        this.remoteLookups = Counter.builder("interview.users.lookups")
+                .description("User existence lookups sent to user-service")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Whether a user exists, completing exceptionally when user-service could not answer
+     */
+    public CompletableFuture<Boolean> exists(UUID userId) {
+        Boolean cached = cached(userId);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        CompletableFuture<Boolean> lookup = new CompletableFuture<>();
+        CompletableFuture<Boolean> running = inFlight.putIfAbsent(userId, lookup);
+        if (running != null) {
+            coalesced.increment();
+            return running;
+        }
+        lookups.execute(() -> resolve(List.of(userId)));
+        return lookup;
+    }
+
+    /**
+     * Existence of each user, looking up the uncached ones concurrently
+     *
+     * @throws RuntimeException the lookup failure when user-service could not answer for a user
+     */
+    public Map<UUID, Boolean> existAll(Collection<UUID> userIds) {
+        Map<UUID, CompletableFuture<Boolean>> answers = new LinkedHashMap<>();
+        List<UUID> owned = new ArrayList<>();
+        for (UUID userId : new LinkedHashSet<>(userIds)) {
+            Boolean cached = cached(userId);
+            if (cached != null) {
+                answers.put(userId, CompletableFuture.completedFuture(cached));
+                continue;
+            }
+            CompletableFuture<Boolean> lookup = new CompletableFuture<>();
+            CompletableFuture<Boolean> running = inFlight.putIfAbsent(userId, lookup);
+            if (running != null) {
+                coalesced.increment();
+                answers.put(userId, running);
+            } else {
+                answers.put(userId, lookup);
+                owned.add(userId);
+            }
+        }
+
+        if (owned.size() > 1 && batchLookup.getIfAvailable() != null) {
+            lookups.execute(() -> resolve(owned));
+        } else {
+            owned.forEach(userId -> lookups.execute(() -> resolve(List.of(userId))));
+        }
+
+        long deadline = System.nanoTime() + lookupTimeout.toNanos();
+        Map<UUID, Boolean> result = new LinkedHashMap<>();
+        for (Map.Entry<UUID, CompletableFuture<Boolean>> answer : answers.entrySet()) {
+            result.put(answer.getKey(), await(answer.getKey(), answer.getValue(), deadline));
+        }
+        return result;
+    }
+
+    /**
+     * Whether every given user exists
+     */
+    public boolean allExist(Collection<UUID> userIds) {
+        return !existAll(userIds).containsValue(false);
+    }
+
+    public void evict(UUID userId) {
+        entries.remove(userId);
+    }
+
+    @Scheduled(fixedDelayString = "${interview.users.cache.purge-interval:1m}")
+    public void purgeExpired() {
+        long now = System.nanoTime();
+        entries.values().removeIf(entry -> entry.isExpired(now));
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (lookups instanceof ExecutorService pool) {
+            pool.shutdownNow();
+        }
+    }
+
+    private Boolean cached(UUID userId) {
+        Entry entry = entries.get(userId);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isExpired(System.nanoTime())) {
+            entries.remove(userId, entry);
+            return null;
+        }
+        hits.increment();
+        return entry.exists();
+    }
+
+    /**
+     * Look up users whose in-flight futures this caller owns, then cache and publish the answers
+     */
+    private void resolve(List<UUID> userIds) {
+        UserBatchLookup batch = userIds.size() > 1 ? batchLookup.getIfAvailable() : null;
+        if (batch != null) {
+            try {
+                remoteLookups.increment();
+                Set<UUID> existing = batch.findExisting(userIds);
+                userIds.forEach(userId -> finish(userId, existing.contains(userId), null));
+            } catch (RuntimeException e) {
+                userIds.forEach(userId -> finish(userId, null, e));
+            }
+            return;
+        }
+        for (UUID userId : userIds) {
+            try {
+                remoteLookups.increment();
+                userServiceClient.getUser(userId.toString());
+                finish(userId, true, null);
+            } catch (FeignException.NotFound e) {
+                finish(userId, false, null);
+            } catch (RuntimeException e) {
+                finish(userId, null, e);
+            }
+        }
+    }
+
+    private void finish(UUID userId, Boolean exists, Throwable failure) {
+        if (exists != null) {
+            if (entries.size() >= maxEntries) {
+                purgeExpired();
+            }
+            if (entries.size() < maxEntries) {
+                long lifetime = (exists ? ttl : negativeTtl).toNanos();
+                entries.put(userId, new Entry(exists, System.nanoTime() + lifetime));
+            }
+        }
+        CompletableFuture<Boolean> lookup = inFlight.remove(userId);
+        if (lookup == null) {
+            return;
+        }
+        if (failure != null) {
+            log.debug("User lookup failed for {}: {}", userId, failure.getMessage());
+            lookup.completeExceptionally(failure);
+        } else {
+            lookup.complete(exists);
+        }
+    }
+
+    private static Boolean await(UUID userId, CompletableFuture<Boolean> answer, long deadline) {
+        try {
+            return answer.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException | CompletionException e) {
+            throw e.getCause() instanceof RuntimeException runtime ? runtime : new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Timed out looking up user " + userId, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted looking up user " + userId, e);
+        }
+    }
+
+    private record Entry(boolean exists, long expiresAt) {
+        boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+}
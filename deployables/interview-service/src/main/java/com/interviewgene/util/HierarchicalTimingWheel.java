@@ -0,0 +1,216 @@
+package com.interviewgene.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel keeping one deadline per key.
+ * <p>
+ * Level 0 has {@code wheelSize} buckets of one tick each; every level above covers
+ * {@code wheelSize} times the span of the one below, and levels are added as far deadlines need
+ * them. Scheduling, rescheduling and cancelling are O(1), and advancing costs one bucket per
+ * elapsed tick plus the timers that cascade down or fire. Deadlines fire at tick granularity: no
+ * earlier than their own time and no later than the first tick after it.
+ * <p>
+ * Not thread-safe; callers serialize access.
+ */
+public final class HierarchicalTimingWheel<K> {
+
+    private final long tickMillis;
+    private final int wheelSize;
+    private final int mask;
+    private final List<Bucket<K>[]> levels = new ArrayList<>();
+    private final Map<K, Timer<K>> timers = new HashMap<>();
+    private final List<Timer<K>> due = new ArrayList<>();
+
+    /** Start of the current tick, in milliseconds */
+    private long currentTime;
+
+    /**
+     * @param tickMillis  width of a level-0 bucket
+     * @param wheelSize   buckets per level, a power of two
+     * @param startMillis time the wheel starts at
+     */
+    public HierarchicalTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tickMillis must be positive");
+        }
+        if (wheelSize < 2 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("wheelSize must be a power of two");
+        }
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.mask = wheelSize - 1;
+        this.currentTime = startMillis - Math.floorMod(startMillis, tickMillis);
+        addLevel();
+    }
+
+    /**
+     * Schedule {@code key} to fire at {@code deadlineMillis}, replacing any deadline it already has
+     */
+    public void schedule(K key, long deadlineMillis) {
+        cancel(key);
+        Timer<K> timer = new Timer<>(key, deadlineMillis);
+        timers.put(key, timer);
+        place(timer);
+    }
+
+    /**
+     * Remove the deadline of {@code key}
+     *
+     * @return whether a deadline was pending
+     */
+    public boolean cancel(K key) {
+        Timer<K> timer = timers.remove(key);
+        if (timer == null) {
+            return false;
+        }
+        if (timer.bucket != null) {
+            timer.bucket.remove(timer);
+        } else {
+            due.remove(timer);
+        }
+        return true;
+    }
+
+    /**
+     * Pending deadline of {@code key}, or {@code null}
+     */
+    public Long deadline(K key) {
+        Timer<K> timer = timers.get(key);
+        return timer != null ? timer.deadline : null;
+    }
+
+    public int size() {
+        return timers.size();
+    }
+
+    /**
+     * Move the wheel forward to {@code nowMillis}, handing every key whose deadline has passed to
+     * {@code expired} and forgetting it
+     */
+    public void advance(long nowMillis, Consumer<? super K> expired) {
+        fire(expired);
+        while (currentTime + tickMillis <= nowMillis) {
+            currentTime += tickMillis;
+            cascade();
+            Bucket<K> bucket = levels.get(0)[(int) (currentTime / tickMillis) & mask];
+            for (Timer<K> timer = bucket.poll(); timer != null; timer = bucket.poll()) {
+                due.add(timer);
+            }
+            fire(expired);
+        }
+    }
+
+    private void fire(Consumer<? super K> expired) {
+        if (due.isEmpty()) {
+            return;
+        }
+        List<Timer<K>> firing = new ArrayList<>(due);
+        due.clear();
+        for (Timer<K> timer : firing) {
+            timers.remove(timer.key, timer);
+            expired.accept(timer.key);
+        }
+    }
+
+    /**
+     * Re-place the timers of every upper-level bucket whose span starts at the current tick
+     */
+    private void cascade() {
+        long span = tickMillis;
+        for (int level = 1; level < levels.size(); level++) {
+            span *= wheelSize;
+            if (currentTime % span != 0) {
+                return;
+            }
+            Bucket<K> bucket = levels.get(level)[(int) (currentTime / span) & mask];
+            for (Timer<K> timer = bucket.poll(); timer != null; timer = bucket.poll()) {
+                place(timer);
+            }
+        }
+    }
+
+    private void place(Timer<K> timer) {
+        if (timer.deadline < currentTime + tickMillis) {
+            due.add(timer);
+            return;
+        }
+        long span = tickMillis;
+        for (int level = 0; ; level++) {
+            if (level == levels.size()) {
+                addLevel();
+            }
+            long slot = Math.floorDiv(timer.deadline, span);
+            if (slot - Math.floorDiv(currentTime, span) < wheelSize) {
+                levels.get(level)[(int) slot & mask].add(timer);
+                return;
+            }
+            span *= wheelSize;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void addLevel() {
+        Bucket<K>[] buckets = new Bucket[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new Bucket<>();
+        }
+        levels.add(buckets);
+    }
+
+    private static final class Timer<K> {
+        private final K key;
+        private final long deadline;
+        private Bucket<K> bucket;
+        private Timer<K> prev;
+        private Timer<K> next;
+
+        private Timer(K key, long deadline) {
+            this.key = key;
+            this.deadline = deadline;
+        }
+    }
+
+    /**
+     * Intrusive doubly-linked list, so timers can leave their bucket in O(1)
+     */
+    private static final class Bucket<K> {
+        private Timer<K> head;
+
+        private void add(Timer<K> timer) {
+            timer.bucket = this;
+            timer.prev = null;
+            timer.next = head;
+            if (head != null) {
+                head.prev = timer;
+            }
+            head = timer;
+        }
+
+        private void remove(Timer<K> timer) {
+            if (timer.prev != null) {
+                timer.prev.next = timer.next;
+            } else {
+                head = timer.next;
+            }
+            if (timer.next != null) {
+                timer.next.prev = timer.prev;
+            }
+            timer.bucket = null;
+            timer.prev = null;
+            timer.next = null;
+        }
+
+        private Timer<K> poll() {
+            Timer<K> timer = head;
+            if (timer != null) {
+                remove(timer);
+            }
+            return timer;
+        }
+    }
+}
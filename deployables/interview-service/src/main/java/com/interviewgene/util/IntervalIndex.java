@@ -0,0 +1,202 @@
+package com.interviewgene.util;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Half-open time intervals {@code [start, end)} indexed by the users they occupy.
+ * <p>
+ * Each user's intervals sit in a tree ordered by start. Interval length is capped at
+ * {@code maxLength}, so any interval overlapping {@code [from, to)} starts after
+ * {@code from - maxLength}: an overlap query is one range scan of the tree, O(log n) plus the
+ * handful of intervals in that window. Free-slot search walks the same windows for every user.
+ * <p>
+ * Not thread-safe; callers serialize access.
+ */
+public final class IntervalIndex<K> {
+
+    private static final Comparator<Interval<?>> ORDER = Comparator
+            .comparing((Interval<?> interval) -> interval.start())
+            .thenComparingLong(Interval::sequence);
+
+    private final Duration maxLength;
+    private final Map<UUID, NavigableSet<Interval<K>>> byUser = new HashMap<>();
+    private final Map<K, Entry<K>> byId = new HashMap<>();
+    private long nextSequence;
+
+    public IntervalIndex(Duration maxLength) {
+        if (maxLength.isNegative() || maxLength.isZero()) {
+            throw new IllegalArgumentException("maxLength must be positive");
+        }
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Interval occupying its users from {@code start} (inclusive) to {@code end} (exclusive)
+     */
+    public record Interval<K>(K id, LocalDateTime start, LocalDateTime end, long sequence) {
+
+        public boolean overlaps(LocalDateTime from, LocalDateTime to) {
+            return start.isBefore(to) && end.isAfter(from);
+        }
+    }
+
+    /**
+     * Free slot returned by {@link #findCommonFreeSlots}
+     */
+    public record Slot(LocalDateTime start, LocalDateTime end) {
+    }
+
+    /**
+     * Longest interval the index accepts; longer ones are clipped to it
+     */
+    public Duration maxLength() {
+        return maxLength;
+    }
+
+    /**
+     * Add or replace the interval for {@code id}
+     */
+    public Interval<K> put(K id, Collection<UUID> users, LocalDateTime start, LocalDateTime end) {
+        remove(id);
+        LocalDateTime latestEnd = start.plus(maxLength);
+        Interval<K> interval = new Interval<>(id, start, end.isAfter(latestEnd) ? latestEnd : end, nextSequence++);
+        List<UUID> occupied = List.copyOf(users);
+        for (UUID user : occupied) {
+            byUser.computeIfAbsent(user, key -> new TreeSet<>(ORDER)).add(interval);
+        }
+        byId.put(id, new Entry<>(interval, occupied));
+        return interval;
+    }
+
+    public Optional<Interval<K>> get(K id) {
+        Entry<K> entry = byId.get(id);
+        return entry != null ? Optional.of(entry.interval()) : Optional.empty();
+    }
+
+    /**
+     * Users occupied by the interval for {@code id}, empty when there is none
+     */
+    public List<UUID> usersOf(K id) {
+        Entry<K> entry = byId.get(id);
+        return entry != null ? entry.users() : List.of();
+    }
+
+    public boolean remove(K id) {
+        Entry<K> entry = byId.remove(id);
+        if (entry == null) {
+            return false;
+        }
+        for (UUID user : entry.users()) {
+            NavigableSet<Interval<K>> intervals = byUser.get(user);
+            intervals.remove(entry.interval());
+            if (intervals.isEmpty()) {
+                byUser.remove(user);
+            }
+        }
+        return true;
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    /**
+     * Ids of every interval, for copying entries between indexes
+     */
+    public Collection<K> ids() {
+        return List.copyOf(byId.keySet());
+    }
+
+    /**
+     * First interval of {@code user} overlapping {@code [from, to)}, other than {@code ignore}'s
+     */
+    public Optional<Interval<K>> findConflict(UUID user, LocalDateTime from, LocalDateTime to, K ignore) {
+        for (Interval<K> interval : window(user, from, to)) {
+            if (interval.overlaps(from, to) && (ignore == null || !ignore.equals(interval.id()))) {
+                return Optional.of(interval);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Up to {@code count} slots of {@code length} within {@code [from, until)} during which none of
+     * {@code users} is occupied, earliest first and not overlapping each other. Slot starts are
+     * aligned to multiples of {@code granularity} since midnight.
+     */
+    public List<Slot> findCommonFreeSlots(Collection<UUID> users, LocalDateTime from, LocalDateTime until,
+                                          Duration length, Duration granularity, int count) {
+        List<Interval<K>> busy = new ArrayList<>();
+        for (UUID user : users) {
+            for (Interval<K> interval : window(user, from, until)) {
+                if (interval.overlaps(from, until)) {
+                    busy.add(interval);
+                }
+            }
+        }
+        busy.sort(ORDER);
+
+        List<Slot> slots = new ArrayList<>();
+        LocalDateTime cursor = align(from, granularity);
+        for (Interval<K> interval : busy) {
+            LocalDateTime gapEnd = interval.start().isBefore(until) ? interval.start() : until;
+            cursor = fill(slots, cursor, gapEnd, length, granularity, count);
+            if (slots.size() == count) {
+                return slots;
+            }
+            LocalDateTime afterBusy = align(interval.end(), granularity);
+            if (afterBusy.isAfter(cursor)) {
+                cursor = afterBusy;
+            }
+        }
+        fill(slots, cursor, until, length, granularity, count);
+        return slots;
+    }
+
+    /**
+     * Intervals of {@code user} that can overlap {@code [from, to)}: those starting after
+     * {@code from - maxLength} and before {@code to}
+     */
+    private NavigableSet<Interval<K>> window(UUID user, LocalDateTime from, LocalDateTime to) {
+        NavigableSet<Interval<K>> intervals = byUser.get(user);
+        if (intervals == null || !from.minus(maxLength).isBefore(to)) {
+            return new TreeSet<>(ORDER);
+        }
+        return intervals.subSet(new Interval<>(null, from.minus(maxLength), from, Long.MIN_VALUE), false,
+                new Interval<>(null, to, to, Long.MIN_VALUE), false);
+    }
+
+    private static LocalDateTime fill(List<Slot> slots, LocalDateTime cursor, LocalDateTime gapEnd,
+                                      Duration length, Duration granularity, int count) {
+        while (slots.size() < count && !cursor.plus(length).isAfter(gapEnd)) {
+            slots.add(new Slot(cursor, cursor.plus(length)));
+            cursor = align(cursor.plus(length), granularity);
+        }
+        return cursor;
+    }
+
+    /**
+     * Earliest multiple of {@code granularity} since midnight at or after {@code time}
+     */
+    static LocalDateTime align(LocalDateTime time, Duration granularity) {
+        long step = granularity.toNanos();
+        long sinceMidnight = time.toLocalTime().toNanoOfDay();
+        long aligned = (sinceMidnight + step - 1) / step * step;
+        return time.toLocalDate().atTime(LocalTime.MIDNIGHT).plusNanos(aligned);
+    }
+
+    private record Entry<K>(Interval<K> interval, List<UUID> users) {
+    }
+}
@@ -0,0 +1,109 @@
+package com.interviewgene.util;
+
+import com.interviewgene.common.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque continuation tokens for keyset pagination.
+ * <p>
+ * A token is the sort key of the last row on a page, prefixed with its kind and Base64url
+ * encoded, so the next page resumes with an indexed range condition instead of an OFFSET. Clients
+ * must treat tokens as opaque; a token of the wrong kind or that does not decode is rejected with
+ * a {@link ValidationException}.
+ */
+public final class KeysetCursor {
+
+    private static final String SESSION_KIND = "s";
+    private static final String SEQUENCE_KIND = "i";
+    private static final String SEPARATOR = "|";
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
+    /** Sorts before every session, for the first page */
+    public static final SessionKey FIRST_SESSION = new SessionKey(LocalDateTime.of(1970, 1, 1, 0, 0),
+            new UUID(0, 0));
+
+    private KeysetCursor() {
+    }
+
+    /**
+     * Position in a session listing ordered by {@code (created_at, session_id)}
+     */
+    public record SessionKey(LocalDateTime createdAt, UUID sessionId) {
+    }
+
+    public static String encodeSession(LocalDateTime createdAt, UUID sessionId) {
+        return encode(SESSION_KIND + SEPARATOR + createdAt + SEPARATOR + sessionId);
+    }
+
+    /**
+     * Position after which the next session page starts, or {@link #FIRST_SESSION} without a token
+     */
+    public static SessionKey decodeSession(String token) {
+        if (token == null || token.isBlank()) {
+            return FIRST_SESSION;
+        }
+        String[] parts = decode(token, SESSION_KIND, 3);
+        try {
+            return new SessionKey(LocalDateTime.parse(parts[1]), UUID.fromString(parts[2]));
+        } catch (RuntimeException e) {
+            throw invalid();
+        }
+    }
+
+    public static String encodeSequence(int sequenceNumber) {
+        return encode(SEQUENCE_KIND + SEPARATOR + sequenceNumber);
+    }
+
+    /**
+     * Sequence number after which the next interaction page starts, or {@code null} without a token
+     */
+    public static Integer decodeSequence(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        String[] parts = decode(token, SEQUENCE_KIND, 2);
+        try {
+            return Integer.parseInt(parts[1]);
+        } catch (NumberFormatException e) {
+            throw invalid();
+        }
+    }
+
+    /**
+     * Requested page size capped at {@link #MAX_PAGE_SIZE}
+     */
+    public static int pageSize(int requested) {
+        if (requested < 1) {
+            throw new ValidationException("Page size must be at least 1");
+        }
+        return Math.min(requested, MAX_PAGE_SIZE);
+    }
+
+    private static String encode(String key) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decode(String token, String kind, int length) {
+        String key;
+        try {
+            key = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw invalid();
+        }
+        String[] parts = key.split("\\" + SEPARATOR, -1);
+        if (parts.length != length || !parts[0].equals(kind)) {
+            throw invalid();
+        }
+        return parts;
+    }
+
+    private static ValidationException invalid() {
+        return new ValidationException("Invalid page cursor");
+    }
+}
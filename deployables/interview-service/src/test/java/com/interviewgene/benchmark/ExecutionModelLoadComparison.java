@@ -0,0 +1,104 @@
+package com.interviewgene.benchmark;
+
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load comparison of the platform-thread pools against virtual threads for the request shape of
+ * interview-service: a remote call (user validation, relay publish) followed by a short
+ * transaction that needs one of a small number of pooled connections.
+ * <p>
+ * Each model runs the same burst of requests and prints throughput, p50/p99 latency and rejected
+ * requests. The virtual-thread run goes through the same permit limit as
+ * {@code ConnectionPoolConcurrencyLimiter}, so it shows what the limiter costs and prevents.
+ * Requires Java 21 for the virtual-thread run; it is not part of the test suite.
+ * <p>
+ * Usage: {@code ExecutionModelLoadComparison [requests] [platformThreads] [poolSize] [remoteMillis] [queryMillis]}
+ */
+public class ExecutionModelLoadComparison {
+
+    public static void main(String[] args) throws Exception {
+        int requests = intArg(args, 0, 20_000);
+        int platformThreads = intArg(args, 1, 200);
+        int poolSize = intArg(args, 2, 10);
+        int remoteMillis = intArg(args, 3, 20);
+        int queryMillis = intArg(args, 4, 2);
+
+        System.out.printf("%d requests, %d ms remote call, %d ms query, %d connections%n",
+                requests, remoteMillis, queryMillis, poolSize);
+        System.out.printf("%-28s %12s %10s %10s %10s%n", "model", "req/s", "p50 ms", "p99 ms", "rejected");
+
+        ExecutorService platform = Executors.newFixedThreadPool(platformThreads);
+        try {
+            run("platform pool (" + platformThreads + ")", platform, requests, poolSize, remoteMillis, queryMillis, 30_000);
+        } finally {
+            platform.shutdownNow();
+        }
+
+        Executor virtual;
+        try {
+            virtual = new VirtualThreadTaskExecutor("load-");
+        } catch (UnsupportedOperationException e) {
+            System.out.println("virtual threads: skipped, requires Java 21");
+            return;
+        }
+        run("virtual, unbounded wait", virtual, requests, poolSize, remoteMillis, queryMillis, 30_000);
+        run("virtual, 2s permit limit", virtual, requests, poolSize, remoteMillis, queryMillis, 2_000);
+    }
+
+    private static void run(String model, Executor executor, int requests, int poolSize,
+                            int remoteMillis, int queryMillis, long acquireTimeoutMillis) throws InterruptedException {
+        Semaphore connections = new Semaphore(poolSize, true);
+        long[] latencies = new long[requests];
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(requests);
+
+        long started = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            int request = i;
+            long submitted = System.nanoTime();
+            executor.execute(() -> {
+                try {
+                    Thread.sleep(remoteMillis);
+                    if (connections.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                        try {
+                            Thread.sleep(queryMillis);
+                        } finally {
+                            connections.release();
+                        }
+                        completed.incrementAndGet();
+                    } else {
+                        rejected.incrementAndGet();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    latencies[request] = System.nanoTime() - submitted;
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        long elapsed = System.nanoTime() - started;
+
+        Arrays.sort(latencies);
+        System.out.printf("%-28s %12.0f %10.1f %10.1f %10d%n", model,
+                completed.get() / (elapsed / 1e9),
+                latencies[requests / 2] / 1e6,
+                latencies[(int) (requests * 0.99)] / 1e6,
+                rejected.get());
+    }
+
+    private static int intArg(String[] args, int index, int defaultValue) {
+        return args.length > index ? Integer.parseInt(args[index]) : defaultValue;
+    }
+}
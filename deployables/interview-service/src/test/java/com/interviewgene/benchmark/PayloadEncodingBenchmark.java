@@ -0,0 +1,115 @@
+package com.interviewgene.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.interviewgene.config.BinaryPayloadCodec;
+import com.interviewgene.dto.InteractionMessage;
+import com.interviewgene.dto.SessionEventMessage;
+import com.interviewgene.model.InteractionType;
+import com.interviewgene.model.SessionStatus;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Compares JSON and CBOR for the payloads sent over STOMP: bytes on the wire and encode/decode time.
+ * <p>
+ * Run from the IDE or with {@code java -cp target/test-classes:<runtime classpath>
+ * com.interviewgene.benchmark.PayloadEncodingBenchmark [iterations]}. It is not part of the test suite.
+ */
+public class PayloadEncodingBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 50_000;
+
+    public static void main(String[] args) throws Exception {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+
+        ObjectMapper json = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        ObjectMapper cbor = BinaryPayloadCodec.createCborMapper();
+
+        Map<String, Object> payloads = new LinkedHashMap<>();
+        payloads.put("chat interaction", interaction(InteractionType.CHAT_MESSAGE, "Could you walk me through the complexity?"));
+        payloads.put("code submission", interaction(InteractionType.CODE_SUBMISSION, "x".repeat(2_000)));
+        payloads.put("typing frame", InteractionMessage.builder()
+                .sessionId(UUID.randomUUID())
+                .participantId(UUID.randomUUID())
+                .action(InteractionMessage.MessageAction.TYPING_START)
+                .timestamp(LocalDateTime.now())
+                .build());
+        payloads.put("session event", SessionEventMessage.builder()
+                .sessionId(UUID.randomUUID())
+                .eventType(SessionEventMessage.SessionEventType.SESSION_STARTED)
+                .sessionStatus(SessionStatus.ACTIVE)
+                .triggeredBy(UUID.randomUUID())
+                .message("Session started")
+                .timestamp(LocalDateTime.now())
+                .build());
+
+        System.out.printf("%-18s %10s %10s %8s %14s %14s %14s %14s%n", "payload", "json B", "cbor B", "ratio",
+                "json enc ns", "cbor enc ns", "json dec ns", "cbor dec ns");
+        for (Map.Entry<String, Object> entry : payloads.entrySet()) {
+            Object payload = entry.getValue();
+            Class<?> type = payload.getClass();
+            byte[] jsonBytes = json.writeValueAsBytes(payload);
+            byte[] cborBytes = cbor.writeValueAsBytes(payload);
+
+            measureEncode(json, payload, WARMUP_ITERATIONS);
+            measureEncode(cbor, payload, WARMUP_ITERATIONS);
+            measureDecode(json, jsonBytes, type, WARMUP_ITERATIONS);
+            measureDecode(cbor, cborBytes, type, WARMUP_ITERATIONS);
+
+            System.out.printf("%-18s %10d %10d %8.2f %14.0f %14.0f %14.0f %14.0f%n", entry.getKey(),
+                    jsonBytes.length, cborBytes.length, (double) cborBytes.length / jsonBytes.length,
+                    measureEncode(json, payload, iterations), measureEncode(cbor, payload, iterations),
+                    measureDecode(json, jsonBytes, type, iterations), measureDecode(cbor, cborBytes, type, iterations));
+        }
+    }
+
+    private static InteractionMessage interaction(InteractionType type, String content) {
+        return InteractionMessage.builder()
+                .sessionId(UUID.randomUUID())
+                .participantId(UUID.randomUUID())
+                .messageId(UUID.randomUUID().toString())
+                .type(type)
+                .content(content)
+                .sequenceNumber(1_234)
+                .timestamp(LocalDateTime.now())
+                .action(InteractionMessage.MessageAction.CREATE)
+                .metadata(Map.of("language", "java", "editor", "monaco"))
+                .build();
+    }
+
+    private static double measureEncode(ObjectMapper mapper, Object payload, int iterations) throws Exception {
+        long sink = 0;
+        long started = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += mapper.writeValueAsBytes(payload).length;
+        }
+        long elapsed = System.nanoTime() - started;
+        consume(sink);
+        return (double) elapsed / iterations;
+    }
+
+    private static double measureDecode(ObjectMapper mapper, byte[] bytes, Class<?> type, int iterations) throws Exception {
+        long sink = 0;
+        long started = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += mapper.readValue(bytes, type).hashCode();
+        }
+        long elapsed = System.nanoTime() - started;
+        consume(sink);
+        return (double) elapsed / iterations;
+    }
+
+    private static void consume(long sink) {
+        if (sink == 42) {
+            System.out.print("");
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.interviewgene.property;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.interviewgene.config.BinaryPayloadCodec;
+import com.interviewgene.dto.InteractionMessage;
+import com.interviewgene.model.InteractionType;
+import com.interviewgene.service.SessionBroadcastRelay;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.jqwik.api.*;
+import org.junit.jupiter.api.Tag;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Property-based tests for the negotiated CBOR payload encoding
+ */
+@Tag("Feature: interview-platform-microservices, Binary Payload Encoding")
+public class BinaryPayloadEncodingPropertyTest {
+
+    private final CBORMapper cborMapper = BinaryPayloadCodec.createCborMapper();
+    private final ObjectMapper jsonMapper = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    /**
+     * For any interaction message, decoding its CBOR form yields the same message
+     */
+    @Property(tries = 200)
+    void cborRoundTripsInteractionMessages(@ForAll("interactionMessages") InteractionMessage message) throws Exception {
+        byte[] cbor = cborMapper.writeValueAsBytes(message);
+
+        assertThat(cborMapper.readValue(cbor, InteractionMessage.class)).isEqualTo(message);
+    }
+
+    /**
+     * For any interaction message, the CBOR form is smaller than the JSON the broker sends by default
+     */
+    @Property(tries = 200)
+    void cborIsSmallerThanJson(@ForAll("interactionMessages") InteractionMessage message) throws Exception {
+        byte[] json = jsonMapper.writeValueAsBytes(message);
+        byte[] cbor = cborMapper.writeValueAsBytes(message);
+
+        assertThat(cbor.length).isLessThan(json.length);
+    }
+
+    /**
+     * For any interaction message, the frame a connection that negotiated CBOR receives is exactly
+     * the direct typed encoding, with UUIDs as binary and the timestamp as epoch milliseconds,
+     * whether the frame was sent on this node or relayed from another
+     */
+    @Property(tries = 100)
+    void directAndRelayedFramesHaveTheTypedShape(@ForAll("interactionMessages") InteractionMessage message,
+                                                 @ForAll boolean relayed) throws Exception {
+        byte[] json = jsonMapper.writeValueAsBytes(message);
+        // A relayed frame is re-created from the envelope, so it shares nothing with the local one
+        byte[] delivered = relayed ? json.clone() : json;
+
+        byte[] sent = sendToCborConnection(delivered, InteractionMessage.class.getName());
+
+        assertThat(sent).isEqualTo(cborMapper.writeValueAsBytes(message));
+        JsonNode tree = cborMapper.readTree(sent);
+        assertThat(tree.get("sessionId").isBinary()).isTrue();
+        assertThat(tree.get("sessionId").binaryValue()).hasSize(16);
+        assertThat(tree.get("timestamp").isIntegralNumber()).isTrue();
+        assertThat(cborMapper.readValue(sent, InteractionMessage.class)).isEqualTo(message);
+    }
+
+    /**
+     * For any frame without a known payload class, such as one relayed by a node that does not send
+     * it yet, the binary frame decodes to the same tree as the JSON frame and to the same message
+     */
+    @Property(tries = 100)
+    void untypedFramesTranscodeFromTheJsonTree(@ForAll("interactionMessages") InteractionMessage message,
+                                               @ForAll boolean foreignType) throws Exception {
+        byte[] json = jsonMapper.writeValueAsBytes(message);
+
+        byte[] sent = sendToCborConnection(json, foreignType ? "java.lang.Runtime" : null);
+
+        assertThat(cborMapper.readTree(sent)).isEqualTo(jsonMapper.readTree(json));
+        assertThat(cborMapper.readValue(sent, InteractionMessage.class)).isEqualTo(message);
+    }
+
+    private byte[] sendToCborConnection(byte[] json, String payloadType) {
+        BinaryPayloadCodec codec = new BinaryPayloadCodec(jsonMapper, new SimpleMeterRegistry(), true);
+        String connectionId = UUID.randomUUID().toString();
+        Map<String, Object> attributes = new HashMap<>();
+        codec.beforeHandshake(null, null, null, attributes);
+        StompHeaderAccessor connect = StompHeaderAccessor.create(StompCommand.CONNECT);
+        connect.setSessionId(connectionId);
+        connect.setSessionAttributes(attributes);
+        connect.setNativeHeader(BinaryPayloadCodec.FORMAT_HEADER, BinaryPayloadCodec.CBOR_FORMAT);
+        codec.negotiationInterceptor().preSend(
+                MessageBuilder.createMessage(new byte[0], connect.getMessageHeaders()), mock(MessageChannel.class));
+
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(connectionId);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        if (payloadType != null) {
+            accessor.setHeader(SessionBroadcastRelay.PAYLOAD_TYPE_HEADER, payloadType);
+        }
+        Message<?> sent = codec.preSend(MessageBuilder.createMessage(json, accessor.getMessageHeaders()),
+                mock(MessageChannel.class));
+
+        assertThat(sent.getPayload()).isInstanceOf(byte[].class).isNotSameAs(json);
+        assertThat(sent.getHeaders().get(MessageHeaders.CONTENT_TYPE)).isEqualTo(MimeTypeUtils.APPLICATION_OCTET_STREAM);
+        return (byte[]) sent.getPayload();
+    }
+
+    @Provide
+    Arbitrary<InteractionMessage> interactionMessages() {
+        return Combinators.combine(
+                Arbitraries.of(InteractionType.values()),
+                Arbitraries.strings().ofMinLength(0).ofMaxLength(400),
+                Arbitraries.integers().between(1, 100_000),
+                Arbitraries.maps(Arbitraries.strings().alpha().ofMinLength(1).ofMaxLength(12),
+                        Arbitraries.strings().ofMaxLength(40)).ofMaxSize(5),
+                Arbitraries.of(InteractionMessage.MessageAction.values()),
+                Arbitraries.longs().between(0L, 10_000_000L)
+        ).as((type, content, sequence, metadata, action, secondsAgo) -> InteractionMessage.builder()
+                .sessionId(UUID.randomUUID())
+                .participantId(UUID.randomUUID())
+                .messageId(UUID.randomUUID().toString())
+                .type(type)
+                .content(content)
+                .sequenceNumber(sequence)
+                .metadata(metadata)
+                .action(action)
+                .timestamp(LocalDateTime.now().minusSeconds(secondsAgo).truncatedTo(ChronoUnit.MILLIS))
+                .build());
+    }
+}
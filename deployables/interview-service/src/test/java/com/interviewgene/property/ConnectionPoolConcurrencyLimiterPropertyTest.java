@@ -0,0 +1,154 @@
+package com.interviewgene.property;
+
+import com.interviewgene.common.exception.ServiceUnavailableException;
+import com.interviewgene.config.ConnectionPoolConcurrencyLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.IntRange;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.junit.jupiter.api.Tag;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Property-based tests for capping concurrent transactional calls at the connection pool size
+ */
+@Tag("Feature: interview-platform-microservices, Connection Pool Concurrency Limit")
+public class ConnectionPoolConcurrencyLimiterPropertyTest {
+
+    private static final Duration ACQUIRE_TIMEOUT = Duration.ofMillis(50);
+
+    /**
+     * For any pool size, as many calls as there are permits run at once, the next one is rejected
+     * with a 503 once the acquire timeout passes, and calls succeed again after permits are released
+     */
+    @Property(tries = 20)
+    void callsBeyondThePoolAreRejected(@ForAll @IntRange(min = 2, max = 8) int poolSize,
+                                       @ForAll @IntRange(min = 0, max = 1) int reserved) throws Throwable {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ConnectionPoolConcurrencyLimiter limiter = limiter(meterRegistry, true, poolSize, reserved);
+        int permits = poolSize - reserved;
+        CountDownLatch entered = new CountDownLatch(permits);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(permits);
+        try {
+            List<Future<Object>> holding = new ArrayList<>();
+            for (int i = 0; i < permits; i++) {
+                holding.add(callers.submit(() -> {
+                    try {
+                        return limiter.limit(joinPoint(() -> {
+                            entered.countDown();
+                            release.await();
+                            return "held";
+                        }));
+                    } catch (Throwable e) {
+                        throw new IllegalStateException(e);
+                    }
+                }));
+            }
+            assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+            assertThatThrownBy(() -> limiter.limit(joinPoint(() -> "rejected")))
+                    .isInstanceOf(ServiceUnavailableException.class);
+            assertThat(meterRegistry.get("interview.datasource.limiter.rejected").counter().count()).isEqualTo(1);
+
+            release.countDown();
+            for (Future<Object> call : holding) {
+                assertThat(call.get(5, TimeUnit.SECONDS)).isEqualTo("held");
+            }
+            assertThat(limiter.limit(joinPoint(() -> "admitted"))).isEqualTo("admitted");
+            assertThat(meterRegistry.get("interview.datasource.limiter.available").gauge().value()).isEqualTo(permits);
+        } finally {
+            release.countDown();
+            callers.shutdownNow();
+        }
+    }
+
+    /**
+     * For any nesting depth, nested transactional calls reuse the outer permit, so a single permit
+     * never deadlocks a call that re-enters the limiter
+     */
+    @Property(tries = 20)
+    void nestedCallsReuseTheOuterPermit(@ForAll @IntRange(min = 1, max = 10) int depth) throws Throwable {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ConnectionPoolConcurrencyLimiter limiter = limiter(meterRegistry, true, 1, 0);
+
+        assertThat(limiter.limit(nested(limiter, depth))).isEqualTo(depth);
+        assertThat(meterRegistry.get("interview.datasource.limiter.rejected").counter().count()).isZero();
+        assertThat(meterRegistry.get("interview.datasource.limiter.available").gauge().value()).isEqualTo(1);
+    }
+
+    /**
+     * When disabled, calls are never limited however many run at once
+     */
+    @Property(tries = 10)
+    void disabledLimiterAdmitsEverything(@ForAll @IntRange(min = 2, max = 8) int callers) throws Throwable {
+        ConnectionPoolConcurrencyLimiter limiter = limiter(new SimpleMeterRegistry(), false, 1, 0);
+        CountDownLatch entered = new CountDownLatch(callers);
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<Object>> calls = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                calls.add(pool.submit(() -> {
+                    try {
+                        return limiter.limit(joinPoint(() -> {
+                            entered.countDown();
+                            return entered.await(5, TimeUnit.SECONDS);
+                        }));
+                    } catch (Throwable e) {
+                        throw new IllegalStateException(e);
+                    }
+                }));
+            }
+            for (Future<Object> call : calls) {
+                assertThat(call.get(10, TimeUnit.SECONDS)).isEqualTo(true);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static ProceedingJoinPoint nested(ConnectionPoolConcurrencyLimiter limiter, int depth) throws Throwable {
+        if (depth == 1) {
+            return joinPoint(() -> 1);
+        }
+        ProceedingJoinPoint inner = nested(limiter, depth - 1);
+        return joinPoint(() -> {
+            try {
+                return (Integer) limiter.limit(inner) + 1;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    private static ProceedingJoinPoint joinPoint(Callable<Object> body) throws Throwable {
+        ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        Signature signature = mock(Signature.class);
+        when(signature.toShortString()).thenReturn("SessionService.createSession(..)");
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(joinPoint.proceed()).thenAnswer(invocation -> body.call());
+        return joinPoint;
+    }
+
+    private static ConnectionPoolConcurrencyLimiter limiter(SimpleMeterRegistry meterRegistry, boolean enabled,
+                                                            int poolSize, int reserved) {
+        return new ConnectionPoolConcurrencyLimiter(mock(DataSource.class), meterRegistry, enabled,
+                ACQUIRE_TIMEOUT, reserved, poolSize);
+    }
+}
@@ -0,0 +1,135 @@
+package com.interviewgene.property;
+
+import com.interviewgene.dto.InteractionBatchResponse;
+import com.interviewgene.dto.InteractionMessage;
+import com.interviewgene.model.InteractionType;
+import com.interviewgene.model.InterviewSession;
+import com.interviewgene.model.SessionStatus;
+import com.interviewgene.repository.SessionInteractionJdbcRepository;
+import com.interviewgene.repository.SessionRepository;
+import com.interviewgene.service.CachedSession;
+import com.interviewgene.service.InteractionBatchIngestService;
+import com.interviewgene.service.InteractionDedupWindow;
+import com.interviewgene.service.RealTimeHandler;
+import com.interviewgene.service.RecentInteractionBuffer;
+import com.interviewgene.service.SessionSequenceAllocator;
+import com.interviewgene.service.SessionStateCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.IntRange;
+import net.jqwik.api.constraints.Size;
+import org.junit.jupiter.api.Tag;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Property-based tests for ingesting batches of interactions
+ */
+@Tag("Feature: interview-platform-microservices, Interaction Batch Ingest")
+public class InteractionBatchIngestPropertyTest {
+
+    /**
+     * For any batch whose message IDs repeat or are still being delivered over STOMP, each ID is
+     * stored at most once and only when this batch claimed it, and the stored IDs are answered from
+     * the dedup window afterwards
+     */
+    @Property(tries = 50)
+    void eachMessageIdIsClaimedOnce(@ForAll @Size(min = 1, max = 40) List<@IntRange(min = 0, max = 9) Integer> ids,
+                                    @ForAll @IntRange(min = 0, max = 3) int inFlight) {
+        UUID sessionId = UUID.randomUUID();
+        InteractionDedupWindow dedupWindow = dedupWindow();
+        for (int id = 0; id < inFlight; id++) {
+            assertThat(dedupWindow.claim(sessionId, message(sessionId, "message-" + id))).isNull();
+        }
+        List<InteractionMessage> batch = new ArrayList<>();
+        for (int id : ids) {
+            batch.add(message(sessionId, "message-" + id));
+        }
+
+        InteractionBatchResponse response = ingestService(sessionId, mock(SessionInteractionJdbcRepository.class),
+                dedupWindow).ingest(sessionId, null, batch);
+
+        Set<Integer> fresh = new HashSet<>();
+        ids.stream().filter(id -> id >= inFlight).forEach(fresh::add);
+        assertThat(response.getCount()).isEqualTo(fresh.size());
+        assertThat(response.getDuplicates()).isEqualTo(ids.size() - fresh.size());
+        for (int id : fresh) {
+            assertThat(dedupWindow.claim(sessionId, message(sessionId, "message-" + id))).isCompleted();
+        }
+    }
+
+    /**
+     * For any batch whose write fails, every claimed ID is released, so the client's retry of the
+     * same batch is stored instead of being answered as a duplicate
+     */
+    @Property(tries = 30)
+    void failedBatchesReleaseTheirClaims(@ForAll @IntRange(min = 1, max = 20) int messages) {
+        UUID sessionId = UUID.randomUUID();
+        InteractionDedupWindow dedupWindow = dedupWindow();
+        SessionInteractionJdbcRepository jdbcRepository = mock(SessionInteractionJdbcRepository.class);
+        doThrow(new DataAccessResourceFailureException("Connection reset")).when(jdbcRepository).batchInsert(any());
+        List<InteractionMessage> batch = new ArrayList<>();
+        for (int i = 0; i < messages; i++) {
+            batch.add(message(sessionId, UUID.randomUUID().toString()));
+        }
+
+        assertThatThrownBy(() -> ingestService(sessionId, jdbcRepository, dedupWindow).ingest(sessionId, null, batch))
+                .isInstanceOf(DataAccessResourceFailureException.class);
+
+        InteractionBatchResponse retried = ingestService(sessionId, mock(SessionInteractionJdbcRepository.class),
+                dedupWindow).ingest(sessionId, null, batch);
+        assertThat(retried.getCount()).isEqualTo(messages);
+        assertThat(retried.getDuplicates()).isZero();
+    }
+
+    private static InteractionBatchIngestService ingestService(UUID sessionId,
+                                                               SessionInteractionJdbcRepository jdbcRepository,
+                                                               InteractionDedupWindow dedupWindow) {
+        SessionRepository sessionRepository = mock(SessionRepository.class);
+        when(sessionRepository.getReferenceById(sessionId))
+                .thenReturn(InterviewSession.builder().sessionId(sessionId).build());
+        SessionStateCache sessionCache = mock(SessionStateCache.class);
+        when(sessionCache.getOrLoad(sessionId)).thenReturn(Optional.of(CachedSession.builder()
+                .sessionId(sessionId)
+                .status(SessionStatus.ACTIVE)
+                .build()));
+        SessionSequenceAllocator sequenceAllocator = mock(SessionSequenceAllocator.class);
+        when(sequenceAllocator.nextRange(eq(sessionId), anyInt())).thenReturn(1);
+        return new InteractionBatchIngestService(sessionRepository, jdbcRepository, sequenceAllocator, sessionCache,
+                mock(RecentInteractionBuffer.class), mock(RealTimeHandler.class), dedupWindow,
+                new SimpleMeterRegistry(), 1000);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static InteractionDedupWindow dedupWindow() {
+        return new InteractionDedupWindow(mock(ObjectProvider.class), new SimpleMeterRegistry(), "local",
+                256, Duration.ofMinutes(10));
+    }
+
+    private static InteractionMessage message(UUID sessionId, String messageId) {
+        return InteractionMessage.builder()
+                .sessionId(sessionId)
+                .messageId(messageId)
+                .type(InteractionType.CHAT_MESSAGE)
+                .content("Replayed offline")
+                .participantId(UUID.randomUUID())
+                .build();
+    }
+}
@@ -0,0 +1,122 @@
+package com.interviewgene.property;
+
+import com.interviewgene.dto.InteractionMessage;
+import com.interviewgene.model.InteractionType;
+import com.interviewgene.model.SessionInteraction;
+import com.interviewgene.service.InteractionDedupWindow;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.IntRange;
+import org.junit.jupiter.api.Tag;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Property-based tests for deduplication of retried interaction deliveries
+ */
+@Tag("Feature: interview-platform-microservices, Interaction Deduplication")
+public class InteractionDedupWindowPropertyTest {
+
+    /**
+     * For any number of retries of a delivered message, every retry resolves to the interaction
+     * stored by the first delivery
+     */
+    @Property(tries = 100)
+    void retriesResolveToTheFirstDelivery(@ForAll @IntRange(min = 1, max = 10) int retries) {
+        InteractionDedupWindow window = window(256);
+        UUID sessionId = UUID.randomUUID();
+        InteractionMessage message = message();
+
+        assertThat(window.claim(sessionId, message)).isNull();
+        SessionInteraction stored = interaction(1);
+        window.complete(sessionId, message.getMessageId(), stored);
+
+        for (int i = 0; i < retries; i++) {
+            CompletableFuture<SessionInteraction> earlier = window.claim(sessionId, message);
+            assertThat(earlier).isNotNull();
+            assertThat(earlier.join()).isSameAs(stored);
+        }
+    }
+
+    /**
+     * For any message, a retry arriving while the first delivery is in flight completes with the
+     * first delivery's result, and a delivery that failed can be claimed again
+     */
+    @Property(tries = 100)
+    void inFlightRetriesWaitAndAbandonedDeliveriesCanBeReclaimed(@ForAll boolean firstAttemptFails) {
+        InteractionDedupWindow window = window(256);
+        UUID sessionId = UUID.randomUUID();
+        InteractionMessage message = message();
+
+        assertThat(window.claim(sessionId, message)).isNull();
+        CompletableFuture<SessionInteraction> retry = window.claim(sessionId, message);
+        assertThat(retry).isNotNull().isNotDone();
+
+        if (firstAttemptFails) {
+            window.abandon(sessionId, message.getMessageId(), new IllegalStateException("write failed"));
+            assertThat(retry).isCompletedExceptionally();
+            assertThat(window.isKnown(sessionId, message.getMessageId())).isFalse();
+            assertThat(window.claim(sessionId, message)).isNull();
+        } else {
+            SessionInteraction stored = interaction(1);
+            window.complete(sessionId, message.getMessageId(), stored);
+            assertThat(retry.join()).isSameAs(stored);
+        }
+    }
+
+    /**
+     * For any window size and number of distinct messages, at most the most recent window-size
+     * message IDs are remembered, and message IDs are never shared across sessions
+     */
+    @Property(tries = 50)
+    void windowIsBoundedPerSession(@ForAll @IntRange(min = 1, max = 32) int windowSize,
+                                   @ForAll @IntRange(min = 1, max = 100) int messages) {
+        InteractionDedupWindow window = window(windowSize);
+        UUID sessionId = UUID.randomUUID();
+        String[] messageIds = new String[messages];
+        for (int i = 0; i < messages; i++) {
+            InteractionMessage message = message();
+            messageIds[i] = message.getMessageId();
+            window.claim(sessionId, message);
+            window.complete(sessionId, message.getMessageId(), interaction(i + 1));
+        }
+
+        int remembered = 0;
+        for (int i = 0; i < messages; i++) {
+            boolean known = window.isKnown(sessionId, messageIds[i]);
+            assertThat(known).isEqualTo(i >= messages - windowSize);
+            assertThat(window.isKnown(UUID.randomUUID(), messageIds[i])).isFalse();
+            remembered += known ? 1 : 0;
+        }
+        assertThat(remembered).isEqualTo(Math.min(messages, windowSize));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static InteractionDedupWindow window(int windowSize) {
+        return new InteractionDedupWindow(mock(ObjectProvider.class), new SimpleMeterRegistry(), "local",
+                windowSize, Duration.ofMinutes(10));
+    }
+
+    private static InteractionMessage message() {
+        return InteractionMessage.builder()
+                .messageId(UUID.randomUUID().toString())
+                .type(InteractionType.QUESTION)
+                .content("Explain the trade-offs")
+                .participantId(UUID.randomUUID())
+                .build();
+    }
+
+    private static SessionInteraction interaction(int sequenceNumber) {
+        return SessionInteraction.builder()
+                .interactionId(UUID.randomUUID())
+                .type(InteractionType.QUESTION)
+                .sequenceNumber(sequenceNumber)
+                .build();
+    }
+}
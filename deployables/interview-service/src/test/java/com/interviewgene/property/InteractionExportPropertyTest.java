@@ -0,0 +1,143 @@
+package com.interviewgene.property;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.interviewgene.dto.InteractionMessage;
+import com.interviewgene.model.InteractionType;
+import com.interviewgene.repository.SessionInteractionJdbcRepository;
+import com.interviewgene.service.InteractionExportService;
+import com.interviewgene.service.SessionStateCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.IntRange;
+import org.junit.jupiter.api.Tag;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Property-based tests for exporting a session's interactions as NDJSON
+ */
+@Tag("Feature: interview-platform-microservices, Interaction Export")
+public class InteractionExportPropertyTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    /**
+     * For any history, page size and cursor, the export writes every interaction after the cursor
+     * once in sequence order, reads each page after the last sequence number of the one before,
+     * and flushes every page to the client before reading the next
+     */
+    @Property(tries = 100)
+    void exportPagesThroughTheWholeHistory(@ForAll @IntRange(min = 0, max = 300) int interactions,
+                                           @ForAll @IntRange(min = 1, max = 64) int pageSize,
+                                           @ForAll @IntRange(min = 0, max = 320) int cursor) throws IOException {
+        UUID sessionId = UUID.randomUUID();
+        List<Integer> requested = new ArrayList<>();
+        SessionInteractionJdbcRepository repository = repository(sessionId, interactions, requested);
+        InteractionExportService exportService = exportService(repository, new SimpleMeterRegistry(), pageSize,
+                Duration.ofMinutes(10));
+        FlushCountingStream out = new FlushCountingStream();
+
+        int count = exportService.exportNdjson(sessionId, cursor == 0 ? null : cursor, out);
+
+        List<Integer> expected = IntStream.rangeClosed(cursor + 1, interactions).boxed().toList();
+        assertThat(count).isEqualTo(expected.size());
+        assertThat(sequenceNumbers(out)).containsExactlyElementsOf(expected);
+        assertThat(requested.get(0)).isEqualTo(cursor);
+        for (int i = 1; i < requested.size(); i++) {
+            assertThat(requested.get(i)).isEqualTo(requested.get(i - 1) + pageSize);
+        }
+        assertThat(requested).hasSize(expected.size() / pageSize + 1);
+        assertThat(out.flushes).isGreaterThanOrEqualTo(requested.size());
+    }
+
+    /**
+     * For any export that runs past its timeout, it is aborted between pages with what was written
+     * so far, and the timeout is counted
+     */
+    @Property(tries = 50)
+    void slowExportsAreAbortedBetweenPages(@ForAll @IntRange(min = 1, max = 20) int pageSize,
+                                           @ForAll @IntRange(min = 2, max = 5) int pages) throws IOException {
+        UUID sessionId = UUID.randomUUID();
+        SessionInteractionJdbcRepository repository = repository(sessionId, pageSize * pages, new ArrayList<>());
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        InteractionExportService exportService = exportService(repository, meterRegistry, pageSize, Duration.ZERO);
+        FlushCountingStream out = new FlushCountingStream();
+
+        assertThatThrownBy(() -> exportService.exportNdjson(sessionId, null, out)).isInstanceOf(IOException.class);
+
+        assertThat(sequenceNumbers(out)).containsExactlyElementsOf(IntStream.rangeClosed(1, pageSize).boxed().toList());
+        assertThat(meterRegistry.get("interview.interactions.export.timeouts").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("interview.interactions.exported").counter().count()).isEqualTo(pageSize);
+    }
+
+    private static SessionInteractionJdbcRepository repository(UUID sessionId, int interactions,
+                                                               List<Integer> requested) {
+        SessionInteractionJdbcRepository repository = mock(SessionInteractionJdbcRepository.class);
+        when(repository.findPageAfter(eq(sessionId), anyInt(), anyInt())).thenAnswer(invocation -> {
+            int after = invocation.getArgument(1);
+            int limit = invocation.getArgument(2);
+            requested.add(after);
+            List<InteractionMessage> page = new ArrayList<>();
+            for (int sequence = after + 1; sequence <= interactions && page.size() < limit; sequence++) {
+                page.add(InteractionMessage.builder()
+                        .sessionId(sessionId)
+                        .type(InteractionType.CHAT_MESSAGE)
+                        .content("message " + sequence)
+                        .participantId(UUID.randomUUID())
+                        .sequenceNumber(sequence)
+                        .timestamp(LocalDateTime.now())
+                        .messageId(UUID.randomUUID().toString())
+                        .action(InteractionMessage.MessageAction.CREATE)
+                        .build());
+            }
+            return page;
+        });
+        return repository;
+    }
+
+    private static InteractionExportService exportService(SessionInteractionJdbcRepository repository,
+                                                          SimpleMeterRegistry meterRegistry, int pageSize,
+                                                          Duration timeout) {
+        return new InteractionExportService(repository, mock(SessionStateCache.class), OBJECT_MAPPER, meterRegistry,
+                pageSize, timeout);
+    }
+
+    private static List<Integer> sequenceNumbers(ByteArrayOutputStream out) throws IOException {
+        List<Integer> sequenceNumbers = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            if (!line.isEmpty()) {
+                sequenceNumbers.add(OBJECT_MAPPER.readValue(line, InteractionMessage.class).getSequenceNumber());
+            }
+        }
+        return sequenceNumbers;
+    }
+
+    private static final class FlushCountingStream extends ByteArrayOutputStream {
+        private int flushes;
+
+        @Override
+        public void flush() {
+            flushes++;
+        }
+    }
+}
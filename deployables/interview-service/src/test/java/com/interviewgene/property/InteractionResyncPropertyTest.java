@@ -0,0 +1,214 @@
+package com.interviewgene.property;
+
+import com.interviewgene.common.exception.ServiceUnavailableException;
+import com.interviewgene.dto.InteractionMessage;
+import com.interviewgene.model.InteractionType;
+import com.interviewgene.model.InterviewSession;
+import com.interviewgene.model.SessionInteraction;
+import com.interviewgene.repository.SessionInteractionRepository;
+import com.interviewgene.repository.SessionRepository;
+import com.interviewgene.service.CachedSession;
+import com.interviewgene.service.InteractionDedupWindow;
+import com.interviewgene.service.InteractionWriteBehindBuffer;
+import com.interviewgene.service.PresenceRegistry;
+import com.interviewgene.service.RealTimeHandler;
+import com.interviewgene.service.RecentInteractionBuffer;
+import com.interviewgene.service.SessionBroadcastRelay;
+import com.interviewgene.service.SessionObserverRegistry;
+import com.interviewgene.service.SessionSequenceAllocator;
+import com.interviewgene.service.SessionStateCache;
+import com.interviewgene.service.TypingIndicatorCoalescer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.IntRange;
+import org.junit.jupiter.api.Tag;
+import org.mockito.InOrder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Property-based tests for resyncing reconnecting clients from a sequence-number cursor
+ */
+@Tag("Feature: interview-platform-microservices, Interaction Resync")
+public class InteractionResyncPropertyTest {
+
+    private static final int CAPACITY = 64;
+
+    /**
+     * For any buffered history and cursor, the buffer serves exactly the interactions after the
+     * cursor when all of them are still held, and declines otherwise
+     */
+    @Property(tries = 200)
+    void bufferServesTheExactTailOrNothing(@ForAll @IntRange(min = 0, max = 200) int interactions,
+                                           @ForAll @IntRange(min = 0, max = 220) int cursor) {
+        RecentInteractionBuffer buffer = new RecentInteractionBuffer(new SimpleMeterRegistry(), CAPACITY);
+        UUID sessionId = UUID.randomUUID();
+        for (int sequence = 1; sequence <= interactions; sequence++) {
+            buffer.append(message(sessionId, sequence));
+        }
+
+        Optional<List<InteractionMessage>> tail = buffer.tailAfter(sessionId, cursor);
+
+        if (interactions == 0) {
+            assertThat(tail).isEmpty();
+        } else if (cursor >= interactions) {
+            assertThat(tail).contains(List.of());
+        } else if (interactions - cursor <= CAPACITY) {
+            assertThat(tail).isPresent();
+            assertThat(tail.get()).extracting(InteractionMessage::getSequenceNumber)
+                    .containsExactlyElementsOf(IntStream.rangeClosed(cursor + 1, interactions).boxed().toList());
+        } else {
+            assertThat(tail).isEmpty();
+        }
+    }
+
+    /**
+     * For any interaction removed from the buffer, a resync across it is never served from memory
+     */
+    @Property(tries = 100)
+    void removedInteractionsAreNotReplayedFromMemory(@ForAll @IntRange(min = 1, max = 60) int interactions,
+                                                     @ForAll @IntRange(min = 1, max = 60) int removed) {
+        Assume.that(removed <= interactions);
+        RecentInteractionBuffer buffer = new RecentInteractionBuffer(new SimpleMeterRegistry(), CAPACITY);
+        UUID sessionId = UUID.randomUUID();
+        for (int sequence = 1; sequence <= interactions; sequence++) {
+            buffer.append(message(sessionId, sequence));
+        }
+
+        buffer.remove(sessionId, removed);
+
+        assertThat(buffer.tailAfter(sessionId, removed - 1)).isEmpty();
+        if (removed < interactions) {
+            assertThat(buffer.tailAfter(sessionId, removed)).isPresent();
+        }
+    }
+
+    /**
+     * For any cursor the buffer cannot serve, the handler falls back to a sequence-range query,
+     * and for any cursor it can serve the database is not touched
+     */
+    @Property(tries = 100)
+    void handlerFallsBackToTheDatabaseOnlyWhenNeeded(@ForAll @IntRange(min = 1, max = 200) int interactions,
+                                                     @ForAll @IntRange(min = 0, max = 200) int cursor) {
+        Assume.that(cursor < interactions);
+        UUID sessionId = UUID.randomUUID();
+        SessionInteractionRepository interactionRepository = mock(SessionInteractionRepository.class);
+        SessionStateCache sessionCache = mock(SessionStateCache.class);
+        when(sessionCache.getOrLoad(sessionId))
+                .thenReturn(Optional.of(CachedSession.builder().sessionId(sessionId).build()));
+        RecentInteractionBuffer buffer = new RecentInteractionBuffer(new SimpleMeterRegistry(), CAPACITY);
+        List<SessionInteraction> stored = new ArrayList<>();
+        for (int sequence = 1; sequence <= interactions; sequence++) {
+            buffer.append(message(sessionId, sequence));
+            if (sequence > cursor) {
+                stored.add(interaction(sessionId, sequence));
+            }
+        }
+        when(interactionRepository.findBySessionAndSequenceRange(sessionId, cursor + 1, Integer.MAX_VALUE))
+                .thenReturn(stored);
+        RealTimeHandler handler = handler(interactionRepository, sessionCache, buffer);
+
+        List<InteractionMessage> resynced = handler.getSessionInteractionsAfter(sessionId, cursor);
+
+        assertThat(resynced).extracting(InteractionMessage::getSequenceNumber)
+                .containsExactlyElementsOf(IntStream.rangeClosed(cursor + 1, interactions).boxed().toList());
+        if (interactions - cursor <= CAPACITY) {
+            verify(interactionRepository, never()).findBySessionAndSequenceRange(any(), anyInt(), anyInt());
+        } else {
+            verify(interactionRepository).findBySessionAndSequenceRange(sessionId, cursor + 1, Integer.MAX_VALUE);
+        }
+    }
+
+    /**
+     * For any resync that falls back to the database while write-behind is on, the handler waits
+     * for the session's queued writes before reading, and refuses to answer from a table that is
+     * still missing them
+     */
+    @Property(tries = 50)
+    void databaseFallbackWaitsForQueuedWrites(@ForAll @IntRange(min = 0, max = 50) int cursor,
+                                              @ForAll boolean drained) {
+        UUID sessionId = UUID.randomUUID();
+        SessionInteractionRepository interactionRepository = mock(SessionInteractionRepository.class);
+        when(interactionRepository.findBySessionAndSequenceRange(sessionId, cursor + 1, Integer.MAX_VALUE))
+                .thenReturn(List.of(interaction(sessionId, cursor + 1)));
+        SessionStateCache sessionCache = mock(SessionStateCache.class);
+        when(sessionCache.getOrLoad(sessionId))
+                .thenReturn(Optional.of(CachedSession.builder().sessionId(sessionId).build()));
+        SessionSequenceAllocator sequenceAllocator = mock(SessionSequenceAllocator.class);
+        when(sequenceAllocator.awaitDrained(eq(sessionId), any())).thenReturn(drained);
+        InteractionWriteBehindBuffer writeBehindBuffer = mock(InteractionWriteBehindBuffer.class);
+        when(writeBehindBuffer.isEnabled()).thenReturn(true);
+        RealTimeHandler handler = handler(interactionRepository, sessionCache,
+                new RecentInteractionBuffer(new SimpleMeterRegistry(), CAPACITY), sequenceAllocator, writeBehindBuffer);
+
+        if (drained) {
+            assertThat(handler.getSessionInteractionsAfter(sessionId, cursor))
+                    .extracting(InteractionMessage::getSequenceNumber).containsExactly(cursor + 1);
+            InOrder inOrder = inOrder(sequenceAllocator, interactionRepository);
+            inOrder.verify(sequenceAllocator).awaitDrained(eq(sessionId), any());
+            inOrder.verify(interactionRepository).findBySessionAndSequenceRange(sessionId, cursor + 1, Integer.MAX_VALUE);
+        } else {
+            assertThatThrownBy(() -> handler.getSessionInteractionsAfter(sessionId, cursor))
+                    .isInstanceOf(ServiceUnavailableException.class);
+            verify(interactionRepository, never()).findBySessionAndSequenceRange(any(), anyInt(), anyInt());
+        }
+    }
+
+    private static RealTimeHandler handler(SessionInteractionRepository interactionRepository,
+                                           SessionStateCache sessionCache,
+                                           RecentInteractionBuffer buffer) {
+        return handler(interactionRepository, sessionCache, buffer, mock(SessionSequenceAllocator.class),
+                mock(InteractionWriteBehindBuffer.class));
+    }
+
+    private static RealTimeHandler handler(SessionInteractionRepository interactionRepository,
+                                           SessionStateCache sessionCache,
+                                           RecentInteractionBuffer buffer,
+                                           SessionSequenceAllocator sequenceAllocator,
+                                           InteractionWriteBehindBuffer writeBehindBuffer) {
+        return new RealTimeHandler(mock(SessionRepository.class), interactionRepository,
+                mock(SessionBroadcastRelay.class), sequenceAllocator,
+                writeBehindBuffer, sessionCache, buffer, mock(TypingIndicatorCoalescer.class),
+                mock(SessionObserverRegistry.class), mock(PresenceRegistry.class), new SimpleMeterRegistry(),
+                mock(InteractionDedupWindow.class));
+    }
+
+    private static InteractionMessage message(UUID sessionId, int sequence) {
+        return InteractionMessage.builder()
+                .sessionId(sessionId)
+                .type(InteractionType.CHAT_MESSAGE)
+                .content("message " + sequence)
+                .participantId(UUID.randomUUID())
+                .sequenceNumber(sequence)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    private static SessionInteraction interaction(UUID sessionId, int sequence) {
+        return SessionInteraction.builder()
+                .interactionId(UUID.randomUUID())
+                .session(InterviewSession.builder().sessionId(sessionId).build())
+                .type(InteractionType.CHAT_MESSAGE)
+                .content("message " + sequence)
+                .participantId(UUID.randomUUID())
+                .sequenceNumber(sequence)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+}
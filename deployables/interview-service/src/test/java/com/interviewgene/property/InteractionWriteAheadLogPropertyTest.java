@@ -0,0 +1,274 @@
+package com.interviewgene.property;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.interviewgene.model.InteractionType;
+import com.interviewgene.model.InterviewSession;
+import com.interviewgene.model.SessionInteraction;
+import com.interviewgene.repository.SessionInteractionJdbcRepository;
+import com.interviewgene.service.InteractionWriteAheadLog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.IntRange;
+import org.junit.jupiter.api.Tag;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Property-based tests for the interaction write-ahead log
+ */
+@Tag("Feature: interview-platform-microservices, Interaction Write-Ahead Log")
+public class InteractionWriteAheadLogPropertyTest {
+
+    private static final DataSize SEGMENT_SIZE = DataSize.ofKilobytes(4);
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+
+    /**
+     * For any appended records of which some were confirmed, a restart replays every unconfirmed
+     * one and leaves only a fresh segment behind; confirmed records still in a segment that was
+     * not truncated may be replayed too, and are skipped by the database
+     */
+    @Property(tries = 30)
+    void restartReplaysUnconfirmedRecords(@ForAll @IntRange(min = 1, max = 60) int records,
+                                          @ForAll long seed) throws Exception {
+        Path directory = Files.createTempDirectory("wal");
+        try {
+            Random random = new Random(seed);
+            InteractionWriteAheadLog wal = open(directory, mock(SessionInteractionJdbcRepository.class));
+            Set<UUID> appended = new HashSet<>();
+            Set<UUID> unconfirmed = new HashSet<>();
+            for (int i = 0; i < records; i++) {
+                SessionInteraction interaction = interaction(i + 1);
+                appended.add(interaction.getInteractionId());
+                long lsn = wal.append(interaction);
+                if (random.nextBoolean()) {
+                    wal.confirm(List.of(lsn));
+                } else {
+                    unconfirmed.add(interaction.getInteractionId());
+                }
+            }
+
+            SessionInteractionJdbcRepository repository = mock(SessionInteractionJdbcRepository.class);
+            List<UUID> replayed = recordInserts(repository, Set.of());
+            open(directory, repository);
+
+            assertThat(replayed).containsAll(unconfirmed).doesNotHaveDuplicates();
+            assertThat(appended).containsAll(replayed);
+            assertThat(segmentFiles(directory)).hasSize(1);
+        } finally {
+            delete(directory);
+        }
+    }
+
+    /**
+     * For any records appended across several segments, confirming all of them deletes every
+     * segment but the active one
+     */
+    @Property(tries = 30)
+    void confirmedSegmentsAreDeleted(@ForAll @IntRange(min = 20, max = 80) int records) throws Exception {
+        Path directory = Files.createTempDirectory("wal");
+        try {
+            InteractionWriteAheadLog wal = open(directory, mock(SessionInteractionJdbcRepository.class));
+            List<Long> lsns = new ArrayList<>();
+            for (int i = 0; i < records; i++) {
+                lsns.add(wal.append(interaction(i + 1)));
+            }
+            assertThat(segmentFiles(directory).size()).isGreaterThan(1);
+
+            wal.confirm(lsns);
+
+            assertThat(segmentFiles(directory)).hasSize(1);
+        } finally {
+            delete(directory);
+        }
+    }
+
+    /**
+     * For any records the database rejects on replay, startup still succeeds, every other record
+     * is replayed and the rejected ones end up in the quarantine file
+     */
+    @Property(tries = 30)
+    void poisonRecordsAreQuarantinedOnReplay(@ForAll @IntRange(min = 1, max = 60) int records,
+                                             @ForAll long seed) throws Exception {
+        Path directory = Files.createTempDirectory("wal");
+        try {
+            Random random = new Random(seed);
+            InteractionWriteAheadLog wal = open(directory, mock(SessionInteractionJdbcRepository.class));
+            Set<UUID> poison = new HashSet<>();
+            Set<UUID> healthy = new HashSet<>();
+            for (int i = 0; i < records; i++) {
+                SessionInteraction interaction = interaction(i + 1);
+                wal.append(interaction);
+                (random.nextInt(5) == 0 ? poison : healthy).add(interaction.getInteractionId());
+            }
+
+            SessionInteractionJdbcRepository repository = mock(SessionInteractionJdbcRepository.class);
+            List<UUID> replayed = recordInserts(repository, poison);
+            open(directory, repository);
+
+            assertThat(replayed).containsExactlyInAnyOrderElementsOf(healthy);
+            assertThat(quarantinedLines(directory)).hasSize(poison.size());
+            assertThat(segmentFiles(directory)).hasSize(1);
+        } finally {
+            delete(directory);
+        }
+    }
+
+    /**
+     * For any record quarantined after the write-behind buffer gave up on it, the record no longer
+     * holds back truncation and is not replayed on restart; confirmed records still in the active
+     * segment are replayed and skipped by the database as before
+     */
+    @Property(tries = 30)
+    void quarantinedRecordsReleaseTheLowWatermark(@ForAll @IntRange(min = 20, max = 80) int records) throws Exception {
+        Path directory = Files.createTempDirectory("wal");
+        try {
+            InteractionWriteAheadLog wal = open(directory, mock(SessionInteractionJdbcRepository.class));
+            SessionInteraction dropped = interaction(1);
+            long droppedLsn = wal.append(dropped);
+            List<Long> lsns = new ArrayList<>();
+            for (int i = 1; i < records; i++) {
+                lsns.add(wal.append(interaction(i + 1)));
+            }
+            wal.confirm(lsns);
+            assertThat(segmentFiles(directory).size()).isGreaterThan(1);
+
+            wal.quarantine(droppedLsn, dropped, "Dropped after failed flush attempts");
+
+            assertThat(segmentFiles(directory)).hasSize(1);
+            assertThat(quarantinedLines(directory)).singleElement().asString().contains(dropped.getInteractionId().toString());
+
+            SessionInteractionJdbcRepository repository = mock(SessionInteractionJdbcRepository.class);
+            List<UUID> replayed = recordInserts(repository, Set.of());
+            open(directory, repository);
+            assertThat(replayed).doesNotContain(dropped.getInteractionId());
+        } finally {
+            delete(directory);
+        }
+    }
+
+    /**
+     * For any number of concurrent writers, every append gets a distinct log sequence number and
+     * every record survives a restart
+     */
+    @Property(tries = 15)
+    void concurrentAppendsAreAllDurable(@ForAll @IntRange(min = 1, max = 8) int writers,
+                                        @ForAll @IntRange(min = 1, max = 40) int perWriter) throws Exception {
+        Path directory = Files.createTempDirectory("wal");
+        try {
+            InteractionWriteAheadLog wal = open(directory, mock(SessionInteractionJdbcRepository.class));
+            ConcurrentLinkedQueue<Long> lsns = new ConcurrentLinkedQueue<>();
+            ConcurrentLinkedQueue<UUID> appended = new ConcurrentLinkedQueue<>();
+            ExecutorService pool = Executors.newFixedThreadPool(writers);
+            try {
+                for (int w = 0; w < writers; w++) {
+                    int writer = w;
+                    pool.execute(() -> {
+                        for (int i = 0; i < perWriter; i++) {
+                            SessionInteraction interaction = interaction(writer * perWriter + i + 1);
+                            lsns.add(wal.append(interaction));
+                            appended.add(interaction.getInteractionId());
+                        }
+                    });
+                }
+            } finally {
+                pool.shutdown();
+                assertThat(pool.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+            }
+
+            assertThat(new HashSet<>(lsns)).hasSize(writers * perWriter);
+
+            SessionInteractionJdbcRepository repository = mock(SessionInteractionJdbcRepository.class);
+            List<UUID> replayed = recordInserts(repository, Set.of());
+            open(directory, repository);
+            assertThat(replayed).containsExactlyInAnyOrderElementsOf(appended);
+        } finally {
+            delete(directory);
+        }
+    }
+
+    private InteractionWriteAheadLog open(Path directory, SessionInteractionJdbcRepository repository) throws IOException {
+        InteractionWriteAheadLog wal = new InteractionWriteAheadLog(repository, mock(PlatformTransactionManager.class),
+                objectMapper, new SimpleMeterRegistry(), true, directory.toString(), SEGMENT_SIZE, true);
+        wal.recover();
+        return wal;
+    }
+
+    /**
+     * Records the interactions inserted on replay; batches holding a poison record are rejected
+     * the way a constraint violation would roll them back
+     */
+    private static List<UUID> recordInserts(SessionInteractionJdbcRepository repository, Set<UUID> poison) {
+        List<UUID> inserted = new ArrayList<>();
+        when(repository.insertMissing(anyList())).thenAnswer(invocation -> {
+            List<SessionInteraction> batch = invocation.getArgument(0);
+            if (batch.stream().anyMatch(interaction -> poison.contains(interaction.getInteractionId()))) {
+                throw new DataIntegrityViolationException("Duplicate entry for key 'uk_session_interactions_sequence'");
+            }
+            batch.forEach(interaction -> inserted.add(interaction.getInteractionId()));
+            return batch.size();
+        });
+        return inserted;
+    }
+
+    private static SessionInteraction interaction(int sequenceNumber) {
+        UUID participant = UUID.randomUUID();
+        return SessionInteraction.builder()
+                .interactionId(UUID.randomUUID())
+                .session(InterviewSession.builder().sessionId(UUID.randomUUID()).build())
+                .type(InteractionType.CHAT_MESSAGE)
+                .content("message " + sequenceNumber)
+                .participantId(participant)
+                .sequenceNumber(sequenceNumber)
+                .timestamp(LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS))
+                .metadata(Map.of("source", "test"))
+                .createdBy(participant)
+                .version(0L)
+                .build();
+    }
+
+    private static List<Path> segmentFiles(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".wal")).toList();
+        }
+    }
+
+    private static List<String> quarantinedLines(Path directory) throws IOException {
+        Path file = directory.resolve("quarantine").resolve("quarantined.jsonl");
+        return Files.exists(file) ? Files.readAllLines(file) : List.of();
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+}
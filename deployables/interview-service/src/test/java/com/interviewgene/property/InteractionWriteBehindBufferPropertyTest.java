@@ -0,0 +1,265 @@
+package com.interviewgene.property;
+
+import com.interviewgene.common.exception.ServiceUnavailableException;
+import com.interviewgene.model.InteractionType;
+import com.interviewgene.model.InterviewSession;
+import com.interviewgene.model.SessionInteraction;
+import com.interviewgene.repository.SessionInteractionJdbcRepository;
+import com.interviewgene.repository.SessionInteractionRepository;
+import com.interviewgene.service.InteractionWriteAheadLog;
+import com.interviewgene.service.InteractionWriteBehindBuffer;
+import com.interviewgene.service.InteractionsDroppedEvent;
+import com.interviewgene.service.SessionSequenceAllocator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.IntRange;
+import org.junit.jupiter.api.Tag;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Property-based tests for the write-behind interaction buffer
+ */
+@Tag("Feature: interview-platform-microservices, Write-Behind Interaction Buffer")
+public class InteractionWriteBehindBufferPropertyTest {
+
+    /**
+     * For any interactions of which some are rejected by the database, every other interaction is
+     * committed and confirmed in the log, and only the rejected ones are quarantined, reported per
+     * session and handed back to the sequence allocator
+     */
+    @Property(tries = 30)
+    void onlyRejectedRowsAreDropped(@ForAll @IntRange(min = 1, max = 150) int count,
+                                    @ForAll @IntRange(min = 1, max = 4) int sessions,
+                                    @ForAll long seed) throws Exception {
+        Random random = new Random(seed);
+        Harness harness = new Harness();
+        Set<UUID> poison = ConcurrentHashMap.newKeySet();
+        doAnswer(invocation -> {
+            List<SessionInteraction> batch = invocation.getArgument(0);
+            if (batch.stream().anyMatch(interaction -> poison.contains(interaction.getInteractionId()))) {
+                throw new DataIntegrityViolationException("Duplicate entry for key 'uk_session_interactions_sequence'");
+            }
+            batch.forEach(interaction -> harness.inserted.add(interaction.getInteractionId()));
+            return null;
+        }).when(harness.jdbcRepository).batchInsert(anyList());
+
+        List<UUID> sessionIds = new ArrayList<>();
+        for (int i = 0; i < sessions; i++) {
+            sessionIds.add(UUID.randomUUID());
+        }
+        Map<UUID, Set<UUID>> poisonBySession = new HashMap<>();
+        Set<UUID> healthy = new HashSet<>();
+        harness.buffer.start();
+        for (int i = 0; i < count; i++) {
+            UUID sessionId = sessionIds.get(random.nextInt(sessions));
+            SessionInteraction interaction = harness.interaction(sessionId);
+            if (random.nextInt(6) == 0) {
+                poison.add(interaction.getInteractionId());
+                poisonBySession.computeIfAbsent(sessionId, id -> new HashSet<>()).add(interaction.getInteractionId());
+            } else {
+                healthy.add(interaction.getInteractionId());
+            }
+            harness.buffer.enqueue(interaction);
+        }
+        harness.buffer.stop();
+
+        assertThat(harness.inserted).containsExactlyInAnyOrderElementsOf(healthy);
+        assertThat(harness.confirmed).hasSize(healthy.size());
+        assertThat(harness.quarantined).hasSize(poison.size());
+        assertThat(harness.confirmed).noneMatch(harness.quarantined::contains);
+
+        Map<UUID, Set<UUID>> reported = new HashMap<>();
+        for (InteractionsDroppedEvent event : harness.events) {
+            event.getInteractions().forEach(interaction -> reported
+                    .computeIfAbsent(event.getSessionId(), id -> new HashSet<>()).add(interaction.getInteractionId()));
+        }
+        assertThat(reported).isEqualTo(poisonBySession);
+        for (UUID sessionId : sessionIds) {
+            assertThat(harness.allocator.awaitDrained(sessionId, Duration.ZERO)).isTrue();
+        }
+    }
+
+    /**
+     * For any transient failure, the whole batch is retried until it commits
+     * and nothing is dropped
+     */
+    @Property(tries = 10)
+    void transientFailuresAreRetried(@ForAll @IntRange(min = 1, max = 50) int count,
+                                     @ForAll @IntRange(min = 1, max = 2) int failures) throws Exception {
+        Harness harness = new Harness();
+        AtomicInteger remainingFailures = new AtomicInteger(failures);
+        doAnswer(invocation -> {
+            if (remainingFailures.getAndDecrement() > 0) {
+                throw new TransientDataAccessResourceException("Connection reset");
+            }
+            List<SessionInteraction> batch = invocation.getArgument(0);
+            batch.forEach(interaction -> harness.inserted.add(interaction.getInteractionId()));
+            return null;
+        }).when(harness.jdbcRepository).batchInsert(anyList());
+
+        UUID sessionId = UUID.randomUUID();
+        List<UUID> enqueued = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            SessionInteraction interaction = harness.interaction(sessionId);
+            harness.buffer.enqueue(interaction);
+            enqueued.add(interaction.getInteractionId());
+        }
+        harness.buffer.start();
+        harness.buffer.stop();
+
+        assertThat(harness.inserted).containsExactlyInAnyOrderElementsOf(enqueued);
+        assertThat(harness.quarantined).isEmpty();
+        assertThat(harness.events).isEmpty();
+        assertThat(harness.allocator.awaitDrained(sessionId, Duration.ZERO)).isTrue();
+    }
+
+    /**
+     * For any database outage, however long, the batch is retried whole instead of being split,
+     * nothing is dropped or quarantined, and its slots stay taken until it commits, so new
+     * interactions are rejected while it is outstanding
+     */
+    @Property(tries = 10)
+    void outagesKeepTheBatchAndItsSlots(@ForAll @IntRange(min = 1, max = 20) int count,
+                                        @ForAll @IntRange(min = 2, max = 8) int failedAttempts) throws Exception {
+        Harness harness = new Harness(count);
+        AtomicBoolean outage = new AtomicBoolean(true);
+        AtomicInteger attempts = new AtomicInteger();
+        List<Integer> attemptSizes = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            List<SessionInteraction> batch = invocation.getArgument(0);
+            attemptSizes.add(batch.size());
+            attempts.incrementAndGet();
+            if (outage.get()) {
+                throw new CannotGetJdbcConnectionException("Connection is not available, request timed out");
+            }
+            batch.forEach(interaction -> harness.inserted.add(interaction.getInteractionId()));
+            return null;
+        }).when(harness.jdbcRepository).batchInsert(anyList());
+
+        UUID sessionId = UUID.randomUUID();
+        List<UUID> enqueued = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            SessionInteraction interaction = harness.interaction(sessionId);
+            harness.buffer.enqueue(interaction);
+            enqueued.add(interaction.getInteractionId());
+        }
+        harness.buffer.start();
+        while (attempts.get() < failedAttempts) {
+            Thread.sleep(1);
+        }
+        assertThatThrownBy(() -> harness.buffer.enqueue(harness.interaction(sessionId)))
+                .isInstanceOf(ServiceUnavailableException.class);
+        outage.set(false);
+        harness.buffer.stop();
+
+        assertThat(harness.inserted).containsExactlyInAnyOrderElementsOf(enqueued);
+        assertThat(attemptSizes).containsOnly(count);
+        assertThat(harness.quarantined).isEmpty();
+        assertThat(harness.events).isEmpty();
+    }
+
+    /**
+     * For any buffer filled to capacity, further interactions are rejected without being logged
+     */
+    @Property(tries = 20)
+    void fullBufferRejectsWithoutLogging(@ForAll @IntRange(min = 1, max = 20) int capacity) {
+        Harness harness = new Harness(capacity);
+        UUID sessionId = UUID.randomUUID();
+        for (int i = 0; i < capacity; i++) {
+            harness.buffer.enqueue(harness.interaction(sessionId));
+        }
+
+        assertThatThrownBy(() -> harness.buffer.enqueue(harness.interaction(sessionId)))
+                .isInstanceOf(ServiceUnavailableException.class);
+        assertThat(harness.buffer.pending()).isEqualTo(capacity);
+        assertThat(harness.lsns.get()).isEqualTo(capacity);
+    }
+
+    private static final class Harness {
+        private final SessionInteractionJdbcRepository jdbcRepository = mock(SessionInteractionJdbcRepository.class);
+        private final InteractionWriteAheadLog writeAheadLog = mock(InteractionWriteAheadLog.class);
+        private final SessionSequenceAllocator allocator;
+        private final InteractionWriteBehindBuffer buffer;
+        private final AtomicLong lsns = new AtomicLong();
+        private final ConcurrentLinkedQueue<UUID> inserted = new ConcurrentLinkedQueue<>();
+        private final ConcurrentLinkedQueue<Long> confirmed = new ConcurrentLinkedQueue<>();
+        private final ConcurrentLinkedQueue<Long> quarantined = new ConcurrentLinkedQueue<>();
+        private final ConcurrentLinkedQueue<InteractionsDroppedEvent> events = new ConcurrentLinkedQueue<>();
+
+        private Harness() {
+            this(10_000);
+        }
+
+        private Harness(int capacity) {
+            SessionInteractionRepository interactionRepository = mock(SessionInteractionRepository.class);
+            when(interactionRepository.getNextSequenceNumber(any())).thenReturn(1);
+            allocator = new SessionSequenceAllocator(interactionRepository);
+
+            when(writeAheadLog.isEnabled()).thenReturn(true);
+            when(writeAheadLog.append(any())).thenAnswer(invocation -> lsns.incrementAndGet());
+            doAnswer(invocation -> {
+                Collection<Long> batch = invocation.getArgument(0);
+                confirmed.addAll(batch);
+                return null;
+            }).when(writeAheadLog).confirm(anyCollection());
+            doAnswer(invocation -> {
+                quarantined.add(invocation.getArgument(0));
+                return null;
+            }).when(writeAheadLog).quarantine(anyLong(), any(), anyString());
+            doThrow(new IllegalStateException("Unexpected insert")).when(jdbcRepository).batchInsert(anyList());
+
+            buffer = new InteractionWriteBehindBuffer(jdbcRepository, writeAheadLog, allocator,
+                    event -> events.add((InteractionsDroppedEvent) event), mock(PlatformTransactionManager.class),
+                    new SimpleMeterRegistry(), true, capacity, 20, Duration.ofMillis(5), Duration.ofMillis(10),
+                    Duration.ofMillis(20));
+        }
+
+        private SessionInteraction interaction(UUID sessionId) {
+            UUID participant = UUID.randomUUID();
+            return SessionInteraction.builder()
+                    .interactionId(UUID.randomUUID())
+                    .session(InterviewSession.builder().sessionId(sessionId).build())
+                    .type(InteractionType.CHAT_MESSAGE)
+                    .content("message")
+                    .participantId(participant)
+                    .sequenceNumber(allocator.next(sessionId))
+                    .timestamp(LocalDateTime.now())
+                    .createdBy(participant)
+                    .version(0L)
+                    .build();
+        }
+    }
+}
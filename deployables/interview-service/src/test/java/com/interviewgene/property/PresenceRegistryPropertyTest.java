@@ -0,0 +1,99 @@
+package com.interviewgene.property;
+
+import com.interviewgene.dto.ParticipantPresence;
+import com.interviewgene.service.PresenceChangedEvent;
+import com.interviewgene.service.PresenceRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.IntRange;
+import net.jqwik.api.constraints.Size;
+import org.junit.jupiter.api.Tag;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Property-based tests for session presence tracking
+ */
+@Tag("Feature: interview-platform-microservices, Session Presence")
+public class PresenceRegistryPropertyTest {
+
+    private static final UUID SESSION_ID = UUID.randomUUID();
+    private static final List<UUID> PARTICIPANTS = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+
+    /**
+     * For any interleaving of joins and leaves over several connections per participant, a joined
+     * event is published only for a participant's first connection and a left event only for their
+     * last, and the snapshot lists exactly the participants with an open connection
+     */
+    @Property(tries = 200)
+    void deltasOnlyOnFirstJoinAndLastLeave(@ForAll @Size(max = 80) List<@IntRange(min = 0, max = 11) Integer> operations) {
+        List<ParticipantPresence> events = new ArrayList<>();
+        PresenceRegistry registry = new PresenceRegistry(
+                event -> events.add(((PresenceChangedEvent) event).getPresence()),
+                new SimpleMeterRegistry(), Duration.ofSeconds(45));
+
+        Map<UUID, Set<String>> open = new HashMap<>();
+        for (int operation : operations) {
+            // Two connections per participant; even operations join, odd ones leave
+            UUID participantId = PARTICIPANTS.get((operation / 2) % PARTICIPANTS.size());
+            String connectionId = participantId + "-" + (operation / 6);
+            Set<String> connections = open.computeIfAbsent(participantId, id -> new HashSet<>());
+            int before = events.size();
+
+            if (operation % 2 == 0) {
+                boolean first = connections.isEmpty();
+                boolean added = connections.add(connectionId);
+                registry.join(SESSION_ID, participantId, connectionId);
+                assertThat(events.size() - before).isEqualTo(added && first ? 1 : 0);
+                if (added && first) {
+                    assertThat(events.get(before).isOnline()).isTrue();
+                }
+            } else {
+                boolean removed = connections.remove(connectionId);
+                registry.leave(SESSION_ID, connectionId);
+                assertThat(events.size() - before).isEqualTo(removed && connections.isEmpty() ? 1 : 0);
+                if (removed && connections.isEmpty()) {
+                    assertThat(events.get(before).isOnline()).isFalse();
+                }
+            }
+        }
+
+        Set<UUID> expected = open.entrySet().stream()
+                .filter(entry -> !entry.getValue().isEmpty())
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+        assertThat(registry.snapshot(SESSION_ID))
+                .extracting(ParticipantPresence::getParticipantId)
+                .containsExactlyInAnyOrderElementsOf(expected);
+    }
+
+    /**
+     * For any stale connection, reaping removes it and publishes the participant as offline
+     */
+    @Property(tries = 20)
+    void staleConnectionsAreReaped(@ForAll @IntRange(min = 1, max = 3) int connections) {
+        List<ParticipantPresence> events = new ArrayList<>();
+        PresenceRegistry registry = new PresenceRegistry(
+                event -> events.add(((PresenceChangedEvent) event).getPresence()),
+                new SimpleMeterRegistry(), Duration.ZERO);
+        UUID participantId = PARTICIPANTS.get(0);
+
+        for (int i = 0; i < connections; i++) {
+            registry.join(SESSION_ID, participantId, "connection-" + i);
+        }
+        registry.reapStaleConnections();
+
+        assertThat(registry.snapshot(SESSION_ID)).isEmpty();
+        assertThat(events).extracting(ParticipantPresence::isOnline).containsExactly(true, false);
+    }
+}
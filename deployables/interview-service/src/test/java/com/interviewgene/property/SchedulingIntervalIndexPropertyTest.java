@@ -0,0 +1,257 @@
+package com.interviewgene.property;
+
+import com.interviewgene.common.exception.ValidationException;
+import com.interviewgene.dto.TimeSlot;
+import com.interviewgene.model.InterviewSession;
+import com.interviewgene.model.SessionStatus;
+import com.interviewgene.repository.SessionRepository;
+import com.interviewgene.service.SchedulingIntervalIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.IntRange;
+import org.junit.jupiter.api.Tag;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Property-based tests for the scheduling interval index
+ */
+@Tag("Feature: interview-platform-microservices, Scheduling Interval Index")
+public class SchedulingIntervalIndexPropertyTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2030, 1, 7, 0, 0);
+    private static final Duration GRANULARITY = Duration.ofMinutes(15);
+
+    /**
+     * For any set of bookings accepted by the index, a candidate booking is reported as a
+     * conflict exactly when it overlaps a booking of either participant, and booking it is
+     * rejected in exactly those cases without touching the existing bookings
+     */
+    @Property(tries = 100)
+    void conflictsMatchOverlappingBookings(@ForAll @IntRange(min = 1, max = 60) int attempts,
+                                          @ForAll @IntRange(min = 2, max = 8) int users,
+                                          @ForAll long seed) {
+        Random random = new Random(seed);
+        List<UUID> pool = pool(users);
+        SchedulingIntervalIndex index = index();
+        List<InterviewSession> booked = new ArrayList<>();
+
+        for (int i = 0; i < attempts; i++) {
+            InterviewSession session = randomSession(random, pool);
+            Duration duration = index.durationOf(session.getMetadata());
+            boolean overlaps = booked.stream().anyMatch(other -> sharesParticipant(session, other)
+                    && overlap(session, duration, other, index.durationOf(other.getMetadata())));
+
+            assertThat(index.findConflict(session.getInterviewerId(), session.getCandidateId(),
+                    session.getScheduledTime(), duration).isPresent()).isEqualTo(overlaps);
+            if (overlaps) {
+                assertThatThrownBy(() -> index.reserve(session))
+                        .isInstanceOf(ValidationException.class)
+                        .hasMessageContaining("is already booked");
+            } else {
+                index.reserve(session);
+                booked.add(session);
+            }
+            assertThat(index.size()).isEqualTo(booked.size());
+        }
+    }
+
+    /**
+     * For any bookings and search range, the free slots returned are aligned, within the range,
+     * in order, not overlapping each other or any booking of the users, and are the earliest ones
+     * a greedy walk over aligned start times would pick
+     */
+    @Property(tries = 100)
+    void freeSlotsAreTheEarliestCommonGaps(@ForAll @IntRange(min = 0, max = 30) int bookings,
+                                           @ForAll @IntRange(min = 1, max = 4) int lengthQuarters,
+                                           @ForAll @IntRange(min = 1, max = 10) int count,
+                                           @ForAll long seed) {
+        Random random = new Random(seed);
+        List<UUID> pool = pool(4);
+        SchedulingIntervalIndex index = index();
+        List<InterviewSession> booked = new ArrayList<>();
+        for (int i = 0; i < bookings; i++) {
+            InterviewSession session = randomSession(random, pool);
+            try {
+                index.reserve(session);
+                booked.add(session);
+            } catch (ValidationException e) {
+                // Overlaps an earlier booking, leave it out
+            }
+        }
+
+        List<UUID> users = pool.subList(0, 1 + random.nextInt(pool.size()));
+        LocalDateTime from = DAY.plusMinutes(random.nextInt(12 * 60));
+        LocalDateTime until = from.plusHours(1 + random.nextInt(12));
+        Duration length = GRANULARITY.multipliedBy(lengthQuarters);
+
+        List<TimeSlot> slots = index.findCommonFreeSlots(users, from, until, length, count);
+
+        List<TimeSlot> expected = new ArrayList<>();
+        LocalDateTime cursor = DAY;
+        while (cursor.isBefore(from)) {
+            cursor = cursor.plus(GRANULARITY);
+        }
+        while (expected.size() < count && !cursor.plus(length).isAfter(until)) {
+            LocalDateTime start = cursor;
+            boolean busy = booked.stream().anyMatch(session -> users.stream().anyMatch(user ->
+                    user.equals(session.getInterviewerId()) || user.equals(session.getCandidateId()))
+                    && session.getScheduledTime().isBefore(start.plus(length))
+                    && session.getScheduledTime().plus(index.durationOf(session.getMetadata())).isAfter(start));
+            if (busy) {
+                cursor = cursor.plus(GRANULARITY);
+            } else {
+                expected.add(TimeSlot.builder().start(start).end(start.plus(length)).build());
+                cursor = start.plus(length);
+            }
+        }
+
+        assertThat(slots).isEqualTo(expected);
+        assertThat(slots).hasSizeLessThanOrEqualTo(count);
+        for (TimeSlot slot : slots) {
+            assertThat(slot.getStart()).isAfterOrEqualTo(from);
+            assertThat(slot.getEnd()).isBeforeOrEqualTo(until);
+            assertThat(slot.getStart().getMinute() % 15).isZero();
+            assertThat(index.findConflict(users.get(0), users.get(users.size() - 1), slot.getStart(), length)).isEmpty();
+        }
+    }
+
+    /**
+     * For any booked session, cancelling it frees its participants and moving it re-books them
+     * at the new time only
+     */
+    @Property(tries = 50)
+    void cancelledAndMovedSessionsFreeTheirOldTime(@ForAll @IntRange(min = 1, max = 8) int hoursLater) {
+        List<UUID> pool = pool(2);
+        SchedulingIntervalIndex index = index();
+        InterviewSession session = InterviewSession.builder()
+                .sessionId(UUID.randomUUID())
+                .interviewerId(pool.get(0))
+                .candidateId(pool.get(1))
+                .status(SessionStatus.SCHEDULED)
+                .scheduledTime(DAY.plusHours(9))
+                .build();
+        index.reserve(session);
+        assertThat(index.findConflict(pool.get(0), UUID.randomUUID(), DAY.plusHours(9), Duration.ofMinutes(30))).isPresent();
+
+        session.setScheduledTime(DAY.plusHours(9 + hoursLater));
+        index.reserve(session);
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.findConflict(pool.get(0), UUID.randomUUID(), DAY.plusHours(9), Duration.ofMinutes(30))).isEmpty();
+        assertThat(index.findConflict(UUID.randomUUID(), pool.get(1), DAY.plusHours(9 + hoursLater), Duration.ofMinutes(30)))
+                .isPresent();
+
+        session.setStatus(SessionStatus.CANCELLED);
+        index.reserve(session);
+        assertThat(index.size()).isZero();
+    }
+
+    /**
+     * For any number of rebuilds while the booking transaction is still open, the reservation is
+     * kept; once it committed before a rebuild's snapshot it is taken from the database like any
+     * other booking, and a rolled-back reservation is dropped
+     */
+    @Property(tries = 30)
+    void reservationsSurviveRebuildsUntilTheSnapshotSeesThem(@ForAll @IntRange(min = 1, max = 5) int rebuilds,
+                                                              @ForAll boolean committed) {
+        List<UUID> pool = pool(2);
+        List<InterviewSession> rows = new ArrayList<>();
+        SessionRepository repository = mock(SessionRepository.class);
+        when(repository.findBookedFrom(any(), any())).thenAnswer(invocation -> List.copyOf(rows));
+        SchedulingIntervalIndex index = index(repository);
+        InterviewSession session = InterviewSession.builder()
+                .sessionId(UUID.randomUUID())
+                .interviewerId(pool.get(0))
+                .candidateId(pool.get(1))
+                .status(SessionStatus.SCHEDULED)
+                .scheduledTime(DAY.plusHours(9))
+                .build();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.reserve(session);
+            for (int i = 0; i < rebuilds; i++) {
+                index.rebuild();
+                assertThat(index.size()).isEqualTo(1);
+            }
+            int status = committed ? TransactionSynchronization.STATUS_COMMITTED
+                    : TransactionSynchronization.STATUS_ROLLED_BACK;
+            TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.afterCompletion(status));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        if (committed) {
+            rows.add(session);
+        }
+
+        index.rebuild();
+        assertThat(index.size()).isEqualTo(committed ? 1 : 0);
+
+        // Cancelled through another node: the next snapshot no longer has it
+        rows.clear();
+        index.rebuild();
+        assertThat(index.size()).isZero();
+    }
+
+    private static SchedulingIntervalIndex index() {
+        return index(mock(SessionRepository.class));
+    }
+
+    private static SchedulingIntervalIndex index(SessionRepository repository) {
+        return new SchedulingIntervalIndex(repository, new SimpleMeterRegistry(),
+                Duration.ofMinutes(60), Duration.ofHours(4), GRANULARITY, Duration.ofDays(31));
+    }
+
+    private static List<UUID> pool(int users) {
+        List<UUID> pool = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            pool.add(UUID.randomUUID());
+        }
+        return pool;
+    }
+
+    private static InterviewSession randomSession(Random random, List<UUID> pool) {
+        UUID interviewer = pool.get(random.nextInt(pool.size()));
+        UUID candidate = pool.get(random.nextInt(pool.size()));
+        while (candidate.equals(interviewer)) {
+            candidate = pool.get(random.nextInt(pool.size()));
+        }
+        Map<String, String> metadata = new HashMap<>();
+        if (random.nextBoolean()) {
+            metadata.put(SchedulingIntervalIndex.DURATION_METADATA_KEY, String.valueOf(15 + random.nextInt(300)));
+        }
+        return InterviewSession.builder()
+                .sessionId(UUID.randomUUID())
+                .interviewerId(interviewer)
+                .candidateId(candidate)
+                .status(SessionStatus.SCHEDULED)
+                .scheduledTime(DAY.plusMinutes(5L * random.nextInt(24 * 12)))
+                .metadata(metadata)
+                .build();
+    }
+
+    private static boolean sharesParticipant(InterviewSession a, InterviewSession b) {
+        return a.getInterviewerId().equals(b.getInterviewerId()) || a.getInterviewerId().equals(b.getCandidateId())
+                || a.getCandidateId().equals(b.getInterviewerId()) || a.getCandidateId().equals(b.getCandidateId());
+    }
+
+    private static boolean overlap(InterviewSession a, Duration aLength, InterviewSession b, Duration bLength) {
+        return a.getScheduledTime().isBefore(b.getScheduledTime().plus(bLength))
+                && b.getScheduledTime().isBefore(a.getScheduledTime().plus(aLength));
+    }
+}
@@ -0,0 +1,153 @@
+package com.interviewgene.property;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.interviewgene.service.RedisSessionBroadcastRelay;
+import com.interviewgene.service.SessionBroadcastRelay;
+import com.interviewgene.service.SessionSubscriptionRegistry;
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.AlphaChars;
+import net.jqwik.api.constraints.IntRange;
+import net.jqwik.api.constraints.StringLength;
+import org.junit.jupiter.api.Tag;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Property-based tests for relaying session messages between interview-service nodes
+ */
+@Tag("Feature: interview-platform-microservices, Session Broadcast Relay")
+public class SessionBroadcastRelayPropertyTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = JsonMapper.builder().findAndAddModules().build();
+
+    /**
+     * For any broadcast on one node, every other node delivers the same bytes to the same
+     * destination with the same priority and payload class, and the origin ignores its own echo
+     */
+    @Property(tries = 100)
+    void broadcastsReachOtherNodesUnchanged(@ForAll @AlphaChars @StringLength(min = 0, max = 200) String content,
+                                           @ForAll SessionBroadcastRelay.Priority priority) {
+        Node origin = new Node();
+        Node peer = new Node();
+        UUID sessionId = UUID.randomUUID();
+        String destination = "/topic/session/" + sessionId + "/interactions";
+
+        origin.relay.broadcast(sessionId, destination, Map.of("content", content), priority);
+        origin.forwardTo(origin);
+        origin.forwardTo(peer);
+
+        assertThat(origin.delivered).hasSize(1);
+        assertThat(peer.delivered).hasSize(1);
+        Delivery sent = origin.delivered.get(0);
+        Delivery received = peer.delivered.get(0);
+        assertThat(received.destination()).isEqualTo(destination);
+        assertThat(received.payload()).isEqualTo(sent.payload());
+        assertThat(received.priority()).isEqualTo(sent.priority());
+        assertThat(received.priority()).isEqualTo(priority == SessionBroadcastRelay.Priority.NORMAL ? null : priority);
+        assertThat(received.payloadType()).isEqualTo(sent.payloadType()).isNotNull();
+    }
+
+    /**
+     * For any user message on one node, the other node delivers it to that user's destination only
+     */
+    @Property(tries = 100)
+    void userMessagesReachTheUserOnOtherNodes(@ForAll @AlphaChars @StringLength(min = 0, max = 200) String content) {
+        Node origin = new Node();
+        Node peer = new Node();
+        UUID sessionId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+
+        origin.relay.sendToUser(sessionId, userId, "/queue/session-events", Map.of("content", content));
+        origin.forwardTo(peer);
+
+        assertThat(peer.delivered).extracting(Delivery::destination)
+                .containsExactly("/user/" + userId + "/queue/session-events");
+        assertThat(peer.delivered.get(0).payload()).isEqualTo(origin.delivered.get(0).payload());
+    }
+
+    /**
+     * For any set of observers, a fan-out encodes the payload once, hands the same bytes to the
+     * topic and every observer, and reaches peers with one publish for the topic and one for all users
+     */
+    @Property(tries = 100)
+    void fanOutEncodesOnceForEveryRecipient(@ForAll @IntRange(min = 0, max = 20) int observers,
+                                            @ForAll @AlphaChars @StringLength(min = 0, max = 200) String content) {
+        Node origin = new Node();
+        Node peer = new Node();
+        UUID sessionId = UUID.randomUUID();
+        List<UUID> userIds = new ArrayList<>();
+        for (int i = 0; i < observers; i++) {
+            userIds.add(UUID.randomUUID());
+        }
+        String topic = "/topic/session/" + sessionId + "/events";
+
+        origin.relay.fanOut(sessionId, topic, userIds, "/queue/session-events", Map.of("content", content));
+        origin.forwardTo(peer);
+
+        assertThat(origin.encoded).hasSize(observers + 1);
+        assertThat(origin.encoded).allSatisfy(bytes -> assertThat(bytes).isSameAs(origin.encoded.get(0)));
+        assertThat(origin.published).hasSize(observers == 0 ? 1 : 2);
+        List<String> expected = new ArrayList<>();
+        expected.add(topic);
+        userIds.forEach(userId -> expected.add("/user/" + userId + "/queue/session-events"));
+        assertThat(origin.delivered).extracting(Delivery::destination).containsExactlyElementsOf(expected);
+        assertThat(peer.delivered).extracting(Delivery::destination).containsExactlyElementsOf(expected);
+        assertThat(peer.delivered).extracting(Delivery::payload).containsOnly(origin.delivered.get(0).payload());
+    }
+
+    /**
+     * A single node with a connection to Redis, recording what it publishes and delivers locally
+     */
+    static final class Node {
+        final List<Delivery> delivered = new ArrayList<>();
+        final List<String> published = new ArrayList<>();
+        final List<byte[]> encoded = new ArrayList<>();
+        final RedisSessionBroadcastRelay relay;
+
+        Node() {
+            SimpMessagingTemplate messagingTemplate = mock(SimpMessagingTemplate.class);
+            doAnswer(invocation -> {
+                Message<?> message = invocation.getArgument(1);
+                encoded.add((byte[]) message.getPayload());
+                delivered.add(new Delivery(invocation.getArgument(0),
+                        new String((byte[]) message.getPayload(), StandardCharsets.UTF_8),
+                        message.getHeaders().get(SessionBroadcastRelay.PRIORITY_HEADER),
+                        message.getHeaders().get(SessionBroadcastRelay.PAYLOAD_TYPE_HEADER)));
+                return null;
+            }).when(messagingTemplate).send(anyString(), any(Message.class));
+            StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+            doAnswer(invocation -> {
+                published.add(invocation.getArgument(1));
+                return 1L;
+            }).when(redisTemplate).convertAndSend(anyString(), any());
+            relay = new RedisSessionBroadcastRelay(messagingTemplate, OBJECT_MAPPER, redisTemplate,
+                    mock(RedisMessageListenerContainer.class), mock(SessionSubscriptionRegistry.class));
+        }
+
+        void forwardTo(Node receiver) {
+            for (String envelope : published) {
+                receiver.relay.onMessage(new DefaultMessage("interview:session".getBytes(StandardCharsets.UTF_8),
+                        envelope.getBytes(StandardCharsets.UTF_8)), null);
+            }
+        }
+    }
+
+    record Delivery(String destination, String payload, Object priority, Object payloadType) {
+    }
+}
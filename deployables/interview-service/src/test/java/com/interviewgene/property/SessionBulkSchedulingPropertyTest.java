@@ -0,0 +1,214 @@
+package com.interviewgene.property;
+
+import com.interviewgene.dto.BulkSessionCreateResponse;
+import com.interviewgene.dto.BulkSessionResult;
+import com.interviewgene.dto.SessionCreateRequest;
+import com.interviewgene.model.InterviewSession;
+import com.interviewgene.repository.SessionRepository;
+import com.interviewgene.service.*;
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.IntRange;
+import org.junit.jupiter.api.Tag;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Property-based tests for bulk session scheduling
+ */
+@Tag("Feature: interview-platform-microservices, Bulk Session Scheduling")
+public class SessionBulkSchedulingPropertyTest {
+
+    /**
+     * For any drive of interviewer/candidate pairs drawn from a small pool of users, some of them
+     * unknown and some pairs invalid, every item gets exactly one result at its own index, valid
+     * pairs of known users are created with one saveAll, and each distinct participant is looked
+     * up once for the whole drive
+     */
+    @Property(tries = 100)
+    void everyItemGetsOneResultAndUsersAreLookedUpOnce(@ForAll @IntRange(min = 1, max = 80) int items,
+                                                        @ForAll @IntRange(min = 2, max = 12) int users,
+                                                        @ForAll long seed) {
+        Random random = new Random(seed);
+        List<UUID> pool = new ArrayList<>();
+        Set<UUID> unknown = new HashSet<>();
+        for (int i = 0; i < users; i++) {
+            UUID userId = UUID.randomUUID();
+            pool.add(userId);
+            if (random.nextInt(5) == 0) {
+                unknown.add(userId);
+            }
+        }
+
+        // Two hours apart, so no two items of the drive overlap
+        LocalDateTime tomorrow = LocalDateTime.now().plusDays(1);
+        List<SessionCreateRequest> drive = new ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            drive.add(SessionCreateRequest.builder()
+                    .interviewerId(pool.get(random.nextInt(users)))
+                    .candidateId(pool.get(random.nextInt(users)))
+                    .sessionType(random.nextInt(10) == 0 ? null : "TECHNICAL")
+                    .scheduledTime(tomorrow.plusHours(2L * i))
+                    .build());
+        }
+
+        SessionRepository repository = mock(SessionRepository.class);
+        List<List<InterviewSession>> saves = new ArrayList<>();
+        when(repository.saveAll(any())).thenAnswer(invocation -> {
+            List<InterviewSession> batch = new ArrayList<>(invocation.<Collection<InterviewSession>>getArgument(0));
+            batch.forEach(session -> session.setSessionId(UUID.randomUUID()));
+            saves.add(batch);
+            return batch;
+        });
+        UserExistenceCache userExistenceCache = mock(UserExistenceCache.class);
+        List<Collection<UUID>> lookups = new ArrayList<>();
+        when(userExistenceCache.existAll(anyCollection())).thenAnswer(invocation -> {
+            Collection<UUID> requested = invocation.getArgument(0);
+            lookups.add(requested);
+            Map<UUID, Boolean> answers = new LinkedHashMap<>();
+            // Unknown users may be missing from the answer rather than mapped to false
+            requested.stream()
+                    .filter(userId -> !unknown.contains(userId) || userId.hashCode() % 2 == 0)
+                    .forEach(userId -> answers.put(userId, !unknown.contains(userId)));
+            return answers;
+        });
+
+        BulkSessionCreateResponse response = serviceOver(repository, userExistenceCache).createSessions(drive);
+
+        assertThat(response.getRequested()).isEqualTo(items);
+        assertThat(response.getResults()).hasSize(items);
+        int expectedCreated = 0;
+        for (int i = 0; i < items; i++) {
+            SessionCreateRequest request = drive.get(i);
+            BulkSessionResult result = response.getResults().get(i);
+            boolean valid = request.getSessionType() != null
+                    && !request.getInterviewerId().equals(request.getCandidateId())
+                    && !unknown.contains(request.getInterviewerId())
+                    && !unknown.contains(request.getCandidateId());
+
+            assertThat(result.getIndex()).isEqualTo(i);
+            assertThat(result.isCreated()).isEqualTo(valid);
+            if (valid) {
+                expectedCreated++;
+                assertThat(result.getSession().getInterviewerId()).isEqualTo(request.getInterviewerId());
+                assertThat(result.getSession().getCandidateId()).isEqualTo(request.getCandidateId());
+                assertThat(result.getError()).isNull();
+            } else {
+                assertThat(result.getSession()).isNull();
+                assertThat(result.getError()).isNotBlank();
+            }
+        }
+        assertThat(response.getCreated()).isEqualTo(expectedCreated);
+        assertThat(response.getFailed()).isEqualTo(items - expectedCreated);
+
+        assertThat(saves.size()).isEqualTo(expectedCreated > 0 ? 1 : 0);
+        assertThat(lookups.size()).isLessThanOrEqualTo(1);
+        lookups.forEach(requested -> assertThat(requested).doesNotHaveDuplicates());
+        verify(userExistenceCache, times(lookups.size())).existAll(anyCollection());
+    }
+
+    /**
+     * For any drive where some sessions lose their slot to a concurrent booking after the check,
+     * only those items fail with the conflict and are not kept, and the rest are still created
+     */
+    @Property(tries = 50)
+    @SuppressWarnings("unchecked")
+    void lostReservationsFailOnlyTheirItem(@ForAll @IntRange(min = 1, max = 40) int items, @ForAll long seed) {
+        Random random = new Random(seed);
+        LocalDateTime tomorrow = LocalDateTime.now().plusDays(1);
+        List<SessionCreateRequest> drive = new ArrayList<>();
+        Set<UUID> taken = new HashSet<>();
+        for (int i = 0; i < items; i++) {
+            UUID interviewerId = UUID.randomUUID();
+            if (random.nextInt(3) == 0) {
+                taken.add(interviewerId);
+            }
+            drive.add(SessionCreateRequest.builder()
+                    .interviewerId(interviewerId)
+                    .candidateId(UUID.randomUUID())
+                    .sessionType("TECHNICAL")
+                    .scheduledTime(tomorrow.plusHours(2L * i))
+                    .build());
+        }
+
+        SessionRepository repository = mock(SessionRepository.class);
+        when(repository.saveAll(any())).thenAnswer(invocation -> {
+            List<InterviewSession> batch = new ArrayList<>(invocation.<Collection<InterviewSession>>getArgument(0));
+            batch.forEach(session -> session.setSessionId(UUID.randomUUID()));
+            return batch;
+        });
+        UserExistenceCache userExistenceCache = mock(UserExistenceCache.class);
+        when(userExistenceCache.existAll(anyCollection())).thenAnswer(invocation -> {
+            Map<UUID, Boolean> answers = new LinkedHashMap<>();
+            invocation.<Collection<UUID>>getArgument(0).forEach(userId -> answers.put(userId, true));
+            return answers;
+        });
+        SchedulingIntervalIndex schedulingIndex = schedulingIndex();
+        when(schedulingIndex.tryReserve(any())).thenAnswer(invocation -> {
+            InterviewSession session = invocation.getArgument(0);
+            return taken.contains(session.getInterviewerId())
+                    ? Optional.of("Interviewer " + session.getInterviewerId() + " is already booked")
+                    : Optional.empty();
+        });
+
+        BulkSessionCreateResponse response = serviceOver(repository, userExistenceCache, schedulingIndex)
+                .createSessions(drive);
+
+        for (int i = 0; i < items; i++) {
+            BulkSessionResult result = response.getResults().get(i);
+            boolean lost = taken.contains(drive.get(i).getInterviewerId());
+            assertThat(result.getIndex()).isEqualTo(i);
+            assertThat(result.isCreated()).isEqualTo(!lost);
+            assertThat(result.getError() != null).isEqualTo(lost);
+        }
+        assertThat(response.getCreated()).isEqualTo(items - taken.size());
+        assertThat(response.getFailed()).isEqualTo(taken.size());
+        if (taken.isEmpty()) {
+            verify(repository, never()).deleteAll(anyCollection());
+        } else {
+            ArgumentCaptor<Collection<InterviewSession>> deleted = ArgumentCaptor.forClass(Collection.class);
+            verify(repository).deleteAll(deleted.capture());
+            assertThat(deleted.getValue()).extracting(InterviewSession::getInterviewerId)
+                    .containsExactlyInAnyOrderElementsOf(taken);
+        }
+    }
+
+    private static SessionService serviceOver(SessionRepository repository, UserExistenceCache userExistenceCache) {
+        return serviceOver(repository, userExistenceCache, schedulingIndex());
+    }
+
+    private static SchedulingIntervalIndex schedulingIndex() {
+        SchedulingIntervalIndex schedulingIndex = mock(SchedulingIntervalIndex.class);
+        when(schedulingIndex.durationOf(any())).thenReturn(Duration.ofMinutes(60));
+        when(schedulingIndex.tryReserve(any())).thenReturn(Optional.empty());
+        return schedulingIndex;
+    }
+
+    private static SessionService serviceOver(SessionRepository repository, UserExistenceCache userExistenceCache,
+                                              SchedulingIntervalIndex schedulingIndex) {
+        return new SessionService(repository, userExistenceCache, mock(SessionOutbox.class),
+                mock(SessionSequenceAllocator.class), mock(SessionStateCache.class),
+                mock(SessionStateReleaser.class), mock(PresenceRegistry.class), mock(SessionExpirySweeper.class),
+                schedulingIndex);
+    }
+}
@@ -0,0 +1,129 @@
+package com.interviewgene.property;
+
+import com.interviewgene.model.InterviewSession;
+import com.interviewgene.model.SessionStatus;
+import com.interviewgene.repository.SessionRepository;
+import com.interviewgene.service.RecentInteractionBuffer;
+import com.interviewgene.service.SchedulingIntervalIndex;
+import com.interviewgene.service.SessionExpirySweeper;
+import com.interviewgene.service.SessionObserverRegistry;
+import com.interviewgene.service.SessionSequenceAllocator;
+import com.interviewgene.service.SessionStateCache;
+import com.interviewgene.service.SessionStateReleaser;
+import com.interviewgene.service.TypingIndicatorCoalescer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.IntRange;
+import org.junit.jupiter.api.Tag;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Property-based tests for expiring abandoned sessions
+ */
+@Tag("Feature: interview-platform-microservices, Session Expiry")
+public class SessionExpirySweeperPropertyTest {
+
+    private static final Duration SCHEDULED_GRACE = Duration.ofMinutes(30);
+    private static final Duration PAUSED_TIMEOUT = Duration.ofHours(2);
+
+    /**
+     * For any lifecycle status, only SCHEDULED and PAUSED sessions get a deadline; a live session
+     * is never ended by the sweeper
+     */
+    @Property(tries = 50)
+    void onlyScheduledAndPausedSessionsExpire(@ForAll SessionStatus status) {
+        SessionExpirySweeper sweeper = sweeper(mock(SessionRepository.class));
+
+        LocalDateTime deadline = sweeper.deadlineOf(session(status, LocalDateTime.now()));
+
+        assertThat(deadline != null).isEqualTo(status == SessionStatus.SCHEDULED || status == SessionStatus.PAUSED);
+    }
+
+    /**
+     * For any number of sessions that start after being scheduled, starting them drops their
+     * deadline, and ticking far past every deadline expires nothing
+     */
+    @Property(tries = 30)
+    void startedSessionsLoseTheirDeadline(@ForAll @IntRange(min = 1, max = 50) int sessions) {
+        SessionRepository repository = mock(SessionRepository.class);
+        SessionExpirySweeper sweeper = sweeper(repository);
+        LocalDateTime scheduledTime = LocalDateTime.now().minusHours(12);
+        for (int i = 0; i < sessions; i++) {
+            InterviewSession session = session(SessionStatus.SCHEDULED, scheduledTime);
+            sweeper.register(session);
+            session.setStatus(SessionStatus.ACTIVE);
+            session.setStartTime(scheduledTime);
+            sweeper.register(session);
+        }
+
+        assertThat(sweeper.pending()).isZero();
+        assertThat(sweeper.tick(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(30))).isZero();
+        verify(repository, never()).expireSessions(anyCollection(), any(), any(), any());
+    }
+
+    /**
+     * For any abandoned sessions the sweeper expires, their scheduling bookings are freed so the
+     * participants can be booked again for that time
+     */
+    @Property(tries = 30)
+    void expiredSessionsFreeTheirBookings(@ForAll @IntRange(min = 1, max = 50) int sessions) {
+        SessionRepository repository = mock(SessionRepository.class);
+        SchedulingIntervalIndex schedulingIndex = mock(SchedulingIntervalIndex.class);
+        SessionExpirySweeper sweeper = sweeper(repository, schedulingIndex);
+        List<InterviewSession> abandoned = new ArrayList<>();
+        for (int i = 0; i < sessions; i++) {
+            InterviewSession session = session(SessionStatus.SCHEDULED, LocalDateTime.now().minusHours(12));
+            sweeper.register(session);
+            abandoned.add(session);
+        }
+        when(repository.expireSessions(anyCollection(), any(), any(), any())).thenReturn(sessions);
+        when(repository.findAllById(anyCollection())).thenAnswer(invocation -> {
+            abandoned.forEach(session -> session.setStatus(SessionStatus.EXPIRED));
+            return abandoned;
+        });
+
+        assertThat(sweeper.tick(System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(1))).isEqualTo(sessions);
+
+        for (InterviewSession session : abandoned) {
+            verify(schedulingIndex).release(session.getSessionId());
+        }
+    }
+
+    private static SessionExpirySweeper sweeper(SessionRepository repository) {
+        return sweeper(repository, mock(SchedulingIntervalIndex.class));
+    }
+
+    private static SessionExpirySweeper sweeper(SessionRepository repository, SchedulingIntervalIndex schedulingIndex) {
+        SessionStateReleaser stateReleaser = new SessionStateReleaser(mock(SessionSequenceAllocator.class),
+                mock(RecentInteractionBuffer.class), mock(TypingIndicatorCoalescer.class),
+                mock(SessionObserverRegistry.class), schedulingIndex);
+        return new SessionExpirySweeper(repository, mock(SessionStateCache.class), stateReleaser,
+                new SimpleMeterRegistry(), true, SCHEDULED_GRACE, PAUSED_TIMEOUT, Duration.ofDays(30), Duration.ofDays(2), Duration.ofSeconds(1), 512, 500);
+    }
+
+    private static InterviewSession session(SessionStatus status, LocalDateTime time) {
+        return InterviewSession.builder()
+                .sessionId(UUID.randomUUID())
+                .interviewerId(UUID.randomUUID())
+                .candidateId(UUID.randomUUID())
+                .status(status)
+                .scheduledTime(time)
+                .startTime(status == SessionStatus.SCHEDULED ? null : time)
+                .updatedAt(time)
+                .build();
+    }
+}
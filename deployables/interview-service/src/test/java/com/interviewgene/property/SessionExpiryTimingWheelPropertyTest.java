@@ -0,0 +1,109 @@
+package com.interviewgene.property;
+
+import com.interviewgene.util.HierarchicalTimingWheel;
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.IntRange;
+import org.junit.jupiter.api.Tag;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Property-based tests for the timing wheel behind session expiry
+ */
+@Tag("Feature: interview-platform-microservices, Session Expiry")
+public class SessionExpiryTimingWheelPropertyTest {
+
+    private static final long TICK = 1_000;
+    private static final int WHEEL_SIZE = 8;
+    private static final long START = 1_700_000_000_000L;
+
+    /**
+     * For any interleaving of schedules, reschedules, cancels and advances, including deadlines
+     * several levels out, a key fires exactly once, no earlier than the tick its deadline falls in
+     * and no later than the first advance reaching that tick, and cancelled or replaced deadlines
+     * never fire
+     */
+    @Property(tries = 300)
+    void firesEachLiveDeadlineOnceOnItsTick(@ForAll("operations") List<Operation> operations) {
+        HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(TICK, WHEEL_SIZE, START);
+        Map<Integer, Long> expected = new HashMap<>();
+        long now = START;
+
+        for (Operation operation : operations) {
+            switch (operation.kind()) {
+                case SCHEDULE -> {
+                    long deadline = now + operation.amount();
+                    wheel.schedule(operation.key(), deadline);
+                    expected.put(operation.key(), deadline);
+                }
+                case CANCEL -> assertThat(wheel.cancel(operation.key()))
+                        .isEqualTo(expected.remove(operation.key()) != null);
+                case ADVANCE -> {
+                    now += operation.amount();
+                    long reached = now - Math.floorMod(now, TICK);
+                    List<Integer> fired = new ArrayList<>();
+                    wheel.advance(now, fired::add);
+
+                    Set<Integer> due = new HashSet<>();
+                    expected.forEach((key, deadline) -> {
+                        if (deadline - Math.floorMod(deadline, TICK) <= reached) {
+                            due.add(key);
+                        }
+                    });
+                    assertThat(fired).doesNotHaveDuplicates();
+                    assertThat(new HashSet<>(fired)).isEqualTo(due);
+                    due.forEach(expected::remove);
+                }
+            }
+            assertThat(wheel.size()).isEqualTo(expected.size());
+        }
+    }
+
+    /**
+     * For any deadline, however far out, advancing straight past it fires it
+     */
+    @Property(tries = 100)
+    void farDeadlinesCascadeDown(@ForAll @IntRange(min = 1, max = 2_000_000) int seconds) {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK, WHEEL_SIZE, START);
+        long deadline = START + seconds * TICK + 1;
+        wheel.schedule("session", deadline);
+
+        List<String> fired = new ArrayList<>();
+        wheel.advance(deadline - TICK, fired::add);
+        assertThat(fired).isEmpty();
+        assertThat(wheel.deadline("session")).isEqualTo(deadline);
+
+        wheel.advance(deadline + TICK, fired::add);
+        assertThat(fired).containsExactly("session");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Provide
+    Arbitrary<List<Operation>> operations() {
+        Arbitrary<Operation> schedule = Combinators.combine(
+                Arbitraries.integers().between(0, 15),
+                Arbitraries.longs().between(-2 * TICK, 700 * TICK)
+        ).as((key, offset) -> new Operation(Kind.SCHEDULE, key, offset));
+        Arbitrary<Operation> cancel = Arbitraries.integers().between(0, 15)
+                .map(key -> new Operation(Kind.CANCEL, key, 0));
+        Arbitrary<Operation> advance = Arbitraries.longs().between(0, 90 * TICK)
+                .map(amount -> new Operation(Kind.ADVANCE, 0, amount));
+        return Arbitraries.frequencyOf(
+                Tuple.of(4, schedule),
+                Tuple.of(1, cancel),
+                Tuple.of(4, advance)
+        ).list().ofMaxSize(120);
+    }
+
+    enum Kind { SCHEDULE, CANCEL, ADVANCE }
+
+    record Operation(Kind kind, int key, long amount) {
+    }
+}
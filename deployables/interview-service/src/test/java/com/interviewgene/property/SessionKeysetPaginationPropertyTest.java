@@ -0,0 +1,113 @@
+package com.interviewgene.property;
+
+import com.interviewgene.common.exception.ValidationException;
+import com.interviewgene.dto.CursorPage;
+import com.interviewgene.dto.SessionResponse;
+import com.interviewgene.model.InterviewSession;
+import com.interviewgene.model.SessionStatus;
+import com.interviewgene.repository.SessionRepository;
+import com.interviewgene.service.*;
+import com.interviewgene.util.KeysetCursor;
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.IntRange;
+import org.junit.jupiter.api.Tag;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Property-based tests for keyset pagination of session listings
+ */
+@Tag("Feature: interview-platform-microservices, Keyset Pagination")
+public class SessionKeysetPaginationPropertyTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 9, 0);
+    private static final Comparator<InterviewSession> KEY_ORDER = Comparator
+            .comparing(InterviewSession::getCreatedAt)
+            .thenComparing(session -> session.getSessionId().toString());
+
+    /**
+     * For any set of sessions, many sharing a creation time, and any page size, following the
+     * continuation tokens visits every session exactly once in (createdAt, sessionId) order and
+     * no page exceeds the page size
+     */
+    @Property(tries = 100)
+    void followingCursorsVisitsEverySessionOnce(@ForAll @IntRange(min = 0, max = 120) int sessions,
+                                                @ForAll @IntRange(min = 1, max = 25) int limit) {
+        List<InterviewSession> table = new ArrayList<>();
+        for (int i = 0; i < sessions; i++) {
+            table.add(InterviewSession.builder()
+                    .sessionId(UUID.randomUUID())
+                    .interviewerId(UUID.randomUUID())
+                    .candidateId(UUID.randomUUID())
+                    .status(SessionStatus.SCHEDULED)
+                    .createdAt(BASE.plusSeconds(i / 4))
+                    .build());
+        }
+        SessionService service = serviceOver(table);
+
+        List<UUID> visited = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPage<SessionResponse> page = service.getSessionsByStatus(SessionStatus.SCHEDULED, cursor, limit);
+            assertThat(page.getItems().size()).isLessThanOrEqualTo(limit);
+            assertThat(page.isHasMore()).isEqualTo(page.getNextCursor() != null);
+            page.getItems().forEach(item -> visited.add(item.getSessionId()));
+            cursor = page.getNextCursor();
+            assertThat(++pages).isLessThanOrEqualTo(sessions / limit + 1);
+        } while (cursor != null);
+
+        assertThat(visited).containsExactlyElementsOf(
+                table.stream().sorted(KEY_ORDER).map(InterviewSession::getSessionId).toList());
+    }
+
+    /**
+     * For any token that is not a session cursor, the listing is rejected as invalid input
+     */
+    @Property(tries = 50)
+    void foreignOrCorruptCursorsAreRejected(@ForAll @IntRange(min = 0, max = 1000) int sequenceNumber,
+                                            @ForAll("garbage") String garbage) {
+        assertThatThrownBy(() -> KeysetCursor.decodeSession(KeysetCursor.encodeSequence(sequenceNumber)))
+                .isInstanceOf(ValidationException.class);
+        assertThatThrownBy(() -> KeysetCursor.decodeSession(garbage))
+                .isInstanceOf(ValidationException.class);
+    }
+
+    @Provide
+    Arbitrary<String> garbage() {
+        return Arbitraries.strings().withChars("abcXYZ019-_|!").ofMinLength(1).ofMaxLength(30)
+                .filter(token -> !token.isBlank());
+    }
+
+    private static SessionService serviceOver(List<InterviewSession> table) {
+        SessionRepository repository = mock(SessionRepository.class);
+        when(repository.findPageByStatus(eq(SessionStatus.SCHEDULED), any(), any(), any())).thenAnswer(invocation -> {
+            LocalDateTime createdAt = invocation.getArgument(1);
+            UUID sessionId = invocation.getArgument(2);
+            Pageable pageable = invocation.getArgument(3);
+            return table.stream()
+                    .filter(s -> s.getCreatedAt().isAfter(createdAt) || (s.getCreatedAt().equals(createdAt)
+                            && s.getSessionId().toString().compareTo(sessionId.toString()) > 0))
+                    .sorted(KEY_ORDER)
+                    .limit(pageable.getPageSize())
+                    .toList();
+        });
+
+        return new SessionService(repository, mock(UserExistenceCache.class), mock(SessionOutbox.class),
+                mock(SessionSequenceAllocator.class), mock(SessionStateCache.class),
+                mock(SessionStateReleaser.class), mock(PresenceRegistry.class), mock(SessionExpirySweeper.class),
+                mock(SchedulingIntervalIndex.class));
+    }
+}
@@ -0,0 +1,120 @@
+package com.interviewgene.property;
+
+import com.interviewgene.service.SessionMailboxExecutor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.IntRange;
+import org.junit.jupiter.api.Tag;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Property-based tests for per-session mailbox execution
+ */
+@Tag("Feature: interview-platform-microservices, Session Mailbox Execution")
+public class SessionMailboxExecutorPropertyTest {
+
+    /**
+     * For any interleaving of submissions across sessions, each session's tasks run one at a time
+     * in submission order, and every mailbox is retired once it drains
+     */
+    @Property(tries = 30)
+    void tasksRunSeriallyInOrderAndMailboxesRetire(@ForAll @IntRange(min = 1, max = 8) int sessions,
+                                                   @ForAll @IntRange(min = 1, max = 300) int tasks,
+                                                   @ForAll @IntRange(min = 1, max = 16) int throughput,
+                                                   @ForAll long seed) throws Exception {
+        SessionMailboxExecutor executor = new SessionMailboxExecutor(new SimpleMeterRegistry(),
+                new StandardEnvironment(), true, 4, throughput);
+        executor.start();
+        try {
+            Random random = new Random(seed);
+            List<UUID> sessionIds = new ArrayList<>();
+            for (int i = 0; i < sessions; i++) {
+                sessionIds.add(UUID.randomUUID());
+            }
+            ConcurrentMap<UUID, List<Integer>> executed = new ConcurrentHashMap<>();
+            ConcurrentMap<UUID, AtomicInteger> running = new ConcurrentHashMap<>();
+            Map<UUID, List<Integer>> submitted = new HashMap<>();
+            AtomicInteger overlaps = new AtomicInteger();
+            CountDownLatch done = new CountDownLatch(tasks);
+
+            for (int i = 0; i < tasks; i++) {
+                UUID sessionId = sessionIds.get(random.nextInt(sessions));
+                int index = i;
+                submitted.computeIfAbsent(sessionId, id -> new ArrayList<>()).add(index);
+                executor.submit(sessionId, () -> {
+                    if (running.computeIfAbsent(sessionId, id -> new AtomicInteger()).incrementAndGet() > 1) {
+                        overlaps.incrementAndGet();
+                    }
+                    executed.computeIfAbsent(sessionId, id -> Collections.synchronizedList(new ArrayList<>())).add(index);
+                    running.get(sessionId).decrementAndGet();
+                    done.countDown();
+                });
+            }
+
+            assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+            assertThat(overlaps.get()).isZero();
+            assertThat(executed).isEqualTo(submitted);
+            awaitRetired(executor);
+        } finally {
+            executor.stop();
+        }
+    }
+
+    /**
+     * For any failing tasks, the failures are counted and the tasks after them in the same
+     * mailbox still run
+     */
+    @Property(tries = 30)
+    void failingTasksAreCountedAndDoNotStallTheMailbox(@ForAll @IntRange(min = 1, max = 50) int tasks,
+                                                       @ForAll long seed) throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        SessionMailboxExecutor executor = new SessionMailboxExecutor(meterRegistry,
+                new StandardEnvironment(), true, 2, 8);
+        executor.start();
+        try {
+            Random random = new Random(seed);
+            UUID sessionId = UUID.randomUUID();
+            CountDownLatch done = new CountDownLatch(tasks);
+            int failing = 0;
+            for (int i = 0; i < tasks; i++) {
+                boolean fail = random.nextInt(3) == 0;
+                failing += fail ? 1 : 0;
+                executor.submit(sessionId, () -> {
+                    done.countDown();
+                    if (fail) {
+                        throw new IllegalStateException("Task failed");
+                    }
+                });
+            }
+
+            assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+            awaitRetired(executor);
+            assertThat(meterRegistry.get("interview.realtime.mailbox.failures").counter().count()).isEqualTo(failing);
+        } finally {
+            executor.stop();
+        }
+    }
+
+    private static void awaitRetired(SessionMailboxExecutor executor) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (executor.mailboxCount() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertThat(executor.mailboxCount()).isZero();
+    }
+}
@@ -0,0 +1,179 @@
+package com.interviewgene.property;
+
+import com.interviewgene.model.SessionOutboxEvent;
+import com.interviewgene.repository.SessionOutboxRepository;
+import com.interviewgene.service.SessionOutbox;
+import com.interviewgene.service.SessionOutboxRelay;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.IntRange;
+import net.jqwik.api.lifecycle.AfterContainer;
+import net.jqwik.api.lifecycle.BeforeContainer;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Tag;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Property-based tests for relaying the session outbox to Kafka, against an embedded broker
+ */
+@Tag("Feature: interview-platform-microservices, Session Event Outbox")
+public class SessionOutboxRelayPropertyTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 9, 0);
+
+    private static EmbeddedKafkaBroker broker;
+
+    @BeforeContainer
+    static void startBroker() {
+        broker = new EmbeddedKafkaKraftBroker(1, 1);
+        broker.afterPropertiesSet();
+    }
+
+    @AfterContainer
+    static void stopBroker() {
+        broker.destroy();
+    }
+
+    /**
+     * For any set of outbox events across sessions and any batch size, one relay run publishes
+     * every event exactly once, keyed by session and in creation order per session, marks them
+     * all published, and a second run publishes nothing
+     */
+    @Property(tries = 10)
+    void everyEventIsPublishedOnceInSessionOrder(@ForAll @IntRange(min = 1, max = 5) int sessions,
+                                                 @ForAll @IntRange(min = 1, max = 60) int events,
+                                                 @ForAll @IntRange(min = 1, max = 20) int batchSize) {
+        String topic = "session-events-" + UUID.randomUUID();
+        List<SessionOutboxEvent> table = outbox(sessions, events);
+        SessionOutboxRelay relay = new SessionOutboxRelay(repositoryOver(table), transactionManager(),
+                producer(), new SimpleMeterRegistry(), topic, batchSize, Duration.ofSeconds(30), Duration.ofDays(7));
+        try {
+            assertThat(relay.relay()).isEqualTo(events);
+            assertThat(table).allMatch(SessionOutboxEvent::isPublished);
+            assertThat(relay.relay()).isZero();
+        } finally {
+            relay.close();
+        }
+
+        Map<String, List<String>> received = new HashMap<>();
+        try (Consumer<String, String> consumer = consumer()) {
+            consumer.subscribe(List.of(topic));
+            for (ConsumerRecord<String, String> record : KafkaTestUtils.getRecords(consumer, Duration.ofSeconds(30), events)) {
+                String eventId = new String(record.headers().lastHeader(SessionOutboxRelay.EVENT_ID_HEADER).value(),
+                        StandardCharsets.UTF_8);
+                received.computeIfAbsent(record.key(), key -> new ArrayList<>()).add(eventId);
+            }
+        }
+
+        Map<String, List<String>> expected = new HashMap<>();
+        table.stream()
+                .sorted(Comparator.comparing(SessionOutboxEvent::getCreatedAt))
+                .forEach(event -> expected.computeIfAbsent(event.getSessionId().toString(), key -> new ArrayList<>())
+                        .add(event.getEventId().toString()));
+        assertThat(received).isEqualTo(expected);
+    }
+
+    /**
+     * For any set of outbox events, when Kafka rejects every send the events stay unpublished with
+     * the failure recorded, so a later run retries them
+     */
+    @Property(tries = 50)
+    @SuppressWarnings("unchecked")
+    void failedSendsStayPending(@ForAll @IntRange(min = 1, max = 30) int events) {
+        List<SessionOutboxEvent> table = outbox(3, events);
+        KafkaTemplate<String, String> kafkaTemplate = mock(KafkaTemplate.class);
+        when(kafkaTemplate.send(any(ProducerRecord.class)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker unavailable")));
+
+        SessionOutboxRelay relay = new SessionOutboxRelay(repositoryOver(table), transactionManager(),
+                kafkaTemplate, new SimpleMeterRegistry(), "session-events", 30, Duration.ofSeconds(1), Duration.ofDays(7));
+
+        assertThat(relay.relay()).isZero();
+        assertThat(table).noneMatch(SessionOutboxEvent::isPublished);
+        assertThat(table).allSatisfy(event -> {
+            assertThat(event.getAttempts()).isEqualTo(1);
+            assertThat(event.getLastError()).contains("broker unavailable");
+        });
+    }
+
+    private static List<SessionOutboxEvent> outbox(int sessions, int events) {
+        List<UUID> sessionIds = new ArrayList<>();
+        for (int i = 0; i < sessions; i++) {
+            sessionIds.add(UUID.randomUUID());
+        }
+        List<SessionOutboxEvent> table = new ArrayList<>();
+        for (int i = 0; i < events; i++) {
+            table.add(SessionOutboxEvent.builder()
+                    .eventId(UUID.randomUUID())
+                    .sessionId(sessionIds.get(i % sessions))
+                    .eventType(SessionOutbox.SESSION_COMPLETED)
+                    .payload("{\"sequence\":" + i + "}")
+                    .createdAt(BASE.plusSeconds(i))
+                    .build());
+        }
+        return table;
+    }
+
+    private static SessionOutboxRepository repositoryOver(List<SessionOutboxEvent> table) {
+        SessionOutboxRepository repository = mock(SessionOutboxRepository.class);
+        when(repository.lockUnpublished(anyInt())).thenAnswer(invocation -> table.stream()
+                .filter(event -> !event.isPublished())
+                .sorted(Comparator.comparing(SessionOutboxEvent::getCreatedAt))
+                .limit((int) invocation.getArgument(0))
+                .toList());
+        when(repository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        return repository;
+    }
+
+    private static PlatformTransactionManager transactionManager() {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        return transactionManager;
+    }
+
+    private static KafkaTemplate<String, String> producer() {
+        Map<String, Object> config = KafkaTestUtils.producerProps(broker);
+        config.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        config.put(ProducerConfig.ACKS_CONFIG, "all");
+        config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(config));
+    }
+
+    private static Consumer<String, String> consumer() {
+        Map<String, Object> config = KafkaTestUtils.consumerProps("outbox-" + UUID.randomUUID(), "false", broker);
+        config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        return new DefaultKafkaConsumerFactory<>(config, new StringDeserializer(), new StringDeserializer())
+                .createConsumer();
+    }
+}
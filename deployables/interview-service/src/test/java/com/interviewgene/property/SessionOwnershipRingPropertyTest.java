@@ -0,0 +1,227 @@
+package com.interviewgene.property;
+
+import com.interviewgene.config.SessionHandoverCloser;
+import com.interviewgene.service.PresenceRegistry;
+import com.interviewgene.service.SessionOwnershipChangedEvent;
+import com.interviewgene.service.SessionOwnershipRing;
+import com.interviewgene.service.SessionSubscriptionRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.IntRange;
+import org.junit.jupiter.api.Tag;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.serviceregistry.Registration;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Property-based tests for session ownership and connection handover
+ */
+@Tag("Feature: interview-platform-microservices, Session Ownership Ring")
+public class SessionOwnershipRingPropertyTest {
+
+    private static final String SERVICE_ID = "interview-service";
+
+    /**
+     * For any membership, every session has exactly one owner among the members and is local
+     * exactly on that member
+     */
+    @Property(tries = 50)
+    void everySessionIsLocalOnExactlyItsOwner(@ForAll @IntRange(min = 1, max = 6) int members) {
+        List<ServiceInstance> instances = instances(members);
+        List<SessionOwnershipRing> rings = new ArrayList<>();
+        for (ServiceInstance instance : instances) {
+            rings.add(ring(instances, instance.getInstanceId(), new ArrayList<>()));
+        }
+
+        for (int i = 0; i < 200; i++) {
+            UUID sessionId = UUID.randomUUID();
+            ServiceInstance owner = rings.get(0).owner(sessionId).orElseThrow();
+            assertThat(instances).contains(owner);
+            for (int j = 0; j < rings.size(); j++) {
+                assertThat(rings.get(j).owner(sessionId)).contains(owner);
+                assertThat(rings.get(j).isLocal(sessionId))
+                        .isEqualTo(instances.get(j).getInstanceId().equals(owner.getInstanceId()));
+            }
+        }
+    }
+
+    /**
+     * For any membership, a session has a remote owner everywhere except on its owner, and requests
+     * are redirected to that owner with their path and query intact
+     */
+    @Property(tries = 30)
+    void requestsAreRedirectedToTheRemoteOwner(@ForAll @IntRange(min = 1, max = 6) int members) {
+        List<ServiceInstance> instances = instances(members);
+        SessionOwnershipRing ring = ring(instances, instances.get(0).getInstanceId(), new ArrayList<>());
+
+        for (int i = 0; i < 100; i++) {
+            UUID sessionId = UUID.randomUUID();
+            ServiceInstance owner = ring.owner(sessionId).orElseThrow();
+            URI request = URI.create("http://10.0.0.1:8080/api/v1/sessions/" + sessionId
+                    + "/interactions/batch?source=offline%20replay");
+
+            assertThat(ring.remoteOwner(sessionId).isPresent()).isEqualTo(!ring.isLocal(sessionId));
+            URI target = SessionOwnershipRing.redirectUri(owner, request);
+            assertThat(target.getHost()).isEqualTo(owner.getHost());
+            assertThat(target.getPort()).isEqualTo(owner.getPort());
+            assertThat(target.getRawPath()).isEqualTo(request.getRawPath());
+            assertThat(target.getRawQuery()).isEqualTo(request.getRawQuery());
+        }
+    }
+
+    /**
+     * For any membership that does not list this node yet, no session is local, and with affinity
+     * disabled every session is
+     */
+    @Property(tries = 30)
+    void unregisteredNodeOwnsNothing(@ForAll @IntRange(min = 0, max = 4) int members) {
+        List<ServiceInstance> instances = instances(members);
+        SessionOwnershipRing unregistered = ring(instances, "not-registered", new ArrayList<>());
+        SessionOwnershipRing disabled = new SessionOwnershipRing(discovery(instances), registration("not-registered"),
+                event -> { }, false, SERVICE_ID, 16);
+        disabled.refresh();
+
+        for (int i = 0; i < 100; i++) {
+            UUID sessionId = UUID.randomUUID();
+            assertThat(unregistered.isLocal(sessionId)).isFalse();
+            assertThat(disabled.isLocal(sessionId)).isTrue();
+        }
+    }
+
+    /**
+     * For any instance leaving, only the sessions it owned change owner, and one rebalance event
+     * is published per membership change
+     */
+    @Property(tries = 30)
+    void onlySessionsOfTheLeavingInstanceMove(@ForAll @IntRange(min = 2, max = 6) int members,
+                                              @ForAll @IntRange(min = 0, max = 5) int leaving) {
+        List<ServiceInstance> instances = new ArrayList<>(instances(members));
+        List<Object> events = new ArrayList<>();
+        DiscoveryClient discoveryClient = mock(DiscoveryClient.class);
+        when(discoveryClient.getInstances(SERVICE_ID)).thenReturn(List.copyOf(instances));
+        SessionOwnershipRing ring = new SessionOwnershipRing(discoveryClient,
+                registration(instances.get(0).getInstanceId()), events::add, true, SERVICE_ID, 64);
+        ring.refresh();
+        ring.refresh();
+        assertThat(events).hasSize(1);
+
+        Map<UUID, String> before = new HashMap<>();
+        for (int i = 0; i < 300; i++) {
+            UUID sessionId = UUID.randomUUID();
+            before.put(sessionId, ring.owner(sessionId).orElseThrow().getInstanceId());
+        }
+
+        String removed = instances.remove(leaving % members).getInstanceId();
+        when(discoveryClient.getInstances(SERVICE_ID)).thenReturn(List.copyOf(instances));
+        ring.refresh();
+        assertThat(events).hasSize(2);
+
+        before.forEach((sessionId, owner) -> {
+            String now = ring.owner(sessionId).orElseThrow().getInstanceId();
+            if (owner.equals(removed)) {
+                assertThat(now).isNotEqualTo(removed);
+            } else {
+                assertThat(now).isEqualTo(owner);
+            }
+        });
+    }
+
+    /**
+     * For any rebalance, connections subscribed to or opened for a session that moved away are
+     * closed so the client reconnects to the owner, and every other connection stays open
+     */
+    @Property(tries = 30)
+    void rebalanceClosesConnectionsOfMovedSessions(@ForAll @IntRange(min = 2, max = 5) int members,
+                                                   @ForAll @IntRange(min = 1, max = 20) int sessions) throws Exception {
+        List<ServiceInstance> instances = instances(members);
+        SessionOwnershipRing ring = ring(instances, instances.get(0).getInstanceId(), new ArrayList<>());
+        SessionSubscriptionRegistry subscriptionRegistry = mock(SessionSubscriptionRegistry.class);
+        SessionHandoverCloser closer = new SessionHandoverCloser(subscriptionRegistry, new SimpleMeterRegistry());
+        WebSocketHandler handler = closer.decorate(mock(WebSocketHandler.class));
+
+        Map<UUID, WebSocketSession> subscribed = new HashMap<>();
+        Map<UUID, WebSocketSession> opened = new HashMap<>();
+        for (int i = 0; i < sessions; i++) {
+            UUID sessionId = UUID.randomUUID();
+            WebSocketSession subscriber = connection(Map.of());
+            WebSocketSession handshake = connection(Map.of(PresenceRegistry.SESSION_ID_ATTRIBUTE, sessionId));
+            handler.afterConnectionEstablished(subscriber);
+            handler.afterConnectionEstablished(handshake);
+            String subscriberId = subscriber.getId();
+            when(subscriptionRegistry.connectionsOf(sessionId)).thenReturn(Set.of(subscriberId));
+            subscribed.put(sessionId, subscriber);
+            opened.put(sessionId, handshake);
+        }
+        when(subscriptionRegistry.hostedSessions()).thenReturn(Set.copyOf(subscribed.keySet()));
+
+        closer.onOwnershipChanged(new SessionOwnershipChangedEvent(ring, members));
+
+        for (UUID sessionId : subscribed.keySet()) {
+            if (ring.isLocal(sessionId)) {
+                verify(subscribed.get(sessionId), never()).close(CloseStatus.SERVICE_RESTARTED);
+                verify(opened.get(sessionId), never()).close(CloseStatus.SERVICE_RESTARTED);
+            } else {
+                verify(subscribed.get(sessionId)).close(CloseStatus.SERVICE_RESTARTED);
+                verify(opened.get(sessionId)).close(CloseStatus.SERVICE_RESTARTED);
+            }
+        }
+    }
+
+    private static SessionOwnershipRing ring(List<ServiceInstance> instances, String localId, List<Object> events) {
+        SessionOwnershipRing ring = new SessionOwnershipRing(discovery(instances), registration(localId),
+                events::add, true, SERVICE_ID, 64);
+        ring.refresh();
+        return ring;
+    }
+
+    private static DiscoveryClient discovery(List<ServiceInstance> instances) {
+        DiscoveryClient discoveryClient = mock(DiscoveryClient.class);
+        when(discoveryClient.getInstances(anyString())).thenReturn(instances);
+        return discoveryClient;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ObjectProvider<Registration> registration(String instanceId) {
+        Registration registration = mock(Registration.class);
+        when(registration.getInstanceId()).thenReturn(instanceId);
+        ObjectProvider<Registration> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(registration);
+        return provider;
+    }
+
+    private static List<ServiceInstance> instances(int count) {
+        List<ServiceInstance> instances = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            instances.add(new DefaultServiceInstance("interview-" + i, SERVICE_ID, "10.0.0." + (i + 1), 8080, false));
+        }
+        return instances;
+    }
+
+    private static WebSocketSession connection(Map<String, Object> attributes) {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn(UUID.randomUUID().toString());
+        when(session.getAttributes()).thenReturn(new HashMap<>(attributes));
+        when(session.isOpen()).thenReturn(true);
+        return session;
+    }
+}
@@ -0,0 +1,95 @@
+package com.interviewgene.property;
+
+import com.interviewgene.model.InterviewSession;
+import com.interviewgene.model.SessionStatus;
+import com.interviewgene.repository.SessionRepository;
+import com.interviewgene.service.RealTimeHandler;
+import com.interviewgene.service.SessionOwnershipRing;
+import com.interviewgene.service.SessionPreWarmer;
+import com.interviewgene.service.SessionSequenceAllocator;
+import com.interviewgene.service.SessionStateCache;
+import com.interviewgene.service.UserExistenceCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.Size;
+import org.hibernate.LazyInitializationException;
+import org.junit.jupiter.api.Tag;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Property-based tests for pre-warming sessions that are about to start
+ */
+@Tag("Feature: interview-platform-microservices, Session Pre-Warming")
+public class SessionPreWarmerPropertyTest {
+
+    /**
+     * For any mix of upcoming sessions, the ones owned here are cached and prepared once, sessions
+     * owned elsewhere are skipped, and a session that cannot be cached is counted as a failure
+     * without stopping the others
+     */
+    @Property(tries = 50)
+    void eachLocalSessionIsWarmedIndependently(@ForAll @Size(max = 30) List<Kind> kinds) {
+        SessionRepository repository = mock(SessionRepository.class);
+        SessionOwnershipRing ring = mock(SessionOwnershipRing.class);
+        SessionSequenceAllocator allocator = mock(SessionSequenceAllocator.class);
+        RealTimeHandler realTimeHandler = mock(RealTimeHandler.class);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        SessionStateCache cache = new SessionStateCache(repository, meterRegistry, Duration.ofMinutes(5));
+
+        List<InterviewSession> upcoming = new ArrayList<>();
+        for (Kind kind : kinds) {
+            InterviewSession session = InterviewSession.builder()
+                    .sessionId(UUID.randomUUID())
+                    .interviewerId(UUID.randomUUID())
+                    .candidateId(UUID.randomUUID())
+                    .status(SessionStatus.SCHEDULED)
+                    .scheduledTime(LocalDateTime.now().plusMinutes(5))
+                    .metadata(Map.of("topic", "graphs"))
+                    .version(0L)
+                    .build();
+            if (kind == Kind.UNLOADED) {
+                session = spy(session);
+                doThrow(new LazyInitializationException("Metadata was not fetched")).when(session).getMetadata();
+            }
+            when(ring.isLocal(session.getSessionId())).thenReturn(kind != Kind.REMOTE);
+            upcoming.add(session);
+        }
+        when(repository.findWithMetadataScheduledBetween(eq(SessionStatus.SCHEDULED), any(), any()))
+                .thenReturn(upcoming);
+        SessionPreWarmer warmer = new SessionPreWarmer(repository, mock(UserExistenceCache.class), cache, allocator,
+                realTimeHandler, ring, meterRegistry, true, Duration.ofMinutes(10), Duration.ofMinutes(15));
+
+        warmer.warmUpcomingSessions();
+        warmer.warmUpcomingSessions();
+
+        for (int i = 0; i < kinds.size(); i++) {
+            UUID sessionId = upcoming.get(i).getSessionId();
+            boolean warm = kinds.get(i) == Kind.LOADED;
+            assertThat(cache.isWarm(sessionId)).isEqualTo(warm);
+            verify(allocator, times(warm ? 1 : 0)).seed(sessionId);
+            verify(realTimeHandler, times(warm ? 1 : 0)).primeRecentInteractions(sessionId);
+        }
+        long unloaded = kinds.stream().filter(kind -> kind == Kind.UNLOADED).count();
+        assertThat(meterRegistry.get("interview.sessions.prewarm.failures").counter().count()).isEqualTo(2 * unloaded);
+        verify(repository, never()).findSessionsScheduledBetween(any(), any());
+    }
+
+    enum Kind { LOADED, UNLOADED, REMOTE }
+}
@@ -0,0 +1,207 @@
+package com.interviewgene.property;
+
+import com.interviewgene.repository.SessionInteractionRepository;
+import com.interviewgene.service.SessionSequenceAllocator;
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.IntRange;
+import org.junit.jupiter.api.Tag;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Property-based tests for per-session sequence allocation
+ */
+@Tag("Feature: interview-platform-microservices, Session Sequence Allocation")
+public class SessionSequenceAllocationPropertyTest {
+
+    /**
+     * For any number of concurrent senders, the allocator hands out strictly increasing,
+     * gap-free sequence numbers that continue from the persisted maximum, with one seed query
+     */
+    @Property(tries = 25)
+    void concurrentAllocationsAreUniqueAndGapFree(@ForAll @IntRange(min = 0, max = 500) int persistedMax,
+                                                  @ForAll @IntRange(min = 1, max = 8) int senders,
+                                                  @ForAll @IntRange(min = 1, max = 200) int messagesPerSender) throws Exception {
+        SessionInteractionRepository repository = mock(SessionInteractionRepository.class);
+        when(repository.getNextSequenceNumber(any())).thenReturn(persistedMax + 1);
+        SessionSequenceAllocator allocator = new SessionSequenceAllocator(repository);
+        UUID sessionId = UUID.randomUUID();
+
+        ConcurrentLinkedQueue<Integer> allocated = new ConcurrentLinkedQueue<>();
+        ExecutorService pool = Executors.newFixedThreadPool(senders);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            for (int i = 0; i < senders; i++) {
+                pool.execute(() -> {
+                    awaitQuietly(start);
+                    for (int j = 0; j < messagesPerSender; j++) {
+                        allocated.add(allocator.next(sessionId));
+                    }
+                });
+            }
+            start.countDown();
+        } finally {
+            pool.shutdown();
+            assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        }
+
+        List<Integer> sorted = new ArrayList<>(allocated);
+        sorted.sort(Integer::compareTo);
+        assertThat(sorted).hasSize(senders * messagesPerSender);
+        for (int i = 0; i < sorted.size(); i++) {
+            assertThat(sorted.get(i)).isEqualTo(persistedMax + 1 + i);
+        }
+        verify(repository, times(1)).getNextSequenceNumber(sessionId);
+    }
+
+    /**
+     * For any failed write with nothing allocated after it, its number is handed out again and
+     * the counter re-seeds from the database once the session is quiet
+     */
+    @Property(tries = 50)
+    void failedWriteReissuesItsNumber(@ForAll @IntRange(min = 0, max = 1000) int persistedMax) {
+        SessionInteractionRepository repository = mock(SessionInteractionRepository.class);
+        when(repository.getNextSequenceNumber(any())).thenReturn(persistedMax + 1);
+        SessionSequenceAllocator allocator = new SessionSequenceAllocator(repository);
+        UUID sessionId = UUID.randomUUID();
+
+        int failed = allocator.next(sessionId);
+        allocator.failed(sessionId, failed, 1);
+        int retried = allocator.next(sessionId);
+
+        assertThat(retried).isEqualTo(failed);
+        assertThat(allocator.heldSessions()).containsExactly(sessionId);
+        verify(repository, times(2)).getNextSequenceNumber(sessionId);
+    }
+
+    /**
+     * For any failure while later writes are still in flight, the allocator never re-seeds from
+     * the database, whose maximum does not include the pending rows, and never reissues a number
+     * that was already handed out
+     */
+    @Property(tries = 50)
+    void failureWithWritesInFlightNeverReissuesNumbers(@ForAll @IntRange(min = 0, max = 1000) int persistedMax,
+                                                       @ForAll @IntRange(min = 1, max = 20) int inFlight) {
+        SessionInteractionRepository repository = mock(SessionInteractionRepository.class);
+        when(repository.getNextSequenceNumber(any())).thenReturn(persistedMax + 1);
+        SessionSequenceAllocator allocator = new SessionSequenceAllocator(repository);
+        UUID sessionId = UUID.randomUUID();
+
+        int failed = allocator.next(sessionId);
+        Set<Integer> handedOut = new HashSet<>();
+        for (int i = 0; i < inFlight; i++) {
+            handedOut.add(allocator.next(sessionId));
+        }
+        allocator.failed(sessionId, failed, 1);
+
+        int next = allocator.next(sessionId);
+        assertThat(handedOut).doesNotContain(next);
+        assertThat(next).isEqualTo(persistedMax + 2 + inFlight);
+        verify(repository, times(1)).getNextSequenceNumber(sessionId);
+    }
+
+    /**
+     * For any session released while writes are pending, the counter is kept until they settle,
+     * so a re-seed always sees every number handed out before the release
+     */
+    @Property(tries = 50)
+    void releaseWaitsForPendingWrites(@ForAll @IntRange(min = 0, max = 1000) int persistedMax,
+                                      @ForAll @IntRange(min = 1, max = 20) int pending) {
+        SessionInteractionRepository repository = mock(SessionInteractionRepository.class);
+        when(repository.getNextSequenceNumber(any())).thenReturn(persistedMax + 1);
+        SessionSequenceAllocator allocator = new SessionSequenceAllocator(repository);
+        UUID sessionId = UUID.randomUUID();
+
+        for (int i = 0; i < pending; i++) {
+            allocator.next(sessionId);
+        }
+        allocator.release(sessionId);
+        assertThat(allocator.heldSessions()).containsExactly(sessionId);
+        assertThat(allocator.awaitDrained(sessionId, Duration.ofMillis(10))).isFalse();
+
+        for (int i = 0; i < pending; i++) {
+            allocator.written(sessionId);
+        }
+        assertThat(allocator.heldSessions()).isEmpty();
+        assertThat(allocator.awaitDrained(sessionId, Duration.ZERO)).isTrue();
+    }
+
+    /**
+     * For any range written in a transaction, it is settled by the outcome of that transaction:
+     * a commit keeps it and a rollback hands it out again
+     */
+    @Property(tries = 50)
+    void rangesSettleWithTheirTransaction(@ForAll @IntRange(min = 0, max = 1000) int persistedMax,
+                                          @ForAll @IntRange(min = 1, max = 50) int size,
+                                          @ForAll boolean committed) {
+        SessionInteractionRepository repository = mock(SessionInteractionRepository.class);
+        when(repository.getNextSequenceNumber(any())).thenReturn(persistedMax + 1);
+        SessionSequenceAllocator allocator = new SessionSequenceAllocator(repository);
+        UUID sessionId = UUID.randomUUID();
+
+        int first = allocator.nextRange(sessionId, size);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            allocator.settleOnCompletion(sessionId, first, size);
+            assertThat(allocator.awaitDrained(sessionId, Duration.ZERO)).isFalse();
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(committed
+                        ? TransactionSynchronization.STATUS_COMMITTED
+                        : TransactionSynchronization.STATUS_ROLLED_BACK);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(allocator.awaitDrained(sessionId, Duration.ZERO)).isTrue();
+        assertThat(allocator.next(sessionId)).isEqualTo(committed ? first + size : first);
+    }
+
+    /**
+     * For any mix of single allocations and ranges, every range is contiguous and together they
+     * cover the numbers after the persisted maximum exactly once
+     */
+    @Property(tries = 50)
+    void rangesAreContiguousAndDisjoint(@ForAll @IntRange(min = 0, max = 500) int persistedMax,
+                                        @ForAll List<@IntRange(min = 1, max = 50) Integer> rangeSizes) {
+        SessionInteractionRepository repository = mock(SessionInteractionRepository.class);
+        when(repository.getNextSequenceNumber(any())).thenReturn(persistedMax + 1);
+        SessionSequenceAllocator allocator = new SessionSequenceAllocator(repository);
+        UUID sessionId = UUID.randomUUID();
+
+        int expected = persistedMax + 1;
+        for (int size : rangeSizes) {
+            int first = size == 1 ? allocator.next(sessionId) : allocator.nextRange(sessionId, size);
+            assertThat(first).isEqualTo(expected);
+            expected += size;
+        }
+        assertThat(allocator.next(sessionId)).isEqualTo(expected);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
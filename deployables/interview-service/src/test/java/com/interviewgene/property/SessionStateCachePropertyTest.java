@@ -0,0 +1,200 @@
+package com.interviewgene.property;
+
+import com.interviewgene.model.InterviewSession;
+import com.interviewgene.model.SessionStatus;
+import com.interviewgene.repository.SessionRepository;
+import com.interviewgene.service.CachedSession;
+import com.interviewgene.service.SessionOwnershipChangedEvent;
+import com.interviewgene.service.SessionOwnershipRing;
+import com.interviewgene.service.SessionStateCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.IntRange;
+import org.junit.jupiter.api.Tag;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Property-based tests for the live session state cache
+ */
+@Tag("Feature: interview-platform-microservices, Session State Cache")
+public class SessionStateCachePropertyTest {
+
+    /**
+     * For any number of lookups within the TTL, the session is read from the database once and
+     * every lookup sees the same state
+     */
+    @Property(tries = 50)
+    void lookupsWithinTheTtlHitMemory(@ForAll @IntRange(min = 1, max = 100) int lookups) {
+        SessionRepository repository = mock(SessionRepository.class);
+        InterviewSession session = session(SessionStatus.ACTIVE);
+        when(repository.findById(session.getSessionId())).thenReturn(Optional.of(session));
+        SessionStateCache cache = new SessionStateCache(repository, new SimpleMeterRegistry(), Duration.ofMinutes(5));
+
+        for (int i = 0; i < lookups; i++) {
+            CachedSession cached = cache.getOrLoad(session.getSessionId()).orElseThrow();
+            assertThat(cached.getStatus()).isEqualTo(SessionStatus.ACTIVE);
+            assertThat(cached.getInterviewerId()).isEqualTo(session.getInterviewerId());
+        }
+        verify(repository, times(1)).findById(session.getSessionId());
+        assertThat(cache.isWarm(session.getSessionId())).isTrue();
+    }
+
+    /**
+     * For any lifecycle status, finished sessions stay as tombstones that cannot be joined and live
+     * ones replace the cached state
+     */
+    @Property(tries = 50)
+    void finishedSessionsLeaveTombstones(@ForAll SessionStatus status) {
+        SessionStateCache cache = new SessionStateCache(mock(SessionRepository.class), new SimpleMeterRegistry(),
+                Duration.ofMinutes(5));
+        InterviewSession session = session(SessionStatus.ACTIVE);
+        cache.put(session);
+
+        session.setStatus(status);
+        session.setVersion(1L);
+        cache.put(session);
+
+        CachedSession cached = cache.getIfPresent(session.getSessionId()).orElseThrow();
+        assertThat(cached.getStatus()).isEqualTo(status);
+        assertThat(cached.canJoin()).isEqualTo(status == SessionStatus.SCHEDULED || status == SessionStatus.ACTIVE);
+    }
+
+    /**
+     * For any load that read the session before it finished, putting it afterwards keeps the newer
+     * finished state instead of bringing the session back to life
+     */
+    @Property(tries = 50)
+    void staleLoadsNeverReplaceNewerState(@ForAll @IntRange(min = 1, max = 5) int versionsAhead) {
+        SessionStateCache cache = new SessionStateCache(mock(SessionRepository.class), new SimpleMeterRegistry(),
+                Duration.ofMinutes(5));
+        InterviewSession stale = session(SessionStatus.ACTIVE);
+        InterviewSession finished = session(SessionStatus.COMPLETED);
+        finished.setSessionId(stale.getSessionId());
+        finished.setVersion((long) versionsAhead);
+        cache.put(finished);
+
+        CachedSession kept = cache.put(stale);
+
+        assertThat(kept.getStatus()).isEqualTo(SessionStatus.COMPLETED);
+        assertThat(cache.getIfPresent(stale.getSessionId()).orElseThrow().getVersion()).isEqualTo(versionsAhead);
+    }
+
+    /**
+     * For any metadata holding null values, the session is still cached with the metadata as stored
+     */
+    @Property(tries = 30)
+    void nullMetadataValuesAreCached(@ForAll @IntRange(min = 1, max = 10) int entries) {
+        SessionStateCache cache = new SessionStateCache(mock(SessionRepository.class), new SimpleMeterRegistry(),
+                Duration.ofMinutes(5));
+        InterviewSession session = session(SessionStatus.ACTIVE);
+        Map<String, String> metadata = new HashMap<>();
+        for (int i = 0; i < entries; i++) {
+            metadata.put("key-" + i, i % 2 == 0 ? null : "value-" + i);
+        }
+        session.setMetadata(metadata);
+
+        CachedSession cached = cache.put(session);
+
+        assertThat(cached.getMetadata()).isEqualTo(metadata);
+    }
+
+    /**
+     * For any tombstone or live entry past the TTL, the purge drops it
+     */
+    @Property(tries = 30)
+    void purgeDropsExpiredEntries(@ForAll SessionStatus status) {
+        SessionStateCache cache = new SessionStateCache(mock(SessionRepository.class), new SimpleMeterRegistry(),
+                Duration.ZERO);
+        InterviewSession session = session(status);
+        cache.put(session);
+
+        cache.purgeExpired();
+
+        assertThat(cache.getIfPresent(session.getSessionId())).isEmpty();
+    }
+
+    /**
+     * For any lifecycle change made in a transaction, the cache only sees it once the transaction
+     * commits, and never when it rolls back
+     */
+    @Property(tries = 50)
+    void updatesApplyOnlyAfterCommit(@ForAll boolean committed) {
+        SessionStateCache cache = new SessionStateCache(mock(SessionRepository.class), new SimpleMeterRegistry(),
+                Duration.ofMinutes(5));
+        InterviewSession session = session(SessionStatus.SCHEDULED);
+        cache.put(session);
+
+        InterviewSession started = session(SessionStatus.ACTIVE);
+        started.setSessionId(session.getSessionId());
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.update(started);
+            assertThat(cache.getIfPresent(session.getSessionId()).orElseThrow().getStatus())
+                    .isEqualTo(SessionStatus.SCHEDULED);
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                if (committed) {
+                    synchronization.afterCommit();
+                }
+                synchronization.afterCompletion(committed
+                        ? TransactionSynchronization.STATUS_COMMITTED
+                        : TransactionSynchronization.STATUS_ROLLED_BACK);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(cache.getIfPresent(session.getSessionId()).orElseThrow().getStatus())
+                .isEqualTo(committed ? SessionStatus.ACTIVE : SessionStatus.SCHEDULED);
+    }
+
+    /**
+     * For any rebalance, sessions that moved to another node are dropped and local ones are kept
+     */
+    @Property(tries = 50)
+    void rebalanceDropsSessionsThatMoved(@ForAll @IntRange(min = 1, max = 30) int sessions) {
+        SessionStateCache cache = new SessionStateCache(mock(SessionRepository.class), new SimpleMeterRegistry(),
+                Duration.ofMinutes(5));
+        SessionOwnershipRing ring = mock(SessionOwnershipRing.class);
+        List<UUID> local = new ArrayList<>();
+        List<UUID> moved = new ArrayList<>();
+        for (int i = 0; i < sessions; i++) {
+            InterviewSession session = session(SessionStatus.ACTIVE);
+            cache.put(session);
+            boolean isLocal = i % 2 == 0;
+            when(ring.isLocal(session.getSessionId())).thenReturn(isLocal);
+            (isLocal ? local : moved).add(session.getSessionId());
+        }
+
+        cache.onOwnershipChanged(new SessionOwnershipChangedEvent(ring, 2));
+
+        local.forEach(sessionId -> assertThat(cache.getIfPresent(sessionId)).isPresent());
+        moved.forEach(sessionId -> assertThat(cache.getIfPresent(sessionId)).isEmpty());
+    }
+
+    private static InterviewSession session(SessionStatus status) {
+        return InterviewSession.builder()
+                .sessionId(UUID.randomUUID())
+                .interviewerId(UUID.randomUUID())
+                .candidateId(UUID.randomUUID())
+                .status(status)
+                .scheduledTime(LocalDateTime.now().plusHours(1))
+                .version(0L)
+                .build();
+    }
+}
@@ -0,0 +1,63 @@
+package com.interviewgene.property;
+
+import com.interviewgene.service.RecentInteractionBuffer;
+import com.interviewgene.service.SchedulingIntervalIndex;
+import com.interviewgene.service.SessionObserverRegistry;
+import com.interviewgene.service.SessionSequenceAllocator;
+import com.interviewgene.service.SessionStateReleaser;
+import com.interviewgene.service.TypingIndicatorCoalescer;
+import net.jqwik.api.*;
+import org.junit.jupiter.api.Tag;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * Property-based tests for releasing the in-memory state of finished sessions
+ */
+@Tag("Feature: interview-platform-microservices, Session State Release")
+public class SessionStateReleaserPropertyTest {
+
+    /**
+     * For any release requested in a transaction, nothing is freed before the transaction commits,
+     * everything is freed once it does, and a rollback leaves the session state in place
+     */
+    @Property(tries = 20)
+    void stateIsReleasedOnlyAfterCommit(@ForAll boolean committed) {
+        SessionSequenceAllocator sequenceAllocator = mock(SessionSequenceAllocator.class);
+        RecentInteractionBuffer recentInteractions = mock(RecentInteractionBuffer.class);
+        TypingIndicatorCoalescer typingCoalescer = mock(TypingIndicatorCoalescer.class);
+        SessionObserverRegistry observerRegistry = mock(SessionObserverRegistry.class);
+        SessionStateReleaser releaser = new SessionStateReleaser(sequenceAllocator, recentInteractions,
+                typingCoalescer, observerRegistry, mock(SchedulingIntervalIndex.class));
+        UUID sessionId = UUID.randomUUID();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            releaser.release(sessionId);
+            verifyNoInteractions(sequenceAllocator, recentInteractions, typingCoalescer, observerRegistry);
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                if (committed) {
+                    synchronization.afterCommit();
+                }
+                synchronization.afterCompletion(committed
+                        ? TransactionSynchronization.STATUS_COMMITTED
+                        : TransactionSynchronization.STATUS_ROLLED_BACK);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        int releases = committed ? 1 : 0;
+        verify(sequenceAllocator, times(releases)).release(sessionId);
+        verify(recentInteractions, times(releases)).release(sessionId);
+        verify(typingCoalescer, times(releases)).release(sessionId);
+        verify(observerRegistry, times(releases)).release(sessionId);
+    }
+}
@@ -0,0 +1,133 @@
+package com.interviewgene.property;
+
+import com.interviewgene.common.exception.ResourceNotFoundException;
+import com.interviewgene.common.exception.ValidationException;
+import com.interviewgene.dto.SessionResponse;
+import com.interviewgene.model.InterviewSession;
+import com.interviewgene.model.SessionStatus;
+import com.interviewgene.model.SessionTransition;
+import com.interviewgene.repository.SessionRepository;
+import com.interviewgene.service.*;
+import net.jqwik.api.*;
+import org.junit.jupiter.api.Tag;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Property-based tests for guarded session lifecycle transitions
+ */
+@Tag("Feature: interview-platform-microservices, Session Lifecycle Transitions")
+public class SessionTransitionPropertyTest {
+
+    /**
+     * For any status and transition, the transition table accepts exactly the statuses the entity
+     * lifecycle rules accept, and moves the session to the same status as the entity helper
+     */
+    @Property(tries = 100)
+    void transitionTableMatchesEntityLifecycle(@ForAll SessionStatus status, @ForAll SessionTransition transition) {
+        InterviewSession session = InterviewSession.builder().status(status).build();
+
+        boolean allowed = switch (transition) {
+            case START -> session.canJoin();
+            case END, PAUSE -> session.isActive();
+            case CANCEL -> !session.isCompleted();
+        };
+        assertThat(transition.allows(status)).isEqualTo(allowed);
+
+        switch (transition) {
+            case START -> session.startSession();
+            case END -> session.endSession();
+            case PAUSE -> session.pauseSession();
+            case CANCEL -> session.cancelSession();
+        }
+        assertThat(session.getStatus()).isEqualTo(transition.getTarget());
+        assertThat(session.getStartTime() != null).isEqualTo(transition.stampsStart());
+        assertThat(session.getEndTime() != null).isEqualTo(transition.stampsEnd());
+    }
+
+    /**
+     * For any status, version and transition, a guarded update that matches returns the updated
+     * session, and one that matches nothing is explained precisely: a status the transition does
+     * not start from, or a stale expected version
+     */
+    @Property(tries = 200)
+    void rejectedTransitionsExplainWhy(@ForAll SessionStatus status,
+                                       @ForAll SessionTransition transition,
+                                       @ForAll("versions") long version,
+                                       @ForAll boolean staleVersion) {
+        UUID sessionId = UUID.randomUUID();
+        Long expectedVersion = staleVersion ? version + 1 : version;
+        boolean applies = transition.allows(status) && !staleVersion;
+
+        SessionRepository repository = mock(SessionRepository.class);
+        when(repository.transition(eq(sessionId), eq(transition.getFrom()), eq(transition.getTarget()),
+                any(), any(), any(), eq(expectedVersion))).thenReturn(applies ? 1 : 0);
+        SessionRepository.LifecycleState state = mock(SessionRepository.LifecycleState.class);
+        when(state.getStatus()).thenReturn(status);
+        when(state.getVersion()).thenReturn(version);
+        when(repository.findLifecycleStateBySessionId(sessionId)).thenReturn(Optional.of(state));
+        when(repository.findWithMetadataBySessionId(sessionId)).thenReturn(Optional.of(InterviewSession.builder()
+                .sessionId(sessionId)
+                .status(transition.getTarget())
+                .version(version + 1)
+                .build()));
+        SessionService service = serviceOver(repository);
+
+        if (applies) {
+            SessionResponse response = apply(service, transition, sessionId, expectedVersion);
+            assertThat(response.getStatus()).isEqualTo(transition.getTarget());
+            assertThat(response.getVersion()).isEqualTo(version + 1);
+        } else if (!transition.allows(status)) {
+            assertThatThrownBy(() -> apply(service, transition, sessionId, expectedVersion))
+                    .isInstanceOf(ValidationException.class)
+                    .hasMessage(transition.rejection(status));
+        } else {
+            assertThatThrownBy(() -> apply(service, transition, sessionId, expectedVersion))
+                    .isInstanceOf(ValidationException.class)
+                    .hasMessageContaining("is at version " + version);
+        }
+    }
+
+    /**
+     * For any transition, a session that does not exist is reported as not found
+     */
+    @Property(tries = 20)
+    void missingSessionsAreNotFound(@ForAll SessionTransition transition) {
+        UUID sessionId = UUID.randomUUID();
+        SessionRepository repository = mock(SessionRepository.class);
+        when(repository.findLifecycleStateBySessionId(sessionId)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> apply(serviceOver(repository), transition, sessionId, null))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Provide
+    Arbitrary<Long> versions() {
+        return Arbitraries.longs().between(0, 1_000);
+    }
+
+    private static SessionResponse apply(SessionService service, SessionTransition transition, UUID sessionId,
+                                         Long expectedVersion) {
+        return switch (transition) {
+            case START -> service.startSession(sessionId, expectedVersion);
+            case END -> service.endSession(sessionId, expectedVersion);
+            case PAUSE -> service.pauseSession(sessionId, expectedVersion);
+            case CANCEL -> service.cancelSession(sessionId, expectedVersion);
+        };
+    }
+
+    private static SessionService serviceOver(SessionRepository repository) {
+        return new SessionService(repository, mock(UserExistenceCache.class), mock(SessionOutbox.class),
+                mock(SessionSequenceAllocator.class), mock(SessionStateCache.class),
+                mock(SessionStateReleaser.class), mock(PresenceRegistry.class), mock(SessionExpirySweeper.class),
+                mock(SchedulingIntervalIndex.class));
+    }
+}
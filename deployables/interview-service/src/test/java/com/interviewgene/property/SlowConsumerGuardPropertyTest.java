@@ -0,0 +1,128 @@
+package com.interviewgene.property;
+
+import com.interviewgene.config.SlowConsumerGuard;
+import com.interviewgene.service.SessionBroadcastRelay;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.IntRange;
+import org.junit.jupiter.api.Tag;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Property-based tests for shedding low-priority frames to slow consumers
+ */
+@Tag("Feature: interview-platform-microservices, Slow Consumer Guard")
+public class SlowConsumerGuardPropertyTest {
+
+    private static final int SOFT_LIMIT = 8;
+
+    /**
+     * For any backlog, low-priority frames are dropped exactly while the connection holds at least
+     * the soft limit of unwritten frames, and normal frames are never dropped
+     */
+    @Property(tries = 100)
+    void lowPriorityFramesAreShedOnlyAboveTheSoftLimit(@ForAll @IntRange(min = 0, max = 40) int backlog,
+                                                       @ForAll SessionBroadcastRelay.Priority priority) throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        SlowConsumerGuard guard = new SlowConsumerGuard(meterRegistry, SOFT_LIMIT);
+        Connection connection = connect(guard);
+        for (int i = 0; i < backlog; i++) {
+            assertThat(guard.preSend(frame(connection.id, SessionBroadcastRelay.Priority.NORMAL), channel())).isNotNull();
+        }
+
+        Message<?> sent = guard.preSend(frame(connection.id, priority), channel());
+
+        boolean shed = backlog >= SOFT_LIMIT && priority == SessionBroadcastRelay.Priority.LOW;
+        assertThat(sent == null).isEqualTo(shed);
+        assertThat(meterRegistry.get("interview.realtime.outbound.dropped").counter().count()).isEqualTo(shed ? 1 : 0);
+        assertThat(meterRegistry.get("interview.realtime.outbound.slow_connections").gauge().value())
+                .isEqualTo(backlog >= SOFT_LIMIT ? 1 : 0);
+    }
+
+    /**
+     * For any slow connection, writing its backlog out to the socket lets low-priority frames
+     * through again and clears the slow-consumer gauge
+     */
+    @Property(tries = 50)
+    void catchingUpRestoresLowPriorityFrames(@ForAll @IntRange(min = SOFT_LIMIT, max = 40) int backlog) throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        SlowConsumerGuard guard = new SlowConsumerGuard(meterRegistry, SOFT_LIMIT);
+        Connection connection = connect(guard);
+        for (int i = 0; i < backlog; i++) {
+            guard.preSend(frame(connection.id, SessionBroadcastRelay.Priority.NORMAL), channel());
+        }
+        assertThat(guard.preSend(frame(connection.id, SessionBroadcastRelay.Priority.LOW), channel())).isNull();
+
+        for (int i = 0; i < backlog; i++) {
+            connection.counted.sendMessage(new TextMessage("frame"));
+        }
+
+        assertThat(guard.preSend(frame(connection.id, SessionBroadcastRelay.Priority.LOW), channel())).isNotNull();
+        assertThat(meterRegistry.get("interview.realtime.outbound.slow_connections").gauge().value()).isZero();
+        assertThat(meterRegistry.get("interview.realtime.outbound.slow_consumers").counter().count()).isEqualTo(1);
+    }
+
+    /**
+     * For any slow connection that closes, it no longer counts as slow and its frames are not tracked
+     */
+    @Property(tries = 50)
+    void closedConnectionsAreForgotten(@ForAll @IntRange(min = SOFT_LIMIT, max = 40) int backlog) throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        SlowConsumerGuard guard = new SlowConsumerGuard(meterRegistry, SOFT_LIMIT);
+        Connection connection = connect(guard);
+        for (int i = 0; i <= backlog; i++) {
+            guard.preSend(frame(connection.id, SessionBroadcastRelay.Priority.NORMAL), channel());
+        }
+
+        connection.handler.afterConnectionClosed(connection.session, CloseStatus.NORMAL);
+
+        assertThat(meterRegistry.get("interview.realtime.outbound.slow_connections").gauge().value()).isZero();
+        assertThat(guard.preSend(frame(connection.id, SessionBroadcastRelay.Priority.LOW), channel())).isNotNull();
+    }
+
+    private static Connection connect(SlowConsumerGuard guard) throws Exception {
+        WebSocketHandler delegate = mock(WebSocketHandler.class);
+        WebSocketHandler handler = guard.decorate(delegate);
+        WebSocketSession session = mock(WebSocketSession.class);
+        String id = UUID.randomUUID().toString();
+        when(session.getId()).thenReturn(id);
+        when(session.isOpen()).thenReturn(true);
+
+        handler.afterConnectionEstablished(session);
+        ArgumentCaptor<WebSocketSession> counted = ArgumentCaptor.forClass(WebSocketSession.class);
+        verify(delegate).afterConnectionEstablished(counted.capture());
+        return new Connection(id, handler, session, counted.getValue());
+    }
+
+    private static Message<byte[]> frame(String connectionId, SessionBroadcastRelay.Priority priority) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(connectionId);
+        if (priority != SessionBroadcastRelay.Priority.NORMAL) {
+            accessor.setHeader(SessionBroadcastRelay.PRIORITY_HEADER, priority);
+        }
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private static MessageChannel channel() {
+        return mock(MessageChannel.class);
+    }
+
+    private record Connection(String id, WebSocketHandler handler, WebSocketSession session, WebSocketSession counted) {
+    }
+}
@@ -0,0 +1,147 @@
+package com.interviewgene.property;
+
+import com.interviewgene.dto.InteractionMessage;
+import com.interviewgene.service.SessionBroadcastRelay;
+import com.interviewgene.service.SessionMailboxExecutor;
+import com.interviewgene.service.TypingIndicatorCoalescer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.IntRange;
+import net.jqwik.api.constraints.Size;
+import org.junit.jupiter.api.Tag;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Property-based tests for typing indicator coalescing
+ */
+@Tag("Feature: interview-platform-microservices, Typing Indicator Coalescing")
+public class TypingIndicatorCoalescingPropertyTest {
+
+    private static final Duration DEBOUNCE = Duration.ofMillis(750);
+    private static final Duration REFRESH = Duration.ofSeconds(3);
+    private static final Duration EXPIRY = Duration.ofSeconds(5);
+
+    /**
+     * For any burst of keystroke frames closer together than the expiry, only the first START and
+     * one keep-alive per refresh interval are broadcast
+     */
+    @Property(tries = 100)
+    void keystrokeBurstsCollapseToRefreshKeepAlives(@ForAll @Size(min = 1, max = 300) List<@IntRange(min = 20, max = 400) Integer> gapsMillis) {
+        RecordingRelay relay = new RecordingRelay();
+        TypingIndicatorCoalescer coalescer = coalescer(relay);
+        UUID sessionId = UUID.randomUUID();
+        UUID participantId = UUID.randomUUID();
+
+        long now = 0;
+        for (int gap : gapsMillis) {
+            now += TimeUnit.MILLISECONDS.toNanos(gap);
+            coalescer.onTyping(sessionId, participantId, true, now);
+        }
+
+        long burstNanos = now - TimeUnit.MILLISECONDS.toNanos(gapsMillis.get(0));
+        long maxFrames = burstNanos / REFRESH.toNanos() + 1;
+        assertThat(relay.frames).hasSizeLessThanOrEqualTo((int) maxFrames);
+        assertThat(relay.frames).allMatch(frame -> frame.getAction() == InteractionMessage.MessageAction.TYPING_START);
+        assertThat(relay.frames).allMatch(frame -> frame.getMessageId() == null);
+    }
+
+    /**
+     * For any number of repeated STOP frames, at most one TYPING_STOP is broadcast, and only after
+     * the debounce window
+     */
+    @Property(tries = 100)
+    void repeatedStopsAreDebouncedIntoOne(@ForAll @IntRange(min = 1, max = 50) int stops) {
+        RecordingRelay relay = new RecordingRelay();
+        TypingIndicatorCoalescer coalescer = coalescer(relay);
+        UUID sessionId = UUID.randomUUID();
+        UUID participantId = UUID.randomUUID();
+
+        coalescer.onTyping(sessionId, participantId, true, 0);
+        for (int i = 1; i <= stops; i++) {
+            coalescer.onTyping(sessionId, participantId, false, TimeUnit.MILLISECONDS.toNanos(i));
+        }
+        coalescer.sweep(TimeUnit.MILLISECONDS.toNanos(stops));
+        assertThat(relay.frames).hasSize(1);
+
+        coalescer.sweep(TimeUnit.MILLISECONDS.toNanos(1) + DEBOUNCE.toNanos());
+        coalescer.sweep(EXPIRY.toNanos() * 2);
+        assertThat(relay.frames).extracting(InteractionMessage::getAction).containsExactly(
+                InteractionMessage.MessageAction.TYPING_START, InteractionMessage.MessageAction.TYPING_STOP);
+    }
+
+    /**
+     * For any START that follows a STOP within the debounce window, the indicator never flaps
+     */
+    @Property(tries = 100)
+    void resumingWithinDebounceCancelsTheStop(@ForAll @IntRange(min = 1, max = 749) int resumeAfterMillis) {
+        RecordingRelay relay = new RecordingRelay();
+        TypingIndicatorCoalescer coalescer = coalescer(relay);
+        UUID sessionId = UUID.randomUUID();
+        UUID participantId = UUID.randomUUID();
+
+        coalescer.onTyping(sessionId, participantId, true, 0);
+        coalescer.onTyping(sessionId, participantId, false, 1);
+        coalescer.onTyping(sessionId, participantId, true, TimeUnit.MILLISECONDS.toNanos(resumeAfterMillis));
+        coalescer.sweep(DEBOUNCE.toNanos() + 1);
+
+        assertThat(relay.frames).extracting(InteractionMessage::getAction)
+                .containsExactly(InteractionMessage.MessageAction.TYPING_START);
+    }
+
+    /**
+     * For any participant who goes silent while typing, a single TYPING_STOP is broadcast once the
+     * expiry has passed
+     */
+    @Property(tries = 50)
+    void silentParticipantsExpire(@ForAll @IntRange(min = 0, max = 4999) int sweepBeforeExpiryMillis) {
+        RecordingRelay relay = new RecordingRelay();
+        TypingIndicatorCoalescer coalescer = coalescer(relay);
+        UUID sessionId = UUID.randomUUID();
+        UUID participantId = UUID.randomUUID();
+
+        coalescer.onTyping(sessionId, participantId, true, 0);
+        coalescer.sweep(TimeUnit.MILLISECONDS.toNanos(sweepBeforeExpiryMillis));
+        assertThat(relay.frames).hasSize(1);
+
+        coalescer.sweep(EXPIRY.toNanos());
+        coalescer.sweep(EXPIRY.toNanos() + 1);
+        assertThat(relay.frames).extracting(InteractionMessage::getAction).containsExactly(
+                InteractionMessage.MessageAction.TYPING_START, InteractionMessage.MessageAction.TYPING_STOP);
+    }
+
+    private static TypingIndicatorCoalescer coalescer(SessionBroadcastRelay relay) {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        SessionMailboxExecutor inline = new SessionMailboxExecutor(
+                meterRegistry, new StandardEnvironment(), false, 0, 64);
+        return new TypingIndicatorCoalescer(relay, inline, meterRegistry, true, DEBOUNCE, REFRESH, EXPIRY);
+    }
+
+    private static final class RecordingRelay implements SessionBroadcastRelay {
+        private final List<InteractionMessage> frames = new ArrayList<>();
+
+        @Override
+        public void broadcast(UUID sessionId, String destination, Object payload, Priority priority) {
+            frames.add((InteractionMessage) payload);
+        }
+
+        @Override
+        public void sendToUser(UUID sessionId, UUID userId, String destination, Object payload) {
+            frames.add((InteractionMessage) payload);
+        }
+
+        @Override
+        public void fanOut(UUID sessionId, String topicDestination, Collection<UUID> userIds,
+                           String userDestination, Object payload, Priority priority) {
+            frames.add((InteractionMessage) payload);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.interviewgene.property;
+
+import com.interviewgene.client.UserServiceClient;
+import com.interviewgene.service.UserBatchLookup;
+import com.interviewgene.service.UserExistenceCache;
+import feign.FeignException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.IntRange;
+import org.junit.jupiter.api.Tag;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Property-based tests for cached, coalesced participant lookups
+ */
+@Tag("Feature: interview-platform-microservices, User Existence Cache")
+public class UserExistenceCachePropertyTest {
+
+    /**
+     * For any number of concurrent checks of the same uncached user, user-service is asked once
+     * and every caller gets its answer
+     */
+    @Property(tries = 20)
+    void concurrentChecksShareOneLookup(@ForAll @IntRange(min = 2, max = 20) int callers) throws Exception {
+        UUID userId = UUID.randomUUID();
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        UserServiceClient client = mock(UserServiceClient.class);
+        doAnswer(invocation -> {
+            calls.incrementAndGet();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(client).getUser(anyString());
+        UserExistenceCache cache = cache(client, null);
+
+        List<CompletableFuture<Boolean>> answers = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            answers.add(cache.exists(userId));
+        }
+        release.countDown();
+
+        for (CompletableFuture<Boolean> answer : answers) {
+            assertThat(answer.get(5, TimeUnit.SECONDS)).isTrue();
+        }
+        assertThat(calls).hasValue(1);
+        assertThat(cache.existAll(List.of(userId))).containsEntry(userId, true);
+        assertThat(calls).hasValue(1);
+        cache.stop();
+    }
+
+    /**
+     * For any set of users, the uncached ones are looked up concurrently rather than one after
+     * another
+     */
+    @Property(tries = 20)
+    void missesAreLookedUpInParallel(@ForAll @IntRange(min = 2, max = 6) int users) {
+        CountDownLatch allStarted = new CountDownLatch(users);
+        UserServiceClient client = mock(UserServiceClient.class);
+        doAnswer(invocation -> {
+            allStarted.countDown();
+            // Only returns once every lookup is running at the same time
+            if (!allStarted.await(5, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("lookups ran sequentially");
+            }
+            return null;
+        }).when(client).getUser(anyString());
+        UserExistenceCache cache = cache(client, null);
+
+        List<UUID> userIds = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            userIds.add(UUID.randomUUID());
+        }
+        assertThat(cache.allExist(userIds)).isTrue();
+        cache.stop();
+    }
+
+    /**
+     * For any user, a user-service "not found" is cached as a negative answer, while any other
+     * lookup failure is reported and retried on the next check
+     */
+    @Property(tries = 20)
+    void notFoundIsCachedAndFailuresAreNot(@ForAll boolean missing) {
+        UUID userId = UUID.randomUUID();
+        UserServiceClient client = mock(UserServiceClient.class);
+        RuntimeException failure = missing ? mock(FeignException.NotFound.class) : new IllegalStateException("timeout");
+        doAnswer(invocation -> {
+            throw failure;
+        }).when(client).getUser(anyString());
+        UserExistenceCache cache = cache(client, null);
+
+        if (missing) {
+            assertThat(cache.allExist(List.of(userId))).isFalse();
+            assertThat(cache.allExist(List.of(userId))).isFalse();
+            verify(client, times(1)).getUser(userId.toString());
+        } else {
+            assertThatThrownBy(() -> cache.allExist(List.of(userId))).isSameAs(failure);
+            assertThatThrownBy(() -> cache.allExist(List.of(userId))).isSameAs(failure);
+            verify(client, times(2)).getUser(userId.toString());
+        }
+        cache.stop();
+    }
+
+    /**
+     * For any set of users, a registered batch lookup resolves all misses with one call and
+     * user-service is not asked user by user
+     */
+    @Property(tries = 20)
+    void batchLookupResolvesMissesInOneCall(@ForAll @IntRange(min = 2, max = 30) int users) {
+        List<UUID> userIds = new ArrayList<>();
+        Set<UUID> existing = new HashSet<>();
+        for (int i = 0; i < users; i++) {
+            UUID userId = UUID.randomUUID();
+            userIds.add(userId);
+            if (i % 3 != 0) {
+                existing.add(userId);
+            }
+        }
+        AtomicInteger batches = new AtomicInteger();
+        UserBatchLookup batch = requested -> {
+            batches.incrementAndGet();
+            Set<UUID> found = new HashSet<>(requested);
+            found.retainAll(existing);
+            return found;
+        };
+        UserServiceClient client = mock(UserServiceClient.class);
+        UserExistenceCache cache = cache(client, batch);
+
+        Map<UUID, Boolean> answers = cache.existAll(userIds);
+        assertThat(answers).hasSize(users);
+        userIds.forEach(userId -> assertThat(answers.get(userId)).isEqualTo(existing.contains(userId)));
+        assertThat(batches).hasValue(1);
+        verify(client, never()).getUser(any());
+
+        cache.existAll(userIds);
+        assertThat(batches).hasValue(1);
+        cache.stop();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static UserExistenceCache cache(UserServiceClient client, UserBatchLookup batch) {
+        ObjectProvider<UserBatchLookup> batchLookup = mock(ObjectProvider.class);
+        when(batchLookup.getIfAvailable()).thenReturn(batch);
+        return new UserExistenceCache(client, batchLookup, new SimpleMeterRegistry(), new MockEnvironment(),
+                Duration.ofMinutes(10), Duration.ofSeconds(30), 1_000, Duration.ofSeconds(10), 8);
+    }
+}
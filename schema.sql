@@ -237,7 +237,11 @@ CREATE TABLE IF NOT EXISTS `interview_sessions` (
   `updated_at` TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
   `created_by` CHAR(36),
   `updated_by` CHAR(36),
-  `version` BIGINT
+  `version` BIGINT,
+  KEY `idx_interview_sessions_scheduled_time` (`scheduled_time`),
+  KEY `idx_interview_sessions_status_created` (`status`, `created_at`, `session_id`),
+  KEY `idx_interview_sessions_interviewer_created` (`interviewer_id`, `created_at`, `session_id`),
+  KEY `idx_interview_sessions_candidate_created` (`candidate_id`, `created_at`, `session_id`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
 CREATE TABLE IF NOT EXISTS `session_metadata` (
@@ -256,13 +260,28 @@ CREATE TABLE IF NOT EXISTS `session_interactions` (
   `sequence_number` INTEGER,
   `duration_seconds` INTEGER,
   `created_by` CHAR(36),
-  `version` BIGINT
+  `version` BIGINT,
+  UNIQUE KEY `uk_session_interactions_sequence` (`session_id`, `sequence_number`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
 CREATE TABLE IF NOT EXISTS `interaction_metadata` (
   `interaction_id` CHAR(36),
   `metadata_key` VARCHAR(100),
-  `metadata_value` VARCHAR(255)
+  `metadata_value` VARCHAR(255),
+  KEY `idx_interaction_metadata_interaction` (`interaction_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE IF NOT EXISTS `session_outbox` (
+  `event_id` CHAR(36) PRIMARY KEY,
+  `session_id` CHAR(36) NOT NULL,
+  `event_type` VARCHAR(50) NOT NULL,
+  `payload` TEXT NOT NULL,
+  `created_at` TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+  `published_at` TIMESTAMP(6) NULL,
+  `attempts` INTEGER NOT NULL DEFAULT 0,
+  `last_error` VARCHAR(500),
+  KEY `idx_session_outbox_pending` (`published_at`, `created_at`),
+  KEY `idx_session_outbox_session` (`session_id`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
 --- 